@@ -47,6 +47,7 @@ import org.apache.camel.spi.EndpointStrategy;
 import org.apache.camel.spi.ExecutorServiceManager;
 import org.apache.camel.spi.FactoryFinder;
 import org.apache.camel.spi.FactoryFinderResolver;
+import org.apache.camel.spi.HeadersMapFactory;
 import org.apache.camel.spi.InflightRepository;
 import org.apache.camel.spi.Injector;
 import org.apache.camel.spi.InterceptStrategy;
@@ -1473,6 +1474,21 @@ public interface CamelContext extends SuspendableService, RuntimeConfiguration {
      */
     void setUuidGenerator(UuidGenerator uuidGenerator);
 
+    /**
+     * Gets the current {@link HeadersMapFactory}
+     *
+     * @return the factory
+     */
+    HeadersMapFactory getHeadersMapFactory();
+
+    /**
+     * Sets a custom {@link HeadersMapFactory} to control which {@link java.util.Map} implementation
+     * is used for storing message headers.
+     *
+     * @param factory the factory
+     */
+    void setHeadersMapFactory(HeadersMapFactory factory);
+
     /**
      * Whether or not type converters should be loaded lazy
      *
@@ -1543,6 +1559,25 @@ public interface CamelContext extends SuspendableService, RuntimeConfiguration {
      */
     void setUseBreadcrumb(Boolean useBreadcrumb);
 
+    /**
+     * Whether or not copy on write of message headers and exchange properties is enabled.
+     *
+     * @return <tt>true</tt> if copy on write is enabled
+     */
+    Boolean isCopyOnWriteHeaders();
+
+    /**
+     * Set whether copy on write of message headers and exchange properties is enabled.
+     * <p/>
+     * When enabled, copying a message or exchange (such as done by the pipeline, multicast and wire tap EIPs)
+     * shares the headers and properties with the copy until either of them modifies them.
+     * This reduces the number of objects being created when routing messages through long routes.
+     * This option is by default disabled.
+     *
+     * @param copyOnWriteHeaders <tt>true</tt> to enable copy on write, <tt>false</tt> to disable
+     */
+    void setCopyOnWriteHeaders(Boolean copyOnWriteHeaders);
+
     /**
      * Resolves a component's default name from its java type.
      * <p/>
@@ -16,13 +16,16 @@
  */
 package org.apache.camel;
 
+import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import org.apache.camel.spi.Synchronization;
+import org.apache.camel.support.CompletableFutureSynchronization;
 
 /**
  * Template for working with Camel and sending {@link Message} instances in an
@@ -309,6 +312,44 @@ public interface ProducerTemplate extends Service {
      */
     Exchange send(Endpoint endpoint, ExchangePattern pattern, Processor processor);
 
+    /**
+     * Sends the exchanges to the given endpoint as a batch, where the producer is only acquired once
+     * and used to send all the exchanges one by one.
+     * <br/><br/>
+     * <p/><b>Notice:</b> that if the processing of an exchange failed with an Exception
+     * it is <b>not</b> thrown from this method, but you can access it from the exchange using
+     * {@link org.apache.camel.Exchange#getException()}.
+     * <p/>
+     * The default implementation sends the exchanges one by one using {@link #send(String, Exchange)}.
+     *
+     * @param endpointUri the endpoint URI to send the exchanges to
+     * @param exchanges   the exchanges to send
+     */
+    default void sendBatch(String endpointUri, Collection<? extends Exchange> exchanges) {
+        for (Exchange exchange : exchanges) {
+            send(endpointUri, exchange);
+        }
+    }
+
+    /**
+     * Sends the exchanges to the given endpoint as a batch, where the producer is only acquired once
+     * and used to send all the exchanges one by one.
+     * <br/><br/>
+     * <p/><b>Notice:</b> that if the processing of an exchange failed with an Exception
+     * it is <b>not</b> thrown from this method, but you can access it from the exchange using
+     * {@link org.apache.camel.Exchange#getException()}.
+     * <p/>
+     * The default implementation sends the exchanges one by one using {@link #send(Endpoint, Exchange)}.
+     *
+     * @param endpoint  the endpoint to send the exchanges to
+     * @param exchanges the exchanges to send
+     */
+    default void sendBatch(Endpoint endpoint, Collection<? extends Exchange> exchanges) {
+        for (Exchange exchange : exchanges) {
+            send(endpoint, exchange);
+        }
+    }
+
     /**
      * Send the body to an endpoint
      * <br/><br/>
@@ -869,6 +910,35 @@ public interface ProducerTemplate extends Service {
      */
     void setExecutorService(ExecutorService executorService);
 
+    /**
+     * Sets whether the asynchronous methods should send the message using the asynchronous routing engine,
+     * and complete the returned future when the {@link AsyncCallback} is invoked, instead of using a thread
+     * from the executor service which is blocked while the message is being sent.
+     * <p/>
+     * This allows asynchronous producers (such as netty4 or http4) to send many messages without a thread
+     * being blocked per message. Notice that the message is sent by the caller thread, and therefore the caller
+     * thread is used until the routing continues asynchronously, or completes synchronously. Cancelling the
+     * returned future does not interrupt the routing of the message.
+     * <p/>
+     * By default this is disabled.
+     *
+     * @param asyncNonBlocking <tt>true</tt> to use the asynchronous routing engine
+     */
+    default void setAsyncNonBlocking(boolean asyncNonBlocking) {
+        if (asyncNonBlocking) {
+            throw new UnsupportedOperationException("AsyncNonBlocking is not supported by " + getClass().getName());
+        }
+    }
+
+    /**
+     * Whether the asynchronous methods should send the message using the asynchronous routing engine.
+     *
+     * @return <tt>true</tt> if enabled, <tt>false</tt> otherwise
+     */
+    default boolean isAsyncNonBlocking() {
+        return false;
+    }
+
     /**
      * Sends an asynchronous exchange to the given endpoint.
      *
@@ -1181,4 +1251,145 @@ public interface ProducerTemplate extends Service {
      */
     Future<Object> asyncCallbackRequestBody(Endpoint endpoint, Object body, Synchronization onCompletion);
 
+    // Asynchronous methods with completable future
+    // -----------------------------------------------------------------------
+
+    /**
+     * Sends an asynchronous exchange to the given endpoint.
+     *
+     * @param endpointUri the endpoint URI to send the exchange to
+     * @param exchange    the exchange to send
+     * @return a future which is completed with the response
+     */
+    default CompletableFuture<Exchange> completableSend(String endpointUri, Exchange exchange) {
+        CompletableFutureSynchronization<Exchange> sync = CompletableFutureSynchronization.forExchange();
+        asyncCallback(endpointUri, exchange, sync);
+        return sync.getFuture();
+    }
+
+    /**
+     * Sends an asynchronous exchange to the given endpoint.
+     *
+     * @param endpointUri the endpoint URI to send the exchange to
+     * @param processor   the transformer used to populate the new exchange
+     * @return a future which is completed with the response
+     */
+    default CompletableFuture<Exchange> completableSend(String endpointUri, Processor processor) {
+        CompletableFutureSynchronization<Exchange> sync = CompletableFutureSynchronization.forExchange();
+        asyncCallback(endpointUri, processor, sync);
+        return sync.getFuture();
+    }
+
+    /**
+     * Sends an asynchronous body to the given endpoint.
+     * Uses an {@link ExchangePattern#InOnly} message exchange pattern.
+     *
+     * @param endpointUri the endpoint URI to send the exchange to
+     * @param body        the body to send
+     * @return a future which is completed with the response
+     */
+    default CompletableFuture<Object> completableSendBody(String endpointUri, Object body) {
+        CompletableFutureSynchronization<Object> sync = CompletableFutureSynchronization.forBody(ExchangePattern.InOnly, Object.class);
+        asyncCallbackSendBody(endpointUri, body, sync);
+        return sync.getFuture();
+    }
+
+    /**
+     * Sends an asynchronous body to the given endpoint.
+     * Uses an {@link ExchangePattern#InOut} message exchange pattern.
+     *
+     * @param endpointUri the endpoint URI to send the exchange to
+     * @param body        the body to send
+     * @return a future which is completed with the response
+     */
+    default CompletableFuture<Object> completableRequestBody(String endpointUri, Object body) {
+        CompletableFutureSynchronization<Object> sync = CompletableFutureSynchronization.forBody(ExchangePattern.InOut, Object.class);
+        asyncCallbackRequestBody(endpointUri, body, sync);
+        return sync.getFuture();
+    }
+
+    /**
+     * Sends an asynchronous body to the given endpoint.
+     * Uses an {@link ExchangePattern#InOut} message exchange pattern.
+     *
+     * @param endpointUri the endpoint URI to send the exchange to
+     * @param body        the body to send
+     * @param type        the expected response type
+     * @return a future which is completed with the response
+     */
+    default <T> CompletableFuture<T> completableRequestBody(String endpointUri, Object body, Class<T> type) {
+        CompletableFutureSynchronization<T> sync = CompletableFutureSynchronization.forBody(ExchangePattern.InOut, type);
+        asyncCallbackRequestBody(endpointUri, body, sync);
+        return sync.getFuture();
+    }
+
+    /**
+     * Sends an asynchronous exchange to the given endpoint.
+     *
+     * @param endpoint    the endpoint to send the exchange to
+     * @param exchange    the exchange to send
+     * @return a future which is completed with the response
+     */
+    default CompletableFuture<Exchange> completableSend(Endpoint endpoint, Exchange exchange) {
+        CompletableFutureSynchronization<Exchange> sync = CompletableFutureSynchronization.forExchange();
+        asyncCallback(endpoint, exchange, sync);
+        return sync.getFuture();
+    }
+
+    /**
+     * Sends an asynchronous exchange to the given endpoint.
+     *
+     * @param endpoint    the endpoint to send the exchange to
+     * @param processor   the transformer used to populate the new exchange
+     * @return a future which is completed with the response
+     */
+    default CompletableFuture<Exchange> completableSend(Endpoint endpoint, Processor processor) {
+        CompletableFutureSynchronization<Exchange> sync = CompletableFutureSynchronization.forExchange();
+        asyncCallback(endpoint, processor, sync);
+        return sync.getFuture();
+    }
+
+    /**
+     * Sends an asynchronous body to the given endpoint.
+     * Uses an {@link ExchangePattern#InOnly} message exchange pattern.
+     *
+     * @param endpoint    the endpoint to send the exchange to
+     * @param body        the body to send
+     * @return a future which is completed with the response
+     */
+    default CompletableFuture<Object> completableSendBody(Endpoint endpoint, Object body) {
+        CompletableFutureSynchronization<Object> sync = CompletableFutureSynchronization.forBody(ExchangePattern.InOnly, Object.class);
+        asyncCallbackSendBody(endpoint, body, sync);
+        return sync.getFuture();
+    }
+
+    /**
+     * Sends an asynchronous body to the given endpoint.
+     * Uses an {@link ExchangePattern#InOut} message exchange pattern.
+     *
+     * @param endpoint    the endpoint to send the exchange to
+     * @param body        the body to send
+     * @return a future which is completed with the response
+     */
+    default CompletableFuture<Object> completableRequestBody(Endpoint endpoint, Object body) {
+        CompletableFutureSynchronization<Object> sync = CompletableFutureSynchronization.forBody(ExchangePattern.InOut, Object.class);
+        asyncCallbackRequestBody(endpoint, body, sync);
+        return sync.getFuture();
+    }
+
+    /**
+     * Sends an asynchronous body to the given endpoint.
+     * Uses an {@link ExchangePattern#InOut} message exchange pattern.
+     *
+     * @param endpoint    the endpoint to send the exchange to
+     * @param body        the body to send
+     * @param type        the expected response type
+     * @return a future which is completed with the response
+     */
+    default <T> CompletableFuture<T> completableRequestBody(Endpoint endpoint, Object body, Class<T> type) {
+        CompletableFutureSynchronization<T> sync = CompletableFutureSynchronization.forBody(ExchangePattern.InOut, type);
+        asyncCallbackRequestBody(endpoint, body, sync);
+        return sync.getFuture();
+    }
+
 }
@@ -149,6 +149,17 @@ public final class CamelOpenMBeanTypes {
                 new OpenType[]{SimpleType.STRING, SimpleType.STRING, SimpleType.STRING, SimpleType.STRING, SimpleType.STRING, SimpleType.STRING});
     }
 
+    public static TabularType listAwaitRoutesTabularType() throws OpenDataException {
+        CompositeType ct = listAwaitRoutesCompositeType();
+        return new TabularType("listAwaitRoutes", "Lists utilization statistics of routes which has blocked threads by the routing engine", ct, new String[]{"routeId"});
+    }
+
+    public static CompositeType listAwaitRoutesCompositeType() throws OpenDataException {
+        return new CompositeType("routes", "Routes", new String[]{"routeId", "threadsBlocked", "totalDuration", "maxDuration", "meanDuration"},
+                new String[]{"RouteId", "Threads blocked", "Total duration", "Max duration", "Mean duration"},
+                new OpenType[]{SimpleType.STRING, SimpleType.LONG, SimpleType.LONG, SimpleType.LONG, SimpleType.LONG});
+    }
+
     public static TabularType listEipsTabularType() throws OpenDataException {
         CompositeType ct = listEipsCompositeType();
         return new TabularType("listEips", "Lists all the EIPs", ct, new String[]{"name"});
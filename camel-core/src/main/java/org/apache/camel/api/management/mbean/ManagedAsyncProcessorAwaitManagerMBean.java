@@ -56,6 +56,9 @@ public interface ManagedAsyncProcessorAwaitManagerMBean extends ManagedServiceMB
     @ManagedAttribute(description = "The average wait time in msec.")
     long getMeanDuration();
 
+    @ManagedOperation(description = "Lists the utilization statistics of the routes which has blocked threads awaiting for other threads to trigger the callback")
+    TabularData browseRouteStatistics();
+
     @ManagedOperation(description = "Resets the statistics")
     void resetStatistics();
 
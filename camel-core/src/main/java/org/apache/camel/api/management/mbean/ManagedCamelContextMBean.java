@@ -127,6 +127,9 @@ public interface ManagedCamelContextMBean extends ManagedPerformanceCounterMBean
     @ManagedAttribute(description = "Whether breadcrumbs is in use")
     boolean isUseBreadcrumb();
 
+    @ManagedAttribute(description = "Whether copy on write of message headers and exchange properties is enabled")
+    boolean isCopyOnWriteHeaders();
+
     @ManagedAttribute(description = "Whether allowing access to the original message during routing")
     boolean isAllowUseOriginalMessage();
 
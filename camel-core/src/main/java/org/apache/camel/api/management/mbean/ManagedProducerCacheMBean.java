@@ -39,6 +39,24 @@ public interface ManagedProducerCacheMBean extends ManagedServiceMBean {
     @ManagedAttribute(description = "Cache evicted")
     Long getEvicted();
 
+    @ManagedAttribute(description = "Number of resolved endpoints cached")
+    Integer getEndpointCacheSize();
+
+    @ManagedAttribute(description = "Resolved endpoints cache hits")
+    Long getEndpointCacheHits();
+
+    @ManagedAttribute(description = "Resolved endpoints cache misses")
+    Long getEndpointCacheMisses();
+
+    @ManagedAttribute(description = "Number of times a producer has been acquired")
+    Long getAcquireCounter();
+
+    @ManagedAttribute(description = "Mean time in nanos to acquire a producer")
+    Long getMeanAcquireTime();
+
+    @ManagedAttribute(description = "Max time in nanos to acquire a producer")
+    Long getMaxAcquireTime();
+
     @ManagedOperation(description = "Reset cache statistics")
     void resetStatistics();
 
@@ -55,6 +55,12 @@ public interface ManagedStreamCachingStrategyMBean extends ManagedServiceMBean {
     @ManagedAttribute(description = "Buffer size in bytes to use when coping between buffers")
     int getBufferSize();
 
+    @ManagedAttribute(description = "Whether in-memory stream caches use a pool of direct buffers")
+    boolean isBufferPoolEnabled();
+
+    @ManagedAttribute(description = "Maximum number of direct buffers in the buffer pool")
+    int getBufferPoolSize();
+
     @ManagedAttribute(description = "Whether to remove spool directory when stopping")
     void setRemoveSpoolDirectoryWhenStopping(boolean remove);
 
@@ -85,6 +91,21 @@ public interface ManagedStreamCachingStrategyMBean extends ManagedServiceMBean {
     @ManagedAttribute(description = "Average number of bytes per cached stream for spooled (not in-memory) stream caches.")
     long getCacheSpoolAverageSize();
 
+    @ManagedAttribute(description = "Number of direct buffers allocated by the buffer pool")
+    long getBufferPoolAllocatedCounter();
+
+    @ManagedAttribute(description = "Number of buffers reused from the buffer pool")
+    long getBufferPoolReusedCounter();
+
+    @ManagedAttribute(description = "Number of heap buffers allocated because the buffer pool was exhausted")
+    long getBufferPoolOverflowCounter();
+
+    @ManagedAttribute(description = "Number of pooled buffers currently in use by stream caches")
+    long getBufferPoolInUse();
+
+    @ManagedAttribute(description = "Number of pooled buffers currently idle in the buffer pool")
+    long getBufferPoolIdle();
+
     @ManagedAttribute(description = "Whether utilization statistics is enabled")
     boolean isStatisticsEnabled();
 
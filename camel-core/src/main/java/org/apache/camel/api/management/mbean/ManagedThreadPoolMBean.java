@@ -66,6 +66,12 @@ public interface ManagedThreadPoolMBean {
     @ManagedAttribute(description = "Completed task count")
     long getCompletedTaskCount();
 
+    @ManagedAttribute(description = "Number of tasks which are queued or being processed")
+    long getInflightTaskCount();
+
+    @ManagedAttribute(description = "Whether the tasks are running on virtual threads")
+    boolean isVirtualThreads();
+
     @ManagedAttribute(description = "Task queue size")
     long getTaskQueueSize();
 
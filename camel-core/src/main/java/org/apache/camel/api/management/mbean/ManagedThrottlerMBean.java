@@ -41,4 +41,16 @@ public interface ManagedThrottlerMBean extends ManagedProcessorMBean {
     @ManagedAttribute(description = "Whether or not throttler throws the ThrottlerRejectedExecutionException when the exchange exceeds the request limit")
     Boolean isRejectExecution();
 
+    @ManagedAttribute(description = "Whether or not the throttler uses a token bucket instead of permits which are delayed for the time period")
+    Boolean isTokenBucket();
+
+    @ManagedAttribute(description = "Number of exchanges which has acquired a permit to continue routing")
+    long getAcquiredCount();
+
+    @ManagedAttribute(description = "Number of exchanges which has been rejected because the throttle rate was exceeded")
+    long getRejectedCount();
+
+    @ManagedAttribute(description = "Number of exchanges currently waiting for a permit")
+    long getWaitingCount();
+
 }
\ No newline at end of file
@@ -38,6 +38,15 @@ public interface ManagedTypeConverterRegistryMBean extends ManagedServiceMBean {
     @ManagedAttribute(description = "Number of type conversion failures (failed conversions)")
     long getFailedCounter();
 
+    @ManagedAttribute(description = "Number of type conversion attempts where the type converter was found in the fast lookup cache")
+    long getCacheHitCounter();
+
+    @ManagedAttribute(description = "Number of type conversion attempts where the type converter was not found in the fast lookup cache")
+    long getCacheMissCounter();
+
+    @ManagedAttribute(description = "Ratio of type conversion attempts where the type converter was found in the fast lookup cache")
+    double getCacheHitRatio();
+
     @ManagedOperation(description = "Resets the type conversion counters")
     void resetTypeConversionCounters();
 
@@ -18,18 +18,33 @@ package org.apache.camel.component.file;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
 import org.apache.camel.util.FileUtil;
+import org.apache.camel.util.IOHelper;
 import org.apache.camel.util.ObjectHelper;
+import org.apache.camel.util.StopWatch;
+import org.apache.camel.util.TimeUtils;
 
 /**
  * File consumer.
@@ -38,6 +53,8 @@ public class FileConsumer extends GenericFileConsumer<File> {
 
     private String endpointPath;
     private Set<String> extendedAttributes;
+    private ExecutorService executorService;
+    private final AtomicInteger pendingConcurrentExchanges = new AtomicInteger();
 
     public FileConsumer(FileEndpoint endpoint, Processor processor, GenericFileOperations<File> operations) {
         super(endpoint, processor, operations);
@@ -52,6 +69,25 @@ public class FileConsumer extends GenericFileConsumer<File> {
         }
     }
 
+    @Override
+    public int getPendingExchangesSize() {
+        int answer = super.getPendingExchangesSize();
+        if (executorService != null && isBatchAllowed()) {
+            // the files in the work queue of the concurrent consumers are pending as well
+            answer = Math.max(answer, pendingConcurrentExchanges.get());
+        }
+        return answer;
+    }
+
+    @Override
+    protected int poll() throws Exception {
+        // use concurrent polling unless we are doing custom processing (such as browsing the files)
+        if (executorService != null && customProcessor == null) {
+            return pollConcurrently();
+        }
+        return super.poll();
+    }
+
     @Override
     protected boolean pollDirectory(String fileName, List<GenericFile<File>> fileList, int depth) {
         log.trace("pollDirectory from fileName: {}", fileName);
@@ -113,51 +149,268 @@ public class FileConsumer extends GenericFileConsumer<File> {
                     log.trace("Adding valid file: {}", file);
                     // matched file so add
                     if (extendedAttributes != null) {
-                        Path path = file.toPath();
-                        Map<String, Object> allAttributes = new HashMap<>();
-                        for (String attribute : extendedAttributes) {
+                        gf.setExtendedAttributes(readExtendedAttributes(file));
+                    }
+
+                    fileList.add(gf);
+                }
+
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Polls the directory with the given number of concurrent consumers.
+     * <p/>
+     * The directory is listed incrementally using a {@link DirectoryStream} and the files are added to a bounded
+     * work queue as soon as they are found, from which the files are processed by the concurrent consumers while the
+     * directory is still being listed.
+     */
+    protected int pollConcurrently() throws Exception {
+        // must prepare on startup the very first time
+        if (!prepareOnStartup) {
+            // prepare on startup
+            endpoint.getGenericFileProcessStrategy().prepareOnStartup(operations, endpoint);
+            prepareOnStartup = true;
+        }
+
+        // must reset for each poll
+        fileExpressionResult = null;
+        shutdownRunningTask = null;
+        pendingExchanges = 0;
+        pendingConcurrentExchanges.set(0);
+
+        if (!prePollCheck()) {
+            log.debug("Skipping poll as pre poll check returned false");
+            return 0;
+        }
+
+        final BlockingQueue<Exchange> queue = new ArrayBlockingQueue<Exchange>(getEndpoint().getWorkQueueSize());
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicInteger polledMessages = new AtomicInteger();
+        final AtomicInteger consumers = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<Future<?>>(getEndpoint().getConcurrentConsumers());
+        Throwable failure = null;
+        String name = endpoint.getConfiguration().getDirectory();
+        StopWatch watch = new StopWatch();
+        AtomicInteger count = new AtomicInteger();
+        try {
+            for (int i = 0; i < getEndpoint().getConcurrentConsumers(); i++) {
+                consumers.incrementAndGet();
+                try {
+                    futures.add(executorService.submit(new Runnable() {
+                        public void run() {
                             try {
-                                String prefix = null;
-                                if (attribute.endsWith(":*")) {
-                                    prefix = attribute.substring(0, attribute.length() - 1);
-                                } else if (attribute.equals("*")) {
-                                    prefix = "basic:";
-                                }
-
-                                if (ObjectHelper.isNotEmpty(prefix)) {
-                                    Map<String, Object> attributes = Files.readAttributes(path, attribute);
-                                    if (attributes != null) {
-                                        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
-                                            allAttributes.put(prefix + entry.getKey(), entry.getValue());
-                                        }
-                                    }
-                                } else if (!attribute.contains(":")) {
-                                    allAttributes.put("basic:" + attribute, Files.getAttribute(path, attribute));
-                                } else {
-                                    allAttributes.put(attribute, Files.getAttribute(path, attribute));
-                                }
-                            } catch (IOException e) {
-                                if (log.isDebugEnabled()) {
-                                    log.debug("Unable to read attribute {} on file {}", attribute, file, e);
-                                }
+                                consumeQueue(queue, done, polledMessages);
+                            } finally {
+                                consumers.decrementAndGet();
                             }
                         }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    consumers.decrementAndGet();
+                    throw e;
+                }
+            }
+
+            boolean limitHit = !scanDirectory(name, queue, count, consumers, 0);
+            if (limitHit) {
+                log.debug("Limiting maximum messages to poll at {} files as there was more messages in this poll.", maxMessagesPerPoll);
+            }
+        } finally {
+            // the consumers should stop when the queue is empty
+            done.set(true);
+            if (log.isDebugEnabled()) {
+                log.debug("Took {} to poll: {} with {} files", new Object[]{TimeUtils.printDuration(watch.stop()), name, count.get()});
+            }
 
-                        gf.setExtendedAttributes(allAttributes);
+            try {
+                // wait for the consumers to process the files
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        if (failure == null) {
+                            failure = e.getCause();
+                        }
                     }
+                }
+            } finally {
+                // remove any files from the in progress repository which was not processed as we are stopping
+                Exchange exchange = queue.poll();
+                while (exchange != null) {
+                    pendingConcurrentExchanges.decrementAndGet();
+                    removeInProgressFile(exchange);
+                    exchange = queue.poll();
+                }
+            }
+        }
 
-                    fileList.add(gf);
+        if (failure != null) {
+            // a consumer failed so the poll is aborted
+            throw ObjectHelper.wrapRuntimeCamelException(failure);
+        }
+
+        postPollCheck(polledMessages.get());
+
+        return polledMessages.get();
+    }
+
+    /**
+     * Processes the files from the work queue until the directory has been scanned and the work queue is empty.
+     */
+    private void consumeQueue(BlockingQueue<Exchange> queue, AtomicBoolean done, AtomicInteger polledMessages) {
+        while (isBatchAllowed()) {
+            Exchange exchange;
+            try {
+                exchange = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (exchange == null) {
+                if (done.get() && queue.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            pendingConcurrentExchanges.decrementAndGet();
+            if (processExchange(exchange)) {
+                polledMessages.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Scans the given directory for files to process and adds them to the work queue
+     *
+     * @param fileName current directory
+     * @param queue    the work queue
+     * @param count     the number of files added to the work queue
+     * @param consumers the number of running consumers processing the work queue
+     * @param depth     the current depth of the directory (will start from 0)
+     * @return whether or not to continue polling, <tt>false</tt> means the maxMessagesPerPoll limit has been hit, we are stopping
+     *         or there are no consumers left
+     */
+    protected boolean scanDirectory(String fileName, BlockingQueue<Exchange> queue, AtomicInteger count, AtomicInteger consumers, int depth) throws Exception {
+        log.trace("scanDirectory from fileName: {}", fileName);
+
+        depth++;
+
+        File directory = new File(fileName);
+        if (!directory.exists() || !directory.isDirectory()) {
+            log.debug("Cannot poll as directory does not exists or its not a directory: {}", directory);
+            if (getEndpoint().isDirectoryMustExist()) {
+                throw new GenericFileOperationFailedException("Directory does not exist: " + directory);
+            }
+            return true;
+        }
+
+        log.trace("Scanning directory: {}", directory.getPath());
+        DirectoryStream<Path> stream = Files.newDirectoryStream(directory.toPath());
+        try {
+            for (Path path : stream) {
+                if (!isBatchAllowed()) {
+                    return false;
                 }
+                // check if we can continue polling in files (the files are not sorted so we can always limit eager)
+                if (maxMessagesPerPoll > 0 && count.get() >= maxMessagesPerPoll) {
+                    return false;
+                }
+
+                File file = path.toFile();
+                GenericFile<File> gf = asGenericFile(endpointPath, file, getEndpoint().getCharset(), getEndpoint().isProbeContentType());
+
+                if (file.isDirectory()) {
+                    // the files in the directory is not known as the directory is streamed, which is only used by the done file name
+                    if (endpoint.isRecursive() && depth < endpoint.getMaxDepth() && isValidFile(gf, true, null)) {
+                        // recursive scan and add the sub files and folders
+                        String subDirectory = fileName + File.separator + file.getName();
+                        if (!scanDirectory(subDirectory, queue, count, consumers, depth)) {
+                            return false;
+                        }
+                    }
+                } else if (depth >= endpoint.minDepth && isValidFile(gf, false, null)) {
+                    log.trace("Adding valid file: {}", file);
+                    if (extendedAttributes != null) {
+                        gf.setExtendedAttributes(readExtendedAttributes(file));
+                    }
+
+                    Exchange exchange = endpoint.createExchange(gf);
+                    endpoint.configureExchange(exchange);
+                    endpoint.configureMessage(gf, exchange.getIn());
+                    exchange.setProperty(Exchange.BATCH_INDEX, count.getAndIncrement());
 
+                    // wait for room in the work queue, unless we are stopping or the consumers have stopped
+                    pendingConcurrentExchanges.incrementAndGet();
+                    while (!queue.offer(exchange, 100, TimeUnit.MILLISECONDS)) {
+                        if (!isBatchAllowed() || consumers.get() == 0) {
+                            pendingConcurrentExchanges.decrementAndGet();
+                            removeInProgressFile(exchange);
+                            return false;
+                        }
+                    }
+                }
             }
+        } finally {
+            IOHelper.close(stream, "Closing directory stream", log);
         }
 
         return true;
     }
 
+    private void removeInProgressFile(Exchange exchange) {
+        GenericFile<?> file = exchange.getProperty(FileComponent.FILE_EXCHANGE_FILE, GenericFile.class);
+        endpoint.getInProgressRepository().remove(file.getAbsoluteFilePath());
+    }
+
+    private Map<String, Object> readExtendedAttributes(File file) {
+        Path path = file.toPath();
+        Map<String, Object> allAttributes = new HashMap<>();
+        for (String attribute : extendedAttributes) {
+            try {
+                String prefix = null;
+                if (attribute.endsWith(":*")) {
+                    prefix = attribute.substring(0, attribute.length() - 1);
+                } else if (attribute.equals("*")) {
+                    prefix = "basic:";
+                }
+
+                if (ObjectHelper.isNotEmpty(prefix)) {
+                    Map<String, Object> attributes = Files.readAttributes(path, attribute);
+                    if (attributes != null) {
+                        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+                            allAttributes.put(prefix + entry.getKey(), entry.getValue());
+                        }
+                    }
+                } else if (!attribute.contains(":")) {
+                    allAttributes.put("basic:" + attribute, Files.getAttribute(path, attribute));
+                } else {
+                    allAttributes.put(attribute, Files.getAttribute(path, attribute));
+                }
+            } catch (IOException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Unable to read attribute {} on file {}", attribute, file, e);
+                }
+            }
+        }
+        return allAttributes;
+    }
+
     @Override
     protected boolean isMatched(GenericFile<File> file, String doneFileName, List<File> files) {
         String onlyName = FileUtil.stripPath(doneFileName);
+        if (files == null) {
+            // the files in the directory is not known when scanning the directory concurrently, so check the file system
+            boolean exists = new File(doneFileName).exists();
+            if (!exists) {
+                log.trace("Done file: {} does not exist", doneFileName);
+            }
+            return exists;
+        }
         // the done file name must be among the files
         for (File f : files) {
             if (f.getName().equals(onlyName)) {
@@ -237,4 +490,22 @@ public class FileConsumer extends GenericFileConsumer<File> {
     public FileEndpoint getEndpoint() {
         return (FileEndpoint) super.getEndpoint();
     }
+
+    @Override
+    protected void doStart() throws Exception {
+        if (getEndpoint().getConcurrentConsumers() > 1 && executorService == null) {
+            executorService = getEndpoint().getCamelContext().getExecutorServiceManager()
+                    .newFixedThreadPool(this, getEndpoint().getEndpointUri(), getEndpoint().getConcurrentConsumers());
+        }
+        super.doStart();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+        if (executorService != null) {
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdownNow(executorService);
+            executorService = null;
+        }
+    }
 }
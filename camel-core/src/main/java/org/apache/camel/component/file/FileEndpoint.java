@@ -59,6 +59,10 @@ public class FileEndpoint extends GenericFileEndpoint<File> {
     private boolean probeContentType;
     @UriParam(label = "consumer,advanced")
     private String extendedAttributes;
+    @UriParam(label = "consumer,advanced", defaultValue = "1")
+    private int concurrentConsumers = 1;
+    @UriParam(label = "consumer,advanced", defaultValue = "1000")
+    private int workQueueSize = 1000;
     @UriParam(label = "producer,advanced")
     private String chmod;
     @UriParam(label = "producer,advanced")
@@ -99,6 +103,11 @@ public class FileEndpoint extends GenericFileEndpoint<File> {
             throw new IllegalArgumentException("You cannot set both delete=true and move options");
         }
 
+        // the files are processed as they are found when using concurrent consumers, so they cannot be sorted
+        if (getConcurrentConsumers() > 1 && (getSorter() != null || getSortBy() != null || isShuffle())) {
+            throw new IllegalArgumentException("You cannot set concurrentConsumers > 1 and sorter, sortBy or shuffle options");
+        }
+
         // if noop=true then idempotent should also be configured
         if (isNoop() && !isIdempotentSet()) {
             log.info("Endpoint is configured with noop=true so forcing endpoint to be idempotent as well");
@@ -252,6 +261,34 @@ public class FileEndpoint extends GenericFileEndpoint<File> {
         this.extendedAttributes = extendedAttributes;
     }
 
+    public int getConcurrentConsumers() {
+        return concurrentConsumers;
+    }
+
+    /**
+     * Number of concurrent consumers to process the files.
+     * <p/>
+     * When more than one, the directory is listed incrementally and the files are processed by the concurrent consumers
+     * as soon as they are found, while the directory is still being listed. The files cannot be sorted, and the batch size
+     * is not known so only the {@link Exchange#BATCH_INDEX} is set on the exchanges.
+     */
+    public void setConcurrentConsumers(int concurrentConsumers) {
+        this.concurrentConsumers = concurrentConsumers;
+    }
+
+    public int getWorkQueueSize() {
+        return workQueueSize;
+    }
+
+    /**
+     * The maximum number of files found which are waiting to be processed by the concurrent consumers.
+     * <p/>
+     * Listing the directory is paused when the work queue is full.
+     */
+    public void setWorkQueueSize(int workQueueSize) {
+        this.workQueueSize = workQueueSize;
+    }
+
     /**
      * Chmod value must be between 000 and 777; If there is a leading digit like in 0755 we will ignore it.
      */
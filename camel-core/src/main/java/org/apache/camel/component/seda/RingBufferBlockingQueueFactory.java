@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import org.apache.camel.util.concurrent.RingBufferBlockingQueue;
+
+/**
+ * Implementation of {@link BlockingQueueFactory} producing {@link org.apache.camel.util.concurrent.RingBufferBlockingQueue}
+ * <p/>
+ * The ring buffer is always bounded and allocated up front, so the default capacity is used when the SEDA endpoint
+ * has no size configured, and a configured size larger than the max capacity is rejected.
+ */
+public class RingBufferBlockingQueueFactory<E> implements BlockingQueueFactory<E> {
+    /**
+     * Capacity used when none provided
+     */
+    private int defaultCapacity = 1024;
+    /**
+     * Upper limit of the capacity
+     */
+    private int maxCapacity = 65536;
+
+    /**
+     * @return Default capacity
+     */
+    public int getDefaultCapacity() {
+        return defaultCapacity;
+    }
+
+    /**
+     * @param defaultCapacity Default capacity
+     */
+    public void setDefaultCapacity(int defaultCapacity) {
+        this.defaultCapacity = defaultCapacity;
+    }
+
+    /**
+     * @return Upper limit of the capacity
+     */
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    /**
+     * @param maxCapacity Upper limit of the capacity
+     */
+    public void setMaxCapacity(int maxCapacity) {
+        this.maxCapacity = maxCapacity;
+    }
+
+    @Override
+    public RingBufferBlockingQueue<E> create() {
+        return create(defaultCapacity);
+    }
+
+    @Override
+    public RingBufferBlockingQueue<E> create(int capacity) {
+        if (capacity > maxCapacity) {
+            throw new IllegalArgumentException("Capacity " + capacity + " is larger than the max capacity " + maxCapacity
+                    + " of the ring buffer. Configure a smaller size or increase the maxCapacity of " + getClass().getSimpleName());
+        }
+        return new RingBufferBlockingQueue<E>(capacity);
+    }
+}
@@ -16,6 +16,7 @@
  */
 package org.apache.camel.component.seda;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
@@ -64,11 +65,13 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
     private ExecutorService executor;
     private ExceptionHandler exceptionHandler;
     private final int pollTimeout;
+    private final int maxMessagesPerPoll;
 
     public SedaConsumer(SedaEndpoint endpoint, Processor processor) {
         this.endpoint = endpoint;
         this.processor = AsyncProcessorConverterHelper.convert(processor);
         this.pollTimeout = endpoint.getPollTimeout();
+        this.maxMessagesPerPoll = endpoint.getMaxMessagesPerPoll();
         this.exceptionHandler = new LoggingExceptionHandler(endpoint.getCamelContext(), getClass());
     }
 
@@ -159,6 +162,8 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
 
     protected void doRun() {
         BlockingQueue<Exchange> queue = endpoint.getQueue();
+        // the exchanges taken from the queue at once if max messages per poll is enabled
+        List<Exchange> batch = null;
         // loop while we are allowed, or if we are stopping loop until the queue is empty
         while (queue != null && (isRunAllowed())) {
 
@@ -200,24 +205,21 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
                     LOG.trace("Polled queue {} with timeout {} ms. -> {}", new Object[]{ObjectHelper.getIdentityHashCode(queue), pollTimeout, exchange});
                 }
                 if (exchange != null) {
-                    try {
-                        // send a new copied exchange with new camel context
-                        Exchange newExchange = prepareExchange(exchange);
-                        // process the exchange
-                        sendToConsumers(newExchange);
-                        // copy the message back
-                        if (newExchange.hasOut()) {
-                            exchange.setOut(newExchange.getOut().copy());
-                        } else {
-                            exchange.setIn(newExchange.getIn());
+                    if (maxMessagesPerPoll > 1) {
+                        // take the other messages which are ready at once
+                        if (batch == null) {
+                            batch = new ArrayList<Exchange>(maxMessagesPerPoll);
                         }
-                        // log exception if an exception occurred and was not handled
-                        if (newExchange.getException() != null) {
-                            exchange.setException(newExchange.getException());
-                            getExceptionHandler().handleException("Error processing exchange", exchange, exchange.getException());
+                        batch.add(exchange);
+                        queue.drainTo(batch, maxMessagesPerPoll - 1);
+                        LOG.trace("Drained {} exchanges from queue {}", batch.size(), ObjectHelper.getIdentityHashCode(queue));
+                        for (int i = 0; i < batch.size(); i++) {
+                            exchange = batch.get(i);
+                            processExchange(exchange);
                         }
-                    } catch (Exception e) {
-                        getExceptionHandler().handleException("Error processing exchange", exchange, e);
+                        batch.clear();
+                    } else {
+                        processExchange(exchange);
                     }
                 } else if (shutdownPending && queue.isEmpty()) {
                     LOG.trace("Shutdown is pending, so this consumer thread is breaking out because the task queue is empty.");
@@ -233,6 +235,9 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
                 } else {
                     getExceptionHandler().handleException(e);
                 }
+                if (batch != null) {
+                    batch.clear();
+                }
             }
         }
 
@@ -240,6 +245,33 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
         LOG.debug("Ending this polling consumer thread, there are still {} consumer threads left.", latch.getCount());
     }
 
+    /**
+     * Processes the exchange taken from the queue, and copies the result back to the exchange.
+     *
+     * @param exchange the exchange taken from the queue
+     */
+    private void processExchange(Exchange exchange) {
+        try {
+            // send a new copied exchange with new camel context
+            Exchange newExchange = prepareExchange(exchange);
+            // process the exchange
+            sendToConsumers(newExchange);
+            // copy the message back
+            if (newExchange.hasOut()) {
+                exchange.setOut(newExchange.getOut().copy());
+            } else {
+                exchange.setIn(newExchange.getIn());
+            }
+            // log exception if an exception occurred and was not handled
+            if (newExchange.getException() != null) {
+                exchange.setException(newExchange.getException());
+                getExceptionHandler().handleException("Error processing exchange", exchange, exchange.getException());
+            }
+        } catch (Exception e) {
+            getExceptionHandler().handleException("Error processing exchange", exchange, e);
+        }
+    }
+
     /**
      * Strategy to prepare exchange for being processed by this consumer
      *
@@ -358,7 +390,7 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
 
         // submit needed number of tasks
         int tasks = poolSize - taskCount.get();
-        LOG.debug("Creating {} consumer tasks with poll timeout {} ms.", tasks, pollTimeout);
+        LOG.debug("Creating {} consumer tasks with poll timeout {} ms. and max messages per poll {}.", new Object[]{tasks, pollTimeout, maxMessagesPerPoll});
         for (int i = 0; i < tasks; i++) {
             executor.execute(this);
         }
@@ -0,0 +1,194 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.StreamCache;
+
+/**
+ * A {@link StreamCache} for a chain of pooled {@link ByteBuffer}s.
+ * <p/>
+ * The buffers are shared with copies of this cache, and each cache uses its own read position.
+ * The cache is only valid until the buffers are released back to the pool when the exchanges using the cache
+ * are done (see {@link PooledByteBufferOutputStream#release()}), after which reading the cache fails with
+ * an {@link IOException}, as the buffers may be reused by other stream caches.
+ */
+public final class ByteBufferInputStreamCache extends InputStream implements StreamCache {
+
+    private final long length;
+    private final PooledByteBufferOutputStream owner;
+    private final ByteBuffer[] buffers;
+    private int index;
+    private ByteBuffer current;
+
+    /**
+     * Creates a cache of the given buffers, which contains data from position zero to their limit.
+     */
+    ByteBufferInputStreamCache(ByteBuffer[] buffers, PooledByteBufferOutputStream owner) {
+        this.buffers = buffers;
+        this.owner = owner;
+        long total = 0;
+        for (ByteBuffer buffer : buffers) {
+            total += buffer.limit();
+        }
+        this.length = total;
+        reset();
+    }
+
+    @Override
+    public synchronized void reset() {
+        index = 0;
+        current = buffers.length > 0 ? view(0) : null;
+    }
+
+    @Override
+    public synchronized int read() throws IOException {
+        checkNotReleased();
+        ByteBuffer buffer = nextBuffer();
+        if (buffer == null) {
+            return -1;
+        }
+        int answer = buffer.get() & 0xff;
+        // the buffers may have been released (and reused) while reading
+        checkNotReleased();
+        return answer;
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        checkNotReleased();
+        ByteBuffer buffer = nextBuffer();
+        if (buffer == null) {
+            return -1;
+        }
+        int count = 0;
+        while (buffer != null && count < len) {
+            int n = Math.min(len - count, buffer.remaining());
+            buffer.get(b, off + count, n);
+            count += n;
+            if (count < len) {
+                buffer = nextBuffer();
+            }
+        }
+        // the buffers may have been released (and reused) while reading
+        checkNotReleased();
+        return count;
+    }
+
+    @Override
+    public synchronized long skip(long n) throws IOException {
+        checkNotReleased();
+        long skipped = 0;
+        ByteBuffer buffer = nextBuffer();
+        while (buffer != null && skipped < n) {
+            int step = (int) Math.min(n - skipped, buffer.remaining());
+            buffer.position(buffer.position() + step);
+            skipped += step;
+            if (skipped < n) {
+                buffer = nextBuffer();
+            }
+        }
+        return skipped;
+    }
+
+    @Override
+    public synchronized int available() throws IOException {
+        checkNotReleased();
+        if (current == null) {
+            return 0;
+        }
+        long remaining = current.remaining();
+        for (int i = index + 1; i < buffers.length; i++) {
+            remaining += buffers[i].limit();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, remaining);
+    }
+
+    @Override
+    public boolean markSupported() {
+        // reset is used to read from the beginning
+        return false;
+    }
+
+    public synchronized void writeTo(OutputStream os) throws IOException {
+        WritableByteChannel out;
+        if (os instanceof WritableByteChannel) {
+            out = (WritableByteChannel) os;
+        } else {
+            out = Channels.newChannel(os);
+        }
+        checkNotReleased();
+        for (int i = 0; i < buffers.length; i++) {
+            ByteBuffer view = view(i);
+            while (view.hasRemaining()) {
+                out.write(view);
+            }
+        }
+    }
+
+    public StreamCache copy(Exchange exchange) throws IOException {
+        StreamCache answer = owner.copyStreamCache(exchange);
+        if (answer == null) {
+            throw releasedException();
+        }
+        return answer;
+    }
+
+    public boolean inMemory() {
+        return true;
+    }
+
+    public long length() {
+        return length;
+    }
+
+    private void checkNotReleased() throws IOException {
+        if (owner.isReleased()) {
+            throw releasedException();
+        }
+    }
+
+    private static IOException releasedException() {
+        return new IOException("Cannot use stream cache as its pooled buffers has been released when the exchanges using it were done");
+    }
+
+    private ByteBuffer nextBuffer() {
+        while (current != null && !current.hasRemaining()) {
+            index++;
+            current = index < buffers.length ? view(index) : null;
+        }
+        return current;
+    }
+
+    private ByteBuffer view(int i) {
+        // use a view so the cache and its copies can be read independently
+        ByteBuffer view = buffers[i].duplicate();
+        view.rewind();
+        return view;
+    }
+
+}
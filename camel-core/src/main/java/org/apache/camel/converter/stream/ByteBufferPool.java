@@ -0,0 +1,159 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of direct {@link ByteBuffer}s of the same size, which is used for in-memory stream caching.
+ * <p/>
+ * At most <tt>maximumSize</tt> direct buffers is allocated by the pool, which bounds the off-heap memory in use.
+ * When all the direct buffers are in use then heap buffers are allocated instead, which are not pooled.
+ */
+public final class ByteBufferPool {
+
+    private final int bufferSize;
+    private final int maximumSize;
+    private final Queue<ByteBuffer> idle = new ConcurrentLinkedQueue<ByteBuffer>();
+    private final AtomicInteger idleSize = new AtomicInteger();
+    private final AtomicInteger allocated = new AtomicInteger();
+    private final AtomicLong allocatedCounter = new AtomicLong();
+    private final AtomicLong reusedCounter = new AtomicLong();
+    private final AtomicLong overflowCounter = new AtomicLong();
+
+    public ByteBufferPool(int bufferSize, int maximumSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("BufferSize must be positive, was: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Acquires a buffer from the pool, or allocates a new buffer if no idle buffers exists.
+     *
+     * @return the buffer, which is cleared and ready for writing
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = idle.poll();
+        if (buffer != null) {
+            idleSize.decrementAndGet();
+            reusedCounter.incrementAndGet();
+            return buffer;
+        }
+
+        // allocate a new direct buffer if the pool is not exhausted
+        int count = allocated.get();
+        while (count < maximumSize) {
+            if (allocated.compareAndSet(count, count + 1)) {
+                allocatedCounter.incrementAndGet();
+                return ByteBuffer.allocateDirect(bufferSize);
+            }
+            count = allocated.get();
+        }
+
+        overflowCounter.incrementAndGet();
+        return ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * Releases the buffer back to the pool.
+     *
+     * @param buffer the buffer, which must no longer be in use
+     */
+    public void release(ByteBuffer buffer) {
+        // only the direct buffers is pooled
+        if (buffer.isDirect() && buffer.capacity() == bufferSize) {
+            buffer.clear();
+            idle.offer(buffer);
+            idleSize.incrementAndGet();
+        }
+    }
+
+    /**
+     * Clears the pool, so the idle direct buffers can be garbage collected.
+     */
+    public void clear() {
+        ByteBuffer buffer = idle.poll();
+        while (buffer != null) {
+            idleSize.decrementAndGet();
+            allocated.decrementAndGet();
+            buffer = idle.poll();
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Number of direct buffers allocated
+     */
+    public long getAllocatedCounter() {
+        return allocatedCounter.get();
+    }
+
+    /**
+     * Number of times an idle buffer was reused
+     */
+    public long getReusedCounter() {
+        return reusedCounter.get();
+    }
+
+    /**
+     * Number of heap buffers allocated because the pool was exhausted
+     */
+    public long getOverflowCounter() {
+        return overflowCounter.get();
+    }
+
+    /**
+     * Number of direct buffers currently in use
+     */
+    public int getInUse() {
+        return Math.max(0, allocated.get() - idleSize.get());
+    }
+
+    /**
+     * Number of direct buffers currently idle in the pool
+     */
+    public int getIdle() {
+        return idleSize.get();
+    }
+
+    /**
+     * Reset the counters
+     */
+    public void reset() {
+        allocatedCounter.set(0);
+        reusedCounter.set(0);
+        overflowCounter.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "ByteBufferPool[bufferSize=" + bufferSize + ", maximumSize=" + maximumSize + ", inUse=" + getInUse() + ", idle=" + getIdle() + "]";
+    }
+}
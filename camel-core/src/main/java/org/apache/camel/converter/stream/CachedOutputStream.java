@@ -37,6 +37,9 @@ import org.apache.camel.spi.StreamCachingStrategy;
  * You can get a cached input stream of this stream. The temp file which is created with this 
  * output stream will be deleted when you close this output stream or the cached 
  * fileInputStream(s) is/are closed after all the exchanges using the temp file are completed.
+ * <p/>
+ * If the buffer pool is enabled on the {@link StreamCachingStrategy}, then the content is kept in pooled buffers
+ * instead of a byte array, which are released when all the exchanges using the stream cache are completed.
  */
 public class CachedOutputStream extends OutputStream {
     @Deprecated
@@ -54,6 +57,7 @@ public class CachedOutputStream extends OutputStream {
     private int totalLength;
     private final TempFileManager tempFileManager;
     private final boolean closedOnCompletion;
+    private PooledByteBufferOutputStream pooledStream;
 
     public CachedOutputStream(Exchange exchange) {
         this(exchange, true);
@@ -64,7 +68,13 @@ public class CachedOutputStream extends OutputStream {
         tempFileManager = new TempFileManager(closedOnCompletion);
         tempFileManager.addExchange(exchange);
         this.strategy = exchange.getContext().getStreamCachingStrategy();
-        currentStream = new CachedByteArrayOutputStream(strategy.getBufferSize());
+        if (strategy.isBufferPoolEnabled()) {
+            pooledStream = new PooledByteBufferOutputStream(strategy, closedOnCompletion);
+            pooledStream.addExchange(exchange);
+            currentStream = pooledStream;
+        } else {
+            currentStream = new CachedByteArrayOutputStream(strategy.getBufferSize());
+        }
     }
 
     public void flush() throws IOException {
@@ -75,6 +85,9 @@ public class CachedOutputStream extends OutputStream {
         currentStream.close();
         // need to clean up the temp file this time
         if (!closedOnCompletion) {
+            if (pooledStream != null) {
+                pooledStream.release();
+            }
             tempFileManager.closeFileInputStreams();
             tempFileManager.cleanUpTempFile();
         }
@@ -98,7 +111,7 @@ public class CachedOutputStream extends OutputStream {
 
     public void write(byte[] b, int off, int len) throws IOException {
         this.totalLength += len;
-        if (inMemory && currentStream instanceof ByteArrayOutputStream && strategy.shouldSpoolCache(totalLength)) {
+        if (inMemory && strategy.shouldSpoolCache(totalLength)) {
             pageToFileStream();
         }
         currentStream.write(b, off, len);
@@ -106,7 +119,7 @@ public class CachedOutputStream extends OutputStream {
 
     public void write(byte[] b) throws IOException {
         this.totalLength += b.length;
-        if (inMemory && currentStream instanceof ByteArrayOutputStream && strategy.shouldSpoolCache(totalLength)) {
+        if (inMemory && strategy.shouldSpoolCache(totalLength)) {
             pageToFileStream();
         }
         currentStream.write(b);
@@ -114,7 +127,7 @@ public class CachedOutputStream extends OutputStream {
 
     public void write(int b) throws IOException {
         this.totalLength++;
-        if (inMemory && currentStream instanceof ByteArrayOutputStream && strategy.shouldSpoolCache(totalLength)) {
+        if (inMemory && strategy.shouldSpoolCache(totalLength)) {
             pageToFileStream();
         }
         currentStream.write(b);
@@ -146,6 +159,8 @@ public class CachedOutputStream extends OutputStream {
         if (inMemory) {
             if (currentStream instanceof CachedByteArrayOutputStream) {
                 return ((CachedByteArrayOutputStream) currentStream).newInputStreamCache();
+            } else if (currentStream instanceof PooledByteBufferOutputStream) {
+                return ((PooledByteBufferOutputStream) currentStream).newStreamCache();
             } else {
                 throw new IllegalStateException("CurrentStream should be an instance of CachedByteArrayOutputStream but is: " + currentStream.getClass().getName());
             }
@@ -157,11 +172,16 @@ public class CachedOutputStream extends OutputStream {
 
     private void pageToFileStream() throws IOException {
         flush();
-        ByteArrayOutputStream bout = (ByteArrayOutputStream)currentStream;
+        OutputStream memoryStream = currentStream;
         try {
             // creates an tmp file and a file output stream
             currentStream = tempFileManager.createOutputStream(strategy);
-            bout.writeTo(currentStream);
+            if (memoryStream instanceof PooledByteBufferOutputStream) {
+                // write the buffers directly to the file channel (if not using a chiper) and release them
+                ((PooledByteBufferOutputStream) memoryStream).spool(currentStream, tempFileManager.getFileChannel());
+            } else {
+                ((ByteArrayOutputStream) memoryStream).writeTo(currentStream);
+            }
         } finally {
             // ensure flag is flipped to file based
             inMemory = false;
@@ -180,6 +180,7 @@ public final class FileInputStreamCache extends InputStream implements StreamCac
         private File tempFile;
         private OutputStream outputStream; // file output stream
         private CipherPair ciphers;
+        private FileChannel fileChannel;
         
         // there can be several input streams, for example in the multi-cast, or wiretap parallel processing
         private List<FileInputStreamCache> fileInputStreamCaches;
@@ -258,8 +259,11 @@ public final class FileInputStreamCache extends InputStream implements StreamCac
             tempFile = FileUtil.createTempFile("cos", ".tmp", strategy.getSpoolDirectory());
 
             LOG.trace("Creating temporary stream cache file: {}", tempFile);
-            OutputStream out = new BufferedOutputStream(new FileOutputStream(tempFile));
-            if (ObjectHelper.isNotEmpty(strategy.getSpoolChiper())) {
+            FileOutputStream fos = new FileOutputStream(tempFile);
+            OutputStream out = new BufferedOutputStream(fos);
+            if (ObjectHelper.isEmpty(strategy.getSpoolChiper())) {
+                fileChannel = fos.getChannel();
+            } else {
                 try {
                     if (ciphers == null) {
                         ciphers = new CipherPair(strategy.getSpoolChiper());
@@ -317,6 +321,13 @@ public final class FileInputStreamCache extends InputStream implements StreamCac
         CipherPair getCiphers() {
             return ciphers;
         }
+
+        /**
+         * Gets the channel of the temporary file, or <tt>null</tt> if not created or writing using a chiper.
+         */
+        FileChannel getFileChannel() {
+            return fileChannel;
+        }
         
     }
 
@@ -0,0 +1,190 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.spi.StreamCachingStrategy;
+import org.apache.camel.spi.Synchronization;
+import org.apache.camel.spi.UnitOfWork;
+import org.apache.camel.support.SynchronizationAdapter;
+
+/**
+ * An {@link OutputStream} which writes into buffers acquired from the {@link StreamCachingStrategy}, which
+ * are released when all the exchanges using the buffers are done.
+ * <p/>
+ * The stream caches created from this stream are reading directly from the buffers, and are therefore only valid
+ * until the buffers are released, the same way as a spooled stream cache is only valid until its temporary file
+ * is deleted. As the buffers are reused by other stream caches after being released, reading a stream cache
+ * after its buffers has been released fails with an {@link IOException}.
+ *
+ * @see CachedOutputStream
+ */
+final class PooledByteBufferOutputStream extends OutputStream {
+
+    private final StreamCachingStrategy strategy;
+    private final boolean closedOnCompletion;
+    private final AtomicInteger exchangeCounter = new AtomicInteger();
+    private final List<ByteBuffer> buffers = new ArrayList<ByteBuffer>();
+    private ByteBuffer current;
+    private volatile boolean released;
+
+    PooledByteBufferOutputStream(StreamCachingStrategy strategy, boolean closedOnCompletion) {
+        this.strategy = strategy;
+        this.closedOnCompletion = closedOnCompletion;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        writableBuffer().put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            ByteBuffer buffer = writableBuffer();
+            int n = Math.min(len, buffer.remaining());
+            buffer.put(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Creates a new {@link org.apache.camel.StreamCache} view of the buffers
+     */
+    synchronized ByteBufferInputStreamCache newStreamCache() throws IOException {
+        checkNotReleased();
+        ByteBuffer[] views = new ByteBuffer[buffers.size()];
+        for (int i = 0; i < views.length; i++) {
+            ByteBuffer view = buffers.get(i).duplicate();
+            view.flip();
+            views[i] = view;
+        }
+        return new ByteBufferInputStreamCache(views, this);
+    }
+
+    /**
+     * Creates a new {@link org.apache.camel.StreamCache} view of the buffers for the given exchange.
+     *
+     * @return the stream cache, or <tt>null</tt> if the buffers has been released
+     */
+    synchronized ByteBufferInputStreamCache copyStreamCache(Exchange exchange) throws IOException {
+        if (released) {
+            return null;
+        }
+        addExchange(exchange);
+        return newStreamCache();
+    }
+
+    /**
+     * Writes the buffers to the output stream, or to the file channel if given, and releases the buffers.
+     */
+    synchronized void spool(OutputStream out, FileChannel channel) throws IOException {
+        checkNotReleased();
+        byte[] data = null;
+        for (ByteBuffer buffer : buffers) {
+            // use a view so the position of the buffer is not changed
+            buffer = buffer.duplicate();
+            buffer.flip();
+            if (channel != null) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } else {
+                if (data == null) {
+                    data = new byte[buffer.capacity()];
+                }
+                int n = buffer.remaining();
+                buffer.get(data, 0, n);
+                out.write(data, 0, n);
+            }
+        }
+        release();
+    }
+
+    void addExchange(Exchange exchange) {
+        if (closedOnCompletion) {
+            exchangeCounter.incrementAndGet();
+            // add on completion so we can release the buffers after the exchange is done
+            Synchronization onCompletion = new SynchronizationAdapter() {
+                @Override
+                public void onDone(Exchange exchange) {
+                    if (exchangeCounter.decrementAndGet() == 0) {
+                        release();
+                    }
+                }
+
+                @Override
+                public String toString() {
+                    return "OnCompletion[PooledByteBufferOutputStream]";
+                }
+            };
+            UnitOfWork streamCacheUnitOfWork = exchange.getProperty(Exchange.STREAM_CACHE_UNIT_OF_WORK, UnitOfWork.class);
+            if (streamCacheUnitOfWork != null) {
+                // release with the unit of work of the main route (see FileInputStreamCache.TempFileManager)
+                streamCacheUnitOfWork.addSynchronization(onCompletion);
+            } else {
+                exchange.addOnCompletion(onCompletion);
+            }
+        }
+    }
+
+    /**
+     * Whether the buffers has been released, after which the stream caches can no longer be read
+     */
+    boolean isReleased() {
+        return released;
+    }
+
+    /**
+     * Releases the buffers back to the {@link StreamCachingStrategy}.
+     */
+    synchronized void release() {
+        if (!released) {
+            released = true;
+            for (ByteBuffer buffer : buffers) {
+                strategy.releaseBuffer(buffer);
+            }
+            buffers.clear();
+            current = null;
+        }
+    }
+
+    private ByteBuffer writableBuffer() throws IOException {
+        if (current == null || !current.hasRemaining()) {
+            checkNotReleased();
+            current = strategy.acquireBuffer();
+            buffers.add(current);
+        }
+        return current;
+    }
+
+    private void checkNotReleased() throws IOException {
+        if (released) {
+            throw new IOException("Cannot use stream as its buffers has been released");
+        }
+    }
+
+}
@@ -0,0 +1,367 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.camel.BytesSource;
+import org.apache.camel.CamelContext;
+import org.apache.camel.StreamCache;
+import org.apache.camel.StringSource;
+import org.apache.camel.util.CamelObjectInputStream;
+import org.apache.camel.util.IOHelper;
+
+/**
+ * A compact and versioned binary codec for {@link DefaultExchangeHolder} which can be used
+ * by persistent repositories as an alternative to plain Java serialization of the holder.
+ * <p/>
+ * Headers and properties are written as length-prefixed keys with a type tag for the value,
+ * where primitives, Strings, dates, big numbers and byte arrays are written in their raw form.
+ * Message bodies of type byte[], String or {@link StreamCache} are written raw as well.
+ * Any other value falls back to Java serialization of that single value.
+ * <p/>
+ * The encoded data starts with the {@link #MAGIC} byte and the format {@link #VERSION}, which allows
+ * repositories to tell the data apart from Java serialized data by using {@link #isBinaryEncoded(byte[])}.
+ */
+public final class BinaryExchangeCodec {
+
+    /**
+     * The first byte of the encoded data, which can neither start a Java serialization stream
+     * nor a non-negative length prefix.
+     */
+    public static final byte MAGIC = (byte) 0xCA;
+    /**
+     * The current version of the format.
+     */
+    public static final byte VERSION = 1;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte BYTES = 2;
+    private static final byte INTEGER = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte FLOAT = 6;
+    private static final byte SHORT = 7;
+    private static final byte BYTE = 8;
+    private static final byte BOOLEAN = 9;
+    private static final byte CHARACTER = 10;
+    private static final byte DATE = 11;
+    private static final byte BIG_INTEGER = 12;
+    private static final byte BIG_DECIMAL = 13;
+    private static final byte BYTES_SOURCE = 14;
+    private static final byte STRING_SOURCE = 15;
+    private static final byte SERIALIZED = 16;
+
+    private static final int IN_FAULT = 1;
+    private static final int OUT_FAULT = 1 << 1;
+
+    private BinaryExchangeCodec() {
+    }
+
+    /**
+     * Whether the given data has been encoded by this codec
+     */
+    public static boolean isBinaryEncoded(byte[] data) {
+        return isBinaryEncoded(data, 0, data != null ? data.length : 0);
+    }
+
+    /**
+     * Whether the given data has been encoded by this codec
+     */
+    public static boolean isBinaryEncoded(byte[] data, int offset, int length) {
+        return data != null && length > 1 && data[offset] == MAGIC;
+    }
+
+    /**
+     * Encodes the holder.
+     *
+     * @param holder the holder
+     * @return the encoded data
+     * @throws IOException is thrown if a value could not be encoded
+     */
+    public static byte[] encode(DefaultExchangeHolder holder) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bos);
+
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        int flags = 0;
+        if (Boolean.TRUE.equals(holder.getInFaultFlag())) {
+            flags |= IN_FAULT;
+        }
+        if (Boolean.TRUE.equals(holder.getOutFaultFlag())) {
+            flags |= OUT_FAULT;
+        }
+        out.writeByte(flags);
+        writeString(out, holder.getExchangeId());
+        writeValue(out, holder.getInBody());
+        writeMap(out, holder.getInHeaders());
+        writeValue(out, holder.getOutBody());
+        writeMap(out, holder.getOutHeaders());
+        writeMap(out, holder.getProperties());
+        writeValue(out, holder.getException());
+
+        out.flush();
+        return bos.toByteArray();
+    }
+
+    /**
+     * Decodes the data into a holder.
+     *
+     * @param camelContext the camel context used for loading classes of Java serialized values
+     * @param data the encoded data
+     * @return the holder
+     * @throws IOException is thrown if the data is not valid
+     * @throws ClassNotFoundException is thrown if a class of a Java serialized value is not found
+     */
+    public static DefaultExchangeHolder decode(CamelContext camelContext, byte[] data) throws IOException, ClassNotFoundException {
+        return decode(camelContext, data, 0, data.length);
+    }
+
+    /**
+     * Decodes the data into a holder.
+     *
+     * @param camelContext the camel context used for loading classes of Java serialized values
+     * @param data the buffer with the encoded data
+     * @param offset the offset of the encoded data in the buffer
+     * @param length the length of the encoded data
+     * @return the holder
+     * @throws IOException is thrown if the data is not valid
+     * @throws ClassNotFoundException is thrown if a class of a Java serialized value is not found
+     */
+    public static DefaultExchangeHolder decode(CamelContext camelContext, byte[] data, int offset, int length) throws IOException, ClassNotFoundException {
+        if (!isBinaryEncoded(data, offset, length)) {
+            throw new StreamCorruptedException("Data is not encoded by " + BinaryExchangeCodec.class.getSimpleName());
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, offset, length));
+        in.readByte();
+        byte version = in.readByte();
+        if (version > VERSION) {
+            throw new StreamCorruptedException("Unsupported version " + version + " of " + BinaryExchangeCodec.class.getSimpleName());
+        }
+
+        int flags = in.readByte();
+        String exchangeId = readString(in);
+        Object inBody = readValue(camelContext, in);
+        Map<String, Object> inHeaders = readMap(camelContext, in);
+        Object outBody = readValue(camelContext, in);
+        Map<String, Object> outHeaders = readMap(camelContext, in);
+        Map<String, Object> properties = readMap(camelContext, in);
+        Object exception = readValue(camelContext, in);
+
+        DefaultExchangeHolder answer = new DefaultExchangeHolder();
+        answer.restore(exchangeId, inBody, inHeaders, (flags & IN_FAULT) != 0, outBody, outHeaders, (flags & OUT_FAULT) != 0,
+                properties, (Exception) exception);
+        return answer;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            writeBytes(out, value.getBytes(UTF8));
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] data = readBytes(in);
+        return data != null ? new String(data, UTF8) : null;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] data = new byte[length];
+        in.readFully(data);
+        return data;
+    }
+
+    private static void writeMap(DataOutputStream out, Map<String, Object> map) throws IOException {
+        if (map == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(map.size());
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            writeString(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, Object> readMap(CamelContext camelContext, DataInputStream in) throws IOException, ClassNotFoundException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, Object> answer = new LinkedHashMap<String, Object>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            String key = readString(in);
+            answer.put(key, readValue(camelContext, in));
+        }
+        return answer;
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        // use the exact class as sub classes must keep their type using serialization
+        Class<?> type = value != null ? value.getClass() : null;
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (type == String.class) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (type == byte[].class) {
+            out.writeByte(BYTES);
+            writeBytes(out, (byte[]) value);
+        } else if (type == Integer.class) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (type == Long.class) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (type == Double.class) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (type == Float.class) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (type == Short.class) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if (type == Byte.class) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (type == Boolean.class) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (type == Character.class) {
+            out.writeByte(CHARACTER);
+            out.writeChar((Character) value);
+        } else if (type == Date.class) {
+            out.writeByte(DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (type == BigInteger.class) {
+            out.writeByte(BIG_INTEGER);
+            writeBytes(out, ((BigInteger) value).toByteArray());
+        } else if (type == BigDecimal.class) {
+            BigDecimal decimal = (BigDecimal) value;
+            out.writeByte(BIG_DECIMAL);
+            out.writeInt(decimal.scale());
+            writeBytes(out, decimal.unscaledValue().toByteArray());
+        } else if (type == BytesSource.class && ((BytesSource) value).getSystemId() == null && ((BytesSource) value).getPublicId() == null) {
+            out.writeByte(BYTES_SOURCE);
+            writeBytes(out, ((BytesSource) value).getData());
+        } else if (type == StringSource.class && isPlainStringSource((StringSource) value)) {
+            out.writeByte(STRING_SOURCE);
+            writeString(out, ((StringSource) value).getText());
+        } else if (value instanceof StreamCache) {
+            // store the cached content raw which is restored as a BytesSource as when using serialization
+            StreamCache cache = (StreamCache) value;
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            cache.writeTo(bos);
+            cache.reset();
+            out.writeByte(BYTES_SOURCE);
+            writeBytes(out, bos.toByteArray());
+        } else {
+            out.writeByte(SERIALIZED);
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            ObjectOutputStream oos = new ObjectOutputStream(bos);
+            oos.writeObject(value);
+            oos.close();
+            writeBytes(out, bos.toByteArray());
+        }
+    }
+
+    private static boolean isPlainStringSource(StringSource source) {
+        return source.getText() != null && "UTF-8".equals(source.getEncoding())
+                && source.getSystemId() == null && source.getPublicId() == null;
+    }
+
+    private static Object readValue(CamelContext camelContext, DataInputStream in) throws IOException, ClassNotFoundException {
+        byte tag = in.readByte();
+        switch (tag) {
+        case NULL:
+            return null;
+        case STRING:
+            return readString(in);
+        case BYTES:
+            return readBytes(in);
+        case INTEGER:
+            return in.readInt();
+        case LONG:
+            return in.readLong();
+        case DOUBLE:
+            return in.readDouble();
+        case FLOAT:
+            return in.readFloat();
+        case SHORT:
+            return in.readShort();
+        case BYTE:
+            return in.readByte();
+        case BOOLEAN:
+            return in.readBoolean();
+        case CHARACTER:
+            return in.readChar();
+        case DATE:
+            return new Date(in.readLong());
+        case BIG_INTEGER:
+            return new BigInteger(readBytes(in));
+        case BIG_DECIMAL:
+            int scale = in.readInt();
+            return new BigDecimal(new BigInteger(readBytes(in)), scale);
+        case BYTES_SOURCE:
+            return new BytesSource(readBytes(in));
+        case STRING_SOURCE:
+            return new StringSource(readString(in));
+        case SERIALIZED:
+            return readSerialized(camelContext, readBytes(in));
+        default:
+            throw new StreamCorruptedException("Unknown type tag " + tag + " of " + BinaryExchangeCodec.class.getSimpleName());
+        }
+    }
+
+    private static Object readSerialized(CamelContext camelContext, byte[] data) throws IOException, ClassNotFoundException {
+        ObjectInputStream ois = new CamelObjectInputStream(new ByteArrayInputStream(data), camelContext);
+        try {
+            return ois.readObject();
+        } finally {
+            IOHelper.close(ois);
+        }
+    }
+}
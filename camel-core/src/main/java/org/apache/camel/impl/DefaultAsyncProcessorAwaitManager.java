@@ -16,11 +16,14 @@
  */
 package org.apache.camel.impl;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
@@ -30,6 +33,8 @@ import org.apache.camel.MessageHistory;
 import org.apache.camel.processor.DefaultExchangeFormatter;
 import org.apache.camel.spi.AsyncProcessorAwaitManager;
 import org.apache.camel.spi.ExchangeFormatter;
+import org.apache.camel.spi.RouteContext;
+import org.apache.camel.spi.UnitOfWork;
 import org.apache.camel.support.ServiceSupport;
 import org.apache.camel.util.MessageHelper;
 import org.apache.camel.util.ObjectHelper;
@@ -47,6 +52,7 @@ public class DefaultAsyncProcessorAwaitManager extends ServiceSupport implements
     private final AtomicLong minDuration = new AtomicLong();
     private final AtomicLong maxDuration = new AtomicLong();
     private final AtomicLong meanDuration = new AtomicLong();
+    private final ConcurrentMap<String, RouteUtilizationStatistics> routeStatistics = new ConcurrentHashMap<String, RouteUtilizationStatistics>();
 
     private final Map<Exchange, AwaitThread> inflight = new ConcurrentHashMap<Exchange, AwaitThread>();
     private final ExchangeFormatter exchangeFormatter;
@@ -97,6 +103,20 @@ public class DefaultAsyncProcessorAwaitManager extends ServiceSupport implements
                 long count = blockedCounter.get();
                 long mean = count > 0 ? total / count : 0;
                 meanDuration.set(mean);
+
+                // and keep track of which routes are blocking threads
+                String routeId = thread.getRouteId();
+                if (routeId != null) {
+                    RouteUtilizationStatistics route = routeStatistics.get(routeId);
+                    if (route == null) {
+                        RouteUtilizationStatistics created = new RouteUtilizationStatistics(routeId);
+                        route = routeStatistics.putIfAbsent(routeId, created);
+                        if (route == null) {
+                            route = created;
+                        }
+                    }
+                    route.onBlocked(time);
+                }
             }
         }
     }
@@ -257,6 +277,16 @@ public class DefaultAsyncProcessorAwaitManager extends ServiceSupport implements
                 routeId = history.getRouteId();
                 nodeId = history.getNode() != null ? history.getNode().getId() : null;
             }
+            if (routeId == null) {
+                // fallback to the route the unit of work is currently processing
+                UnitOfWork uow = exchange.getUnitOfWork();
+                RouteContext routeContext = uow != null ? uow.getRouteContext() : null;
+                if (routeContext != null && routeContext.getRoute() != null) {
+                    routeId = routeContext.getRoute().getId();
+                } else {
+                    routeId = exchange.getFromRouteId();
+                }
+            }
         }
 
         @Override
@@ -294,6 +324,62 @@ public class DefaultAsyncProcessorAwaitManager extends ServiceSupport implements
         }
     }
 
+    /**
+     * Represents utilization statistics of a route
+     */
+    private static final class RouteUtilizationStatistics implements AsyncProcessorAwaitManager.RouteStatistics {
+
+        private final String routeId;
+        private final AtomicLong blocked = new AtomicLong();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        private RouteUtilizationStatistics(String routeId) {
+            this.routeId = routeId;
+        }
+
+        void onBlocked(long time) {
+            blocked.incrementAndGet();
+            total.addAndGet(time);
+            long current = max.get();
+            while (time > current && !max.compareAndSet(current, time)) {
+                current = max.get();
+            }
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public long getThreadsBlocked() {
+            return blocked.get();
+        }
+
+        @Override
+        public long getTotalDuration() {
+            return total.get();
+        }
+
+        @Override
+        public long getMaxDuration() {
+            return max.get();
+        }
+
+        @Override
+        public long getMeanDuration() {
+            long count = blocked.get();
+            return count > 0 ? total.get() / count : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("RouteUtilization[routeId=%s, blocked=%s, total=%s, max=%s, mean=%s]",
+                    routeId, getThreadsBlocked(), getTotalDuration(), getMaxDuration(), getMeanDuration());
+        }
+    }
+
     /**
      * Represents utilization statistics
      */
@@ -331,8 +417,22 @@ public class DefaultAsyncProcessorAwaitManager extends ServiceSupport implements
             return meanDuration.get();
         }
 
+        @Override
+        public Collection<RouteStatistics> getRouteStatistics() {
+            List<RouteStatistics> answer = new ArrayList<RouteStatistics>(routeStatistics.values());
+            // the routes blocking the most threads first
+            Collections.sort(answer, new Comparator<RouteStatistics>() {
+                @Override
+                public int compare(RouteStatistics o1, RouteStatistics o2) {
+                    return Long.compare(o2.getThreadsBlocked(), o1.getThreadsBlocked());
+                }
+            });
+            return Collections.unmodifiableList(answer);
+        }
+
         @Override
         public void reset() {
+            routeStatistics.clear();
             blockedCounter.set(0);
             interruptedCounter.set(0);
             totalDuration.set(0);
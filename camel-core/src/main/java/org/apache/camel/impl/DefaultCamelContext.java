@@ -122,6 +122,7 @@ import org.apache.camel.spi.EventNotifier;
 import org.apache.camel.spi.ExecutorServiceManager;
 import org.apache.camel.spi.FactoryFinder;
 import org.apache.camel.spi.FactoryFinderResolver;
+import org.apache.camel.spi.HeadersMapFactory;
 import org.apache.camel.spi.InflightRepository;
 import org.apache.camel.spi.Injector;
 import org.apache.camel.spi.InterceptStrategy;
@@ -225,6 +226,7 @@ public class DefaultCamelContext extends ServiceSupport implements ModelCamelCon
     private Boolean typeConverterStatisticsEnabled = Boolean.FALSE;
     private Boolean useMDCLogging = Boolean.FALSE;
     private Boolean useBreadcrumb = Boolean.TRUE;
+    private Boolean copyOnWriteHeaders = Boolean.FALSE;
     private Boolean allowUseOriginalMessage = Boolean.TRUE;
     private Long delay;
     private ErrorHandlerFactory errorHandlerBuilder;
@@ -264,6 +266,7 @@ public class DefaultCamelContext extends ServiceSupport implements ModelCamelCon
     private ExecutorServiceManager executorServiceManager;
     private Debugger debugger;
     private UuidGenerator uuidGenerator = createDefaultUuidGenerator();
+    private HeadersMapFactory headersMapFactory = new DefaultHeadersMapFactory();
     private UnitOfWorkFactory unitOfWorkFactory = new DefaultUnitOfWorkFactory();
     private final StopWatch stopWatch = new StopWatch(false);
     private Date startDate;
@@ -3996,6 +3999,14 @@ public class DefaultCamelContext extends ServiceSupport implements ModelCamelCon
         this.useBreadcrumb = useBreadcrumb;
     }
 
+    public Boolean isCopyOnWriteHeaders() {
+        return copyOnWriteHeaders != null && copyOnWriteHeaders;
+    }
+
+    public void setCopyOnWriteHeaders(Boolean copyOnWriteHeaders) {
+        this.copyOnWriteHeaders = copyOnWriteHeaders;
+    }
+
     public ClassLoader getApplicationContextClassLoader() {
         return applicationContextClassLoader;
     }
@@ -4128,6 +4139,14 @@ public class DefaultCamelContext extends ServiceSupport implements ModelCamelCon
         this.uuidGenerator = uuidGenerator;
     }
 
+    public HeadersMapFactory getHeadersMapFactory() {
+        return headersMapFactory;
+    }
+
+    public void setHeadersMapFactory(HeadersMapFactory headersMapFactory) {
+        this.headersMapFactory = headersMapFactory;
+    }
+
     public StreamCachingStrategy getStreamCachingStrategy() {
         if (streamCachingStrategy == null) {
             streamCachingStrategy = new DefaultStreamCachingStrategy();
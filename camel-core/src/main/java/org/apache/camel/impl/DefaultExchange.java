@@ -30,6 +30,8 @@ import org.apache.camel.MessageHistory;
 import org.apache.camel.spi.Synchronization;
 import org.apache.camel.spi.UnitOfWork;
 import org.apache.camel.util.CaseInsensitiveMap;
+import org.apache.camel.util.CopyOnWriteCaseInsensitiveMap;
+import org.apache.camel.util.CopyOnWriteMap;
 import org.apache.camel.util.EndpointHelper;
 import org.apache.camel.util.ExchangeHelper;
 import org.apache.camel.util.ObjectHelper;
@@ -125,12 +127,20 @@ public final class DefaultExchange implements Exchange {
         return exchange;
     }
 
-    @SuppressWarnings("unchecked")
-    private static Map<String, Object> safeCopyHeaders(Map<String, Object> headers) {
+    private Map<String, Object> safeCopyHeaders(Map<String, Object> headers) {
         if (headers == null) {
             return null;
         }
 
+        if (headers instanceof CopyOnWriteCaseInsensitiveMap) {
+            // share the headers until either message modifies them
+            return ((CopyOnWriteCaseInsensitiveMap) headers).copy();
+        }
+
+        if (context != null && context.getHeadersMapFactory() != null) {
+            return context.getHeadersMapFactory().newMap(headers);
+        }
+
         Map<String, Object> answer = new CaseInsensitiveMap();
         answer.putAll(headers);
         return answer;
@@ -142,11 +152,16 @@ public final class DefaultExchange implements Exchange {
             return null;
         }
 
+        if (properties instanceof CopyOnWriteProperties) {
+            // share the properties until either exchange modifies them, which includes the message history
+            return ((CopyOnWriteProperties) properties).copy();
+        }
+
         // TODO: properties should use same map kind as headers
         Map<String, Object> answer = new ConcurrentHashMap<String, Object>(properties);
 
         // safe copy message history using a defensive copy
-        List<MessageHistory> history = (List<MessageHistory>) answer.remove(Exchange.MESSAGE_HISTORY);
+        List<MessageHistory> history = (List<MessageHistory>) answer.get(Exchange.MESSAGE_HISTORY);
         if (history != null) {
             answer.put(Exchange.MESSAGE_HISTORY, new ArrayList<MessageHistory>(history));
         }
@@ -255,7 +270,11 @@ public final class DefaultExchange implements Exchange {
 
     public Map<String, Object> getProperties() {
         if (properties == null) {
-            properties = new ConcurrentHashMap<String, Object>();
+            if (context != null && context.isCopyOnWriteHeaders()) {
+                properties = new CopyOnWriteProperties();
+            } else {
+                properties = new ConcurrentHashMap<String, Object>();
+            }
         }
         return properties;
     }
@@ -519,6 +538,96 @@ public final class DefaultExchange implements Exchange {
         return answer;
     }
     
+    /**
+     * Exchange properties which are shared with copies of the exchange until modified.
+     * <p/>
+     * The message history is a mutable list, which is copied when it is looked up after the properties
+     * has been copied, so routing either exchange does not add to the message history of the other.
+     */
+    private static final class CopyOnWriteProperties extends CopyOnWriteMap<String, Object> {
+
+        private volatile boolean messageHistoryShared;
+
+        CopyOnWriteProperties() {
+            super(new ConcurrentHashMap<String, Object>(), false);
+        }
+
+        private CopyOnWriteProperties(Map<String, Object> map) {
+            super(map, true);
+        }
+
+        @Override
+        public synchronized CopyOnWriteProperties copy() {
+            CopyOnWriteProperties answer = (CopyOnWriteProperties) super.copy();
+            if (containsKey(Exchange.MESSAGE_HISTORY)) {
+                messageHistoryShared = true;
+                answer.messageHistoryShared = true;
+            }
+            return answer;
+        }
+
+        @Override
+        public Object get(Object key) {
+            if (messageHistoryShared && Exchange.MESSAGE_HISTORY.equals(key)) {
+                return unshareMessageHistory();
+            }
+            return super.get(key);
+        }
+
+        @Override
+        public synchronized Object put(String key, Object value) {
+            if (messageHistoryShared && Exchange.MESSAGE_HISTORY.equals(key)) {
+                messageHistoryShared = false;
+            }
+            return super.put(key, value);
+        }
+
+        @Override
+        public synchronized Object remove(Object key) {
+            if (messageHistoryShared && Exchange.MESSAGE_HISTORY.equals(key)) {
+                messageHistoryShared = false;
+            }
+            return super.remove(key);
+        }
+
+        @Override
+        public synchronized void putAll(Map<? extends String, ?> m) {
+            if (messageHistoryShared && m.containsKey(Exchange.MESSAGE_HISTORY)) {
+                messageHistoryShared = false;
+            }
+            super.putAll(m);
+        }
+
+        @Override
+        public synchronized void clear() {
+            messageHistoryShared = false;
+            super.clear();
+        }
+
+        @SuppressWarnings("unchecked")
+        private synchronized Object unshareMessageHistory() {
+            if (messageHistoryShared) {
+                // safe copy message history using a defensive copy
+                List<MessageHistory> history = (List<MessageHistory>) super.get(Exchange.MESSAGE_HISTORY);
+                if (history != null) {
+                    super.put(Exchange.MESSAGE_HISTORY, new ArrayList<MessageHistory>(history));
+                }
+                messageHistoryShared = false;
+            }
+            return super.get(Exchange.MESSAGE_HISTORY);
+        }
+
+        @Override
+        protected CopyOnWriteMap<String, Object> newInstance(Map<String, Object> map) {
+            return new CopyOnWriteProperties(map);
+        }
+
+        @Override
+        protected Map<String, Object> copyOf(Map<String, Object> map) {
+            return new ConcurrentHashMap<String, Object>(map);
+        }
+    }
+
     private static boolean isExcludePatternMatch(String key, String... excludePatterns) {
         for (String pattern : excludePatterns) {
             if (EndpointHelper.matchPattern(key, pattern)) {
@@ -215,6 +215,59 @@ public class DefaultExchangeHolder implements Serializable {
         payload.properties.put(key, property);
     }
 
+    // package scope accessors used by the BinaryExchangeCodec
+    //-------------------------------------------------------------------------
+
+    String getExchangeId() {
+        return exchangeId;
+    }
+
+    Object getInBody() {
+        return inBody;
+    }
+
+    Object getOutBody() {
+        return outBody;
+    }
+
+    Boolean getInFaultFlag() {
+        return inFaultFlag;
+    }
+
+    Boolean getOutFaultFlag() {
+        return outFaultFlag;
+    }
+
+    Map<String, Object> getInHeaders() {
+        return inHeaders;
+    }
+
+    Map<String, Object> getOutHeaders() {
+        return outHeaders;
+    }
+
+    Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    Exception getException() {
+        return exception;
+    }
+
+    void restore(String exchangeId, Object inBody, Map<String, Object> inHeaders, Boolean inFaultFlag,
+                 Object outBody, Map<String, Object> outHeaders, Boolean outFaultFlag,
+                 Map<String, Object> properties, Exception exception) {
+        this.exchangeId = exchangeId;
+        this.inBody = inBody;
+        this.inHeaders = inHeaders;
+        this.inFaultFlag = inFaultFlag;
+        this.outBody = outBody;
+        this.outHeaders = outHeaders;
+        this.outFaultFlag = outFaultFlag;
+        this.properties = properties;
+        this.exception = exception;
+    }
+
     public String toString() {
         StringBuilder sb = new StringBuilder("DefaultExchangeHolder[exchangeId=").append(exchangeId);
         sb.append("inBody=").append(inBody).append(", outBody=").append(outBody);
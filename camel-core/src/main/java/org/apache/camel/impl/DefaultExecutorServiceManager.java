@@ -61,7 +61,7 @@ public class DefaultExecutorServiceManager extends ServiceSupport implements Exe
     private static final Logger LOG = LoggerFactory.getLogger(DefaultExecutorServiceManager.class);
 
     private final CamelContext camelContext;
-    private ThreadPoolFactory threadPoolFactory = new DefaultThreadPoolFactory();
+    private ThreadPoolFactory threadPoolFactory = new VirtualThreadPoolFactory();
     private final List<ExecutorService> executorServices = new CopyOnWriteArrayList<ExecutorService>();
     private String threadNamePattern;
     private long shutdownAwaitTermination = 10000;
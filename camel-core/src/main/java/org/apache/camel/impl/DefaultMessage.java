@@ -23,20 +23,28 @@ import java.util.Set;
 import javax.activation.DataHandler;
 
 import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.spi.HeadersMapFactory;
 import org.apache.camel.util.CaseInsensitiveMap;
+import org.apache.camel.util.CopyOnWriteCaseInsensitiveMap;
 import org.apache.camel.util.EndpointHelper;
 
 /**
  * The default implementation of {@link org.apache.camel.Message}
  * <p/>
- * This implementation uses a {@link org.apache.camel.util.CaseInsensitiveMap} storing the headers.
+ * This implementation uses a {@link org.apache.camel.util.CaseInsensitiveMap} storing the headers,
+ * unless another {@link HeadersMapFactory} has been configured on the {@link org.apache.camel.CamelContext}.
  * This allows us to be able to lookup headers using case insensitive keys, making it easier for end users
  * as they do not have to be worried about using exact keys.
  * See more details at {@link org.apache.camel.util.CaseInsensitiveMap}.
+ * <p/>
+ * If copy on write headers is enabled on the {@link org.apache.camel.CamelContext} the headers are stored in a
+ * {@link org.apache.camel.util.CopyOnWriteCaseInsensitiveMap} which are shared with copies of this message until modified.
  *
  * @version 
  */
 public class DefaultMessage extends MessageSupport {
+    private static final HeadersMapFactory DEFAULT_HEADERS_MAP_FACTORY = new DefaultHeadersMapFactory();
     private boolean fault;
     private Map<String, Object> headers;
     private Map<String, DataHandler> attachments;
@@ -164,11 +172,15 @@ public class DefaultMessage extends MessageSupport {
     }
 
     public void setHeaders(Map<String, Object> headers) {
-        if (headers instanceof CaseInsensitiveMap) {
+        HeadersMapFactory factory = getHeadersMapFactory();
+        if (headers instanceof CaseInsensitiveMap || headers instanceof CopyOnWriteCaseInsensitiveMap || factory.isInstanceOf(headers)) {
             this.headers = headers;
+        } else if (isCopyOnWriteHeaders()) {
+            // wrap it in a copy on write case insensitive map
+            this.headers = new CopyOnWriteCaseInsensitiveMap(factory, headers);
         } else {
             // wrap it in a case insensitive map
-            this.headers = new CaseInsensitiveMap(headers);
+            this.headers = factory.newMap(headers);
         }
     }
 
@@ -193,11 +205,54 @@ public class DefaultMessage extends MessageSupport {
      *         the underlying inbound transport
      */
     protected Map<String, Object> createHeaders() {
-        Map<String, Object> map = new CaseInsensitiveMap();
+        HeadersMapFactory factory = getHeadersMapFactory();
+        Map<String, Object> map = isCopyOnWriteHeaders() ? new CopyOnWriteCaseInsensitiveMap(factory) : factory.newMap();
         populateInitialHeaders(map);
         return map;
     }
 
+    @Override
+    protected void copyHeaders(Message that) {
+        if (that.hasHeaders() && that.getHeaders() instanceof CopyOnWriteCaseInsensitiveMap) {
+            // share the headers until either message modifies them
+            CopyOnWriteCaseInsensitiveMap other = (CopyOnWriteCaseInsensitiveMap) that.getHeaders();
+            if (headers instanceof CopyOnWriteCaseInsensitiveMap) {
+                ((CopyOnWriteCaseInsensitiveMap) headers).shareFrom(other);
+            } else {
+                headers = other.copy();
+            }
+        } else if (getExchange() == null && that instanceof DefaultMessage && that.hasHeaders()) {
+            // not yet attached to an exchange (such as when copying the message) so create the headers
+            // in the same kind of map as the other message
+            headers = ((DefaultMessage) that).getHeadersMapFactory().newMap(that.getHeaders());
+        } else {
+            super.copyHeaders(that);
+        }
+    }
+
+    /**
+     * Gets the {@link HeadersMapFactory} to use for creating the headers.
+     *
+     * @see org.apache.camel.CamelContext#setHeadersMapFactory(HeadersMapFactory)
+     */
+    protected HeadersMapFactory getHeadersMapFactory() {
+        Exchange e = getExchange();
+        if (e != null && e.getContext() != null && e.getContext().getHeadersMapFactory() != null) {
+            return e.getContext().getHeadersMapFactory();
+        }
+        return DEFAULT_HEADERS_MAP_FACTORY;
+    }
+
+    /**
+     * Whether the headers should be created as copy on write, which allows sharing them with copies of this message.
+     *
+     * @see org.apache.camel.CamelContext#setCopyOnWriteHeaders(Boolean)
+     */
+    protected boolean isCopyOnWriteHeaders() {
+        Exchange e = getExchange();
+        return e != null && e.getContext() != null && e.getContext().isCopyOnWriteHeaders();
+    }
+
     /**
      * A factory method to lazily create the attachments to make it easy to
      * create efficient Message implementations which only construct and
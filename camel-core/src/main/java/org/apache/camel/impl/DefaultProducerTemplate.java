@@ -16,13 +16,18 @@
  */
 package org.apache.camel.impl;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+import org.apache.camel.AsyncCallback;
 import org.apache.camel.CamelContext;
 import org.apache.camel.CamelExecutionException;
 import org.apache.camel.Endpoint;
@@ -53,6 +58,7 @@ public class DefaultProducerTemplate extends ServiceSupport implements ProducerT
     private Endpoint defaultEndpoint;
     private int maximumCacheSize;
     private boolean eventNotifierEnabled = true;
+    private boolean asyncNonBlocking;
 
     public DefaultProducerTemplate(CamelContext camelContext) {
         this.camelContext = camelContext;
@@ -134,6 +140,16 @@ public class DefaultProducerTemplate extends ServiceSupport implements ProducerT
         return getProducerCache().send(endpoint, pattern, processor);
     }
 
+    public void sendBatch(String endpointUri, Collection<? extends Exchange> exchanges) {
+        Endpoint endpoint = resolveMandatoryEndpoint(endpointUri);
+        sendBatch(endpoint, exchanges);
+    }
+
+    public void sendBatch(Endpoint endpoint, Collection<? extends Exchange> exchanges) {
+        // acquire the producer only once for all the exchanges
+        getProducerCache().sendBatch(endpoint, exchanges);
+    }
+
     public Object sendBody(Endpoint endpoint, ExchangePattern pattern, Object body) {
         Exchange result = send(endpoint, pattern, createSetBodyProcessor(body));
         return extractResultBody(result, pattern);
@@ -446,6 +462,20 @@ public class DefaultProducerTemplate extends ServiceSupport implements ProducerT
         };
     }
 
+    protected Processor createBodyAndHeadersProcessor(final Object body, final Map<String, Object> headers) {
+        return new Processor() {
+            public void process(Exchange exchange) {
+                Message in = exchange.getIn();
+                if (headers != null) {
+                    for (Map.Entry<String, Object> header : headers.entrySet()) {
+                        in.setHeader(header.getKey(), header.getValue());
+                    }
+                }
+                in.setBody(body);
+            }
+        };
+    }
+
     protected Processor createSetBodyProcessor(final Object body) {
         return new Processor() {
             public void process(Exchange exchange) {
@@ -481,6 +511,14 @@ public class DefaultProducerTemplate extends ServiceSupport implements ProducerT
         this.executor = executorService;
     }
 
+    public boolean isAsyncNonBlocking() {
+        return asyncNonBlocking;
+    }
+
+    public void setAsyncNonBlocking(boolean asyncNonBlocking) {
+        this.asyncNonBlocking = asyncNonBlocking;
+    }
+
     public Future<Exchange> asyncSend(final String uri, final Exchange exchange) {
         return asyncSend(resolveMandatoryEndpoint(uri), exchange);
     }
@@ -550,6 +588,10 @@ public class DefaultProducerTemplate extends ServiceSupport implements ProducerT
     }
 
     public Future<Object> asyncRequestBody(final Endpoint endpoint, final Object body) {
+        if (asyncNonBlocking) {
+            return completableRequestBody(endpoint, body);
+        }
+
         Callable<Object> task = new Callable<Object>() {
             public Object call() throws Exception {
                 return requestBody(endpoint, body);
@@ -559,6 +601,10 @@ public class DefaultProducerTemplate extends ServiceSupport implements ProducerT
     }
 
     public <T> Future<T> asyncRequestBody(final Endpoint endpoint, final Object body, final Class<T> type) {
+        if (asyncNonBlocking) {
+            return completableRequestBody(endpoint, body, type);
+        }
+
         Callable<T> task = new Callable<T>() {
             public T call() throws Exception {
                 return requestBody(endpoint, body, type);
@@ -569,6 +615,11 @@ public class DefaultProducerTemplate extends ServiceSupport implements ProducerT
 
     public Future<Object> asyncRequestBodyAndHeader(final Endpoint endpoint, final Object body, final String header,
                                                     final Object headerValue) {
+        if (asyncNonBlocking) {
+            return asyncSendExchange(endpoint, ExchangePattern.InOut, createBodyAndHeaderProcessor(body, header, headerValue), null,
+                    resultBody(ExchangePattern.InOut, Object.class));
+        }
+
         Callable<Object> task = new Callable<Object>() {
             public Object call() throws Exception {
                 return requestBodyAndHeader(endpoint, body, header, headerValue);
@@ -579,6 +630,11 @@ public class DefaultProducerTemplate extends ServiceSupport implements ProducerT
 
     public <T> Future<T> asyncRequestBodyAndHeader(final Endpoint endpoint, final Object body, final String header,
                                                    final Object headerValue, final Class<T> type) {
+        if (asyncNonBlocking) {
+            return asyncSendExchange(endpoint, ExchangePattern.InOut, createBodyAndHeaderProcessor(body, header, headerValue), null,
+                    resultBody(ExchangePattern.InOut, type));
+        }
+
         Callable<T> task = new Callable<T>() {
             public T call() throws Exception {
                 return requestBodyAndHeader(endpoint, body, header, headerValue, type);
@@ -589,6 +645,11 @@ public class DefaultProducerTemplate extends ServiceSupport implements ProducerT
 
     public Future<Object> asyncRequestBodyAndHeaders(final Endpoint endpoint, final Object body,
                                                      final Map<String, Object> headers) {
+        if (asyncNonBlocking) {
+            return asyncSendExchange(endpoint, ExchangePattern.InOut, createBodyAndHeadersProcessor(body, headers), null,
+                    resultBody(ExchangePattern.InOut, Object.class));
+        }
+
         Callable<Object> task = new Callable<Object>() {
             public Object call() throws Exception {
                 return requestBodyAndHeaders(endpoint, body, headers);
@@ -599,6 +660,11 @@ public class DefaultProducerTemplate extends ServiceSupport implements ProducerT
 
     public <T> Future<T> asyncRequestBodyAndHeaders(final Endpoint endpoint, final Object body,
                                                     final Map<String, Object> headers, final Class<T> type) {
+        if (asyncNonBlocking) {
+            return asyncSendExchange(endpoint, ExchangePattern.InOut, createBodyAndHeadersProcessor(body, headers), null,
+                    resultBody(ExchangePattern.InOut, type));
+        }
+
         Callable<T> task = new Callable<T>() {
             public T call() throws Exception {
                 return requestBodyAndHeaders(endpoint, body, headers, type);
@@ -608,6 +674,10 @@ public class DefaultProducerTemplate extends ServiceSupport implements ProducerT
     }
 
     public Future<Exchange> asyncSend(final Endpoint endpoint, final Exchange exchange) {
+        if (asyncNonBlocking) {
+            return completableSend(endpoint, exchange);
+        }
+
         Callable<Exchange> task = new Callable<Exchange>() {
             public Exchange call() throws Exception {
                 return send(endpoint, exchange);
@@ -617,6 +687,10 @@ public class DefaultProducerTemplate extends ServiceSupport implements ProducerT
     }
 
     public Future<Exchange> asyncSend(final Endpoint endpoint, final Processor processor) {
+        if (asyncNonBlocking) {
+            return completableSend(endpoint, processor);
+        }
+
         Callable<Exchange> task = new Callable<Exchange>() {
             public Exchange call() throws Exception {
                 return send(endpoint, processor);
@@ -626,6 +700,10 @@ public class DefaultProducerTemplate extends ServiceSupport implements ProducerT
     }
 
     public Future<Object> asyncSendBody(final Endpoint endpoint, final Object body) {
+        if (asyncNonBlocking) {
+            return completableSendBody(endpoint, body);
+        }
+
         Callable<Object> task = new Callable<Object>() {
             public Object call() throws Exception {
                 sendBody(endpoint, body);
@@ -637,6 +715,17 @@ public class DefaultProducerTemplate extends ServiceSupport implements ProducerT
     }
 
     private Future<Object> asyncCallback(final Endpoint endpoint, final ExchangePattern pattern, final Object body, final Synchronization onCompletion) {
+        if (asyncNonBlocking) {
+            // invoke the callback from the thread completing the exchange
+            return asyncSendExchange(endpoint, pattern, createSetBodyProcessor(body), null, new Function<Exchange, Object>() {
+                public Object apply(Exchange answer) {
+                    invokeOnCompletion(answer, onCompletion);
+                    Object result = extractResultBody(answer, pattern);
+                    return pattern.isOutCapable() ? result : null;
+                }
+            });
+        }
+
         Callable<Object> task = new Callable<Object>() {
             public Object call() throws Exception {
                 Exchange answer = send(endpoint, pattern, createSetBodyProcessor(body));
@@ -664,6 +753,10 @@ public class DefaultProducerTemplate extends ServiceSupport implements ProducerT
     }
 
     public Future<Exchange> asyncCallback(final Endpoint endpoint, final Exchange exchange, final Synchronization onCompletion) {
+        if (asyncNonBlocking) {
+            return asyncSendExchange(endpoint, null, null, exchange, invokeOnCompletion(onCompletion));
+        }
+
         Callable<Exchange> task = new Callable<Exchange>() {
             public Exchange call() throws Exception {
                 // process the exchange, any exception occurring will be caught and set on the exchange
@@ -685,6 +778,10 @@ public class DefaultProducerTemplate extends ServiceSupport implements ProducerT
     }
 
     public Future<Exchange> asyncCallback(final Endpoint endpoint, final Processor processor, final Synchronization onCompletion) {
+        if (asyncNonBlocking) {
+            return asyncSendExchange(endpoint, null, processor, null, invokeOnCompletion(onCompletion));
+        }
+
         Callable<Exchange> task = new Callable<Exchange>() {
             public Exchange call() throws Exception {
                 // process the exchange, any exception occurring will be caught and set on the exchange
@@ -705,6 +802,133 @@ public class DefaultProducerTemplate extends ServiceSupport implements ProducerT
         return getExecutorService().submit(task);
     }
 
+    public CompletableFuture<Exchange> completableSend(String endpointUri, Exchange exchange) {
+        return completableSend(resolveMandatoryEndpoint(endpointUri), exchange);
+    }
+
+    public CompletableFuture<Exchange> completableSend(String endpointUri, Processor processor) {
+        return completableSend(resolveMandatoryEndpoint(endpointUri), processor);
+    }
+
+    public CompletableFuture<Object> completableSendBody(String endpointUri, Object body) {
+        return completableSendBody(resolveMandatoryEndpoint(endpointUri), body);
+    }
+
+    public CompletableFuture<Object> completableRequestBody(String endpointUri, Object body) {
+        return completableRequestBody(resolveMandatoryEndpoint(endpointUri), body);
+    }
+
+    public <T> CompletableFuture<T> completableRequestBody(String endpointUri, Object body, Class<T> type) {
+        return completableRequestBody(resolveMandatoryEndpoint(endpointUri), body, type);
+    }
+
+    public CompletableFuture<Exchange> completableSend(Endpoint endpoint, Exchange exchange) {
+        return asyncSendExchange(endpoint, null, null, exchange, resultExchange());
+    }
+
+    public CompletableFuture<Exchange> completableSend(Endpoint endpoint, Processor processor) {
+        return asyncSendExchange(endpoint, null, processor, null, resultExchange());
+    }
+
+    public CompletableFuture<Object> completableSendBody(Endpoint endpoint, Object body) {
+        // its InOnly, so no body to return
+        return asyncSendExchange(endpoint, null, createSetBodyProcessor(body), null, resultBody(ExchangePattern.InOnly, Object.class));
+    }
+
+    public CompletableFuture<Object> completableRequestBody(Endpoint endpoint, Object body) {
+        return completableRequestBody(endpoint, body, Object.class);
+    }
+
+    public <T> CompletableFuture<T> completableRequestBody(Endpoint endpoint, Object body, Class<T> type) {
+        return asyncSendExchange(endpoint, ExchangePattern.InOut, createSetBodyProcessor(body), null, resultBody(ExchangePattern.InOut, type));
+    }
+
+    /**
+     * Sends the exchange asynchronously, either using the asynchronous routing engine if {@link #isAsyncNonBlocking()}
+     * is enabled, or otherwise by a thread from the executor service.
+     * <p/>
+     * The result is computed by the thread completing the exchange, before the returned future is completed.
+     *
+     * @param endpoint  the endpoint to send the exchange to
+     * @param pattern   the exchange pattern, can be <tt>null</tt>
+     * @param processor the transformer used to populate the new exchange, can be <tt>null</tt>
+     * @param exchange  the exchange, can be <tt>null</tt> if so then create a new exchange from the endpoint
+     * @param result    computes the result from the exchange when it has been sent
+     * @return a future which is completed with the result
+     */
+    protected <T> CompletableFuture<T> asyncSendExchange(final Endpoint endpoint, final ExchangePattern pattern, final Processor processor,
+                                                         final Exchange exchange, final Function<Exchange, T> result) {
+        if (!asyncNonBlocking) {
+            return CompletableFuture.supplyAsync(new Supplier<T>() {
+                public T get() {
+                    Exchange answer = getProducerCache().sendExchange(endpoint, pattern, processor, exchange);
+                    return result.apply(answer);
+                }
+            }, getExecutorService());
+        }
+
+        final CompletableFuture<T> future = new CompletableFuture<T>();
+        final Exchange answer;
+        if (exchange != null) {
+            answer = exchange;
+        } else {
+            answer = pattern != null ? endpoint.createExchange(pattern) : endpoint.createExchange();
+        }
+        getProducerCache().asyncSendExchange(endpoint, pattern, processor, answer, new AsyncCallback() {
+            public void done(boolean doneSync) {
+                try {
+                    future.complete(result.apply(answer));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+        return future;
+    }
+
+    private static Function<Exchange, Exchange> resultExchange() {
+        return new Function<Exchange, Exchange>() {
+            public Exchange apply(Exchange answer) {
+                return answer;
+            }
+        };
+    }
+
+    private <T> Function<Exchange, T> resultBody(final ExchangePattern pattern, final Class<T> type) {
+        return new Function<Exchange, T>() {
+            public T apply(Exchange answer) {
+                // must invoke extract result body in case of exception to be rethrown
+                Object body = extractResultBody(answer, pattern);
+                if (!pattern.isOutCapable()) {
+                    // return null if not OUT capable
+                    return null;
+                }
+                return camelContext.getTypeConverter().convertTo(type, body);
+            }
+        };
+    }
+
+    private static Function<Exchange, Exchange> invokeOnCompletion(final Synchronization onCompletion) {
+        return new Function<Exchange, Exchange>() {
+            public Exchange apply(Exchange answer) {
+                invokeOnCompletion(answer, onCompletion);
+                return answer;
+            }
+        };
+    }
+
+    private static void invokeOnCompletion(Exchange answer, Synchronization onCompletion) {
+        // invoke callback before returning answer
+        // as it allows callback to be used without unit of work invoking it
+        // and thus it works directly from a producer template as well, as opposed
+        // to the unit of work that is injected in routes
+        if (answer.isFailed()) {
+            onCompletion.onFailure(answer);
+        } else {
+            onCompletion.onComplete(answer);
+        }
+    }
+
     private ProducerCache getProducerCache() {
         if (!isStarted()) {
             throw new IllegalStateException("ProducerTemplate has not been started");
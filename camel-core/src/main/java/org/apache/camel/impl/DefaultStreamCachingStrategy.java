@@ -19,6 +19,7 @@ package org.apache.camel.impl;
 import java.io.File;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
+import java.nio.ByteBuffer;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -28,6 +29,7 @@ import org.apache.camel.CamelContextAware;
 import org.apache.camel.Exchange;
 import org.apache.camel.Message;
 import org.apache.camel.StreamCache;
+import org.apache.camel.converter.stream.ByteBufferPool;
 import org.apache.camel.spi.StreamCachingStrategy;
 import org.apache.camel.util.FilePathResolver;
 import org.apache.camel.util.FileUtil;
@@ -60,6 +62,9 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
     private SpoolUsedHeapMemoryLimit spoolUsedHeapMemoryLimit;
     private String spoolChiper;
     private int bufferSize = IOHelper.DEFAULT_BUFFER_SIZE;
+    private boolean bufferPoolEnabled;
+    private int bufferPoolSize = 256;
+    private volatile ByteBufferPool bufferPool;
     private boolean removeSpoolDirectoryWhenStopping = true;
     private final UtilizationStatistics statistics = new UtilizationStatistics();
     private final Set<SpoolRule> spoolRules = new LinkedHashSet<SpoolRule>();
@@ -133,6 +138,38 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
         this.bufferSize = bufferSize;
     }
 
+    public boolean isBufferPoolEnabled() {
+        return bufferPoolEnabled;
+    }
+
+    public void setBufferPoolEnabled(boolean bufferPoolEnabled) {
+        this.bufferPoolEnabled = bufferPoolEnabled;
+    }
+
+    public int getBufferPoolSize() {
+        return bufferPoolSize;
+    }
+
+    public void setBufferPoolSize(int bufferPoolSize) {
+        this.bufferPoolSize = bufferPoolSize;
+    }
+
+    public ByteBuffer acquireBuffer() {
+        ByteBufferPool pool = bufferPool;
+        if (pool != null) {
+            return pool.acquire();
+        } else {
+            return ByteBuffer.allocate(bufferSize);
+        }
+    }
+
+    public void releaseBuffer(ByteBuffer buffer) {
+        ByteBufferPool pool = bufferPool;
+        if (pool != null) {
+            pool.release(buffer);
+        }
+    }
+
     public boolean isRemoveSpoolDirectoryWhenStopping() {
         return removeSpoolDirectoryWhenStopping;
     }
@@ -230,6 +267,16 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
 
     @Override
     protected void doStart() throws Exception {
+        // the buffer pool is also used by components using CachedOutputStream when stream caching is not enabled
+        if (bufferPoolEnabled) {
+            if (bufferPool == null || bufferPool.getBufferSize() != bufferSize || bufferPool.getMaximumSize() != bufferPoolSize) {
+                bufferPool = new ByteBufferPool(bufferSize, bufferPoolSize);
+            }
+            LOG.debug("Using buffer pool: {}", bufferPool);
+        } else {
+            bufferPool = null;
+        }
+
         if (!enabled) {
             LOG.debug("StreamCaching is not enabled");
             return;
@@ -331,6 +378,11 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
         }
 
         statistics.reset();
+
+        if (bufferPool != null) {
+            // release the idle buffers, the buffers in use are pooled again when released
+            bufferPool.clear();
+        }
     }
 
     @Override
@@ -341,6 +393,8 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
             + ", spoolThreshold=" + spoolThreshold
             + ", spoolUsedHeapMemoryThreshold=" + spoolUsedHeapMemoryThreshold
             + ", bufferSize=" + bufferSize
+            + ", bufferPoolEnabled=" + bufferPoolEnabled
+            + ", bufferPoolSize=" + bufferPoolSize
             + ", anySpoolRules=" + anySpoolRules + "]";
     }
 
@@ -405,7 +459,7 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
     /**
      * Represents utilization statistics.
      */
-    private static final class UtilizationStatistics implements Statistics {
+    private final class UtilizationStatistics implements Statistics {
 
         private boolean statisticsEnabled;
         private volatile long memoryCounter;
@@ -451,6 +505,31 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
             return spoolAverageSize;
         }
 
+        public long getBufferPoolAllocatedCounter() {
+            ByteBufferPool pool = bufferPool;
+            return pool != null ? pool.getAllocatedCounter() : 0;
+        }
+
+        public long getBufferPoolReusedCounter() {
+            ByteBufferPool pool = bufferPool;
+            return pool != null ? pool.getReusedCounter() : 0;
+        }
+
+        public long getBufferPoolOverflowCounter() {
+            ByteBufferPool pool = bufferPool;
+            return pool != null ? pool.getOverflowCounter() : 0;
+        }
+
+        public long getBufferPoolInUse() {
+            ByteBufferPool pool = bufferPool;
+            return pool != null ? pool.getInUse() : 0;
+        }
+
+        public long getBufferPoolIdle() {
+            ByteBufferPool pool = bufferPool;
+            return pool != null ? pool.getIdle() : 0;
+        }
+
         public synchronized void reset() {
             memoryCounter = 0;
             memorySize = 0;
@@ -458,6 +537,10 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
             spoolCounter = 0;
             spoolSize = 0;
             spoolAverageSize = 0;
+            ByteBufferPool pool = bufferPool;
+            if (pool != null) {
+                pool.reset();
+            }
         }
 
         public boolean isStatisticsEnabled() {
@@ -469,8 +552,10 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
         }
 
         public String toString() {
-            return String.format("[memoryCounter=%s, memorySize=%s, memoryAverageSize=%s, spoolCounter=%s, spoolSize=%s, spoolAverageSize=%s]",
-                    memoryCounter, memorySize, memoryAverageSize, spoolCounter, spoolSize, spoolAverageSize);
+            return String.format("[memoryCounter=%s, memorySize=%s, memoryAverageSize=%s, spoolCounter=%s, spoolSize=%s, spoolAverageSize=%s"
+                    + ", bufferPoolAllocatedCounter=%s, bufferPoolReusedCounter=%s, bufferPoolOverflowCounter=%s, bufferPoolInUse=%s, bufferPoolIdle=%s]",
+                    memoryCounter, memorySize, memoryAverageSize, spoolCounter, spoolSize, spoolAverageSize,
+                    getBufferPoolAllocatedCounter(), getBufferPoolReusedCounter(), getBufferPoolOverflowCounter(), getBufferPoolInUse(), getBufferPoolIdle());
         }
     }
 
@@ -18,8 +18,10 @@ package org.apache.camel.impl;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
 import org.apache.camel.FailedToCreateProducerException;
 import org.apache.camel.Producer;
+import org.apache.camel.util.ExchangeHelper;
 import org.apache.camel.util.ServiceHelper;
 
 /**
@@ -52,6 +54,12 @@ public class EmptyProducerCache extends ProducerCache {
         return answer;
     }
 
+    @Override
+    public Endpoint resolveEndpoint(Exchange exchange, Object recipient) {
+        // do not cache the resolved endpoints either
+        return ExchangeHelper.resolveEndpoint(exchange, recipient);
+    }
+
     @Override
     public void releaseProducer(Endpoint endpoint, Producer producer) throws Exception {
         // stop and shutdown the producer as its not cache or reused
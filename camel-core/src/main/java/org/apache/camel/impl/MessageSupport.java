@@ -149,18 +149,27 @@ public abstract class MessageSupport implements Message {
         }
 
         if (!sameHeadersInstance) {
-            if (hasHeaders()) {
-                // okay its safe to clear the headers
-                getHeaders().clear();
-            }
-            if (that.hasHeaders()) {
-                getHeaders().putAll(that.getHeaders());
-            }
+            copyHeaders(that);
         }
 
         copyAttachments(that);
     }
 
+    /**
+     * Copies the headers from the given message, replacing any existing headers of this message.
+     *
+     * @param that the message to copy the headers from
+     */
+    protected void copyHeaders(Message that) {
+        if (hasHeaders()) {
+            // okay its safe to clear the headers
+            getHeaders().clear();
+        }
+        if (that.hasHeaders()) {
+            getHeaders().putAll(that.getHeaders());
+        }
+    }
+
     public Exchange getExchange() {
         return exchange;
     }
@@ -16,7 +16,9 @@
  */
 package org.apache.camel.impl;
 
+import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.AsyncProcessor;
@@ -31,6 +33,7 @@ import org.apache.camel.Processor;
 import org.apache.camel.Producer;
 import org.apache.camel.ProducerCallback;
 import org.apache.camel.ServicePoolAware;
+import org.apache.camel.processor.CamelInternalProcessor;
 import org.apache.camel.processor.UnitOfWorkProducer;
 import org.apache.camel.spi.EndpointUtilizationStatistics;
 import org.apache.camel.spi.ServicePool;
@@ -38,6 +41,7 @@ import org.apache.camel.support.ServiceSupport;
 import org.apache.camel.util.AsyncProcessorConverterHelper;
 import org.apache.camel.util.CamelContextHelper;
 import org.apache.camel.util.EventHelper;
+import org.apache.camel.util.ExchangeHelper;
 import org.apache.camel.util.LRUCache;
 import org.apache.camel.util.ServiceHelper;
 import org.apache.camel.util.StopWatch;
@@ -55,7 +59,11 @@ public class ProducerCache extends ServiceSupport {
     private final CamelContext camelContext;
     private final ServicePool<Endpoint, Producer> pool;
     private final Map<String, Producer> producers;
+    private final LRUCache<String, Endpoint> endpoints;
     private final Object source;
+    private final AtomicLong acquireCounter = new AtomicLong();
+    private final AtomicLong acquireTotalTime = new AtomicLong();
+    private final AtomicLong acquireMaxTime = new AtomicLong();
 
     private EndpointUtilizationStatistics statistics;
     private boolean eventNotifierEnabled = true;
@@ -90,6 +98,9 @@ public class ProducerCache extends ServiceSupport {
         if (producers instanceof LRUCache) {
             maxCacheSize = ((LRUCache) producers).getMaxCacheSize();
         }
+        // the resolved endpoints are owned by CamelContext so they must not be stopped on eviction
+        int endpointCacheSize = maxCacheSize > 0 ? maxCacheSize : CamelContextHelper.getMaximumCachePoolSize(camelContext);
+        this.endpoints = new LRUCache<String, Endpoint>(Math.min(16, endpointCacheSize), endpointCacheSize, false);
 
         // only if JMX is enabled
         if (camelContext.getManagementStrategy().getManagementAgent() != null) {
@@ -158,7 +169,37 @@ public class ProducerCache extends ServiceSupport {
      * @return the producer
      */
     public Producer acquireProducer(Endpoint endpoint) {
-        return doGetProducer(endpoint, true);
+        return getProducer(endpoint, true);
+    }
+
+    /**
+     * Resolves the endpoint to send to from the given recipient, such as the dynamic uri computed
+     * by <tt>toD</tt>, recipient list or routing slip.
+     * <p/>
+     * The resolved endpoints are cached using the given uri as key as-is, which avoids normalizing the uri
+     * and looking up the endpoint in the {@link CamelContext} for every message sent to the same dynamic uri.
+     * Only singleton endpoints are cached.
+     *
+     * @param exchange  the exchange
+     * @param recipient the recipient which is either an {@link Endpoint} or the uri of the endpoint
+     * @return the endpoint
+     * @throws org.apache.camel.NoSuchEndpointException is thrown if the endpoint could not be resolved
+     */
+    public Endpoint resolveEndpoint(Exchange exchange, Object recipient) {
+        if (!(recipient instanceof String)) {
+            return ExchangeHelper.resolveEndpoint(exchange, recipient);
+        }
+
+        String uri = (String) recipient;
+        Endpoint answer = endpoints.get(uri);
+        // the endpoint may have been stopped if it was removed from CamelContext, so then resolve it again
+        if (answer == null || ServiceHelper.isStopped(answer)) {
+            answer = ExchangeHelper.resolveEndpoint(exchange, uri);
+            if (answer.isSingleton()) {
+                endpoints.put(uri, answer);
+            }
+        }
+        return answer;
     }
 
     /**
@@ -206,6 +247,30 @@ public class ProducerCache extends ServiceSupport {
         sendExchange(endpoint, null, null, exchange);
     }
 
+    /**
+     * Sends the exchanges to the given endpoint one by one, using the same producer
+     * which is only acquired once for the entire batch.
+     * <p>
+     * This method will <b>not</b> throw an exception. If processing of any of the given
+     * Exchanges failed then the exception is stored on that Exchange
+     *
+     * @param endpoint  the endpoint to send the exchanges to
+     * @param exchanges the exchanges to send
+     */
+    public void sendBatch(final Endpoint endpoint, final Collection<? extends Exchange> exchanges) {
+        if (exchanges.isEmpty()) {
+            return;
+        }
+        doInProducer(endpoint, null, null, new ProducerCallback<Object>() {
+            public Object doInProducer(Producer producer, Exchange exchange, ExchangePattern pattern) {
+                for (Exchange current : exchanges) {
+                    dispatchExchange(endpoint, producer, current);
+                }
+                return null;
+            }
+        });
+    }
+
     /**
      * Sends an exchange to an endpoint using a supplied
      * {@link Processor} to populate the exchange
@@ -255,7 +320,7 @@ public class ProducerCache extends ServiceSupport {
         T answer = null;
 
         // get the producer and we do not mind if its pooled as we can handle returning it back to the pool
-        Producer producer = doGetProducer(endpoint, true);
+        Producer producer = getProducer(endpoint, true);
 
         if (producer == null) {
             if (isStopped()) {
@@ -309,7 +374,7 @@ public class ProducerCache extends ServiceSupport {
         Producer target;
         try {
             // get the producer and we do not mind if its pooled as we can handle returning it back to the pool
-            target = doGetProducer(endpoint, true);
+            target = getProducer(endpoint, true);
 
             if (target == null) {
                 if (isStopped()) {
@@ -395,37 +460,103 @@ public class ProducerCache extends ServiceSupport {
                     }
                 }
 
+                return dispatchExchange(endpoint, producer, exchange);
+            }
+        });
+    }
+
+    private Exchange dispatchExchange(Endpoint endpoint, Producer producer, Exchange exchange) {
+        // now lets dispatch
+        LOG.debug(">>>> {} {}", endpoint, exchange);
+
+        // set property which endpoint we send to
+        exchange.setProperty(Exchange.TO_ENDPOINT, endpoint.getEndpointUri());
+
+        // send the exchange using the processor
+        StopWatch watch = null;
+        try {
+            if (eventNotifierEnabled) {
+                watch = new StopWatch();
+                EventHelper.notifyExchangeSending(exchange.getContext(), exchange, endpoint);
+            }
+            // ensure we run in an unit of work
+            Producer target = new UnitOfWorkProducer(producer);
+            target.process(exchange);
+        } catch (Throwable e) {
+            // ensure exceptions is caught and set on the exchange
+            exchange.setException(e);
+        } finally {
+            // emit event that the exchange was sent to the endpoint
+            if (eventNotifierEnabled && watch != null) {
+                long timeTaken = watch.stop();
+                EventHelper.notifyExchangeSent(exchange.getContext(), exchange, endpoint, timeTaken);
+            }
+        }
+        return exchange;
+    }
+
+    /**
+     * Sends an exchange to an endpoint using the asynchronous routing engine, without blocking the caller thread
+     * waiting for an asynchronous producer to complete.
+     * <p/>
+     * The caller thread is used to send the exchange until the producer continues asynchronously, or the exchange
+     * is done synchronously. If an exception was thrown during processing, it would be set on the exchange.
+     *
+     * @param endpoint  the endpoint to send the exchange to
+     * @param pattern   the exchange pattern, can be <tt>null</tt>
+     * @param processor the transformer used to populate the exchange, can be <tt>null</tt>
+     * @param exchange  the exchange to send
+     * @param callback  the callback invoked when the exchange has been sent
+     * @return (doneSync) <tt>true</tt> to continue execute synchronously, <tt>false</tt> to continue being executed asynchronously
+     */
+    public boolean asyncSendExchange(final Endpoint endpoint, ExchangePattern pattern, Processor processor,
+                                     Exchange exchange, AsyncCallback callback) {
+        if (processor != null) {
+            // lets populate using the processor callback
+            try {
+                processor.process(exchange);
+            } catch (Exception e) {
+                // populate failed so return
+                exchange.setException(e);
+                callback.done(true);
+                return true;
+            }
+        }
+
+        return doInAsyncProducer(endpoint, exchange, pattern, callback, new AsyncProducerCallback() {
+            @Override
+            public boolean doInAsyncProducer(Producer producer, AsyncProcessor asyncProducer, Exchange exchange,
+                                             ExchangePattern pattern, AsyncCallback callback) {
                 // now lets dispatch
                 LOG.debug(">>>> {} {}", endpoint, exchange);
 
                 // set property which endpoint we send to
                 exchange.setProperty(Exchange.TO_ENDPOINT, endpoint.getEndpointUri());
 
-                // send the exchange using the processor
-                StopWatch watch = null;
-                try {
-                    if (eventNotifierEnabled) {
-                        watch = new StopWatch();
-                        EventHelper.notifyExchangeSending(exchange.getContext(), exchange, endpoint);
-                    }
-                    // ensure we run in an unit of work
-                    Producer target = new UnitOfWorkProducer(producer);
-                    target.process(exchange);
-                } catch (Throwable e) {
-                    // ensure exceptions is caught and set on the exchange
-                    exchange.setException(e);
-                } finally {
-                    // emit event that the exchange was sent to the endpoint
-                    if (eventNotifierEnabled && watch != null) {
-                        long timeTaken = watch.stop();
-                        EventHelper.notifyExchangeSent(exchange.getContext(), exchange, endpoint, timeTaken);
-                    }
-                }
-                return exchange;
+                // ensure we run in an unit of work
+                CamelInternalProcessor internal = new CamelInternalProcessor(asyncProducer);
+                internal.addAdvice(new CamelInternalProcessor.UnitOfWorkProcessorAdvice(null));
+                return internal.process(exchange, callback);
             }
         });
     }
 
+    private Producer getProducer(Endpoint endpoint, boolean pooled) {
+        // record how long time it takes to acquire the producer (including waiting for the lock)
+        long start = System.nanoTime();
+        try {
+            return doGetProducer(endpoint, pooled);
+        } finally {
+            long delta = System.nanoTime() - start;
+            acquireCounter.incrementAndGet();
+            acquireTotalTime.addAndGet(delta);
+            long max = acquireMaxTime.get();
+            while (delta > max && !acquireMaxTime.compareAndSet(max, delta)) {
+                max = acquireMaxTime.get();
+            }
+        }
+    }
+
     protected synchronized Producer doGetProducer(Endpoint endpoint, boolean pooled) {
         String key = endpoint.getEndpointUri();
         Producer answer = producers.get(key);
@@ -490,6 +621,7 @@ public class ProducerCache extends ServiceSupport {
             }
         }
         producers.clear();
+        endpoints.clear();
         if (statistics != null) {
             statistics.clear();
         }
@@ -572,6 +704,61 @@ public class ProducerCache extends ServiceSupport {
         return evicted;
     }
 
+    /**
+     * Gets the number of resolved endpoints cached
+     *
+     * @return the number of resolved endpoints
+     */
+    public int getEndpointCacheSize() {
+        return endpoints.size();
+    }
+
+    /**
+     * Gets the resolved endpoints cache hits statistic
+     *
+     * @return the hits
+     */
+    public long getEndpointCacheHits() {
+        return endpoints.getHits();
+    }
+
+    /**
+     * Gets the resolved endpoints cache misses statistic
+     *
+     * @return the misses
+     */
+    public long getEndpointCacheMisses() {
+        return endpoints.getMisses();
+    }
+
+    /**
+     * Gets the number of times a producer has been acquired from this cache
+     *
+     * @return the number of acquisitions
+     */
+    public long getAcquireCounter() {
+        return acquireCounter.get();
+    }
+
+    /**
+     * Gets the mean time in nanos it took to acquire a producer from this cache
+     *
+     * @return the mean time in nanos, or <tt>0</tt> if no producer has been acquired
+     */
+    public long getMeanAcquireTime() {
+        long count = acquireCounter.get();
+        return count > 0 ? acquireTotalTime.get() / count : 0;
+    }
+
+    /**
+     * Gets the maximum time in nanos it took to acquire a producer from this cache
+     *
+     * @return the maximum time in nanos
+     */
+    public long getMaxAcquireTime() {
+        return acquireMaxTime.get();
+    }
+
     /**
      * Resets the cache statistics
      */
@@ -580,6 +767,10 @@ public class ProducerCache extends ServiceSupport {
             LRUCache<String, Producer> cache = (LRUCache<String, Producer>)producers;
             cache.resetStatistics();
         }
+        endpoints.resetStatistics();
+        acquireCounter.set(0);
+        acquireTotalTime.set(0);
+        acquireMaxTime.set(0);
         if (statistics != null) {
             statistics.clear();
         }
@@ -590,6 +781,7 @@ public class ProducerCache extends ServiceSupport {
      */
     public synchronized void purge() {
         producers.clear();
+        endpoints.clear();
         pool.purge();
         if (statistics != null) {
             statistics.clear();
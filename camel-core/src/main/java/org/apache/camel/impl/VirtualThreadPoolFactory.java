@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.camel.spi.ThreadPoolProfile;
+import org.apache.camel.util.concurrent.CamelThreadFactory;
+import org.apache.camel.util.concurrent.RejectableThreadPoolExecutor;
+import org.apache.camel.util.concurrent.VirtualThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Factory for thread pools which runs the tasks on virtual threads, for thread pool profiles
+ * which has {@link ThreadPoolProfile#getVirtualThreads()} enabled.
+ * <p/>
+ * A virtual thread is cheap to create and to block, so the thread pool is not bounded by the pool sizes
+ * from the profile, and each task is handed over directly to a new (or idle) virtual thread.
+ * This allows routes doing blocking calls such as JDBC or HTTP to scale without having to use huge thread pools.
+ * <p/>
+ * Profiles without virtual threads enabled, and scheduled thread pools, are created using platform threads
+ * as done by {@link DefaultThreadPoolFactory}. If the JVM does not support virtual threads, then platform
+ * threads are used as well.
+ */
+public class VirtualThreadPoolFactory extends DefaultThreadPoolFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadPoolFactory.class);
+    private final AtomicBoolean fallbackLogged = new AtomicBoolean();
+
+    @Override
+    public ExecutorService newThreadPool(ThreadPoolProfile profile, ThreadFactory factory) {
+        if (profile.getVirtualThreads() == null || !profile.getVirtualThreads()) {
+            return super.newThreadPool(profile, factory);
+        }
+
+        if (!VirtualThreadFactory.isSupported()) {
+            if (fallbackLogged.compareAndSet(false, true)) {
+                LOG.info("Virtual threads are not supported on this JVM. Using platform threads for thread pools with virtual threads enabled.");
+            }
+            return super.newThreadPool(profile, factory);
+        }
+
+        long keepAliveTime = profile.getKeepAliveTime() != null ? profile.getKeepAliveTime() : 60;
+        TimeUnit timeUnit = profile.getTimeUnit() != null ? profile.getTimeUnit() : TimeUnit.SECONDS;
+
+        // use a synchronous queue for direct-handover as there is no need to queue tasks
+        // when threads are cheap, and let idle threads be reused until they timeout
+        RejectableThreadPoolExecutor answer = new RejectableThreadPoolExecutor(0, Integer.MAX_VALUE, keepAliveTime, timeUnit,
+                new SynchronousQueue<Runnable>(), createVirtualThreadFactory(factory));
+        if (profile.getRejectedExecutionHandler() != null) {
+            answer.setRejectedExecutionHandler(profile.getRejectedExecutionHandler());
+        }
+        return answer;
+    }
+
+    /**
+     * Whether the running JVM supports virtual threads.
+     */
+    public boolean isVirtualThreadsSupported() {
+        return VirtualThreadFactory.isSupported();
+    }
+
+    protected ThreadFactory createVirtualThreadFactory(ThreadFactory factory) {
+        if (factory instanceof CamelThreadFactory) {
+            // keep the thread names as configured by the executor service manager
+            CamelThreadFactory ctf = (CamelThreadFactory) factory;
+            return new VirtualThreadFactory(ctf.getPattern(), ctf.getName());
+        }
+        return new VirtualThreadFactory(null, null);
+    }
+
+}
@@ -18,6 +18,7 @@ package org.apache.camel.impl.converter;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -81,6 +82,10 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
     protected final AtomicLong missCounter = new AtomicLong();
     protected final AtomicLong hitCounter = new AtomicLong();
     protected final AtomicLong failedCounter = new AtomicLong();
+    protected final AtomicLong cacheHitCounter = new AtomicLong();
+    protected final AtomicLong cacheMissCounter = new AtomicLong();
+    // identity based cache of the type converters found, which is replaced when the type converters are changed
+    private volatile ConverterCache converterCache = new ConverterCache();
 
     public BaseTypeConverterRegistry(PackageScanClassResolver resolver, Injector injector, FactoryFinder factoryFinder) {
         this.resolver = resolver;
@@ -288,17 +293,38 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
             attemptCounter.incrementAndGet();
         }
 
-        // check if we have tried it before and if its a miss
-        TypeMapping key = new TypeMapping(type, value.getClass());
-        if (misses.containsKey(key)) {
-            // we have tried before but we cannot convert this one
-            return Void.TYPE;
+        // use the cache first as that is faster than the type mappings and misses (no need to create a key)
+        ConverterCache cache = converterCache;
+        TypeConverter converter = cache.get(type, value.getClass());
+        if (statistics.isStatisticsEnabled()) {
+            if (converter != null) {
+                cacheHitCounter.incrementAndGet();
+            } else {
+                cacheMissCounter.incrementAndGet();
+            }
+        }
+
+        TypeMapping key = null;
+        if (converter == null) {
+            // check if we have tried it before and if its a miss
+            key = new TypeMapping(type, value.getClass());
+            if (misses.containsKey(key)) {
+                // we have tried before but we cannot convert this one
+                return Void.TYPE;
+            }
+
+            // try to find a suitable type converter
+            converter = getOrFindTypeConverter(key);
+            if (converter != null) {
+                // remember it in the cache we looked up, so a converter changed in the meantime is not cached
+                cache.put(type, value.getClass(), converter);
+            }
         }
-        
-        // try to find a suitable type converter
-        TypeConverter converter = getOrFindTypeConverter(key);
+
         if (converter != null) {
-            log.trace("Using converter: {} to convert {}", converter, key);
+            if (log.isTraceEnabled()) {
+                log.trace("Using converter: {} to convert {} -> {}", new Object[]{converter, value.getClass(), type});
+            }
             Object rc;
             if (tryConvert) {
                 rc = converter.tryConvertTo(type, exchange, value);
@@ -379,6 +405,9 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         if (!tryConvert) {
             // Could not find suitable conversion, so remember it
             // do not register misses for try conversions
+            if (key == null) {
+                key = new TypeMapping(type, value.getClass());
+            }
             misses.put(key, key);
         }
 
@@ -418,6 +447,7 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
                 typeMappings.put(key, typeConverter);
                 // remove any previous misses, as we added the new type converter
                 misses.remove(key);
+                converterCache = new ConverterCache();
             }
         }
     }
@@ -442,6 +472,7 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         if (converter != null) {
             typeMappings.remove(key);
             misses.remove(key);
+            converterCache = new ConverterCache();
         }
         return converter != null;
     }
@@ -671,6 +702,7 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
 
         typeMappings.clear();
         misses.clear();
+        converterCache = new ConverterCache();
         statistics.reset();
     }
 
@@ -706,6 +738,23 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
             return failedCounter.get();
         }
 
+        @Override
+        public long getCacheHitCounter() {
+            return cacheHitCounter.get();
+        }
+
+        @Override
+        public long getCacheMissCounter() {
+            return cacheMissCounter.get();
+        }
+
+        @Override
+        public double getCacheHitRatio() {
+            long hits = getCacheHitCounter();
+            long total = hits + getCacheMissCounter();
+            return total > 0 ? (double) hits / total : 0d;
+        }
+
         @Override
         public void reset() {
             noopCounter.set(0);
@@ -713,6 +762,8 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
             hitCounter.set(0);
             missCounter.set(0);
             failedCounter.set(0);
+            cacheHitCounter.set(0);
+            cacheMissCounter.set(0);
         }
 
         @Override
@@ -727,8 +778,8 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
 
         @Override
         public String toString() {
-            return String.format("TypeConverterRegistry utilization[noop=%s, attempts=%s, hits=%s, misses=%s, failures=%s]",
-                    getNoopCounter(), getAttemptCounter(), getHitCounter(), getMissCounter(), getFailedCounter());
+            return String.format("TypeConverterRegistry utilization[noop=%s, attempts=%s, hits=%s, misses=%s, failures=%s, cacheHitRatio=%.2f]",
+                    getNoopCounter(), getAttemptCounter(), getHitCounter(), getMissCounter(), getFailedCounter(), getCacheHitRatio());
         }
     }
 
@@ -781,6 +832,60 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         }
     }
 
+    /**
+     * A cache of the type converters to use, which is keyed by the identity of the from and to types,
+     * so looking up a type converter does not allocate any objects.
+     * <p/>
+     * The type converters are stored per from type using a {@link ClassValue} which holds a small array
+     * of the to types and their type converters, as a from type is usually only converted to a few types.
+     */
+    private static final class ConverterCache extends ClassValue<ConverterCacheEntries> {
+
+        @Override
+        protected ConverterCacheEntries computeValue(Class<?> fromType) {
+            return new ConverterCacheEntries();
+        }
+
+        TypeConverter get(Class<?> toType, Class<?> fromType) {
+            return get(fromType).get(toType);
+        }
+
+        void put(Class<?> toType, Class<?> fromType, TypeConverter converter) {
+            get(fromType).put(toType, converter);
+        }
+    }
+
+    /**
+     * The to types and their type converters for a from type, stored as pairs in a copy on write array.
+     */
+    private static final class ConverterCacheEntries {
+        // the maximum number of to types to cache per from type
+        private static final int MAX_ENTRIES = 32;
+        private static final Object[] EMPTY = new Object[0];
+        private volatile Object[] entries = EMPTY;
+
+        TypeConverter get(Class<?> toType) {
+            Object[] current = entries;
+            for (int i = 0; i < current.length; i += 2) {
+                if (current[i] == toType) {
+                    return (TypeConverter) current[i + 1];
+                }
+            }
+            return null;
+        }
+
+        synchronized void put(Class<?> toType, TypeConverter converter) {
+            Object[] current = entries;
+            if (get(toType) != null || current.length >= MAX_ENTRIES * 2) {
+                return;
+            }
+            Object[] copy = Arrays.copyOf(current, current.length + 2);
+            copy[current.length] = toType;
+            copy[current.length + 1] = converter;
+            entries = copy;
+        }
+    }
+
     /**
      * Represents a fallback type converter
      */
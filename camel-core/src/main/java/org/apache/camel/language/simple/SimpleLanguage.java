@@ -94,6 +94,7 @@ public class SimpleLanguage extends LanguageSupport {
     private static final SimpleLanguage SIMPLE = new SimpleLanguage();
 
     protected boolean allowEscape = true;
+    protected boolean compilePredicates;
 
     /**
      * Default constructor.
@@ -111,7 +112,7 @@ public class SimpleLanguage extends LanguageSupport {
         Predicate answer = SimpleBackwardsCompatibleParser.parsePredicate(expression, allowEscape);
         if (answer == null) {
             // use the new parser
-            SimplePredicateParser parser = new SimplePredicateParser(expression, allowEscape);
+            SimplePredicateParser parser = new SimplePredicateParser(expression, allowEscape, compilePredicates);
             answer = parser.parsePredicate();
         }
         return answer;
@@ -210,6 +211,22 @@ public class SimpleLanguage extends LanguageSupport {
         SimpleTokenizer.changeFunctionEndToken(endToken);
     }
 
+    public boolean isCompilePredicates() {
+        return compilePredicates;
+    }
+
+    /**
+     * Whether to compile the operators of predicates, so the predicate of each operator is created once
+     * when the predicate is parsed and reused, instead of on every evaluation. The regex, in, range and is
+     * operators also reuse the predicate created from the right hand side (such as a compiled regular
+     * expression) as long as it evaluates to the same value.
+     * <p/>
+     * This is disabled by default.
+     */
+    public void setCompilePredicates(boolean compilePredicates) {
+        this.compilePredicates = compilePredicates;
+    }
+
     /**
      * Change the start token used for functions.
      * <p/>
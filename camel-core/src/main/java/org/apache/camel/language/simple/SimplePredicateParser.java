@@ -51,13 +51,20 @@ import org.apache.camel.util.ExpressionToPredicateAdapter;
  */
 public class SimplePredicateParser extends BaseSimpleParser {
 
+    private final boolean compilePredicates;
+
     @Deprecated
     public SimplePredicateParser(String expression) {
-        super(expression, true);
+        this(expression, true);
     }
 
     public SimplePredicateParser(String expression, boolean allowEscape) {
+        this(expression, allowEscape, false);
+    }
+
+    public SimplePredicateParser(String expression, boolean allowEscape, boolean compilePredicates) {
         super(expression, allowEscape);
+        this.compilePredicates = compilePredicates;
     }
 
     public Predicate parsePredicate() {
@@ -269,9 +276,13 @@ public class SimplePredicateParser extends BaseSimpleParser {
         if (token.getType().isUnary()) {
             return new UnaryExpression(token);
         } else if (token.getType().isBinary()) {
-            return new BinaryExpression(token);
+            BinaryExpression binary = new BinaryExpression(token);
+            binary.setCompiled(compilePredicates);
+            return binary;
         } else if (token.getType().isLogical()) {
-            return new LogicalExpression(token);
+            LogicalExpression logical = new LogicalExpression(token);
+            logical.setCompiled(compilePredicates);
+            return logical;
         } else if (token.getType().isNullValue()) {
             return new NullExpression(token);
         }
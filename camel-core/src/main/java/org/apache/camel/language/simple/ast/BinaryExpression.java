@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
 import org.apache.camel.Expression;
 import org.apache.camel.Predicate;
@@ -45,6 +46,7 @@ public class BinaryExpression extends BaseSimpleNode {
     private final BinaryOperatorType operator;
     private SimpleNode left;
     private SimpleNode right;
+    private boolean compiled;
 
     public BinaryExpression(SimpleToken token) {
         super(token);
@@ -70,6 +72,18 @@ public class BinaryExpression extends BaseSimpleNode {
         return operator;
     }
 
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Whether to compile the operator into a predicate which is created once and reused,
+     * instead of building the predicate on every evaluation.
+     */
+    public void setCompiled(boolean compiled) {
+        this.compiled = compiled;
+    }
+
     @Override
     public Expression createExpression(String expression) {
         ObjectHelper.notNull(left, "left node", this);
@@ -97,13 +111,13 @@ public class BinaryExpression extends BaseSimpleNode {
         } else if (operator == BinaryOperatorType.NOT_CONTAINS) {
             return createExpression(leftExp, rightExp, PredicateBuilder.not(PredicateBuilder.contains(leftExp, rightExp)));
         } else if (operator == BinaryOperatorType.IS || operator == BinaryOperatorType.NOT_IS) {
-            return createIsExpression(expression, leftExp, rightExp);
+            return compiled ? createCompiledIsExpression(expression, leftExp, rightExp) : createIsExpression(expression, leftExp, rightExp);
         } else if (operator == BinaryOperatorType.REGEX || operator == BinaryOperatorType.NOT_REGEX) {
-            return createRegexExpression(leftExp, rightExp);
+            return compiled ? createCompiledRegexExpression(leftExp, rightExp) : createRegexExpression(leftExp, rightExp);
         } else if (operator == BinaryOperatorType.IN || operator == BinaryOperatorType.NOT_IN) {
-            return createInExpression(leftExp, rightExp);
+            return compiled ? createCompiledInExpression(leftExp, rightExp) : createInExpression(leftExp, rightExp);
         } else if (operator == BinaryOperatorType.RANGE || operator == BinaryOperatorType.NOT_RANGE) {
-            return createRangeExpression(expression, leftExp, rightExp);
+            return compiled ? createCompiledRangeExpression(expression, leftExp, rightExp) : createRangeExpression(expression, leftExp, rightExp);
         } else if (operator == BinaryOperatorType.STARTS_WITH) {
             return createExpression(leftExp, rightExp, PredicateBuilder.startsWith(leftExp, rightExp));
         } else if (operator == BinaryOperatorType.ENDS_WITH) {
@@ -227,6 +241,9 @@ public class BinaryExpression extends BaseSimpleNode {
     }
 
     private Expression createExpression(final Expression left, final Expression right, final Predicate predicate) {
+        if (compiled) {
+            return createCompiledExpression(left, right, predicate);
+        }
         return new Expression() {
             @Override
             public <T> T evaluate(Exchange exchange, Class<T> type) {
@@ -241,4 +258,164 @@ public class BinaryExpression extends BaseSimpleNode {
         };
     }
 
+    private Expression createCompiledIsExpression(final String expression, final Expression leftExp, final Expression rightExp) {
+        return new CachedPredicateExpression(rightExp) {
+            @Override
+            protected Predicate createPredicate(Exchange exchange, Object value) {
+                String name = (String) value;
+                if (name == null || "null".equals(name)) {
+                    throw new SimpleIllegalSyntaxException(expression, right.getToken().getIndex(), operator + " operator cannot accept null. A class type must be provided.");
+                }
+                Class<?> rightType = exchange.getContext().getClassResolver().resolveClass(name);
+                if (rightType == null) {
+                    throw new SimpleIllegalSyntaxException(expression, right.getToken().getIndex(), operator + " operator cannot find class with name: " + name);
+                }
+
+                Predicate predicate = PredicateBuilder.isInstanceOf(leftExp, rightType);
+                if (operator == BinaryOperatorType.NOT_IS) {
+                    predicate = PredicateBuilder.not(predicate);
+                }
+                return predicate;
+            }
+        };
+    }
+
+    private Expression createCompiledRegexExpression(final Expression leftExp, final Expression rightExp) {
+        return new CachedPredicateExpression(rightExp) {
+            @Override
+            protected Predicate createPredicate(Exchange exchange, Object value) {
+                // reg ex should use String pattern, so we evaluate the right hand side as a String
+                Predicate predicate = PredicateBuilder.regex(leftExp, (String) value);
+                if (operator == BinaryOperatorType.NOT_REGEX) {
+                    predicate = PredicateBuilder.not(predicate);
+                }
+                return predicate;
+            }
+        };
+    }
+
+    private Expression createCompiledInExpression(final Expression leftExp, final Expression rightExp) {
+        return new CachedPredicateExpression(rightExp) {
+            @Override
+            protected Object evaluateRight(Exchange exchange) {
+                return rightExp.evaluate(exchange, Object.class);
+            }
+
+            @Override
+            protected Predicate createPredicate(Exchange exchange, Object value) {
+                // okay the in operator is a bit more complex as we need to build a list of values
+                // from the right hand side expression.
+                // each element on the right hand side must be separated by comma (default for create iterator)
+                Iterator<Object> it = ObjectHelper.createIterator(value);
+                List<Object> values = new ArrayList<Object>();
+                while (it.hasNext()) {
+                    values.add(it.next());
+                }
+                // then reuse value builder to create the in predicate with the list of values
+                ValueBuilder vb = new ValueBuilder(leftExp);
+                Predicate predicate = vb.in(values.toArray());
+                if (operator == BinaryOperatorType.NOT_IN) {
+                    predicate = PredicateBuilder.not(predicate);
+                }
+                return predicate;
+            }
+        };
+    }
+
+    private Expression createCompiledRangeExpression(final String expression, final Expression leftExp, final Expression rightExp) {
+        return new CachedPredicateExpression(rightExp) {
+            @Override
+            protected Predicate createPredicate(Exchange exchange, Object value) {
+                Predicate predicate;
+
+                String range = (String) value;
+                Matcher matcher = RANGE_PATTERN.matcher(range);
+                if (matcher.matches()) {
+                    // wrap as constant expression for the from and to values
+                    Expression from = ExpressionBuilder.constantExpression(matcher.group(1));
+                    Expression to = ExpressionBuilder.constantExpression(matcher.group(3));
+
+                    // build a compound predicate for the range
+                    predicate = PredicateBuilder.isGreaterThanOrEqualTo(leftExp, from);
+                    predicate = PredicateBuilder.and(predicate, PredicateBuilder.isLessThanOrEqualTo(leftExp, to));
+                } else {
+                    throw new SimpleIllegalSyntaxException(expression, right.getToken().getIndex(), operator + " operator is not valid. Valid syntax:'from..to' (where from and to are numbers).");
+                }
+                if (operator == BinaryOperatorType.NOT_RANGE) {
+                    predicate = PredicateBuilder.not(predicate);
+                }
+                return predicate;
+            }
+        };
+    }
+
+    private Expression createCompiledExpression(final Expression left, final Expression right, final Predicate predicate) {
+        return new PredicateExpressionSupport() {
+            @Override
+            public boolean matches(Exchange exchange) {
+                return predicate.matches(exchange);
+            }
+
+            @Override
+            public String toString() {
+                return left + " " + token.getText() + " " + right;
+            }
+        };
+    }
+
+    /**
+     * An expression for the operators which creates a predicate from the value of the right hand side,
+     * such as a regular expression or a list of values.
+     * <p/>
+     * The predicate is created once and reused as long as the right hand side evaluates to the same value,
+     * which is usually the case as its often a literal, so the regular expression is not compiled
+     * (or the list of values created) for every exchange. Only <tt>String</tt> values are cached.
+     */
+    private abstract class CachedPredicateExpression extends PredicateExpressionSupport {
+        private final Expression rightExp;
+        private volatile CachedPredicate cached;
+
+        CachedPredicateExpression(Expression rightExp) {
+            this.rightExp = rightExp;
+        }
+
+        @Override
+        public boolean matches(Exchange exchange) {
+            Object value = evaluateRight(exchange);
+            if (!(value instanceof String)) {
+                // only literal values are cached as other values such as collections may be mutable
+                return createPredicate(exchange, value).matches(exchange);
+            }
+            CachedPredicate current = cached;
+            if (current == null || current.context != exchange.getContext() || !current.value.equals(value)) {
+                current = new CachedPredicate(exchange.getContext(), (String) value, createPredicate(exchange, value));
+                cached = current;
+            }
+            return current.predicate.matches(exchange);
+        }
+
+        protected Object evaluateRight(Exchange exchange) {
+            return rightExp.evaluate(exchange, String.class);
+        }
+
+        protected abstract Predicate createPredicate(Exchange exchange, Object value);
+
+        @Override
+        public String toString() {
+            return left + " " + token.getText() + " " + right;
+        }
+    }
+
+    private static final class CachedPredicate {
+        private final CamelContext context;
+        private final String value;
+        private final Predicate predicate;
+
+        CachedPredicate(CamelContext context, String value, Predicate predicate) {
+            this.context = context;
+            this.value = value;
+            this.predicate = predicate;
+        }
+    }
+
 }
@@ -34,6 +34,7 @@ public class LogicalExpression extends BaseSimpleNode {
     private LogicalOperatorType operator;
     private SimpleNode left;
     private SimpleNode right;
+    private boolean compiled;
 
     public LogicalExpression(SimpleToken token) {
         super(token);
@@ -59,6 +60,18 @@ public class LogicalExpression extends BaseSimpleNode {
         return operator;
     }
 
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Whether to compile the operator into a predicate which is created once and reused,
+     * instead of building the predicate on every evaluation.
+     */
+    public void setCompiled(boolean compiled) {
+        this.compiled = compiled;
+    }
+
     @Override
     public Expression createExpression(String expression) {
         ObjectHelper.notNull(left, "left node", this);
@@ -68,9 +81,9 @@ public class LogicalExpression extends BaseSimpleNode {
         final Expression rightExp = right.createExpression(expression);
 
         if (operator == LogicalOperatorType.AND) {
-            return createAndExpression(leftExp, rightExp);
+            return compiled ? createCompiledAndExpression(leftExp, rightExp) : createAndExpression(leftExp, rightExp);
         } else if (operator == LogicalOperatorType.OR) {
-            return createOrExpression(leftExp, rightExp);
+            return compiled ? createCompiledOrExpression(leftExp, rightExp) : createOrExpression(leftExp, rightExp);
         }
 
         throw new SimpleParserException("Unknown logical operator " + operator, token.getIndex());
@@ -112,4 +125,36 @@ public class LogicalExpression extends BaseSimpleNode {
         };
     }
 
+    private Expression createCompiledAndExpression(final Expression leftExp, final Expression rightExp) {
+        // create the predicate once as the expressions are evaluated as predicates
+        final Predicate predicate = PredicateBuilder.and(ExpressionToPredicateAdapter.toPredicate(leftExp), ExpressionToPredicateAdapter.toPredicate(rightExp));
+        return new PredicateExpressionSupport() {
+            @Override
+            public boolean matches(Exchange exchange) {
+                return predicate.matches(exchange);
+            }
+
+            @Override
+            public String toString() {
+                return left + " " + token.getText() + " " + right;
+            }
+        };
+    }
+
+    private Expression createCompiledOrExpression(final Expression leftExp, final Expression rightExp) {
+        // create the predicate once as the expressions are evaluated as predicates
+        final Predicate predicate = PredicateBuilder.or(ExpressionToPredicateAdapter.toPredicate(leftExp), ExpressionToPredicateAdapter.toPredicate(rightExp));
+        return new PredicateExpressionSupport() {
+            @Override
+            public boolean matches(Exchange exchange) {
+                return predicate.matches(exchange);
+            }
+
+            @Override
+            public String toString() {
+                return left + " " + token.getText() + " " + right;
+            }
+        };
+    }
+
 }
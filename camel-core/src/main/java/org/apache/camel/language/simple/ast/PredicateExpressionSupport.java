@@ -0,0 +1,38 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple.ast;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+
+/**
+ * Base class for the {@link Expression}s created from the AST which are also {@link Predicate}s,
+ * so the expressions can be evaluated as predicates directly without converting their result to <tt>boolean</tt>.
+ */
+abstract class PredicateExpressionSupport implements Expression, Predicate {
+
+    @Override
+    public <T> T evaluate(Exchange exchange, Class<T> type) {
+        boolean answer = matches(exchange);
+        if (type == Object.class || type == Boolean.class) {
+            return type.cast(answer);
+        }
+        return exchange.getContext().getTypeConverter().convertTo(type, answer);
+    }
+
+}
@@ -87,6 +87,24 @@ public class ManagedAsyncProcessorAwaitManager extends ManagedService implements
         }
     }
 
+    @Override
+    public TabularData browseRouteStatistics() {
+        try {
+            TabularData answer = new TabularDataSupport(CamelOpenMBeanTypes.listAwaitRoutesTabularType());
+            Collection<AsyncProcessorAwaitManager.RouteStatistics> routes = manager.getStatistics().getRouteStatistics();
+            for (AsyncProcessorAwaitManager.RouteStatistics entry : routes) {
+                CompositeType ct = CamelOpenMBeanTypes.listAwaitRoutesCompositeType();
+                CompositeData data = new CompositeDataSupport(ct,
+                        new String[]{"routeId", "threadsBlocked", "totalDuration", "maxDuration", "meanDuration"},
+                        new Object[]{entry.getRouteId(), entry.getThreadsBlocked(), entry.getTotalDuration(), entry.getMaxDuration(), entry.getMeanDuration()});
+                answer.put(data);
+            }
+            return answer;
+        } catch (Exception e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        }
+    }
+
     @Override
     public void interrupt(String exchangeId) {
         manager.interrupt(exchangeId);
@@ -239,6 +239,10 @@ public class ManagedCamelContext extends ManagedPerformanceCounter implements Ti
         return context.isUseBreadcrumb();
     }
 
+    public boolean isCopyOnWriteHeaders() {
+        return context.isCopyOnWriteHeaders();
+    }
+
     public boolean isAllowUseOriginalMessage() {
         return context.isAllowUseOriginalMessage();
     }
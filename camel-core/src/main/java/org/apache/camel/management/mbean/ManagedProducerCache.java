@@ -64,6 +64,30 @@ public class ManagedProducerCache extends ManagedService implements ManagedProdu
         return producerCache.getEvicted();
     }
 
+    public Integer getEndpointCacheSize() {
+        return producerCache.getEndpointCacheSize();
+    }
+
+    public Long getEndpointCacheHits() {
+        return producerCache.getEndpointCacheHits();
+    }
+
+    public Long getEndpointCacheMisses() {
+        return producerCache.getEndpointCacheMisses();
+    }
+
+    public Long getAcquireCounter() {
+        return producerCache.getAcquireCounter();
+    }
+
+    public Long getMeanAcquireTime() {
+        return producerCache.getMeanAcquireTime();
+    }
+
+    public Long getMaxAcquireTime() {
+        return producerCache.getMaxAcquireTime();
+    }
+
     public void resetStatistics() {
         producerCache.resetCacheStatistics();
     }
@@ -90,6 +90,14 @@ public class ManagedStreamCachingStrategy extends ManagedService implements Mana
         return streamCachingStrategy.getBufferSize();
     }
 
+    public boolean isBufferPoolEnabled() {
+        return streamCachingStrategy.isBufferPoolEnabled();
+    }
+
+    public int getBufferPoolSize() {
+        return streamCachingStrategy.getBufferPoolSize();
+    }
+
     public void setRemoveSpoolDirectoryWhenStopping(boolean remove) {
         streamCachingStrategy.setRemoveSpoolDirectoryWhenStopping(remove);
     }
@@ -130,6 +138,26 @@ public class ManagedStreamCachingStrategy extends ManagedService implements Mana
         return streamCachingStrategy.getStatistics().getCacheSpoolAverageSize();
     }
 
+    public long getBufferPoolAllocatedCounter() {
+        return streamCachingStrategy.getStatistics().getBufferPoolAllocatedCounter();
+    }
+
+    public long getBufferPoolReusedCounter() {
+        return streamCachingStrategy.getStatistics().getBufferPoolReusedCounter();
+    }
+
+    public long getBufferPoolOverflowCounter() {
+        return streamCachingStrategy.getStatistics().getBufferPoolOverflowCounter();
+    }
+
+    public long getBufferPoolInUse() {
+        return streamCachingStrategy.getStatistics().getBufferPoolInUse();
+    }
+
+    public long getBufferPoolIdle() {
+        return streamCachingStrategy.getStatistics().getBufferPoolIdle();
+    }
+
     public boolean isStatisticsEnabled() {
         return streamCachingStrategy.getStatistics().isStatisticsEnabled();
     }
@@ -23,6 +23,7 @@ import org.apache.camel.CamelContext;
 import org.apache.camel.api.management.ManagedResource;
 import org.apache.camel.api.management.mbean.ManagedThreadPoolMBean;
 import org.apache.camel.spi.ManagementStrategy;
+import org.apache.camel.util.concurrent.VirtualThreadFactory;
 
 /**
  * @version 
@@ -119,6 +120,15 @@ public class ManagedThreadPool implements ManagedThreadPoolMBean {
         return threadPool.getCompletedTaskCount();
     }
 
+    public long getInflightTaskCount() {
+        // tasks which are either queued or being processed, which does not depend on the number of threads
+        return Math.max(0, threadPool.getTaskCount() - threadPool.getCompletedTaskCount());
+    }
+
+    public boolean isVirtualThreads() {
+        return threadPool.getThreadFactory() instanceof VirtualThreadFactory;
+    }
+
     public long getTaskQueueSize() {
         if (threadPool.getQueue() != null) {
             return threadPool.getQueue().size();
@@ -67,4 +67,26 @@ public class ManagedThrottler extends ManagedProcessor implements ManagedThrottl
     public Boolean isRejectExecution() {
         return throttler.isRejectExecution();
     }
+
+    public Boolean isTokenBucket() {
+        return throttler.isTokenBucket();
+    }
+
+    public long getAcquiredCount() {
+        return throttler.getAcquiredCount();
+    }
+
+    public long getRejectedCount() {
+        return throttler.getRejectedCount();
+    }
+
+    public long getWaitingCount() {
+        return throttler.getWaitingCount();
+    }
+
+    @Override
+    public synchronized void reset() {
+        throttler.reset();
+        super.reset();
+    }
 }
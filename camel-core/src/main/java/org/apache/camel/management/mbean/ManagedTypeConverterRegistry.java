@@ -67,6 +67,18 @@ public class ManagedTypeConverterRegistry extends ManagedService implements Mana
         return registry.getStatistics().getFailedCounter();
     }
 
+    public long getCacheHitCounter() {
+        return registry.getStatistics().getCacheHitCounter();
+    }
+
+    public long getCacheMissCounter() {
+        return registry.getStatistics().getCacheMissCounter();
+    }
+
+    public double getCacheHitRatio() {
+        return registry.getStatistics().getCacheHitRatio();
+    }
+
     public void resetTypeConversionCounters() {
         registry.getStatistics().reset();
     }
@@ -83,6 +83,8 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
     @XmlAttribute
     private Boolean optimisticLocking;
     @XmlAttribute
+    private Integer lockStripes;
+    @XmlAttribute
     private String executorServiceRef;
     @XmlAttribute
     private String timeoutCheckerExecutorServiceRef;
@@ -223,6 +225,9 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         if (getOptimisticLocking() != null) {
             answer.setOptimisticLocking(getOptimisticLocking());
         }
+        if (getLockStripes() != null) {
+            answer.setLockStripes(getLockStripes());
+        }
         if (getCompletionPredicate() != null) {
             Predicate predicate = getCompletionPredicate().createPredicate(routeContext);
             answer.setCompletionPredicate(predicate);
@@ -540,6 +545,14 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         this.optimisticLocking = optimisticLocking;
     }
 
+    public Integer getLockStripes() {
+        return lockStripes;
+    }
+
+    public void setLockStripes(Integer lockStripes) {
+        this.lockStripes = lockStripes;
+    }
+
     public Boolean getParallelProcessing() {
         return parallelProcessing;
     }
@@ -923,6 +936,21 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         return this;
     }
 
+    /**
+     * Number of locks to stripe the correlation keys over, when not using optimistic locking.
+     * <p/>
+     * By default a single lock is used which means all exchanges are aggregated one at a time. By using
+     * a number of lock stripes, exchanges with different correlation keys can be aggregated in parallel,
+     * while exchanges with the same correlation key are still aggregated one at a time.
+     * This requires the aggregationRepository to support concurrent access to different correlation keys,
+     * which the default MemoryAggregationRepository does.
+     * This option cannot be used together with completionFromBatchConsumer.
+     */
+    public AggregateDefinition lockStripes(int lockStripes) {
+        setLockStripes(lockStripes);
+        return this;
+    }
+
     /**
      * Allows to configure retry settings when using optimistic locking.
      */
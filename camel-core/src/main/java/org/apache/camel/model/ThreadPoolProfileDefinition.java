@@ -53,6 +53,8 @@ public class ThreadPoolProfileDefinition extends OptionalIdentifiedDefinition<Th
     @XmlAttribute
     private String allowCoreThreadTimeOut;
     @XmlAttribute
+    private String virtualThreads;
+    @XmlAttribute
     private ThreadPoolRejectedPolicy rejectedPolicy;
 
     public ThreadPoolProfileDefinition() {
@@ -114,6 +116,11 @@ public class ThreadPoolProfileDefinition extends OptionalIdentifiedDefinition<Th
         return this;
     }
 
+    public ThreadPoolProfileDefinition virtualThreads(boolean virtualThreads) {
+        setVirtualThreads("" + virtualThreads);
+        return this;
+    }
+
     public Boolean getDefaultProfile() {
         return defaultProfile;
     }
@@ -188,6 +195,20 @@ public class ThreadPoolProfileDefinition extends OptionalIdentifiedDefinition<Th
         this.allowCoreThreadTimeOut = allowCoreThreadTimeOut;
     }
 
+    public String getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Whether to run the tasks on virtual threads, which are not bounded by the pool sizes.
+     * If the JVM does not support virtual threads then platform threads are used.
+     * <p/>
+     * Is by default <tt>false</tt>
+     */
+    public void setVirtualThreads(String virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
     public TimeUnit getTimeUnit() {
         return timeUnit;
     }
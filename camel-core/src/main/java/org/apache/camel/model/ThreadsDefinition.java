@@ -67,6 +67,8 @@ public class ThreadsDefinition extends OutputDefinition<ThreadsDefinition> imple
     private Integer maxQueueSize;
     @XmlAttribute
     private Boolean allowCoreThreadTimeOut;
+    @XmlAttribute
+    private Boolean virtualThreads;
     @XmlAttribute @Metadata(defaultValue = "Threads")
     private String threadName;
     @XmlAttribute
@@ -109,6 +111,7 @@ public class ThreadsDefinition extends OutputDefinition<ThreadsDefinition> imple
                     .maxQueueSize(getMaxQueueSize())
                     .rejectedPolicy(policy)
                     .allowCoreThreadTimeOut(getAllowCoreThreadTimeOut())
+                    .virtualThreads(getVirtualThreads())
                     .build();
             threadPool = manager.newThreadPool(this, name, profile);
             shutdownThreadPool = true;
@@ -137,6 +140,9 @@ public class ThreadsDefinition extends OutputDefinition<ThreadsDefinition> imple
             if (getAllowCoreThreadTimeOut() != null) {
                 throw new IllegalArgumentException("AllowCoreThreadTimeOut and executorServiceRef options cannot be used together.");
             }
+            if (getVirtualThreads() != null) {
+                throw new IllegalArgumentException("VirtualThreads and executorServiceRef options cannot be used together.");
+            }
         }
 
         ThreadsProcessor thread = new ThreadsProcessor(routeContext.getCamelContext(), threadPool, shutdownThreadPool, policy);
@@ -297,6 +303,21 @@ public class ThreadsDefinition extends OutputDefinition<ThreadsDefinition> imple
         return this;
     }
 
+    /**
+     * Whether to run the tasks on virtual threads, which are not bounded by the pool sizes,
+     * so routes doing blocking calls do not need large thread pools.
+     * If the JVM does not support virtual threads then platform threads are used.
+     * <p/>
+     * Is by default <tt>false</tt>
+     *
+     * @param virtualThreads <tt>true</tt> to use virtual threads
+     * @return the builder
+     */
+    public ThreadsDefinition virtualThreads(boolean virtualThreads) {
+        setVirtualThreads(virtualThreads);
+        return this;
+    }
+
     public ExecutorService getExecutorService() {
         return executorService;
     }
@@ -384,4 +405,12 @@ public class ThreadsDefinition extends OutputDefinition<ThreadsDefinition> imple
     public void setAllowCoreThreadTimeOut(Boolean allowCoreThreadTimeOut) {
         this.allowCoreThreadTimeOut = allowCoreThreadTimeOut;
     }
+
+    public Boolean getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(Boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
 }
@@ -55,6 +55,8 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
     private Boolean callerRunsWhenRejected;
     @XmlAttribute
     private Boolean rejectExecution;
+    @XmlAttribute
+    private Boolean tokenBucket;
     
     public ThrottleDefinition() {
     }
@@ -98,6 +100,7 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
         Throttler answer = new Throttler(routeContext.getCamelContext(), childProcessor, maxRequestsExpression, period, threadPool, shutdownThreadPool, reject);
 
         answer.setAsyncDelayed(async);
+        answer.setTokenBucket(getTokenBucket() != null && getTokenBucket());
         if (getCallerRunsWhenRejected() == null) {
             // should be true by default
             answer.setCallerRunsWhenRejected(true);
@@ -175,6 +178,23 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
         return this;
     }
 
+    /**
+     * Whether or not the throttler uses a token bucket, which is refilled with the maximum requests evenly over the time period,
+     * instead of permits which are delayed for the time period after they have been used.
+     * <p/>
+     * The token bucket does not lock and is therefore better suited for high throttle rates,
+     * and together with asyncDelayed no thread is blocked while exchanges are waiting to be throttled.
+     * <p/>
+     * Is by default <tt>false</tt>
+     *
+     * @param tokenBucket whether or not to use a token bucket
+     * @return the builder
+     */
+    public ThrottleDefinition tokenBucket(boolean tokenBucket) {
+        setTokenBucket(tokenBucket);
+        return this;
+    }
+
     /**
      * Sets the ExecutorService which could be used by throttle definition
      *
@@ -256,4 +276,12 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
     public void setRejectExecution(Boolean rejectExecution) {
         this.rejectExecution = rejectExecution;
     }
+
+    public Boolean getTokenBucket() {
+        return tokenBucket;
+    }
+
+    public void setTokenBucket(Boolean tokenBucket) {
+        this.tokenBucket = tokenBucket;
+    }
 }
@@ -76,7 +76,12 @@ import org.slf4j.LoggerFactory;
 public class CamelInternalProcessor extends DelegateAsyncProcessor {
 
     private static final Logger LOG = LoggerFactory.getLogger(CamelInternalProcessor.class);
+    private static final CamelInternalProcessorAdvice[] NO_ADVICES = new CamelInternalProcessorAdvice[0];
     private final List<CamelInternalProcessorAdvice> advices = new ArrayList<CamelInternalProcessorAdvice>();
+    // the advices compiled into an array which is what is used during routing
+    private volatile CamelInternalProcessorAdvice[] compiledAdvices = NO_ADVICES;
+    // the index of the instrumentation advice in the compiled advices which is timed without creating a StopWatch
+    private volatile int instrumentationIndex = -1;
 
     public CamelInternalProcessor() {
     }
@@ -92,6 +97,7 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
      */
     public void addAdvice(CamelInternalProcessorAdvice advice) {
         advices.add(advice);
+        compileAdvices();
     }
 
     /**
@@ -109,6 +115,30 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
         return null;
     }
 
+    /**
+     * Compiles the advices into the array which is used during routing, so routing an {@link Exchange}
+     * does not need to iterate the list of advices.
+     */
+    protected void compileAdvices() {
+        CamelInternalProcessorAdvice[] tasks = advices.isEmpty() ? NO_ADVICES : advices.toArray(new CamelInternalProcessorAdvice[advices.size()]);
+        int index = -1;
+        for (int i = 0; i < tasks.length; i++) {
+            // only the instrumentation advice itself as a subclass may override before and after
+            if (tasks[i].getClass() == InstrumentationAdvice.class) {
+                index = i;
+                break;
+            }
+        }
+        instrumentationIndex = index;
+        compiledAdvices = tasks;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        compileAdvices();
+        super.doStart();
+    }
+
     @Override
     public boolean process(Exchange exchange, AsyncCallback callback) {
         // ----------------------------------------------------------
@@ -132,21 +162,17 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
             return true;
         }
 
-        final List<Object> states = new ArrayList<Object>(advices.size());
-        for (CamelInternalProcessorAdvice task : advices) {
-            try {
-                Object state = task.before(exchange);
-                states.add(state);
-            } catch (Throwable e) {
-                exchange.setException(e);
+        final CamelInternalProcessorAdvice[] tasks = compiledAdvices;
+        if (tasks.length > 0) {
+            // the internal callback keeps the states of the advices and executes the after advices when done
+            InternalCallback internal = new InternalCallback(tasks, instrumentationIndex, exchange, callback);
+            if (!internal.before()) {
                 callback.done(true);
                 return true;
             }
+            callback = internal;
         }
 
-        // create internal callback which will execute the advices in reverse order when done
-        callback = new InternalCallback(states, exchange, callback);
-
         // UNIT_OF_WORK_PROCESS_SYNC is @deprecated and we should remove it from Camel 3.0
         Object synchronous = exchange.removeProperty(Exchange.UNIT_OF_WORK_PROCESS_SYNC);
         if (exchange.isTransacted() || synchronous != null) {
@@ -211,32 +237,72 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
     }
 
     /**
-     * Internal callback that executes the after advices.
+     * Internal callback that executes the before advices, and the after advices when done.
+     * <p/>
+     * The states of the first two advices are kept in fields, so an array of states is only needed with more advices,
+     * and the start time of the {@link InstrumentationAdvice} is kept as a primitive.
      */
-    private final class InternalCallback implements AsyncCallback {
+    private static final class InternalCallback implements AsyncCallback {
 
-        private final List<Object> states;
+        private final CamelInternalProcessorAdvice[] tasks;
+        private final int instrumentationIndex;
         private final Exchange exchange;
         private final AsyncCallback callback;
-
-        private InternalCallback(List<Object> states, Exchange exchange, AsyncCallback callback) {
-            this.states = states;
+        private Object state0;
+        private Object state1;
+        private Object[] states;
+        private long start;
+
+        private InternalCallback(CamelInternalProcessorAdvice[] tasks, int instrumentationIndex, Exchange exchange, AsyncCallback callback) {
+            this.tasks = tasks;
+            this.instrumentationIndex = instrumentationIndex;
             this.exchange = exchange;
             this.callback = callback;
+            if (tasks.length > 2) {
+                this.states = new Object[tasks.length - 2];
+            }
+        }
+
+        /**
+         * Executes the before advices in order.
+         *
+         * @return <tt>false</tt> if an advice failed, which has been set as exception on the exchange
+         */
+        private boolean before() {
+            for (int i = 0; i < tasks.length; i++) {
+                try {
+                    if (i == instrumentationIndex) {
+                        start = ((InstrumentationAdvice) tasks[i]).startTime(exchange);
+                    } else if (i == 0) {
+                        state0 = tasks[i].before(exchange);
+                    } else if (i == 1) {
+                        state1 = tasks[i].before(exchange);
+                    } else {
+                        states[i - 2] = tasks[i].before(exchange);
+                    }
+                } catch (Throwable e) {
+                    exchange.setException(e);
+                    return false;
+                }
+            }
+            return true;
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public void done(boolean doneSync) {
             // NOTE: if you are debugging Camel routes, then all the code in the for loop below is internal only
             // so you can step straight to the finally block and invoke the callback
 
             // we should call after in reverse order
             try {
-                for (int i = advices.size() - 1; i >= 0; i--) {
-                    CamelInternalProcessorAdvice task = advices.get(i);
-                    Object state = states.get(i);
+                for (int i = tasks.length - 1; i >= 0; i--) {
                     try {
-                        task.after(exchange, state);
+                        if (i == instrumentationIndex) {
+                            ((InstrumentationAdvice) tasks[i]).stopTime(exchange, start);
+                        } else {
+                            tasks[i].after(exchange, i == 0 ? state0 : i == 1 ? state1 : states[i - 2]);
+                        }
                     } catch (Exception e) {
                         exchange.setException(e);
                         // allow all advices to complete even if there was an exception
@@ -368,6 +434,30 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
             this.type = type;
         }
 
+        /**
+         * Begins timing the exchange if statistics is enabled, which is used by {@link CamelInternalProcessor}
+         * instead of {@link #before(Exchange)} to keep the start time as a primitive instead of a {@link StopWatch}.
+         *
+         * @return the start time, or <tt>-1</tt> if statistics is disabled
+         */
+        long startTime(Exchange exchange) {
+            if (counter != null && counter.isStatisticsEnabled()) {
+                long answer = System.currentTimeMillis();
+                beginTime(exchange);
+                return answer;
+            }
+            return -1;
+        }
+
+        /**
+         * Records the time since the given start time, unless the start time is <tt>-1</tt>.
+         */
+        void stopTime(Exchange exchange, long start) {
+            if (start != -1) {
+                recordTime(exchange, System.currentTimeMillis() - start);
+            }
+        }
+
         @Override
         public StopWatch before(Exchange exchange) throws Exception {
             // only record time if stats is enabled
@@ -22,15 +22,14 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Callable;
-import java.util.concurrent.CompletionService;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -66,9 +65,7 @@ import org.apache.camel.util.KeyValueHolder;
 import org.apache.camel.util.ObjectHelper;
 import org.apache.camel.util.ServiceHelper;
 import org.apache.camel.util.StopWatch;
-import org.apache.camel.util.concurrent.AtomicException;
 import org.apache.camel.util.concurrent.AtomicExchange;
-import org.apache.camel.util.concurrent.SubmitOrderedCompletionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -155,7 +152,7 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
     private final boolean stopOnException;
     private final ExecutorService executorService;
     private final boolean shutdownExecutorService;
-    private ExecutorService aggregateExecutorService;
+    private ScheduledExecutorService aggregateExecutorService;
     private final long timeout;
     private final ConcurrentMap<PreparedErrorHandler, Processor> errorHandlers = new ConcurrentHashMap<PreparedErrorHandler, Processor>();
     private final boolean shareUnitOfWork;
@@ -258,272 +255,296 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
         return true;
     }
 
+    /**
+     * Processes the pairs in parallel.
+     * <p/>
+     * The tasks are aggregated on-the-fly by the threads completing the tasks (see {@link ParallelAggregator}),
+     * while the caller thread waits for the aggregation to be done, so routing continues on the caller thread
+     * (which also keeps transacted exchanges within their transaction).
+     */
     protected void doProcessParallel(final Exchange original, final AtomicExchange result, final Iterable<ProcessorExchangePair> pairs,
                                      final boolean streaming, final AsyncCallback callback) throws Exception {
 
         ObjectHelper.notNull(executorService, "ExecutorService", this);
-        ObjectHelper.notNull(aggregateExecutorService, "AggregateExecutorService", this);
-
-        final CompletionService<Exchange> completion;
-        if (streaming) {
-            // execute tasks in parallel+streaming and aggregate in the order they are finished (out of order sequence)
-            completion = new ExecutorCompletionService<Exchange>(executorService);
-        } else {
-            // execute tasks in parallel and aggregate in the order the tasks are submitted (in order sequence)
-            completion = new SubmitOrderedCompletionService<Exchange>(executorService);
-        }
 
-        final AtomicInteger total = new AtomicInteger(0);
+        final ParallelAggregator aggregator = new ParallelAggregator(original, result, streaming);
         final Iterator<ProcessorExchangePair> it = pairs.iterator();
 
         if (it.hasNext()) {
-            // when parallel then aggregate on the fly
-            final AtomicBoolean running = new AtomicBoolean(true);
-            final AtomicBoolean allTasksSubmitted = new AtomicBoolean();
-            final CountDownLatch aggregationOnTheFlyDone = new CountDownLatch(1);
-            final AtomicException executionException = new AtomicException();
-
-            // issue task to execute in separate thread so it can aggregate on-the-fly
-            // while we submit new tasks, and those tasks complete concurrently
-            // this allows us to optimize work and reduce memory consumption
-            final AggregateOnTheFlyTask aggregateOnTheFlyTask = new AggregateOnTheFlyTask(result, original, total, completion, running,
-                    aggregationOnTheFlyDone, allTasksSubmitted, executionException);
-            final AtomicBoolean aggregationTaskSubmitted = new AtomicBoolean();
-
             LOG.trace("Starting to submit parallel tasks");
 
-            while (it.hasNext()) {
-                final ProcessorExchangePair pair = it.next();
-                // in case the iterator returns null then continue to next
-                if (pair == null) {
-                    continue;
-                }
-
-                final Exchange subExchange = pair.getExchange();
-                updateNewExchange(subExchange, total.intValue(), pairs, it);
-
-                completion.submit(new Callable<Exchange>() {
-                    public Exchange call() throws Exception {
-                        // only start the aggregation task when the task is being executed to avoid staring
-                        // the aggregation task to early and pile up too many threads
-                        if (aggregationTaskSubmitted.compareAndSet(false, true)) {
-                            // but only submit the task once
-                            aggregateExecutorService.submit(aggregateOnTheFlyTask);
-                        }
-
-                        if (!running.get()) {
-                            // do not start processing the task if we are not running
-                            return subExchange;
-                        }
-
-                        try {
-                            doProcessParallel(pair);
-                        } catch (Throwable e) {
-                            subExchange.setException(e);
-                        }
-
-                        // Decide whether to continue with the multicast or not; similar logic to the Pipeline
-                        Integer number = getExchangeIndex(subExchange);
-                        boolean continueProcessing = PipelineHelper.continueProcessing(subExchange, "Parallel processing failed for number " + number, LOG);
-                        if (stopOnException && !continueProcessing) {
-                            // signal to stop running
-                            running.set(false);
-                            // throw caused exception
-                            if (subExchange.getException() != null) {
-                                // wrap in exception to explain where it failed
-                                CamelExchangeException cause = new CamelExchangeException("Parallel processing failed for number " + number, subExchange, subExchange.getException());
-                                subExchange.setException(cause);
-                            }
-                        }
+            if (timeout > 0) {
+                // schedule the timeout, which is cancelled when the aggregation is done
+                ObjectHelper.notNull(aggregateExecutorService, "AggregateExecutorService", this);
+                aggregator.scheduleTimeout(aggregateExecutorService);
+            }
 
-                        LOG.trace("Parallel processing complete for exchange: {}", subExchange);
-                        return subExchange;
+            try {
+                int total = 0;
+                while (it.hasNext()) {
+                    final ProcessorExchangePair pair = it.next();
+                    // in case the iterator returns null then continue to next
+                    if (pair == null) {
+                        continue;
                     }
-                });
 
-                total.incrementAndGet();
+                    final Exchange subExchange = pair.getExchange();
+                    updateNewExchange(subExchange, total, pairs, it);
+
+                    executorService.submit(new ParallelProcessTask(aggregator, pair, total));
+                    total = aggregator.submitted();
+                }
+            } catch (Throwable e) {
+                // ensure the tasks will not complete the multicast as we fail
+                aggregator.abort();
+                throw e;
             }
 
-            // signal all tasks has been submitted
-            LOG.trace("Signaling that all {} tasks has been submitted.", total.get());
-            allTasksSubmitted.set(true);
+            // signal all tasks has been submitted, which may complete the aggregation if all the tasks are done
+            LOG.trace("Signaling that all {} tasks has been submitted.", aggregator.getTotal());
+            aggregator.allSubmitted();
 
             // its to hard to do parallel async routing so we let the caller thread be synchronously
-            // and have it pickup the replies and do the aggregation (eg we use a latch to wait)
-            // wait for aggregation to be done
-            LOG.debug("Waiting for on-the-fly aggregation to complete aggregating {} responses for exchangeId: {}", total.get(), original.getExchangeId());
-            aggregationOnTheFlyDone.await();
+            // and wait for the threads completing the tasks to be done aggregating (eg we use a latch to wait)
+            LOG.debug("Waiting for on-the-fly aggregation to complete aggregating {} responses for exchangeId: {}", aggregator.getTotal(), original.getExchangeId());
+            aggregator.awaitDone();
 
             // did we fail for whatever reason, if so throw that caused exception
-            if (executionException.get() != null) {
+            if (aggregator.getFailure() != null) {
                 if (LOG.isDebugEnabled()) {
-                    LOG.debug("Parallel processing failed due {}", executionException.get().getMessage());
+                    LOG.debug("Parallel processing failed due {}", aggregator.getFailure().getMessage());
                 }
-                throw executionException.get();
+                throw aggregator.getFailure();
             }
         }
 
         // no everything is okay so we are done
-        LOG.debug("Done parallel processing {} exchanges", total);
+        LOG.debug("Done parallel processing {} exchanges", aggregator.getTotal());
     }
 
     /**
-     * Boss worker to control aggregate on-the-fly for completed tasks when using parallel processing.
+     * Aggregates the completed tasks on-the-fly when using parallel processing, without having a separate
+     * thread polling for the completed tasks.
      * <p/>
-     * This ensures lower memory consumption as we do not need to keep all completed tasks in memory
-     * before we perform aggregation. Instead this separate thread will run and aggregate when new
-     * completed tasks is done.
+     * The thread completing a task drives the aggregation, and the thread completing the last task
+     * signals the caller thread waiting for the aggregation to be done. When aggregating in order then the completed tasks are kept in a reorder
+     * buffer until the tasks submitted before them has been aggregated. A work-in-progress counter is used
+     * instead of a lock to ensure only one thread is aggregating at any time, so the completing threads
+     * never wait for each other.
      * <p/>
-     * The logic is fairly complex as this implementation has to keep track how far it got, and also
-     * signal back to the <i>main</t> thread when its done, so the <i>main</t> thread can continue
-     * processing when the entire splitting is done.
+     * When parallel aggregate is enabled then the completing threads aggregate concurrently, and the
+     * aggregator only keeps track of the completed tasks.
      */
-    private final class AggregateOnTheFlyTask implements Runnable {
+    private final class ParallelAggregator {
 
-        private final AtomicExchange result;
         private final Exchange original;
-        private final AtomicInteger total;
-        private final CompletionService<Exchange> completion;
-        private final AtomicBoolean running;
-        private final CountDownLatch aggregationOnTheFlyDone;
-        private final AtomicBoolean allTasksSubmitted;
-        private final AtomicException executionException;
-
-        private AggregateOnTheFlyTask(AtomicExchange result, Exchange original, AtomicInteger total,
-                                      CompletionService<Exchange> completion, AtomicBoolean running,
-                                      CountDownLatch aggregationOnTheFlyDone, AtomicBoolean allTasksSubmitted,
-                                      AtomicException executionException) {
-            this.result = result;
+        private final AtomicExchange result;
+        private final ConcurrentMap<Integer, Exchange> reorderBuffer;
+        private final Queue<Exchange> completed;
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicBoolean done = new AtomicBoolean();
+        private final AtomicBoolean running = new AtomicBoolean(true);
+        private final CountDownLatch doneLatch = new CountDownLatch(1);
+        private volatile int submitted;
+        private volatile boolean allTasksSubmitted;
+        private volatile boolean timedOut;
+        private volatile Exception failure;
+        private volatile ScheduledFuture<?> timeoutFuture;
+        // only accessed by the thread currently aggregating
+        private int aggregated;
+
+        private ParallelAggregator(Exchange original, AtomicExchange result, boolean streaming) {
             this.original = original;
-            this.total = total;
-            this.completion = completion;
-            this.running = running;
-            this.aggregationOnTheFlyDone = aggregationOnTheFlyDone;
-            this.allTasksSubmitted = allTasksSubmitted;
-            this.executionException = executionException;
+            this.result = result;
+            if (streaming || parallelAggregate) {
+                // aggregate in the order the tasks are completed (out of order sequence)
+                this.reorderBuffer = null;
+                this.completed = new ConcurrentLinkedQueue<Exchange>();
+            } else {
+                // aggregate in the order the tasks are submitted (in order sequence)
+                this.reorderBuffer = new ConcurrentHashMap<Integer, Exchange>();
+                this.completed = null;
+            }
         }
 
-        public void run() {
-            LOG.trace("Aggregate on the fly task started for exchangeId: {}", original.getExchangeId());
-
-            try {
-                aggregateOnTheFly();
-            } catch (Throwable e) {
-                if (e instanceof Exception) {
-                    executionException.set((Exception) e);
-                } else {
-                    executionException.set(ObjectHelper.wrapRuntimeCamelException(e));
+        /**
+         * Schedules the timeout, which must be done before the tasks are submitted
+         */
+        void scheduleTimeout(ScheduledExecutorService scheduler) {
+            timeoutFuture = scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (!isDone()) {
+                        onTimeout();
+                    }
                 }
-            } finally {
-                // must signal we are done so the latch can open and let the other thread continue processing
-                LOG.debug("Signaling we are done aggregating on the fly for exchangeId: {}", original.getExchangeId());
-                LOG.trace("Aggregate on the fly task done for exchangeId: {}", original.getExchangeId());
-                aggregationOnTheFlyDone.countDown();
+            }, timeout, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * A task has been submitted
+         *
+         * @return the number of submitted tasks
+         */
+        int submitted() {
+            // only the caller thread is submitting tasks
+            submitted = submitted + 1;
+            return submitted;
+        }
+
+        /**
+         * All the tasks has been submitted
+         */
+        void allSubmitted() {
+            allTasksSubmitted = true;
+            drain();
+        }
+
+        /**
+         * Aborts the aggregation as the multicast failed while submitting the tasks
+         */
+        void abort() {
+            if (done.compareAndSet(false, true)) {
+                running.set(false);
+                cancelTimeout();
+                doneLatch.countDown();
             }
         }
 
-        private void aggregateOnTheFly() throws InterruptedException, ExecutionException {
-            final AtomicBoolean timedOut = new AtomicBoolean();
-            boolean stoppedOnException = false;
-            final StopWatch watch = new StopWatch();
-            final AtomicInteger aggregated = new AtomicInteger();
-            boolean done = false;
-            // not a for loop as on the fly may still run
-            while (!done) {
-                // check if we have already aggregate everything
-                if (allTasksSubmitted.get() && aggregated.intValue() >= total.get()) {
-                    LOG.debug("Done aggregating {} exchanges on the fly.", aggregated);
-                    break;
-                }
+        /**
+         * The task is completed
+         */
+        void onCompleted(int index, Exchange subExchange) {
+            if (parallelAggregate && !done.get() && !isStopOnException(subExchange)) {
+                // aggregate concurrently in the thread completing the task
+                aggregate(subExchange, index);
+            }
+            if (reorderBuffer != null) {
+                reorderBuffer.put(index, subExchange);
+            } else {
+                completed.offer(subExchange);
+            }
+            drain();
+        }
 
-                Future<Exchange> future;
-                if (timedOut.get()) {
-                    // we are timed out but try to grab if some tasks has been completed
-                    // poll will return null if no tasks is present
-                    future = completion.poll();
-                    LOG.trace("Polled completion task #{} after timeout to grab already completed tasks: {}", aggregated, future);
-                } else if (timeout > 0) {
-                    long left = timeout - watch.taken();
-                    if (left < 0) {
-                        left = 0;
-                    }
-                    LOG.trace("Polling completion task #{} using timeout {} millis.", aggregated, left);
-                    future = completion.poll(left, TimeUnit.MILLISECONDS);
-                } else {
-                    LOG.trace("Polling completion task #{}", aggregated);
-                    // we must not block so poll every second
-                    future = completion.poll(1, TimeUnit.SECONDS);
-                    if (future == null) {
-                        // and continue loop which will recheck if we are done
-                        continue;
-                    }
-                }
+        /**
+         * The timeout was triggered
+         */
+        void onTimeout() {
+            LOG.debug("Cancelling tasks due timeout after {} millis.", timeout);
+            timedOut = true;
+            // cancel tasks as we timed out (its safe to cancel done tasks)
+            running.set(false);
+            drain();
+        }
 
-                if (future == null) {
-                    ParallelAggregateTimeoutTask task = new ParallelAggregateTimeoutTask(original, result, completion, aggregated, total, timedOut);
-                    if (parallelAggregate) {
-                        aggregateExecutorService.submit(task);
-                    } else {
-                        // in non parallel mode then just run the task
-                        task.run();
-                    }
-                } else {
-                    // there is a result to aggregate
-                    Exchange subExchange = future.get();
+        boolean isRunning() {
+            return running.get();
+        }
 
-                    // Decide whether to continue with the multicast or not; similar logic to the Pipeline
-                    Integer number = getExchangeIndex(subExchange);
-                    boolean continueProcessing = PipelineHelper.continueProcessing(subExchange, "Parallel processing failed for number " + number, LOG);
-                    if (stopOnException && !continueProcessing) {
-                        // we want to stop on exception and an exception or failure occurred
-                        // this is similar to what the pipeline does, so we should do the same to not surprise end users
-                        // so we should set the failed exchange as the result and break out
-                        result.set(subExchange);
-                        stoppedOnException = true;
-                        break;
-                    }
+        void stopRunning() {
+            running.set(false);
+        }
 
-                    // we got a result so aggregate it
-                    ParallelAggregateTask task = new ParallelAggregateTask(result, subExchange, aggregated);
-                    if (parallelAggregate) {
-                        aggregateExecutorService.submit(task);
-                    } else {
-                        // in non parallel mode then just run the task
-                        task.run();
+        boolean isDone() {
+            return done.get();
+        }
+
+        void awaitDone() throws InterruptedException {
+            doneLatch.await();
+        }
+
+        int getTotal() {
+            return submitted;
+        }
+
+        Exception getFailure() {
+            return failure;
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                // another thread is aggregating and will pickup the completed tasks
+                return;
+            }
+            int missed = 1;
+            do {
+                if (!done.get()) {
+                    try {
+                        aggregateOnTheFly();
+                    } catch (Throwable e) {
+                        failure = e instanceof Exception ? (Exception) e : ObjectHelper.wrapRuntimeCamelException(e);
+                        done();
                     }
                 }
-            }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
 
-            if (timedOut.get() || stoppedOnException) {
-                if (timedOut.get()) {
-                    LOG.debug("Cancelling tasks due timeout after {} millis.", timeout);
+        private void aggregateOnTheFly() {
+            while (true) {
+                int total = allTasksSubmitted ? submitted : -1;
+                if (total >= 0 && aggregated >= total) {
+                    LOG.debug("Done aggregating {} exchanges on the fly.", aggregated);
+                    done();
+                    return;
                 }
-                if (stoppedOnException) {
+
+                Exchange subExchange = reorderBuffer != null ? reorderBuffer.remove(aggregated) : completed.poll();
+                if (subExchange == null) {
+                    if (!timedOut || (reorderBuffer != null ? aggregated >= submitted : total < 0)) {
+                        // wait for more tasks to complete
+                        return;
+                    }
+                    // the task has timed out so notify the strategy and continue with the next task
+                    notifyTimeout(aggregated);
+                    aggregated++;
+                    continue;
+                }
+
+                // Decide whether to continue with the multicast or not; similar logic to the Pipeline
+                if (isStopOnException(subExchange)) {
+                    // we want to stop on exception and an exception or failure occurred
+                    // this is similar to what the pipeline does, so we should do the same to not surprise end users
+                    // so we should set the failed exchange as the result and break out
                     LOG.debug("Cancelling tasks due stopOnException.");
+                    result.set(subExchange);
+                    running.set(false);
+                    done();
+                    return;
                 }
-                // cancel tasks as we timed out (its safe to cancel done tasks)
-                running.set(false);
+
+                if (!parallelAggregate) {
+                    // we got a result so aggregate it
+                    aggregate(subExchange, aggregated);
+                }
+                aggregated++;
             }
         }
-    }
 
-    /**
-     * Worker task to aggregate the old and new exchange on-the-fly for completed tasks when using parallel processing.
-     */
-    private final class ParallelAggregateTask implements Runnable {
+        private void done() {
+            if (done.compareAndSet(false, true)) {
+                cancelTimeout();
+                doneLatch.countDown();
+            }
+        }
 
-        private final AtomicExchange result;
-        private final Exchange subExchange;
-        private final AtomicInteger aggregated;
+        private void cancelTimeout() {
+            ScheduledFuture<?> future = timeoutFuture;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
 
-        private ParallelAggregateTask(AtomicExchange result, Exchange subExchange, AtomicInteger aggregated) {
-            this.result = result;
-            this.subExchange = subExchange;
-            this.aggregated = aggregated;
+        private boolean isStopOnException(Exchange subExchange) {
+            if (!stopOnException) {
+                return false;
+            }
+            Integer number = getExchangeIndex(subExchange);
+            return !PipelineHelper.continueProcessing(subExchange, "Parallel processing failed for number " + number, LOG);
         }
 
-        @Override
-        public void run() {
+        private void aggregate(Exchange subExchange, int index) {
             try {
                 if (parallelAggregate) {
                     doAggregateInternal(getAggregationStrategy(subExchange), result, subExchange);
@@ -532,37 +553,11 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
                 }
             } catch (Throwable e) {
                 // wrap in exception to explain where it failed
-                subExchange.setException(new CamelExchangeException("Parallel processing failed for number " + aggregated.get(), subExchange, e));
-            } finally {
-                aggregated.incrementAndGet();
+                subExchange.setException(new CamelExchangeException("Parallel processing failed for number " + index, subExchange, e));
             }
         }
-    }
-
-    /**
-     * Worker task to aggregate the old and new exchange on-the-fly for completed tasks when using parallel processing.
-     */
-    private final class ParallelAggregateTimeoutTask implements Runnable {
 
-        private final Exchange original;
-        private final AtomicExchange result;
-        private final CompletionService<Exchange> completion;
-        private final AtomicInteger aggregated;
-        private final AtomicInteger total;
-        private final AtomicBoolean timedOut;
-
-        private ParallelAggregateTimeoutTask(Exchange original, AtomicExchange result, CompletionService<Exchange> completion,
-                                             AtomicInteger aggregated, AtomicInteger total, AtomicBoolean timedOut) {
-            this.original = original;
-            this.result = result;
-            this.completion = completion;
-            this.aggregated = aggregated;
-            this.total = total;
-            this.timedOut = timedOut;
-        }
-
-        @Override
-        public void run() {
+        private void notifyTimeout(int index) {
             AggregationStrategy strategy = getAggregationStrategy(null);
             if (strategy instanceof DelegateAggregationStrategy) {
                 strategy = ((DelegateAggregationStrategy) strategy).getDelegate();
@@ -574,22 +569,60 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
                     // if they all timed out the result may not have been set yet, so use the original exchange
                     oldExchange = original;
                 }
-                ((TimeoutAwareAggregationStrategy) strategy).timeout(oldExchange, aggregated.intValue(), total.intValue(), timeout);
+                ((TimeoutAwareAggregationStrategy) strategy).timeout(oldExchange, index, submitted, timeout);
             } else {
                 // log a WARN we timed out since it will not be aggregated and the Exchange will be lost
-                LOG.warn("Parallel processing timed out after {} millis for number {}. This task will be cancelled and will not be aggregated.", timeout, aggregated.intValue());
+                LOG.warn("Parallel processing timed out after {} millis for number {}. This task will be cancelled and will not be aggregated.", timeout, index);
             }
-            LOG.debug("Timeout occurred after {} millis for number {} task.", timeout, aggregated.intValue());
-            timedOut.set(true);
+            LOG.debug("Timeout occurred after {} millis for number {} task.", timeout, index);
+        }
+    }
+
+    /**
+     * Worker task to process a pair when using parallel processing, which aggregates on-the-fly when the pair is done.
+     */
+    private final class ParallelProcessTask implements Runnable {
+
+        private final ParallelAggregator aggregator;
+        private final ProcessorExchangePair pair;
+        private final int index;
+
+        private ParallelProcessTask(ParallelAggregator aggregator, ProcessorExchangePair pair, int index) {
+            this.aggregator = aggregator;
+            this.pair = pair;
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            Exchange subExchange = pair.getExchange();
+
+            // do not start processing the task if we are not running
+            if (aggregator.isRunning()) {
+                try {
+                    doProcessParallel(pair);
+                } catch (Throwable e) {
+                    subExchange.setException(e);
+                }
+
+                // Decide whether to continue with the multicast or not; similar logic to the Pipeline
+                Integer number = getExchangeIndex(subExchange);
+                boolean continueProcessing = PipelineHelper.continueProcessing(subExchange, "Parallel processing failed for number " + number, LOG);
+                if (stopOnException && !continueProcessing) {
+                    // signal to stop running
+                    aggregator.stopRunning();
+                    // throw caused exception
+                    if (subExchange.getException() != null) {
+                        // wrap in exception to explain where it failed
+                        CamelExchangeException cause = new CamelExchangeException("Parallel processing failed for number " + number, subExchange, subExchange.getException());
+                        subExchange.setException(cause);
+                    }
+                }
 
-            // mark that index as timed out, which allows us to try to retrieve
-            // any already completed tasks in the next loop
-            if (completion instanceof SubmitOrderedCompletionService) {
-                ((SubmitOrderedCompletionService<?>) completion).timeoutTask();
+                LOG.trace("Parallel processing complete for exchange: {}", subExchange);
             }
 
-            // we timed out so increment the counter
-            aggregated.incrementAndGet();
+            aggregator.onCompleted(index, subExchange);
         }
     }
 
@@ -1139,28 +1172,40 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
         if (timeout > 0 && !isParallelProcessing()) {
             throw new IllegalArgumentException("Timeout is used but ParallelProcessing has not been enabled");
         }
-        if (isParallelProcessing() && aggregateExecutorService == null) {
-            // use unbounded thread pool so we ensure the aggregate on-the-fly task always will have assigned a thread
-            // and run the tasks when the task is submitted. If not then the aggregate task may not be able to run
-            // and signal completion during processing, which would lead to what would appear as a dead-lock or a slow processing
+        if (isParallelProcessing() && timeout > 0 && aggregateExecutorService == null) {
+            // use a scheduled thread pool to signal the timeout, even if the tasks are still waiting to be executed
             String name = getClass().getSimpleName() + "-AggregateTask";
-            aggregateExecutorService = createAggregateExecutorService(name);
+            aggregateExecutorService = createAggregateScheduledExecutorService(name);
         }
         ServiceHelper.startServices(aggregationStrategy, processors);
     }
 
     /**
-     * Strategy to create the thread pool for the aggregator background task which waits for and aggregates
-     * completed tasks when running in parallel mode.
+     * Strategy to create the thread pool for the background task which signals the timeout
+     * when running in parallel mode with a timeout.
      *
      * @param name  the suggested name for the background thread
      * @return the thread pool
+     * @deprecated no longer used, as the timeout is scheduled using the thread pool from
+     * {@link #createAggregateScheduledExecutorService(String)}
      */
+    @Deprecated
     protected synchronized ExecutorService createAggregateExecutorService(String name) {
-        // use a cached thread pool so we each on-the-fly task has a dedicated thread to process completions as they come in
         return camelContext.getExecutorServiceManager().newCachedThreadPool(this, name);
     }
 
+    /**
+     * Strategy to create the scheduled thread pool which signals the timeout when running in parallel mode
+     * with a timeout.
+     *
+     * @param name  the suggested name for the background thread
+     * @return the scheduled thread pool
+     */
+    protected synchronized ScheduledExecutorService createAggregateScheduledExecutorService(String name) {
+        // the timeout only signals the aggregation, so a single thread can serve all the exchanges
+        return camelContext.getExecutorServiceManager().newSingleThreadScheduledExecutor(this, name);
+    }
+
     @Override
     protected void doStop() throws Exception {
         ServiceHelper.stopServices(processors, errorHandlers, aggregationStrategy);
@@ -18,6 +18,7 @@ package org.apache.camel.processor;
 
 import java.util.Iterator;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.AsyncProcessor;
@@ -70,7 +71,7 @@ public class RecipientList extends ServiceSupport implements AsyncProcessor, IdA
     private boolean shareUnitOfWork;
     private ExecutorService executorService;
     private boolean shutdownExecutorService;
-    private ExecutorService aggregateExecutorService;
+    private ScheduledExecutorService aggregateExecutorService;
     private AggregationStrategy aggregationStrategy = new UseLatestAggregationStrategy();
 
     public RecipientList(CamelContext camelContext) {
@@ -147,10 +148,10 @@ public class RecipientList extends ServiceSupport implements AsyncProcessor, IdA
                 isParallelProcessing(), getExecutorService(), isShutdownExecutorService(),
                 isStreaming(), isStopOnException(), getTimeout(), getOnPrepare(), isShareUnitOfWork(), isParallelAggregate()) {
             @Override
-            protected synchronized ExecutorService createAggregateExecutorService(String name) {
+            protected synchronized ScheduledExecutorService createAggregateScheduledExecutorService(String name) {
                 // use a shared executor service to avoid creating new thread pools
                 if (aggregateExecutorService == null) {
-                    aggregateExecutorService = super.createAggregateExecutorService("RecipientList-AggregateTask");
+                    aggregateExecutorService = super.createAggregateScheduledExecutorService("RecipientList-AggregateTask");
                 }
                 return aggregateExecutorService;
             }
@@ -190,7 +190,7 @@ public class RecipientListProcessor extends MulticastProcessor {
             Producer producer;
             ExchangePattern pattern;
             try {
-                endpoint = resolveEndpoint(exchange, recipient);
+                endpoint = resolveEndpoint(exchange, recipient, producerCache);
                 pattern = resolveExchangePattern(recipient);
                 producer = producerCache.acquireProducer(endpoint);
             } catch (Exception e) {
@@ -247,11 +247,16 @@ public class RecipientListProcessor extends MulticastProcessor {
     }
 
     protected static Endpoint resolveEndpoint(Exchange exchange, Object recipient) {
+        return resolveEndpoint(exchange, recipient, null);
+    }
+
+    private static Endpoint resolveEndpoint(Exchange exchange, Object recipient, ProducerCache cache) {
         // trim strings as end users might have added spaces between separators
         if (recipient instanceof String) {
             recipient = ((String) recipient).trim();
         }
-        return ExchangeHelper.resolveEndpoint(exchange, recipient);
+        // use the producer cache which caches the resolved endpoints for the dynamic uris
+        return cache != null ? cache.resolveEndpoint(exchange, recipient) : ExchangeHelper.resolveEndpoint(exchange, recipient);
     }
 
     protected ExchangePattern resolveExchangePattern(Object recipient) throws UnsupportedEncodingException, URISyntaxException, MalformedURLException {
@@ -297,7 +297,8 @@ public class RoutingSlip extends ServiceSupport implements AsyncProcessor, Trace
         Object nextRecipient = iter.next(exchange);
         Endpoint endpoint = null;
         try {
-            endpoint = ExchangeHelper.resolveEndpoint(exchange, nextRecipient);
+            // use the producer cache which caches the resolved endpoints for the dynamic uris
+            endpoint = producerCache.resolveEndpoint(exchange, nextRecipient);
         } catch (Exception e) {
             if (isIgnoreInvalidEndpoints()) {
                 log.info("Endpoint uri is invalid: " + nextRecipient + ". This exception will be ignored.", e);
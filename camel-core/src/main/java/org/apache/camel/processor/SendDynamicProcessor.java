@@ -101,7 +101,7 @@ public class SendDynamicProcessor extends ServiceSupport implements AsyncProcess
         Object recipient = null;
         try {
             recipient = expression.evaluate(exchange, Object.class);
-            endpoint = resolveEndpoint(exchange, recipient);
+            endpoint = resolveEndpoint(exchange, recipient, producerCache);
             destinationExchangePattern = EndpointHelper.resolveExchangePatternFromUrl(endpoint.getEndpointUri());
         } catch (Throwable e) {
             if (isIgnoreInvalidEndpoint()) {
@@ -134,6 +134,10 @@ public class SendDynamicProcessor extends ServiceSupport implements AsyncProcess
     }
 
     protected static Endpoint resolveEndpoint(Exchange exchange, Object recipient) throws NoTypeConversionAvailableException {
+        return resolveEndpoint(exchange, recipient, null);
+    }
+
+    private static Endpoint resolveEndpoint(Exchange exchange, Object recipient, ProducerCache cache) throws NoTypeConversionAvailableException {
         // trim strings as end users might have added spaces between separators
         if (recipient instanceof String) {
             recipient = ((String) recipient).trim();
@@ -144,7 +148,8 @@ public class SendDynamicProcessor extends ServiceSupport implements AsyncProcess
             recipient = exchange.getContext().getTypeConverter().mandatoryConvertTo(String.class, exchange, recipient);
         }
 
-        return ExchangeHelper.resolveEndpoint(exchange, recipient);
+        // use the producer cache which caches the resolved endpoints for the dynamic uris
+        return cache != null ? cache.resolveEndpoint(exchange, recipient) : ExchangeHelper.resolveEndpoint(exchange, recipient);
     }
 
     protected Exchange configureExchange(Exchange exchange, ExchangePattern pattern, ExchangePattern destinationExchangePattern, Endpoint endpoint) {
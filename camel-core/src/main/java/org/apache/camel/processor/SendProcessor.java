@@ -18,6 +18,7 @@ package org.apache.camel.processor;
 
 import java.net.URISyntaxException;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.AsyncProcessor;
@@ -116,6 +117,16 @@ public class SendProcessor extends ServiceSupport implements AsyncProcessor, Tra
         AsyncProcessorHelper.process(this, exchange);
     }
 
+    /**
+     * Sends the exchange without blocking the caller thread waiting for an asynchronous producer to complete.
+     *
+     * @param exchange the exchange
+     * @return a future which is completed with the exchange when it has been sent
+     */
+    public CompletableFuture<Exchange> processAsync(final Exchange exchange) {
+        return AsyncProcessorHelper.processAsync(this, exchange);
+    }
+
     public boolean process(Exchange exchange, final AsyncCallback callback) {
         if (!isStarted()) {
             exchange.setException(new IllegalStateException("SendProcessor has not been started: " + this));
@@ -20,7 +20,9 @@ import java.util.concurrent.DelayQueue;
 import java.util.concurrent.Delayed;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.CamelContext;
@@ -55,6 +57,15 @@ import org.slf4j.LoggerFactory;
  * callers point of view in the last timePeriodMillis no more than
  * maxRequestsPerPeriod have been allowed to be acquired.
  *
+ * Alternatively the throttler can use a token bucket, which is refilled with
+ * maxRequestsPerPeriod tokens evenly over timePeriodMillis, and can hold at most
+ * maxRequestsPerPeriod tokens. The token bucket is implemented as a single atomic
+ * counter holding the time when the next token is available (which is known as the
+ * generic cell rate algorithm), so each exchange reserves its token with a compare
+ * and set without any locking. An exchange which has to wait for its token is
+ * scheduled to continue routing when the token is available if asyncDelayed is
+ * enabled, so no thread is blocked per waiting exchange.
+ *
  * @version
  */
 public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAware {
@@ -69,6 +80,10 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
     private final DelayQueue<ThrottlePermit> delayQueue = new DelayQueue<>();
     private final ExecutorService asyncExecutor;
     private final boolean shutdownAsyncExecutor;
+    private final AtomicLong nextTokenTime = new AtomicLong(System.nanoTime());
+    private final AtomicLong acquiredCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong waitingCount = new AtomicLong();
 
     private volatile long timePeriodMillis;
     private volatile int throttleRate;
@@ -77,6 +92,7 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
     private boolean rejectExecution;
     private boolean asyncDelayed;
     private boolean callerRunsWhenRejected = true;
+    private boolean tokenBucket;
 
     public Throttler(final CamelContext camelContext, final Processor processor, final Expression maxRequestsPerPeriodExpression, final long timePeriodMillis,
                      final ExecutorService asyncExecutor, final boolean shutdownAsyncExecutor, final boolean rejectExecution) {
@@ -105,6 +121,10 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
         State state = exchange.getProperty(PROPERTY_EXCHANGE_STATE, State.SYNC, State.class);
         exchange.removeProperty(PROPERTY_EXCHANGE_STATE);
         boolean doneSync = state == State.SYNC || state == State.ASYNC_REJECTED;
+        if (state == State.ASYNC) {
+            // no longer waiting in the async executor
+            waitingCount.decrementAndGet();
+        }
 
         try {
             if (!isRunAllowed()) {
@@ -112,10 +132,14 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
             }
 
             calculateAndSetMaxRequestsPerPeriod(exchange);
+            if (isTokenBucket()) {
+                return processTokenBucket(exchange, callback);
+            }
             ThrottlePermit permit = delayQueue.poll();
 
             if (permit == null) {
                 if (isRejectExecution()) {
+                    rejectedCount.incrementAndGet();
                     throw new ThrottlerRejectedExecutionException("Exceeded the max throttle rate of "
                             + throttleRate + " within " + timePeriodMillis + "ms");
                 } else {
@@ -131,7 +155,12 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
                     if (log.isTraceEnabled()) {
                         start = System.currentTimeMillis();
                     }
-                    permit = delayQueue.take();
+                    waitingCount.incrementAndGet();
+                    try {
+                        permit = delayQueue.take();
+                    } finally {
+                        waitingCount.decrementAndGet();
+                    }
                     if (log.isTraceEnabled()) {
                         elapsed = System.currentTimeMillis() - start;
                     }
@@ -203,6 +232,7 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
                 exchange.setProperty(PROPERTY_EXCHANGE_QUEUED_TIMESTAMP, System.currentTimeMillis());
             }
             exchange.setProperty(PROPERTY_EXCHANGE_STATE, State.ASYNC);
+            waitingCount.incrementAndGet();
             asyncExecutor.submit(new Runnable() {
                 @Override
                 public void run() {
@@ -211,6 +241,7 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
             });
             return false;
         } catch (final RejectedExecutionException e) {
+            waitingCount.decrementAndGet();
             if (isCallerRunsWhenRejected()) {
                 log.debug("AsyncExecutor is full, rejected exchange will run in the current thread, exchangeId: {}", exchange.getExchangeId());
                 exchange.setProperty(PROPERTY_EXCHANGE_STATE, State.ASYNC_REJECTED);
@@ -224,6 +255,7 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
      * Returns a permit to the DelayQueue, first resetting it's delay to be relative to now.
      */
     protected void enqueuePermit(final ThrottlePermit permit, final Exchange exchange) {
+        acquiredCount.incrementAndGet();
         permit.setDelayMs(getTimePeriodMillis());
         delayQueue.put(permit);
         // try and incur the least amount of overhead while releasing permits back to the queue
@@ -232,6 +264,107 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
         }
     }
 
+    /**
+     * Processes the exchange using the token bucket, where the exchange reserves the next token
+     * and then continues routing when the token is available.
+     */
+    protected boolean processTokenBucket(final Exchange exchange, final AsyncCallback callback) throws Exception {
+        long delay = reserveToken(isRejectExecution());
+        if (delay < 0) {
+            rejectedCount.incrementAndGet();
+            throw new ThrottlerRejectedExecutionException("Exceeded the max throttle rate of "
+                    + throttleRate + " within " + timePeriodMillis + "ms");
+        }
+
+        if (delay > 0) {
+            if (isAsyncDelayed() && !exchange.isTransacted()) {
+                // schedule to continue routing when the token is available
+                waitingCount.incrementAndGet();
+                try {
+                    log.trace("Scheduling exchangeId: {} to continue routing in {} nanos", exchange.getExchangeId(), delay);
+                    ((ScheduledExecutorService) asyncExecutor).schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            waitingCount.decrementAndGet();
+                            acquiredCount.incrementAndGet();
+                            if (!isRunAllowed()) {
+                                exchange.setException(new RejectedExecutionException("Run is not allowed"));
+                            }
+                            continueRouting(exchange, new AsyncCallback() {
+                                @Override
+                                public void done(boolean doneSync) {
+                                    // must invoke done on callback with false, as we returned false in the process method
+                                    callback.done(false);
+                                }
+                            });
+                        }
+                    }, delay, TimeUnit.NANOSECONDS);
+                    return false;
+                } catch (RejectedExecutionException e) {
+                    waitingCount.decrementAndGet();
+                    if (!isCallerRunsWhenRejected()) {
+                        throw e;
+                    }
+                    log.debug("AsyncExecutor is full, rejected exchange will wait in the current thread, exchangeId: {}", exchange.getExchangeId());
+                }
+            }
+
+            // block waiting for the token
+            waitingCount.incrementAndGet();
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } finally {
+                waitingCount.decrementAndGet();
+            }
+            log.trace("Throttled for {} nanos, exchangeId: {}", delay, exchange.getExchangeId());
+        } else {
+            log.trace("No throttling applied to exchangeId: {}", exchange.getExchangeId());
+        }
+
+        acquiredCount.incrementAndGet();
+        return continueRouting(exchange, callback);
+    }
+
+    private boolean continueRouting(final Exchange exchange, final AsyncCallback callback) {
+        if (processor != null && exchange.getException() == null) {
+            return processor.process(exchange, callback);
+        }
+        callback.done(true);
+        return true;
+    }
+
+    /**
+     * Reserves the next token of the token bucket.
+     *
+     * @param reject whether to not reserve the token if it is not available right now
+     * @return the nanos to wait until the reserved token is available, or <tt>-1</tt> if no token was reserved
+     */
+    protected long reserveToken(final boolean reject) {
+        int rate = throttleRate;
+        if (rate <= 0) {
+            return -1;
+        }
+        long period = TimeUnit.MILLISECONDS.toNanos(timePeriodMillis);
+        // the time it takes to refill one token
+        long interval = Math.max(1, period / rate);
+        // the bucket holds at most rate tokens, which can be taken at once
+        long burst = period - interval;
+
+        while (true) {
+            long now = System.nanoTime();
+            long next = nextTokenTime.get();
+            // a bucket which has been full for a while does not save more tokens
+            long start = next - now > 0 ? next : now;
+            long delay = start - burst - now;
+            if (delay > 0 && reject) {
+                return -1;
+            }
+            if (nextTokenTime.compareAndSet(next, start + interval)) {
+                return delay > 0 ? delay : 0;
+            }
+        }
+    }
+
     /**
      * Evaluates the maxRequestsPerPeriodExpression and adjusts the throttle rate up or down.
      */
@@ -242,6 +375,18 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
             throw new IllegalStateException("The maximumRequestsPerPeriod must be a positive number, was: " + newThrottle);
         }
 
+        if (isTokenBucket()) {
+            // the token bucket only needs the new rate
+            if (newThrottle == null && throttleRate == 0) {
+                throw new RuntimeExchangeException("The maxRequestsPerPeriodExpression was evaluated as null: " + maxRequestsPerPeriodExpression, exchange);
+            }
+            if (newThrottle != null && newThrottle != throttleRate) {
+                log.debug("Throttle rate changed from {} to {}, triggered by ExchangeId: {}", throttleRate, newThrottle, exchange.getExchangeId());
+                throttleRate = newThrottle;
+            }
+            return;
+        }
+
         synchronized (this) {
             if (newThrottle == null && throttleRate == 0) {
                 throw new RuntimeExchangeException("The maxRequestsPerPeriodExpression was evaluated as null: " + maxRequestsPerPeriodExpression, exchange);
@@ -283,7 +428,11 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
     protected void doStart() throws Exception {
         if (isAsyncDelayed()) {
             ObjectHelper.notNull(asyncExecutor, "executorService", this);
+            if (isTokenBucket() && !(asyncExecutor instanceof ScheduledExecutorService)) {
+                throw new IllegalArgumentException("The executorService must be a ScheduledExecutorService when using tokenBucket with asyncDelayed");
+            }
         }
+        nextTokenTime.set(System.nanoTime());
         super.doStart();
     }
 
@@ -344,6 +493,43 @@ public class Throttler extends DelegateAsyncProcessor implements Traceable, IdAw
         this.callerRunsWhenRejected = callerRunsWhenRejected;
     }
 
+    public boolean isTokenBucket() {
+        return tokenBucket;
+    }
+
+    public void setTokenBucket(boolean tokenBucket) {
+        this.tokenBucket = tokenBucket;
+    }
+
+    /**
+     * Gets the number of exchanges which has acquired a permit (or token) to continue routing.
+     */
+    public long getAcquiredCount() {
+        return acquiredCount.get();
+    }
+
+    /**
+     * Gets the number of exchanges which has been rejected because the throttle rate was exceeded.
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Gets the number of exchanges currently waiting for a permit (or token).
+     */
+    public long getWaitingCount() {
+        return waitingCount.get();
+    }
+
+    /**
+     * Reset the acquired and rejected counters.
+     */
+    public void reset() {
+        acquiredCount.set(0);
+        rejectedCount.set(0);
+    }
+
     public String getId() {
         return id;
     }
@@ -48,6 +48,7 @@ import org.apache.camel.ShutdownRunningTask;
 import org.apache.camel.TimeoutMap;
 import org.apache.camel.Traceable;
 import org.apache.camel.spi.AggregationRepository;
+import org.apache.camel.spi.AppendableAggregationRepository;
 import org.apache.camel.spi.ExceptionHandler;
 import org.apache.camel.spi.IdAware;
 import org.apache.camel.spi.OptimisticLockingAggregationRepository;
@@ -55,7 +56,7 @@ import org.apache.camel.spi.RecoverableAggregationRepository;
 import org.apache.camel.spi.ShutdownAware;
 import org.apache.camel.spi.ShutdownPrepared;
 import org.apache.camel.spi.Synchronization;
-import org.apache.camel.support.DefaultTimeoutMap;
+import org.apache.camel.support.HashedWheelTimeoutMap;
 import org.apache.camel.support.LoggingExceptionHandler;
 import org.apache.camel.support.ServiceSupport;
 import org.apache.camel.util.AsyncProcessorHelper;
@@ -89,7 +90,8 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
 
     private static final Logger LOG = LoggerFactory.getLogger(AggregateProcessor.class);
 
-    private final Lock lock = new ReentrantLock();
+    // the locks the correlation keys are striped over when not using optimistic locking
+    private Lock[] locks = new Lock[]{new ReentrantLock()};
     private final CamelContext camelContext;
     private final Processor processor;
     private String id;
@@ -193,6 +195,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
     private Integer closeCorrelationKeyOnCompletion;
     private boolean parallelProcessing;
     private boolean optimisticLocking;
+    private int lockStripes = 1;
 
     // different ways to have completion triggered
     private boolean eagerCheckCompletion;
@@ -339,7 +342,9 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             // when memory based then its fast using synchronized, but if the aggregation repository is IO
             // bound such as JPA etc then concurrent aggregation per correlation key could
             // improve performance as we can run aggregation repository get/add in parallel
+            // (which is possible by striping the correlation keys over a number of locks)
             List<Exchange> aggregated = null;
+            Lock lock = getLock(key);
             lock.lock();
             try {
                 aggregated = doAggregation(key, copy);
@@ -442,6 +447,13 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             trackTimeout(key, newExchange);
         }
 
+        // keep the incoming exchange as-is (before the strategy may change it) if the repository stores deltas
+        Exchange delta = null;
+        if (!optimisticLocking && aggregationRepository instanceof AppendableAggregationRepository
+                && ((AppendableAggregationRepository) aggregationRepository).isDeltaAppend()) {
+            delta = newExchange.copy();
+        }
+
         // aggregate the exchanges
         try {
             answer = onAggregation(oldExchange, newExchange);
@@ -467,7 +479,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
 
         if (complete == null) {
             // only need to update aggregation repository if we are not complete
-            doAggregationRepositoryAdd(newExchange.getContext(), key, originalExchange, answer);
+            doAggregationRepositoryAdd(newExchange.getContext(), key, originalExchange, answer, delta);
         } else {
             // if we are complete then add the answer to the list
             doAggregationComplete(complete, list, key, originalExchange, answer);
@@ -509,8 +521,14 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
     }
 
     protected void doAggregationRepositoryAdd(CamelContext camelContext, String key, Exchange oldExchange, Exchange newExchange) {
+        doAggregationRepositoryAdd(camelContext, key, oldExchange, newExchange, null);
+    }
+
+    protected void doAggregationRepositoryAdd(CamelContext camelContext, String key, Exchange oldExchange, Exchange newExchange, Exchange delta) {
         LOG.trace("In progress aggregated oldExchange: {}, newExchange: {} with correlation key: {}", new Object[]{oldExchange, newExchange, key});
-        if (optimisticLocking) {
+        if (delta != null && aggregationRepository instanceof AppendableAggregationRepository) {
+            ((AppendableAggregationRepository) aggregationRepository).append(camelContext, key, newExchange, delta);
+        } else if (optimisticLocking) {
             try {
                 ((OptimisticLockingAggregationRepository)aggregationRepository).add(camelContext, key, oldExchange, newExchange);
             } catch (OptimisticLockingAggregationRepository.OptimisticLockingException e) {
@@ -945,6 +963,21 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         this.optimisticLocking = optimisticLocking;
     }
 
+    public int getLockStripes() {
+        return lockStripes;
+    }
+
+    /**
+     * Sets the number of locks the correlation keys are striped over when not using optimistic locking.
+     * <p/>
+     * Exchanges with correlation keys on different stripes can be aggregated in parallel,
+     * while exchanges with the same correlation key are always aggregated one at a time.
+     * The default is a single lock.
+     */
+    public void setLockStripes(int lockStripes) {
+        this.lockStripes = lockStripes;
+    }
+
     public AggregationRepository getAggregationRepository() {
         return aggregationRepository;
     }
@@ -1056,10 +1089,42 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         }
     }
 
+    /**
+     * Gets the shared aggregation lock for the given correlation key
+     */
+    private Lock getLock(String key) {
+        Lock[] current = locks;
+        if (current.length == 1) {
+            return current[0];
+        }
+        // spread the hash code so keys with similar hash codes are striped over different locks
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return current[(hash & 0x7fffffff) % current.length];
+    }
+
+    /**
+     * Acquires all the shared aggregation locks, in the same order to avoid deadlocks
+     */
+    private void lockAll() {
+        for (Lock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    /**
+     * Releases all the shared aggregation locks acquired by {@link #lockAll()}
+     */
+    private void unlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+
     /**
      * Background task that looks for aggregated exchanges which is triggered by completion timeouts.
      */
-    private final class AggregationTimeoutMap extends DefaultTimeoutMap<String, String> {
+    private final class AggregationTimeoutMap extends HashedWheelTimeoutMap<String, String> {
 
         private AggregationTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
             // do NOT use locking on the timeout map as this aggregator has its own shared lock we will use instead
@@ -1068,15 +1133,16 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
 
         @Override
         public void purge() {
-            // must acquire the shared aggregation lock to be able to purge
+            // must acquire all the shared aggregation locks to be able to purge, as the expired entries
+            // are found before they are evicted, and they must not be updated in the mean time
             if (!optimisticLocking) {
-                lock.lock();
+                lockAll();
             }
             try {
                 super.purge();
             } finally {
                 if (!optimisticLocking) {
-                    lock.unlock();
+                    unlockAll();
                 }
             }
         }
@@ -1135,12 +1201,13 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             Set<String> keys = aggregationRepository.getKeys();
 
             if (keys != null && !keys.isEmpty()) {
-                // must acquire the shared aggregation lock to be able to trigger interval completion
-                if (!optimisticLocking) {
-                    lock.lock();
-                }
-                try {
-                    for (String key : keys) {
+                for (String key : keys) {
+                    // must acquire the shared aggregation lock of the key to be able to trigger interval completion
+                    Lock lock = optimisticLocking ? null : getLock(key);
+                    if (lock != null) {
+                        lock.lock();
+                    }
+                    try {
                         boolean stolenInterval = false;
                         Exchange exchange = aggregationRepository.get(camelContext, key);
                         if (exchange == null) {
@@ -1161,10 +1228,10 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
                         if (optimisticLocking && stolenInterval) {
                             LOG.debug("Another Camel instance has already processed this interval aggregation for exchange with correlation id: {}", key);
                         }
-                    }
-                } finally {
-                    if (!optimisticLocking) {
-                        lock.unlock();
+                    } finally {
+                        if (lock != null) {
+                            lock.unlock();
+                        }
                     }
                 }
             }
@@ -1312,6 +1379,21 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
                 throw new IllegalArgumentException("Optimistic locking cannot be enabled without using an AggregationRepository that implements OptimisticLockingAggregationRepository");
             }
             LOG.info("Optimistic locking is enabled");
+        } else {
+            if (lockStripes <= 0) {
+                throw new IllegalArgumentException("Option lockStripes must be a positive number, was: " + lockStripes);
+            }
+            if (lockStripes > 1) {
+                if (isCompletionFromBatchConsumer()) {
+                    // completion from batch consumer completes the other correlation keys which are not locked
+                    throw new IllegalArgumentException("Option lockStripes cannot be used together with completionFromBatchConsumer");
+                }
+                LOG.info("Using " + lockStripes + " lock stripes to aggregate correlation keys in parallel");
+            }
+            locks = new Lock[lockStripes];
+            for (int i = 0; i < lockStripes; i++) {
+                locks[i] = new ReentrantLock();
+            }
         }
 
         ServiceHelper.startServices(aggregationStrategy, processor, aggregationRepository);
@@ -1478,7 +1560,8 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         // must acquire the shared aggregation lock to be able to trigger force completion
         int total = 0;
 
-        if (!optimisticLocking) {
+        Lock lock = optimisticLocking ? null : getLock(key);
+        if (lock != null) {
             lock.lock();
         }
         try {
@@ -1494,8 +1577,8 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
                 }
             }
         } finally {
-            if (!optimisticLocking) {
-                lock.unlock(); 
+            if (lock != null) {
+                lock.unlock();
             }
         }
         LOG.trace("Completed force completion of group {}", key);
@@ -1522,13 +1605,14 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
 
         int total = 0;
         if (keys != null && !keys.isEmpty()) {
-            // must acquire the shared aggregation lock to be able to trigger force completion
-            if (!optimisticLocking) {
-                lock.lock(); 
-            }
             total = keys.size();
-            try {
-                for (String key : keys) {
+            for (String key : keys) {
+                // must acquire the shared aggregation lock of the key to be able to trigger force completion
+                Lock lock = optimisticLocking ? null : getLock(key);
+                if (lock != null) {
+                    lock.lock();
+                }
+                try {
                     Exchange exchange = aggregationRepository.get(camelContext, key);
                     if (exchange != null) {
                         LOG.trace("Force completion triggered for correlation key: {}", key);
@@ -1539,10 +1623,10 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
                             onSubmitCompletion(key, answer);
                         }
                     }
-                }
-            } finally {
-                if (!optimisticLocking) {
-                    lock.unlock();
+                } finally {
+                    if (lock != null) {
+                        lock.unlock();
+                    }
                 }
             }
         }
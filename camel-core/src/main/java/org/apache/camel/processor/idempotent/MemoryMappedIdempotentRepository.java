@@ -0,0 +1,642 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.idempotent;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.IdempotentRepository;
+import org.apache.camel.support.ServiceSupport;
+import org.apache.camel.util.FileUtil;
+import org.apache.camel.util.IOHelper;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A memory mapped file based implementation of {@link org.apache.camel.spi.IdempotentRepository}.
+ * <p/>
+ * The keys are stored in an append only log file which is memory mapped, and indexed by an off heap hash index
+ * of the fingerprints of the keys. Checking and adding keys is O(1) and all the keys are kept, so the repository
+ * can hold millions of keys (as opposed to {@link FileIdempotentRepository} which only keeps the keys of its
+ * 1st level cache).
+ * <p/>
+ * Removing a key appends a remove record to the log, and the log is compacted when it has more removed than
+ * live records. The log is replayed when the repository is started, and any partially written record at the end
+ * of the log (such as after a crash) is discarded.
+ * <p/>
+ * The writes to the memory mapped file survive a crash of the JVM as they are kept by the operating system.
+ * Enable <tt>sync</tt> to force each write to the disk to survive a crash of the operating system as well,
+ * at the cost of performance.
+ *
+ * @version 
+ */
+@ManagedResource(description = "Memory mapped file based idempotent repository")
+public class MemoryMappedIdempotentRepository extends ServiceSupport implements IdempotentRepository<String> {
+    private static final Logger LOG = LoggerFactory.getLogger(MemoryMappedIdempotentRepository.class);
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final int MAGIC = 0x43414d4c;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    // a record is the type (byte), key length (int), key and checksum (int)
+    private static final int RECORD_OVERHEAD = 9;
+    private static final byte END = 0;
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    // only compact when there is at least this many bytes to reclaim
+    private static final int COMPACT_MIN_SIZE = 64 * 1024;
+    // an index slot is the fingerprint (long) and the offset of the record in the log (long)
+    private static final int SLOT_SIZE = 16;
+    private static final long EMPTY_SLOT = 0;
+    private static final long DELETED_SLOT = 1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CRC32 checksum = new CRC32();
+    private File fileStore;
+    private long initialFileSize = 1024 * 1024L;
+    private int initialIndexCapacity = 1024;
+    private boolean sync;
+    private RandomAccessFile file;
+    private MappedByteBuffer log;
+    private int position;
+    private long liveSize;
+    private ByteBuffer index;
+    private int indexCapacity;
+    private int size;
+    private int deleted;
+    private long compactions;
+
+    public MemoryMappedIdempotentRepository() {
+    }
+
+    public MemoryMappedIdempotentRepository(File fileStore) {
+        this.fileStore = fileStore;
+    }
+
+    /**
+     * Creates a new memory mapped file based repository.
+     *
+     * @param fileStore  the file store
+     */
+    public static IdempotentRepository<String> memoryMappedIdempotentRepository(File fileStore) {
+        return new MemoryMappedIdempotentRepository(fileStore);
+    }
+
+    @ManagedOperation(description = "Adds the key to the store")
+    public boolean add(String key) {
+        byte[] bytes = key.getBytes(UTF8);
+        long fingerprint = fingerprint(bytes);
+        lock.writeLock().lock();
+        try {
+            if (findSlot(fingerprint, bytes) >= 0) {
+                return false;
+            }
+            int offset = append(ADD, bytes);
+            insertSlot(fingerprint, offset);
+            liveSize += RECORD_OVERHEAD + bytes.length;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @ManagedOperation(description = "Does the store contain the given key")
+    public boolean contains(String key) {
+        byte[] bytes = key.getBytes(UTF8);
+        long fingerprint = fingerprint(bytes);
+        lock.readLock().lock();
+        try {
+            return findSlot(fingerprint, bytes) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedOperation(description = "Remove the key from the store")
+    public boolean remove(String key) {
+        byte[] bytes = key.getBytes(UTF8);
+        long fingerprint = fingerprint(bytes);
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(fingerprint, bytes);
+            if (slot < 0) {
+                return false;
+            }
+            append(REMOVE, bytes);
+            index.putLong(slot * SLOT_SIZE, DELETED_SLOT);
+            size--;
+            deleted++;
+            liveSize -= RECORD_OVERHEAD + bytes.length;
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean confirm(String key) {
+        // noop
+        return true;
+    }
+
+    @ManagedOperation(description = "Clear the store")
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            // mark the end of the log after the header, so the old records are not loaded again
+            log.put(HEADER_SIZE, END);
+            if (sync) {
+                log.force();
+            }
+            position = HEADER_SIZE;
+            liveSize = 0;
+            createIndex(initialIndexCapacity);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Compacts the file store by rewriting the log with only the keys currently in the store.
+     */
+    @ManagedOperation(description = "Compacts the file store")
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            doCompact();
+        } catch (IOException e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public File getFileStore() {
+        return fileStore;
+    }
+
+    public void setFileStore(File fileStore) {
+        this.fileStore = fileStore;
+    }
+
+    @ManagedAttribute(description = "The file path for the store")
+    public String getFilePath() {
+        return fileStore.getPath();
+    }
+
+    @ManagedAttribute(description = "The initial size of the file store in bytes")
+    public long getInitialFileSize() {
+        return initialFileSize;
+    }
+
+    /**
+     * Sets the initial size of the file store in bytes, which is memory mapped and grown as needed.
+     * <p/>
+     * The default is 1mb.
+     */
+    public void setInitialFileSize(long initialFileSize) {
+        this.initialFileSize = initialFileSize;
+    }
+
+    public int getInitialIndexCapacity() {
+        return initialIndexCapacity;
+    }
+
+    /**
+     * Sets the initial number of slots of the index, which is grown as needed.
+     * <p/>
+     * Setting this to about twice the expected number of keys avoids growing the index.
+     * The default is 1024.
+     */
+    public void setInitialIndexCapacity(int initialIndexCapacity) {
+        this.initialIndexCapacity = initialIndexCapacity;
+    }
+
+    @ManagedAttribute(description = "Whether each write is forced to the disk")
+    public boolean isSync() {
+        return sync;
+    }
+
+    /**
+     * Sets whether each write should be forced to the disk, so the keys survive a crash of the operating system.
+     * <p/>
+     * Is default <tt>false</tt>.
+     */
+    public void setSync(boolean sync) {
+        this.sync = sync;
+    }
+
+    @ManagedAttribute(description = "The number of keys in the store")
+    public int getSize() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "The number of bytes used by the log in the file store")
+    public long getLogSize() {
+        lock.readLock().lock();
+        try {
+            return position;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "The number of times the file store has been compacted")
+    public long getCompactions() {
+        lock.readLock().lock();
+        try {
+            return compactions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Appends the record to the log
+     *
+     * @return the offset of the record in the log
+     */
+    protected int append(byte type, byte[] bytes) {
+        int recordSize = RECORD_OVERHEAD + bytes.length;
+        // make room for the end marker after the record
+        ensureCapacity(recordSize + 1);
+
+        int offset = position;
+        // mark the end of the log after the record, and write the type last, as the record is
+        // only loaded again when its type has been written
+        log.put(offset + recordSize, END);
+        log.putInt(offset + 1, bytes.length);
+        log.position(offset + 5);
+        log.put(bytes);
+        log.putInt(offset + 5 + bytes.length, checksum(type, bytes));
+        log.put(offset, type);
+        if (sync) {
+            log.force();
+        }
+        position = offset + recordSize;
+        return offset;
+    }
+
+    /**
+     * Loads the file store into the index, and discards any partially written record at the end of the log.
+     */
+    protected void loadStore() throws IOException {
+        // remove any left over from a compaction which did not complete
+        File compactFile = getCompactFile();
+        if (compactFile.exists()) {
+            FileUtil.deleteFile(compactFile);
+        }
+
+        // auto create starting directory if needed
+        File parent = fileStore.getParentFile();
+        if (parent != null && !parent.exists()) {
+            LOG.debug("Creating parent directory of filestore: {}", fileStore);
+            parent.mkdirs();
+        }
+
+        file = new RandomAccessFile(fileStore, "rw");
+        long fileLength = file.length();
+        log = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, mapSize(Math.max(fileLength, initialFileSize)));
+        if (fileLength < HEADER_SIZE) {
+            log.putInt(0, MAGIC);
+            log.putInt(4, VERSION);
+        } else if (log.getInt(0) != MAGIC || log.getInt(4) != VERSION) {
+            IOHelper.close(file);
+            throw new IOException("Filestore is not a memory mapped idempotent repository: " + fileStore);
+        }
+
+        LOG.trace("Loading idempotent filestore: {}", fileStore);
+
+        createIndex(initialIndexCapacity);
+        position = HEADER_SIZE;
+        liveSize = 0;
+        while (position + RECORD_OVERHEAD <= log.capacity()) {
+            byte type = log.get(position);
+            if (type == END) {
+                break;
+            }
+            int length = log.getInt(position + 1);
+            if ((type != ADD && type != REMOVE) || length < 0 || position + RECORD_OVERHEAD + length > log.capacity()) {
+                LOG.warn("Discarding corrupt record at position {} in idempotent filestore: {}", position, fileStore);
+                break;
+            }
+            byte[] bytes = new byte[length];
+            log.position(position + 5);
+            log.get(bytes);
+            if (log.getInt(position + 5 + length) != checksum(type, bytes)) {
+                LOG.warn("Discarding corrupt record at position {} in idempotent filestore: {}", position, fileStore);
+                break;
+            }
+
+            long fingerprint = fingerprint(bytes);
+            int slot = findSlot(fingerprint, bytes);
+            if (type == ADD && slot < 0) {
+                insertSlot(fingerprint, position);
+                liveSize += RECORD_OVERHEAD + length;
+            } else if (type == REMOVE && slot >= 0) {
+                index.putLong(slot * SLOT_SIZE, DELETED_SLOT);
+                size--;
+                deleted++;
+                liveSize -= RECORD_OVERHEAD + length;
+            }
+            position += RECORD_OVERHEAD + length;
+        }
+        // mark the end of the log so any discarded record is not loaded again
+        if (position < log.capacity()) {
+            log.put(position, END);
+        }
+
+        LOG.debug("Loaded {} keys from idempotent filestore: {}", size, fileStore);
+
+        compactIfNeeded();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        ObjectHelper.notNull(fileStore, "fileStore", this);
+
+        lock.writeLock().lock();
+        try {
+            loadStore();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        lock.writeLock().lock();
+        try {
+            if (log != null) {
+                log.force();
+            }
+            IOHelper.close(file, "Closing memory mapped idempotent repository", LOG);
+            unmap(log);
+            file = null;
+            log = null;
+            index = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureCapacity(int needed) {
+        if ((long) position + needed <= log.capacity()) {
+            return;
+        }
+        long newSize = Math.max(2L * log.capacity(), (long) position + needed);
+        if ((long) position + needed > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Filestore is full: " + fileStore);
+        }
+        LOG.debug("Growing idempotent filestore: {} to {} bytes", fileStore, mapSize(newSize));
+        MappedByteBuffer newLog;
+        try {
+            newLog = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, mapSize(newSize));
+        } catch (IOException e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        }
+        // the new mapping covers the old one, which is released now instead of when garbage collected
+        MappedByteBuffer oldLog = log;
+        log = newLog;
+        unmap(oldLog);
+    }
+
+    private void compactIfNeeded() {
+        long removed = position - HEADER_SIZE - liveSize;
+        if (removed > COMPACT_MIN_SIZE && removed > liveSize) {
+            try {
+                doCompact();
+            } catch (IOException e) {
+                // the log is still valid so we can continue without compacting
+                LOG.warn("Cannot compact idempotent filestore: " + fileStore + ". This exception is ignored.", e);
+            }
+        }
+    }
+
+    private void doCompact() throws IOException {
+        LOG.debug("Compacting idempotent filestore: {}", fileStore);
+
+        File compactFile = getCompactFile();
+        RandomAccessFile newFile = new RandomAccessFile(compactFile, "rw");
+        MappedByteBuffer newLog = null;
+        int newPosition = HEADER_SIZE;
+        try {
+            newLog = newFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, mapSize(Math.max(initialFileSize, 2 * (HEADER_SIZE + liveSize))));
+            newLog.putInt(0, MAGIC);
+            newLog.putInt(4, VERSION);
+            // copy the records of the keys in the index
+            for (int slot = 0; slot < indexCapacity; slot++) {
+                if (isKey(index.getLong(slot * SLOT_SIZE))) {
+                    int offset = (int) index.getLong(slot * SLOT_SIZE + 8);
+                    int recordSize = RECORD_OVERHEAD + log.getInt(offset + 1);
+                    ByteBuffer record = log.duplicate();
+                    record.limit(offset + recordSize).position(offset);
+                    newLog.position(newPosition);
+                    newLog.put(record);
+                    newPosition += recordSize;
+                }
+            }
+            newLog.put(newPosition, END);
+            newLog.force();
+            Files.move(compactFile.toPath(), fileStore.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            IOHelper.close(newFile);
+            unmap(newLog);
+            FileUtil.deleteFile(compactFile);
+            throw e;
+        }
+
+        // the compacted log is now the file store, so update the offsets in the index (in the same order as copied)
+        int offset = HEADER_SIZE;
+        for (int slot = 0; slot < indexCapacity; slot++) {
+            if (isKey(index.getLong(slot * SLOT_SIZE))) {
+                index.putLong(slot * SLOT_SIZE + 8, offset);
+                offset += RECORD_OVERHEAD + newLog.getInt(offset + 1);
+            }
+        }
+
+        // close the old file and release its mapping, as the old file has been replaced by the compacted file
+        IOHelper.close(file, "Closing memory mapped idempotent repository", LOG);
+        MappedByteBuffer oldLog = log;
+        file = newFile;
+        log = newLog;
+        unmap(oldLog);
+        LOG.debug("Compacted idempotent filestore: {} from {} to {} bytes", new Object[]{fileStore, position, newPosition});
+        position = newPosition;
+        liveSize = newPosition - HEADER_SIZE;
+        compactions++;
+    }
+
+    private File getCompactFile() {
+        return new File(fileStore.getPath() + ".compact");
+    }
+
+    private int checksum(byte type, byte[] bytes) {
+        checksum.reset();
+        checksum.update(type);
+        checksum.update(bytes, 0, bytes.length);
+        return (int) checksum.getValue();
+    }
+
+    // the index is an open addressing hash table with linear probing stored off heap
+
+    private void createIndex(int capacity) {
+        indexCapacity = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+        index = ByteBuffer.allocateDirect(indexCapacity * SLOT_SIZE);
+        size = 0;
+        deleted = 0;
+    }
+
+    private int findSlot(long fingerprint, byte[] bytes) {
+        int mask = indexCapacity - 1;
+        for (int slot = spread(fingerprint) & mask;; slot = (slot + 1) & mask) {
+            long value = index.getLong(slot * SLOT_SIZE);
+            if (value == EMPTY_SLOT) {
+                return -1;
+            }
+            if (value == fingerprint && keyEquals((int) index.getLong(slot * SLOT_SIZE + 8), bytes)) {
+                return slot;
+            }
+        }
+    }
+
+    private void insertSlot(long fingerprint, int offset) {
+        // keep the index at most 3/4 full (including deleted slots) so lookups find an empty slot quickly
+        if ((size + deleted + 1) * 4L > indexCapacity * 3L) {
+            resizeIndex((size + 1) * 2L > indexCapacity ? indexCapacity * 2 : indexCapacity);
+        }
+        int mask = indexCapacity - 1;
+        int slot = spread(fingerprint) & mask;
+        long value = index.getLong(slot * SLOT_SIZE);
+        while (value != EMPTY_SLOT && value != DELETED_SLOT) {
+            slot = (slot + 1) & mask;
+            value = index.getLong(slot * SLOT_SIZE);
+        }
+        if (value == DELETED_SLOT) {
+            deleted--;
+        }
+        index.putLong(slot * SLOT_SIZE, fingerprint);
+        index.putLong(slot * SLOT_SIZE + 8, offset);
+        size++;
+    }
+
+    private void resizeIndex(int capacity) {
+        ByteBuffer oldIndex = index;
+        int oldCapacity = indexCapacity;
+        createIndex(capacity);
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            long fingerprint = oldIndex.getLong(slot * SLOT_SIZE);
+            if (isKey(fingerprint)) {
+                insertSlot(fingerprint, (int) oldIndex.getLong(slot * SLOT_SIZE + 8));
+            }
+        }
+    }
+
+    private static boolean isKey(long slotValue) {
+        return slotValue != EMPTY_SLOT && slotValue != DELETED_SLOT;
+    }
+
+    private boolean keyEquals(int offset, byte[] bytes) {
+        if (log.getInt(offset + 1) != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (log.get(offset + 5 + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long fingerprint(byte[] bytes) {
+        // FNV-1a followed by the murmur3 finalizer to spread the bits
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        // the lowest values are reserved for the empty and deleted slots
+        return hash == EMPTY_SLOT || hash == DELETED_SLOT ? hash + 2 : hash;
+    }
+
+    private static int spread(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32));
+    }
+
+    private static long mapSize(long size) {
+        return Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Releases the memory mapping of the buffer, which must no longer be used, as otherwise the mapping is only
+     * released when the buffer is garbage collected. If the JVM does not support releasing the mapping explicitly
+     * then it is left to the garbage collector.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            try {
+                // Java 9 onwards
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            } catch (NoSuchMethodException e) {
+                // Java 8
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    Method clean = cleaner.getClass().getMethod("clean");
+                    clean.setAccessible(true);
+                    clean.invoke(cleaner);
+                }
+            }
+        } catch (Throwable e) {
+            LOG.debug("Cannot unmap memory mapped buffer. The mapping is released when garbage collected.", e);
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.spi;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+
+/**
+ * A specialized {@link org.apache.camel.spi.AggregationRepository} which can store the incoming exchanges
+ * of a correlation group as deltas, instead of rewriting the full aggregated exchange on every add.
+ * <p/>
+ * The {@link org.apache.camel.processor.aggregate.AggregateProcessor} calls
+ * {@link #append(org.apache.camel.CamelContext, String, org.apache.camel.Exchange, org.apache.camel.Exchange)}
+ * instead of {@link AggregationRepository#add(org.apache.camel.CamelContext, String, org.apache.camel.Exchange)}
+ * when the repository implements this interface, {@link #isDeltaAppend()} returns <tt>true</tt>
+ * and optimistic locking is not in use.
+ *
+ * @version
+ */
+public interface AppendableAggregationRepository extends AggregationRepository {
+
+    /**
+     * Whether the repository currently stores deltas, and therefore needs the incoming exchange.
+     * <p/>
+     * The {@link org.apache.camel.processor.aggregate.AggregateProcessor} only keeps a copy of the incoming
+     * exchange for {@link #append(org.apache.camel.CamelContext, String, org.apache.camel.Exchange, org.apache.camel.Exchange)}
+     * when this returns <tt>true</tt>, otherwise the regular add is used.
+     *
+     * @return <tt>true</tt> to append deltas
+     */
+    boolean isDeltaAppend();
+
+    /**
+     * Add the given aggregated {@link Exchange} under the correlation key.
+     * <p/>
+     * The implementation may choose to only persist the incoming {@code newExchange} and reconstitute the
+     * aggregated exchange when needed, or to store the {@code aggregated} exchange as a whole like
+     * {@link AggregationRepository#add(org.apache.camel.CamelContext, String, org.apache.camel.Exchange)}.
+     *
+     * @param camelContext   the current CamelContext
+     * @param key            the correlation key
+     * @param aggregated     the aggregated exchange
+     * @param newExchange    the incoming exchange which was aggregated into the aggregated exchange
+     * @return the old exchange if any existed
+     */
+    Exchange append(CamelContext camelContext, String key, Exchange aggregated, Exchange newExchange);
+
+}
@@ -67,6 +67,13 @@ public interface AsyncProcessorAwaitManager extends StaticService {
          */
         long getMeanDuration();
 
+        /**
+         * Utilization statistics of the routes where threads has been blocked, sorted by the routes which
+         * has blocked the most threads first. This can be used to find the routes which falls back to block
+         * threads waiting for asynchronous callbacks.
+         */
+        Collection<RouteStatistics> getRouteStatistics();
+
         /**
          * Reset the counters
          */
@@ -85,6 +92,37 @@ public interface AsyncProcessorAwaitManager extends StaticService {
         void setStatisticsEnabled(boolean statisticsEnabled);
     }
 
+    /**
+     * Utilization statistics of the threads blocked while processing exchanges of a given route.
+     */
+    interface RouteStatistics {
+
+        /**
+         * The id of the route where the exchanges was processed when the threads was set to block.
+         */
+        String getRouteId();
+
+        /**
+         * Total number of threads that has been blocked
+         */
+        long getThreadsBlocked();
+
+        /**
+         * The total duration time in millis.
+         */
+        long getTotalDuration();
+
+        /**
+         * The highest duration time in millis.
+         */
+        long getMaxDuration();
+
+        /**
+         * The average duration time in millis.
+         */
+        long getMeanDuration();
+    }
+
     /**
      * Information about the thread and exchange that are inflight.
      */
@@ -108,7 +146,7 @@ public interface AsyncProcessorAwaitManager extends StaticService {
         /**
          * The id of the route where the exchange was processed when the thread was set to block.
          * <p/>
-         * Is <tt>null</tt> if message history is disabled.
+         * Is <tt>null</tt> if the exchange is not being routed.
          */
         String getRouteId();
 
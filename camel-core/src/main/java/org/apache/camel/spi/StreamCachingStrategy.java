@@ -17,6 +17,7 @@
 package org.apache.camel.spi;
 
 import java.io.File;
+import java.nio.ByteBuffer;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.StaticService;
@@ -62,6 +63,41 @@ public interface StreamCachingStrategy extends StaticService {
          */
         long getCacheSpoolAverageSize();
 
+        /**
+         * Gets the counter for number of direct buffers allocated by the buffer pool.
+         */
+        default long getBufferPoolAllocatedCounter() {
+            return 0;
+        }
+
+        /**
+         * Gets the counter for number of buffers which was reused from the buffer pool.
+         */
+        default long getBufferPoolReusedCounter() {
+            return 0;
+        }
+
+        /**
+         * Gets the counter for number of heap buffers allocated because the buffer pool was exhausted.
+         */
+        default long getBufferPoolOverflowCounter() {
+            return 0;
+        }
+
+        /**
+         * Gets the number of pooled buffers currently in use by stream caches.
+         */
+        default long getBufferPoolInUse() {
+            return 0;
+        }
+
+        /**
+         * Gets the number of pooled buffers currently idle in the buffer pool.
+         */
+        default long getBufferPoolIdle() {
+            return 0;
+        }
+
         /**
          * Reset the counters
          */
@@ -164,6 +200,63 @@ public interface StreamCachingStrategy extends StaticService {
 
     int getBufferSize();
 
+    /**
+     * Sets whether in-memory stream caches should use a pool of direct {@link ByteBuffer}s
+     * instead of allocating new heap byte arrays per stream cache.
+     * <p/>
+     * The pooled buffers are returned to the pool when the exchanges using the stream cache are done,
+     * the same way as spooled temporary files are deleted. The stream caches are therefore only valid until then,
+     * and reading them after the exchanges are done fails with an {@link java.io.IOException}.
+     * When spooling to disk the pooled buffers are written using a file channel (unless a chiper is in use).
+     * <p/>
+     * This option is default <tt>false</tt>, and strategies which does not support a buffer pool
+     * throws {@link UnsupportedOperationException} when enabling it.
+     */
+    default void setBufferPoolEnabled(boolean bufferPoolEnabled) {
+        if (bufferPoolEnabled) {
+            throw new UnsupportedOperationException("Buffer pool is not supported by " + getClass().getName());
+        }
+    }
+
+    default boolean isBufferPoolEnabled() {
+        return false;
+    }
+
+    /**
+     * Sets the maximum number of direct buffers in the buffer pool, which bounds the off-heap memory
+     * used by the pool to <tt>bufferPoolSize * bufferSize</tt> bytes. If all the buffers are in use
+     * then heap buffers are allocated instead.
+     * <p/>
+     * The default size is 256.
+     */
+    default void setBufferPoolSize(int bufferPoolSize) {
+        // noop
+    }
+
+    default int getBufferPoolSize() {
+        return 0;
+    }
+
+    /**
+     * Acquires a buffer with the size of {@link #getBufferSize()} for in-memory stream caching.
+     * <p/>
+     * The buffer is taken from the buffer pool if enabled, and must be given back using {@link #releaseBuffer(ByteBuffer)}.
+     *
+     * @return the buffer, which is cleared and ready for writing
+     */
+    default ByteBuffer acquireBuffer() {
+        return ByteBuffer.allocate(getBufferSize());
+    }
+
+    /**
+     * Releases a buffer which was acquired using {@link #acquireBuffer()}.
+     *
+     * @param buffer the buffer, which must no longer be in use
+     */
+    default void releaseBuffer(ByteBuffer buffer) {
+        // noop
+    }
+
     /**
      * Sets a chiper name to use when spooling to disk to write with encryption.
      * <p/>
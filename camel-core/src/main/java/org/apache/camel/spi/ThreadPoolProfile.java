@@ -43,6 +43,7 @@ public class ThreadPoolProfile implements Serializable, Cloneable {
     private TimeUnit timeUnit;
     private Integer maxQueueSize;
     private Boolean allowCoreThreadTimeOut;
+    private Boolean virtualThreads;
     private ThreadPoolRejectedPolicy rejectedPolicy;
 
     /**
@@ -208,6 +209,28 @@ public class ThreadPoolProfile implements Serializable, Cloneable {
         this.allowCoreThreadTimeOut = allowCoreThreadTimeOut;
     }
 
+    /**
+     * Gets whether the thread pool should run its tasks on virtual threads
+     *
+     * @return whether to use virtual threads
+     */
+    public Boolean getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Sets whether the thread pool should run its tasks on virtual threads.
+     * <p/>
+     * Virtual threads are cheap to create and to block, so the pool is no longer bounded by the pool sizes,
+     * which makes it a good fit for routes doing blocking calls such as JDBC or HTTP.
+     * If the runtime does not support virtual threads then platform threads are used.
+     *
+     * @param virtualThreads <tt>true</tt> to use virtual threads
+     */
+    public void setVirtualThreads(Boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
     /**
      * Gets the policy for tasks which cannot be executed by the thread pool.
      *
@@ -265,6 +288,9 @@ public class ThreadPoolProfile implements Serializable, Cloneable {
         if (allowCoreThreadTimeOut == null) {
             allowCoreThreadTimeOut = defaultProfile.getAllowCoreThreadTimeOut();
         }
+        if (virtualThreads == null) {
+            virtualThreads = defaultProfile.getVirtualThreads();
+        }
         if (rejectedPolicy == null) {
             rejectedPolicy = defaultProfile.getRejectedPolicy();
         }
@@ -280,6 +306,7 @@ public class ThreadPoolProfile implements Serializable, Cloneable {
         cloned.setMaxQueueSize(maxQueueSize);
         cloned.setPoolSize(maxPoolSize);
         cloned.setAllowCoreThreadTimeOut(allowCoreThreadTimeOut);
+        cloned.setVirtualThreads(virtualThreads);
         cloned.setRejectedPolicy(rejectedPolicy);
         cloned.setTimeUnit(timeUnit);
         return cloned;
@@ -289,7 +316,8 @@ public class ThreadPoolProfile implements Serializable, Cloneable {
     public String toString() {
         return "ThreadPoolProfile[" + id + " (" + defaultProfile + ") size:" + poolSize + "-" + maxPoolSize
                 + ", keepAlive: " + keepAliveTime + " " + timeUnit + ", maxQueue: " + maxQueueSize
-                + ", allowCoreThreadTimeOut:" + allowCoreThreadTimeOut + ", rejectedPolicy:" + rejectedPolicy + "]";
+                + ", allowCoreThreadTimeOut:" + allowCoreThreadTimeOut + ", virtualThreads:" + virtualThreads
+                + ", rejectedPolicy:" + rejectedPolicy + "]";
     }
 
 }
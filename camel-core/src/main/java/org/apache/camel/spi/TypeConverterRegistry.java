@@ -64,6 +64,21 @@ public interface TypeConverterRegistry extends StaticService {
          */
         long getFailedCounter();
 
+        /**
+         * Number of attempts where the type converter to use was found in the fast lookup cache
+         */
+        long getCacheHitCounter();
+
+        /**
+         * Number of attempts where the type converter to use was not found in the fast lookup cache
+         */
+        long getCacheMissCounter();
+
+        /**
+         * Ratio of attempts where the type converter to use was found in the fast lookup cache (between 0 and 1)
+         */
+        double getCacheHitRatio();
+
         /**
          * Reset the counters
          */
@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
+import org.apache.camel.spi.Synchronization;
+import org.apache.camel.util.ExchangeHelper;
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * A {@link Synchronization} which completes a {@link CompletableFuture} when the exchange is done.
+ * <p/>
+ * This is used to implement the completable methods of {@link org.apache.camel.ProducerTemplate} on top of
+ * its asynchronous callback methods, so the future is completed by the thread completing the exchange.
+ *
+ * @version 
+ */
+public final class CompletableFutureSynchronization<T> implements Synchronization {
+
+    private final CompletableFuture<T> future = new CompletableFuture<T>();
+    private final ExchangePattern pattern;
+    private final Class<T> type;
+
+    private CompletableFutureSynchronization(ExchangePattern pattern, Class<T> type) {
+        this.pattern = pattern;
+        this.type = type;
+    }
+
+    /**
+     * Creates a synchronization which completes the future with the exchange, where any exception
+     * is stored on the exchange as with {@link org.apache.camel.ProducerTemplate#send(String, Exchange)}.
+     */
+    public static CompletableFutureSynchronization<Exchange> forExchange() {
+        return new CompletableFutureSynchronization<Exchange>(null, null);
+    }
+
+    /**
+     * Creates a synchronization which completes the future with the result body according to the pattern,
+     * or completes it exceptionally with a {@link org.apache.camel.CamelExecutionException} if the exchange failed.
+     *
+     * @param pattern the exchange pattern, where the result is <tt>null</tt> if the pattern is not out capable
+     * @param type    the expected body type
+     */
+    public static <T> CompletableFutureSynchronization<T> forBody(ExchangePattern pattern, Class<T> type) {
+        return new CompletableFutureSynchronization<T>(pattern, type);
+    }
+
+    /**
+     * The future which is completed when the exchange is done
+     */
+    public CompletableFuture<T> getFuture() {
+        return future;
+    }
+
+    @Override
+    public void onComplete(Exchange exchange) {
+        try {
+            future.complete(result(exchange));
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void onFailure(Exchange exchange) {
+        if (type != null && exchange.getException() != null) {
+            future.completeExceptionally(ObjectHelper.wrapCamelExecutionException(exchange, exchange.getException()));
+        } else {
+            // the exchange is the result (with the exception stored on it) or the exchange has a fault message
+            onComplete(exchange);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T result(Exchange exchange) {
+        if (type == null) {
+            return (T) exchange;
+        }
+        Object body = ExchangeHelper.extractResultBody(exchange, pattern);
+        if (!pattern.isOutCapable()) {
+            // return null if not OUT capable
+            return null;
+        }
+        return exchange.getContext().getTypeConverter().convertTo(type, body);
+    }
+
+}
@@ -0,0 +1,492 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.camel.TimeoutMap;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link TimeoutMap} which uses a hashed timer wheel to keep track of the entries to expire.
+ * <p/>
+ * Unlike {@link DefaultTimeoutMap} which scans the entire map for expired entries on every poll, this implementation
+ * only visits the entries in the wheel buckets for the ticks which have elapsed since the last poll, where each tick
+ * is the purge poll time. Adding and removing entries is O(1) and does not touch the wheel, as new and removed entries
+ * are handed over to the background task via queues, which is the only thread advancing the wheel. The expired
+ * entries of a poll are evicted in a batch, in the order they expired.
+ * <p/>
+ * Entries which expire beyond the span of the wheel (ticks multiplied by the wheel size) remains in their bucket
+ * and are revisited once per revolution of the wheel, and entries which have their expire time updated (by
+ * {@link #get(Object)}) are moved to the new bucket when their old bucket is visited.
+ * <p/>
+ * This implementation supports the same thread safety and hooks as {@link DefaultTimeoutMap} and can be used as
+ * a drop-in replacement. You must provide a {@link java.util.concurrent.ScheduledExecutorService} in the constructor
+ * which is used to schedule the background task advancing the wheel, and invoke {@link #start()} and {@link #stop()}.
+ *
+ * @version 
+ */
+public class HashedWheelTimeoutMap<K, V> extends ServiceSupport implements TimeoutMap<K, V>, Runnable {
+
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    protected final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final ConcurrentMap<K, WheelEntry<K, V>> map = new ConcurrentHashMap<K, WheelEntry<K, V>>();
+    private final Queue<WheelEntry<K, V>> pending = new ConcurrentLinkedQueue<WheelEntry<K, V>>();
+    private final Queue<WheelEntry<K, V>> cancelled = new ConcurrentLinkedQueue<WheelEntry<K, V>>();
+    private final ScheduledExecutorService executor;
+    private volatile ScheduledFuture<?> future;
+    private final long purgePollTime;
+    private final WheelBucket<K, V>[] wheel;
+    private final int mask;
+    private final Lock lock = new ReentrantLock();
+    private final Lock wheelLock = new ReentrantLock();
+    private boolean useLock = true;
+    // the last tick the wheel has been advanced to (guarded by the wheel lock)
+    private long tick = -1;
+
+    public HashedWheelTimeoutMap(ScheduledExecutorService executor) {
+        this(executor, 1000);
+    }
+
+    public HashedWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
+        this(executor, requestMapPollTimeMillis, true);
+    }
+
+    public HashedWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis, boolean useLock) {
+        this(executor, requestMapPollTimeMillis, useLock, DEFAULT_WHEEL_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    public HashedWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis, boolean useLock, int wheelSize) {
+        ObjectHelper.notNull(executor, "ScheduledExecutorService");
+        if (requestMapPollTimeMillis <= 0) {
+            throw new IllegalArgumentException("RequestMapPollTimeMillis must be positive, was " + requestMapPollTimeMillis);
+        }
+        if (wheelSize <= 0) {
+            throw new IllegalArgumentException("WheelSize must be positive, was " + wheelSize);
+        }
+        this.executor = executor;
+        this.purgePollTime = requestMapPollTimeMillis;
+        this.useLock = useLock;
+
+        // use a power of two number of buckets so the bucket of a tick can be found using a mask
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size = size << 1;
+        }
+        this.wheel = new WheelBucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new WheelBucket<K, V>();
+        }
+        this.mask = size - 1;
+    }
+
+    public V get(K key) {
+        WheelEntry<K, V> entry;
+        if (useLock) {
+            lock.lock();
+        }
+        try {
+            entry = map.get(key);
+            if (entry == null) {
+                return null;
+            }
+            // the entry is moved to its new bucket when its current bucket is visited
+            updateExpireTime(entry);
+        } finally {
+            if (useLock) {
+                lock.unlock();
+            }
+        }
+        return entry.getValue();
+    }
+
+    public V put(K key, V value, long timeoutMillis) {
+        WheelEntry<K, V> entry = new WheelEntry<K, V>(key, value, timeoutMillis);
+        if (useLock) {
+            lock.lock();
+        }
+        try {
+            updateExpireTime(entry);
+            WheelEntry<K, V> result = map.put(key, entry);
+            if (result != null) {
+                cancel(result);
+            }
+            pending.add(entry);
+            return result != null ? result.getValue() : null;
+        } finally {
+            if (useLock) {
+                lock.unlock();
+            }
+        }
+    }
+
+    public V putIfAbsent(K key, V value, long timeoutMillis) {
+        WheelEntry<K, V> entry = new WheelEntry<K, V>(key, value, timeoutMillis);
+        if (useLock) {
+            lock.lock();
+        }
+        try {
+            updateExpireTime(entry);
+            //Just make sure we don't override the old entry
+            WheelEntry<K, V> result = map.putIfAbsent(key, entry);
+            if (result == null) {
+                pending.add(entry);
+            }
+            return result != null ? result.getValue() : null;
+        } finally {
+            if (useLock) {
+                lock.unlock();
+            }
+        }
+    }
+
+    public V remove(K key) {
+        WheelEntry<K, V> entry;
+
+        if (useLock) {
+            lock.lock();
+        }
+        try {
+            entry = map.remove(key);
+            if (entry != null) {
+                cancel(entry);
+            }
+        } finally {
+            if (useLock) {
+                lock.unlock();
+            }
+        }
+
+        return entry != null ? entry.getValue() : null;
+    }
+
+    public Object[] getKeys() {
+        Object[] keys;
+        if (useLock) {
+            lock.lock();
+        }
+        try {
+            Set<K> keySet = map.keySet();
+            keys = new Object[keySet.size()];
+            keySet.toArray(keys);
+        } finally {
+            if (useLock) {
+                lock.unlock();
+            }
+        }
+        return keys;
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * The timer task which advances the wheel and purges old requests
+     */
+    public void run() {
+        // only run if allowed
+        if (!isRunAllowed()) {
+            log.trace("Purge task not allowed to run");
+            return;
+        }
+
+        log.trace("Running purge task to see if any entries has been timed out");
+        try {
+            purge();
+        } catch (Throwable t) {
+            // must catch and log exception otherwise the executor will now schedule next run
+            log.warn("Exception occurred during purge task. This exception will be ignored.", t);
+        }
+    }
+
+    public void purge() {
+        List<WheelEntry<K, V>> expired;
+        long currentTick;
+
+        // only one thread can advance the wheel at any time
+        wheelLock.lock();
+        try {
+            long now = currentTime();
+            currentTick = now / purgePollTime;
+            if (tick < 0 || tick > currentTick) {
+                tick = currentTick - 1;
+            }
+
+            // unlink the removed entries, and add the new entries to the wheel
+            removeCancelledEntries();
+            addPendingEntries(currentTick);
+
+            log.trace("There are {} in the timeout map", map.size());
+
+            // visit the buckets of the elapsed ticks (at most one revolution)
+            expired = new ArrayList<WheelEntry<K, V>>();
+            long from = Math.max(tick + 1, currentTick - wheel.length + 1);
+            for (long t = from; t <= currentTick; t++) {
+                collectExpiredEntries(wheel[(int) (t & mask)], now, currentTick, expired);
+            }
+            tick = currentTick;
+
+            if (!expired.isEmpty()) {
+                evictExpiredEntries(expired, currentTick);
+            }
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    // Properties
+    // -------------------------------------------------------------------------
+
+    public long getPurgePollTime() {
+        return purgePollTime;
+    }
+
+    public ScheduledExecutorService getExecutor() {
+        return executor;
+    }
+
+    public int getWheelSize() {
+        return wheel.length;
+    }
+
+    // Implementation methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * lets schedule each time to allow folks to change the time at runtime
+     */
+    protected void schedulePoll() {
+        future = executor.scheduleWithFixedDelay(this, 0, purgePollTime, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A hook to allow derivations to avoid evicting the current entry
+     */
+    protected boolean isValidForEviction(TimeoutMapEntry<K, V> entry) {
+        return true;
+    }
+
+    public boolean onEviction(K key, V value) {
+        return true;
+    }
+
+    protected void updateExpireTime(TimeoutMapEntry<K, V> entry) {
+        long now = currentTime();
+        entry.setExpireTime(entry.getTimeout() + now);
+    }
+
+    protected long currentTime() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("The ScheduledExecutorService is shutdown");
+        }
+        schedulePoll();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+        // clear map and wheel if we stop
+        wheelLock.lock();
+        try {
+            map.clear();
+            pending.clear();
+            cancelled.clear();
+            for (WheelBucket<K, V> bucket : wheel) {
+                bucket.clear();
+            }
+            tick = -1;
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    private void cancel(WheelEntry<K, V> entry) {
+        entry.cancelled = true;
+        cancelled.add(entry);
+    }
+
+    private void removeCancelledEntries() {
+        WheelEntry<K, V> entry;
+        while ((entry = cancelled.poll()) != null) {
+            if (entry.bucket != null) {
+                entry.bucket.remove(entry);
+            }
+        }
+    }
+
+    private void addPendingEntries(long currentTick) {
+        WheelEntry<K, V> entry;
+        while ((entry = pending.poll()) != null) {
+            if (!entry.cancelled) {
+                // entries which expire in a tick that has already been visited goes into the next bucket to visit
+                long target = Math.max(entry.getExpireTime() / purgePollTime, tick + 1);
+                wheel[(int) (target & mask)].add(entry);
+            }
+        }
+    }
+
+    private void collectExpiredEntries(WheelBucket<K, V> bucket, long now, long currentTick, List<WheelEntry<K, V>> expired) {
+        WheelEntry<K, V> entry = bucket.head;
+        while (entry != null) {
+            WheelEntry<K, V> next = entry.next;
+            if (entry.cancelled) {
+                bucket.remove(entry);
+            } else if (entry.getExpireTime() < now && isValidForEviction(entry)) {
+                bucket.remove(entry);
+                expired.add(entry);
+            } else {
+                // not expired (or the expire time was updated) so move the entry to the bucket of its tick
+                long target = Math.max(entry.getExpireTime() / purgePollTime, currentTick + 1);
+                WheelBucket<K, V> targetBucket = wheel[(int) (target & mask)];
+                if (targetBucket != bucket) {
+                    bucket.remove(entry);
+                    targetBucket.add(entry);
+                }
+            }
+            entry = next;
+        }
+    }
+
+    private void evictExpiredEntries(List<WheelEntry<K, V>> expired, long currentTick) {
+        // sort according to the expired time so we got the first expired first
+        Collections.sort(expired, new Comparator<WheelEntry<K, V>>() {
+            public int compare(WheelEntry<K, V> a, WheelEntry<K, V> b) {
+                long diff = a.getExpireTime() - b.getExpireTime();
+                if (diff == 0) {
+                    return 0;
+                }
+                return diff > 0 ? 1 : -1;
+            }
+        });
+
+        // fire the eviction notifications in a batch
+        if (useLock) {
+            lock.lock();
+        }
+        try {
+            for (WheelEntry<K, V> entry : expired) {
+                // the entry may have been removed or replaced in the mean time
+                if (entry.cancelled || map.get(entry.getKey()) != entry) {
+                    continue;
+                }
+                log.debug("Evicting inactive entry ID: {}", entry);
+
+                boolean evict = false;
+                try {
+                    evict = onEviction(entry.getKey(), entry.getValue());
+                } catch (Throwable t) {
+                    log.warn("Exception happened during eviction of entry ID {}, won't evict and will continue trying: {}",
+                            entry, t);
+                }
+                if (evict) {
+                    // okay this entry should be evicted
+                    map.remove(entry.getKey(), entry);
+                } else if (!entry.cancelled) {
+                    // try again on the next tick
+                    wheel[(int) ((currentTick + 1) & mask)].add(entry);
+                }
+            }
+        } finally {
+            if (useLock) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * An entry in the timeout map, which is linked in the bucket of the wheel it is currently in.
+     */
+    private static final class WheelEntry<K, V> extends TimeoutMapEntry<K, V> {
+        private volatile boolean cancelled;
+        private WheelBucket<K, V> bucket;
+        private WheelEntry<K, V> prev;
+        private WheelEntry<K, V> next;
+
+        private WheelEntry(K key, V value, long timeout) {
+            super(key, value, timeout);
+        }
+    }
+
+    /**
+     * A bucket of the wheel as a doubly linked list of entries, which is only accessed by the thread advancing the wheel.
+     */
+    private static final class WheelBucket<K, V> {
+        private WheelEntry<K, V> head;
+        private WheelEntry<K, V> tail;
+
+        void add(WheelEntry<K, V> entry) {
+            entry.bucket = this;
+            entry.prev = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+        }
+
+        void remove(WheelEntry<K, V> entry) {
+            if (entry.prev == null) {
+                head = entry.next;
+            } else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.prev;
+            } else {
+                entry.next.prev = entry.prev;
+            }
+            entry.bucket = null;
+            entry.prev = null;
+            entry.next = null;
+        }
+
+        void clear() {
+            head = null;
+            tail = null;
+        }
+    }
+
+}
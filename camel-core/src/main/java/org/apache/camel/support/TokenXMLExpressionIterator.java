@@ -19,14 +19,14 @@ package org.apache.camel.support;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.text.MessageFormat;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
-import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -43,15 +43,13 @@ import org.apache.camel.util.ObjectHelper;
  * The message body must be able to convert to {@link java.io.InputStream} type which is used as stream
  * to access the message body.
  * <p/>
- * Can be used to split big XML files.
+ * Can be used to split big XML files, as the XML is streamed using a simple pull parser which only
+ * keeps the current token in memory.
  * <p/>
  * This implementation supports inheriting namespaces from a parent/root tag.
  */
 public class TokenXMLExpressionIterator extends ExpressionAdapter {
     private static final Pattern NAMESPACE_PATTERN = Pattern.compile("xmlns(:\\w+|)\\s*=\\s*('[^']+'|\"[^\"]+\")");
-    private static final String SCAN_TOKEN_NS_PREFIX_REGEX = "([^:<>]{1,15}?:|)";
-    private static final String SCAN_BLOCK_TOKEN_REGEX_TEMPLATE = "<{0}(\\s+[^>]*)?/>|<{0}(\\s+[^>]*)?>(?:(?!(</{0}\\s*>)).)*</{0}\\s*>";
-    private static final String SCAN_PARENT_TOKEN_REGEX_TEMPLATE = "<{0}(\\s+[^>]*\\s*)?>";
     private static final String OPTION_WRAP_TOKEN = "<*>";
 
     protected final String tagToken;
@@ -119,97 +117,257 @@ public class TokenXMLExpressionIterator extends ExpressionAdapter {
     }
     
     /**
-     * Iterator to walk the input stream
+     * Iterator to walk the input stream.
+     * <p/>
+     * The input stream is read using a simple non validating pull parser which only keeps the current token in memory,
+     * and skips comments, CDATA sections, processing instructions and declarations.
      */
     static class XMLTokenIterator implements Iterator<Object>, Closeable {
         final String tagToken;
         final InputStream in;
         final String charset;
-        Scanner scanner;
         Object image;
 
-        private final Pattern tagTokenPattern;
+        private final String tagName;
         private final String inheritNamespaceToken;
+        private final String inheritNamespaceTagName;
         private final boolean wrapToken;
-        private Pattern inheritNamespaceTokenPattern;
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+        private boolean namespacesFound;
         private String rootTokenNamespaces;
+        // the text of the tag being parsed
+        private final StringBuilder tag = new StringBuilder();
+        // the text of the token being parsed (if any)
+        private StringBuilder token;
+        // the text before the first token which is used for wrapping
+        private StringBuilder wrapText;
         private String wrapHead;
         private String wrapTail;
 
         XMLTokenIterator(String tagToken, String inheritNamespaceToken, InputStream in, String charset) {
             this.tagToken = tagToken;
             this.charset = charset;
-          
-            // remove any beginning < and ending > as we need to support ns prefixes and attributes, so we use a reg exp patterns
-            this.tagTokenPattern = 
-                Pattern.compile(MessageFormat.format(SCAN_BLOCK_TOKEN_REGEX_TEMPLATE, 
-                                                     SCAN_TOKEN_NS_PREFIX_REGEX + tagToken.substring(1, tagToken.length() - 1)), 
-                                                     Pattern.MULTILINE | Pattern.DOTALL);
-            
+            this.in = in;
+            // remove the beginning < and ending > as the tag may have a namespace prefix and attributes
+            this.tagName = tagToken.substring(1, tagToken.length() - 1);
             this.inheritNamespaceToken = inheritNamespaceToken;
             if (inheritNamespaceToken != null && OPTION_WRAP_TOKEN.equals(inheritNamespaceToken)) {
                 this.wrapToken = true;
-                this.in = new RecordableInputStream(in, charset);
+                this.inheritNamespaceTagName = null;
+                this.wrapText = new StringBuilder();
             } else {
                 this.wrapToken = false;
-                this.in = in;
-                if (inheritNamespaceToken != null) {
-                    // the inherit namespace token may itself have a namespace prefix
-                    // the namespaces on the parent tag can be in multi line, so we need to instruct the dot to support multilines
-                    this.inheritNamespaceTokenPattern = 
-                        Pattern.compile(MessageFormat.format(SCAN_PARENT_TOKEN_REGEX_TEMPLATE,
-                                                             SCAN_TOKEN_NS_PREFIX_REGEX + inheritNamespaceToken.substring(1, inheritNamespaceToken.length() - 1)), 
-                                                             Pattern.MULTILINE | Pattern.DOTALL);
-                }
+                this.inheritNamespaceTagName = inheritNamespaceToken != null ? inheritNamespaceToken.substring(1, inheritNamespaceToken.length() - 1) : null;
+            }
+            try {
+                this.reader = new InputStreamReader(in, charset);
+            } catch (UnsupportedEncodingException e) {
+                throw ObjectHelper.wrapRuntimeCamelException(e);
             }
         }
 
         void init() {
-            // use a scanner with the default delimiter
-            this.scanner = new Scanner(in, charset);
-            this.image = scanner.hasNext() ? (String) next(true) : null;
+            this.image = getNext();
         }
 
-        String getNext(boolean first) {
-            // initialize inherited namespaces on first
-            if (first && inheritNamespaceToken != null && !wrapToken) {
-                rootTokenNamespaces =  getNamespacesFromNamespaceToken(scanner.findWithinHorizon(inheritNamespaceTokenPattern, 0));
+        String getNext() {
+            try {
+                return parseNext();
+            } catch (IOException e) {
+                throw ObjectHelper.wrapRuntimeCamelException(e);
             }
+        }
 
-            String next = scanner.findWithinHorizon(tagTokenPattern, 0);
-            if (next == null) {
-                return null;
+        private String parseNext() throws IOException {
+            int depth = 0;
+            int c = read();
+            while (c != -1) {
+                if (c == '<') {
+                    c = read();
+                    if (c == '!' || c == '?') {
+                        skipMarkup(c);
+                    } else if (c == '/') {
+                        // end tag
+                        while (c != -1 && c != '>') {
+                            c = read();
+                        }
+                        if (token != null && --depth == 0) {
+                            return completeToken();
+                        }
+                    } else if (c != -1) {
+                        // start tag
+                        tag.setLength(0);
+                        tag.append('<');
+                        boolean empty = parseStartTag(c);
+                        String name = tagName();
+                        if (token != null) {
+                            if (!empty) {
+                                depth++;
+                            }
+                        } else if (isTagName(name, tagName)) {
+                            beginToken(empty);
+                            if (empty) {
+                                return completeToken();
+                            }
+                            depth = 1;
+                        } else if (!namespacesFound && inheritNamespaceTagName != null && isTagName(name, inheritNamespaceTagName)) {
+                            namespacesFound = true;
+                            rootTokenNamespaces = getNamespacesFromNamespaceToken(tag.toString());
+                        }
+                    }
+                }
+                c = read();
+            }
+            // incomplete token at the end of the input
+            token = null;
+            return null;
+        }
+
+        /**
+         * Parses the start tag after its first character, which is stored in the tag
+         *
+         * @return <tt>true</tt> if its an empty element tag
+         */
+        private boolean parseStartTag(int first) throws IOException {
+            int c = first;
+            int quote = 0;
+            int previous = 0;
+            while (c != -1) {
+                tag.append((char) c);
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '>') {
+                    return previous == '/';
+                }
+                previous = c;
+                c = read();
+            }
+            return false;
+        }
+
+        /**
+         * Skips comments, CDATA sections, processing instructions and declarations
+         */
+        private void skipMarkup(int first) throws IOException {
+            String end;
+            if (first == '?') {
+                end = "?>";
+            } else {
+                int c = read();
+                if (c == '-') {
+                    end = "-->";
+                } else if (c == '[') {
+                    end = "]]>";
+                } else {
+                    // a declaration such as DOCTYPE which may have an internal subset in brackets
+                    int brackets = 0;
+                    while (c != -1 && (c != '>' || brackets > 0)) {
+                        if (c == '[') {
+                            brackets++;
+                        } else if (c == ']') {
+                            brackets--;
+                        }
+                        c = read();
+                    }
+                    return;
+                }
+            }
+            int matched = 0;
+            int c = read();
+            while (c != -1) {
+                if (c == end.charAt(matched)) {
+                    if (++matched == end.length()) {
+                        return;
+                    }
+                } else {
+                    matched = c == end.charAt(0) ? 1 : 0;
+                }
+                c = read();
+            }
+        }
+
+        private String tagName() {
+            int end = 1;
+            while (end < tag.length()) {
+                char ch = tag.charAt(end);
+                if (Character.isWhitespace(ch) || ch == '/' || ch == '>') {
+                    break;
+                }
+                end++;
             }
-            if (first && wrapToken) {
-                MatchResult mres = scanner.match();
-                wrapHead = ((RecordableInputStream)in).getText(mres.start());
+            return tag.substring(1, end);
+        }
+
+        private void beginToken(boolean empty) {
+            if (wrapToken && wrapHead == null) {
+                // the text before the token (excluding the token start tag) is used for wrapping
+                wrapText.setLength(wrapText.length() - tag.length());
+                wrapHead = wrapText.toString();
                 wrapTail = buildXMLTail(wrapHead);
+                wrapText = null;
             }
 
-            // build answer accordingly to whether namespaces should be inherited or not
+            token = new StringBuilder();
             if (inheritNamespaceToken != null && rootTokenNamespaces != null) {
                 // REVISIT should skip the prefixes that are declared within the child itself.
-                String head = ObjectHelper.before(next, ">");
-                boolean empty = false;
-                if (head.endsWith("/")) {
+                String head = tag.substring(0, tag.length() - 1);
+                if (empty) {
                     head = head.substring(0, head.length() - 1);
-                    empty = true;
                 }
-                StringBuilder sb = new StringBuilder();
                 // append root namespaces to local start token
-                // grab the text
-                String tail = ObjectHelper.after(next, ">");
-                // build result with inherited namespaces
-                next = sb.append(head).append(rootTokenNamespaces).append(empty ? "/>" : ">").append(tail).toString();
-            } else if (wrapToken) {
+                token.append(head).append(rootTokenNamespaces).append(empty ? "/>" : ">");
+            } else {
+                token.append(tag);
+            }
+        }
+
+        private String completeToken() {
+            String next;
+            if (wrapToken) {
                 // wrap the token
-                StringBuilder sb = new StringBuilder();
-                next = sb.append(wrapHead).append(next).append(wrapTail).toString();
+                next = new StringBuilder(wrapHead.length() + token.length() + wrapTail.length())
+                    .append(wrapHead).append(token).append(wrapTail).toString();
+            } else {
+                next = token.toString();
             }
-            
+            token = null;
             return next;
         }
 
+        private int read() throws IOException {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            char c = buffer[position++];
+            if (token != null) {
+                token.append(c);
+            } else if (wrapText != null) {
+                wrapText.append(c);
+            }
+            return c;
+        }
+
+        private static boolean isTagName(String name, String expected) {
+            if (name.equals(expected)) {
+                return true;
+            }
+            // the tag may have a namespace prefix
+            int prefix = name.length() - expected.length() - 1;
+            return prefix > 0 && name.endsWith(expected) && name.charAt(prefix) == ':' && name.lastIndexOf(':', prefix - 1) < 0;
+        }
+
         private String getNamespacesFromNamespaceToken(String text) {
             if (text == null) {
                 return null;
@@ -258,22 +416,8 @@ public class TokenXMLExpressionIterator extends ExpressionAdapter {
 
         @Override
         public Object next() {
-            return next(false);
-        }
-
-        Object next(boolean first) {
             Object answer = image;
-            // calculate next
-            if (scanner.hasNext()) {
-                image = getNext(first);
-            } else {
-                image = null;
-            }
-
-            if (answer == null) {
-                // first time the image may be null
-                answer = image;
-            }
+            image = getNext();
             return answer;
         }
 
@@ -284,7 +428,7 @@ public class TokenXMLExpressionIterator extends ExpressionAdapter {
 
         @Override
         public void close() throws IOException {
-            scanner.close();
+            reader.close();
         }
 
     }
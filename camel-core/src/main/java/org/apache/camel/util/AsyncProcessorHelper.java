@@ -16,6 +16,7 @@
  */
 package org.apache.camel.util;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 
 import org.apache.camel.AsyncCallback;
@@ -123,4 +124,29 @@ public final class AsyncProcessorHelper {
         }
     }
 
+    /**
+     * Calls the async version of the processor's process method, and returns a future which is completed
+     * when the processor is done. Unlike {@link #process(org.apache.camel.AsyncProcessor, org.apache.camel.Exchange)}
+     * the caller thread is not blocked waiting for the processor to complete, which allows synchronous callers
+     * to continue as a continuation of the returned future instead.
+     *
+     * @param processor the processor
+     * @param exchange  the exchange
+     * @return a future which is completed with the exchange when the processor is done
+     */
+    public static CompletableFuture<Exchange> processAsync(final AsyncProcessor processor, final Exchange exchange) {
+        final CompletableFuture<Exchange> future = new CompletableFuture<Exchange>();
+        processor.process(exchange, new AsyncCallback() {
+            public void done(boolean doneSync) {
+                future.complete(exchange);
+            }
+
+            @Override
+            public String toString() {
+                return "Done " + processor;
+            }
+        });
+        return future;
+    }
+
 }
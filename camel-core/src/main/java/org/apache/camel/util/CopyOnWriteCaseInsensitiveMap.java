@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.util.Map;
+
+import org.apache.camel.spi.HeadersMapFactory;
+
+/**
+ * A {@link CopyOnWriteMap} using a case insensitive map as storage, which is used for message headers.
+ * <p/>
+ * The storage is created by the given {@link HeadersMapFactory}, or is a {@link CaseInsensitiveMap} if no factory is given.
+ *
+ * @version
+ */
+public class CopyOnWriteCaseInsensitiveMap extends CopyOnWriteMap<String, Object> {
+
+    private final HeadersMapFactory factory;
+
+    public CopyOnWriteCaseInsensitiveMap() {
+        this((HeadersMapFactory) null);
+    }
+
+    public CopyOnWriteCaseInsensitiveMap(Map<String, Object> map) {
+        this((HeadersMapFactory) null, map);
+    }
+
+    public CopyOnWriteCaseInsensitiveMap(HeadersMapFactory factory) {
+        super(factory != null ? factory.newMap() : new CaseInsensitiveMap(), false);
+        this.factory = factory;
+    }
+
+    public CopyOnWriteCaseInsensitiveMap(HeadersMapFactory factory, Map<String, Object> map) {
+        super(factory != null ? factory.newMap(map) : new CaseInsensitiveMap(map), false);
+        this.factory = factory;
+    }
+
+    private CopyOnWriteCaseInsensitiveMap(HeadersMapFactory factory, Map<String, Object> map, boolean shared) {
+        super(map, shared);
+        this.factory = factory;
+    }
+
+    @Override
+    protected CopyOnWriteMap<String, Object> newInstance(Map<String, Object> map) {
+        return new CopyOnWriteCaseInsensitiveMap(factory, map, true);
+    }
+
+    @Override
+    protected Map<String, Object> copyOf(Map<String, Object> map) {
+        return factory != null ? factory.newMap(map) : new CaseInsensitiveMap(map);
+    }
+
+}
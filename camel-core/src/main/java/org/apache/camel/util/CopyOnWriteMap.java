@@ -0,0 +1,368 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A map which can share its underlying storage with copies of itself, and only copies the storage
+ * on the first modification while it is shared.
+ * <p/>
+ * This is used by the Camel routing engine to avoid copying the message headers and exchange properties
+ * every time a message or exchange is copied, as most copies are only read and never modified.
+ * <p/>
+ * Use {@link #copy()} to create a copy which shares the storage with this map. Any modification of this map
+ * or the copy will then first copy the storage, so the maps are fully independent of each other.
+ * <p/>
+ * The views returned from {@link #keySet()}, {@link #values()} and {@link #entrySet()} read the
+ * current storage, so iterating a shared map does not copy the storage, which is only copied if the map is
+ * modified using the views.
+ * <p/>
+ * Modifications and copies are synchronized, so a copy never observes a concurrent modification of the storage
+ * it is sharing. Reads are not synchronized and are as thread safe as the underlying storage.
+ *
+ * @version
+ */
+public abstract class CopyOnWriteMap<K, V> implements Map<K, V> {
+
+    private volatile Map<K, V> map;
+    private volatile boolean shared;
+
+    protected CopyOnWriteMap(Map<K, V> map, boolean shared) {
+        this.map = map;
+        this.shared = shared;
+    }
+
+    /**
+     * Creates a copy of this map which shares the storage until either map is modified.
+     *
+     * @return the copy
+     */
+    public synchronized CopyOnWriteMap<K, V> copy() {
+        shared = true;
+        return newInstance(map);
+    }
+
+    /**
+     * Replaces the content of this map with the content of the given map, by sharing its storage
+     * until either map is modified.
+     *
+     * @param other the map to share the storage with
+     */
+    public void shareFrom(CopyOnWriteMap<K, V> other) {
+        if (other == this) {
+            return;
+        }
+        Map<K, V> storage;
+        synchronized (other) {
+            other.shared = true;
+            storage = other.map;
+        }
+        synchronized (this) {
+            map = storage;
+            shared = true;
+        }
+    }
+
+    /**
+     * Whether the storage is currently shared with another map
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * Creates a new instance of this kind of map which shares the given storage.
+     *
+     * @param map the storage to share
+     * @return the new map
+     */
+    protected abstract CopyOnWriteMap<K, V> newInstance(Map<K, V> map);
+
+    /**
+     * Creates a private copy of the given storage.
+     *
+     * @param map the storage to copy
+     * @return the copy
+     */
+    protected abstract Map<K, V> copyOf(Map<K, V> map);
+
+    /**
+     * Gets the storage for modification, which must be called while holding the lock of this map.
+     */
+    private Map<K, V> writable() {
+        if (shared) {
+            map = copyOf(map);
+            shared = false;
+        }
+        return map;
+    }
+
+    /**
+     * Whether the given storage is the current storage and can be modified directly.
+     */
+    private boolean isWritable(Map<K, V> storage) {
+        return storage == map && !shared;
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    public boolean containsKey(Object key) {
+        return map.containsKey(key);
+    }
+
+    public boolean containsValue(Object value) {
+        return map.containsValue(value);
+    }
+
+    public V get(Object key) {
+        return map.get(key);
+    }
+
+    public synchronized V put(K key, V value) {
+        return writable().put(key, value);
+    }
+
+    public synchronized V remove(Object key) {
+        if (shared && !map.containsKey(key)) {
+            // nothing to remove so avoid copying
+            return null;
+        }
+        return writable().remove(key);
+    }
+
+    public synchronized void putAll(Map<? extends K, ? extends V> m) {
+        if (!m.isEmpty()) {
+            writable().putAll(m);
+        }
+    }
+
+    public synchronized void clear() {
+        if (shared) {
+            // no need to copy the storage just to clear it
+            map = copyOf(Collections.<K, V>emptyMap());
+            shared = false;
+        } else {
+            map.clear();
+        }
+    }
+
+    public Set<K> keySet() {
+        return new AbstractSet<K>() {
+            public Iterator<K> iterator() {
+                return new ViewIterator<K>() {
+                    protected K next(Entry<K, V> entry) {
+                        return entry.getKey();
+                    }
+                };
+            }
+
+            public int size() {
+                return map.size();
+            }
+
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            public boolean remove(Object o) {
+                synchronized (CopyOnWriteMap.this) {
+                    if (!map.containsKey(o)) {
+                        return false;
+                    }
+                    CopyOnWriteMap.this.remove(o);
+                    return true;
+                }
+            }
+
+            public void clear() {
+                CopyOnWriteMap.this.clear();
+            }
+        };
+    }
+
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            public Iterator<V> iterator() {
+                return new ViewIterator<V>() {
+                    protected V next(Entry<K, V> entry) {
+                        return entry.getValue();
+                    }
+                };
+            }
+
+            public int size() {
+                return map.size();
+            }
+
+            public boolean contains(Object o) {
+                return containsValue(o);
+            }
+
+            public void clear() {
+                CopyOnWriteMap.this.clear();
+            }
+        };
+    }
+
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            public Iterator<Entry<K, V>> iterator() {
+                return new ViewIterator<Entry<K, V>>() {
+                    protected Entry<K, V> next(Entry<K, V> entry) {
+                        return new ViewEntry(storage, entry);
+                    }
+                };
+            }
+
+            public int size() {
+                return map.size();
+            }
+
+            public boolean contains(Object o) {
+                return map.entrySet().contains(o);
+            }
+
+            public boolean remove(Object o) {
+                synchronized (CopyOnWriteMap.this) {
+                    if (!map.entrySet().contains(o)) {
+                        return false;
+                    }
+                    CopyOnWriteMap.this.remove(((Entry<?, ?>) o).getKey());
+                    return true;
+                }
+            }
+
+            public void clear() {
+                CopyOnWriteMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        return map.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return map.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return map.toString();
+    }
+
+    /**
+     * Iterates the storage which was current when the iterator was created, and removes using the map
+     * so the storage is copied first if it has been shared meanwhile.
+     */
+    private abstract class ViewIterator<T> implements Iterator<T> {
+
+        protected final Map<K, V> storage = map;
+        private final Iterator<Entry<K, V>> it = storage.entrySet().iterator();
+        private Entry<K, V> last;
+
+        public boolean hasNext() {
+            return it.hasNext();
+        }
+
+        public T next() {
+            last = it.next();
+            return next(last);
+        }
+
+        protected abstract T next(Entry<K, V> entry);
+
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            synchronized (CopyOnWriteMap.this) {
+                if (isWritable(storage)) {
+                    it.remove();
+                } else {
+                    CopyOnWriteMap.this.remove(last.getKey());
+                }
+            }
+            last = null;
+        }
+    }
+
+    /**
+     * An entry of the storage which sets the value using the map if the storage can no longer be modified directly.
+     */
+    private final class ViewEntry implements Entry<K, V> {
+
+        private final Map<K, V> storage;
+        private final Entry<K, V> entry;
+
+        ViewEntry(Map<K, V> storage, Entry<K, V> entry) {
+            this.storage = storage;
+            this.entry = entry;
+        }
+
+        public K getKey() {
+            return entry.getKey();
+        }
+
+        public V getValue() {
+            return entry.getValue();
+        }
+
+        public V setValue(V value) {
+            synchronized (CopyOnWriteMap.this) {
+                if (isWritable(storage)) {
+                    return entry.setValue(value);
+                }
+                return put(entry.getKey(), value);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return entry.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return entry.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return entry.toString();
+        }
+    }
+
+}
@@ -0,0 +1,405 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A map that uses case insensitive keys, but preserves the original key cases.
+ * <p/>
+ * The map is a hash map using open addressing, where the case insensitive hash code of each key is computed
+ * without creating any objects and stored together with the key. This means looking up, adding and removing
+ * keys in the map does not create any objects, and uses O(1) for lookup, where as {@link CaseInsensitiveMap}
+ * uses O(log n) and creates a tree entry per key.
+ * The keys are compared by identity before they are compared ignoring case, so using the same key instances
+ * such as the constants from {@link org.apache.camel.Exchange} is fast.
+ * <p/>
+ * The keys are <b>not</b> kept in any particular order.
+ * <p/>
+ * This map is <b>not</b> designed to be thread safe as concurrent access to it is not supposed to be performed
+ * by the Camel routing engine.
+ *
+ * @version
+ */
+public class FastCaseInsensitiveMap extends AbstractMap<String, Object> implements Serializable {
+
+    private static final long serialVersionUID = 6316227427049398611L;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // marks a removed key, which is skipped when looking up keys and reused when adding keys
+    private static final String REMOVED = new String("<removed>");
+
+    private transient String[] keys;
+    private transient Object[] values;
+    private transient int[] hashes;
+    private transient int size;
+    // number of slots which are in use by keys or removed keys
+    private transient int used;
+    private transient int modCount;
+    private transient Set<Entry<String, Object>> entrySet;
+
+    public FastCaseInsensitiveMap() {
+        init(DEFAULT_CAPACITY);
+    }
+
+    public FastCaseInsensitiveMap(Map<? extends String, ?> map) {
+        init(capacityFor(map.size()));
+        putAll(map);
+    }
+
+    private void init(int capacity) {
+        keys = new String[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+        size = 0;
+        used = 0;
+    }
+
+    private static int capacityFor(int size) {
+        int capacity = DEFAULT_CAPACITY;
+        // keep the load factor below 0.5
+        while (capacity <= size * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Computes the case insensitive hash code of the key, which is the same for keys which are equal ignoring case.
+     */
+    static int hash(String key) {
+        int h = 0;
+        for (int i = 0, len = key.length(); i < len; i++) {
+            char c = key.charAt(i);
+            if (c < 128) {
+                if (c >= 'A' && c <= 'Z') {
+                    c += 'a' - 'A';
+                }
+            } else {
+                // same as String#equalsIgnoreCase does
+                c = Character.toLowerCase(Character.toUpperCase(c));
+            }
+            h = 31 * h + c;
+        }
+        // spread the bits as the index is taken from the lower bits
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Finds the slot of the key, or <tt>-1</tt> if the key is not in the map.
+     */
+    private int indexOf(Object key, int hash) {
+        String[] k = keys;
+        int mask = k.length - 1;
+        int i = hash & mask;
+        String existing;
+        while ((existing = k[i]) != null) {
+            if (existing == key || (existing != REMOVED && hashes[i] == hash && existing.equalsIgnoreCase((String) key))) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int indexOf(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        return indexOf(key, hash((String) key));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int i = indexOf(key);
+        return i >= 0 ? values[i] : null;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+        int hash = hash(key);
+        int i = indexOf(key, hash);
+        if (i >= 0) {
+            Object old = values[i];
+            values[i] = value;
+            return old;
+        }
+
+        if ((used + 1) * 2 > keys.length) {
+            // grow if there are many keys, otherwise just get rid of the removed keys
+            rehash(size * 4 >= keys.length ? keys.length << 1 : keys.length);
+        }
+
+        String[] k = keys;
+        int mask = k.length - 1;
+        i = hash & mask;
+        while (k[i] != null && k[i] != REMOVED) {
+            i = (i + 1) & mask;
+        }
+        if (k[i] == null) {
+            used++;
+        }
+        k[i] = key;
+        hashes[i] = hash;
+        values[i] = value;
+        size++;
+        modCount++;
+        return null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        Object old = values[i];
+        removeAt(i);
+        return old;
+    }
+
+    private void removeAt(int i) {
+        keys[i] = REMOVED;
+        values[i] = null;
+        hashes[i] = 0;
+        size--;
+        modCount++;
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> map) {
+        for (Entry<? extends String, ?> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (used > 0) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = null;
+                values[i] = null;
+            }
+            size = 0;
+            used = 0;
+            modCount++;
+        }
+    }
+
+    private void rehash(int capacity) {
+        String[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldHashes = hashes;
+
+        keys = new String[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+        used = size;
+
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            String key = oldKeys[j];
+            if (key != null && key != REMOVED) {
+                int i = oldHashes[j] & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+                hashes[i] = oldHashes[j];
+            }
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size);
+        for (int i = 0; i < keys.length; i++) {
+            String key = keys[i];
+            if (key != null && key != REMOVED) {
+                out.writeObject(key);
+                out.writeObject(values[i]);
+            }
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        init(capacityFor(count));
+        for (int i = 0; i < count; i++) {
+            String key = (String) in.readObject();
+            put(key, in.readObject());
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, Object>> {
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            FastCaseInsensitiveMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, Object>> {
+
+        private final String[] iteratingKeys = keys;
+        private int expectedModCount = modCount;
+        private int next = advance(0);
+        private int current = -1;
+
+        private int advance(int from) {
+            int i = from;
+            while (i < iteratingKeys.length && (iteratingKeys[i] == null || iteratingKeys[i] == REMOVED)) {
+                i++;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < iteratingKeys.length;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (modCount != expectedModCount || iteratingKeys != keys) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= iteratingKeys.length) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            next = advance(next + 1);
+            return new SlotEntry(current);
+        }
+
+        @Override
+        public void remove() {
+            if (current < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount || iteratingKeys != keys) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(current);
+            expectedModCount = modCount;
+            current = -1;
+        }
+    }
+
+    private final class SlotEntry implements Entry<String, Object> {
+
+        private final String key;
+        private final int index;
+
+        private SlotEntry(int index) {
+            this.key = keys[index];
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            // the slot may have been reused if the entry was removed
+            return keys[index] == key ? values[index] : get(key);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            if (keys[index] == key) {
+                Object old = values[index];
+                values[index] = value;
+                return old;
+            }
+            return put(key, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            Object value = getValue();
+            return key.equals(e.getKey()) && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = getValue();
+            return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+
+}
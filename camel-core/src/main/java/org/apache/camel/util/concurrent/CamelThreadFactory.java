@@ -50,6 +50,10 @@ public final class CamelThreadFactory implements ThreadFactory {
         return name;
     }
 
+    public String getPattern() {
+        return pattern;
+    }
+
     public String toString() {
         return "CamelThreadFactory[" + name + "]";
     }
@@ -0,0 +1,450 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded multi producer multi consumer {@link BlockingQueue} backed by a ring buffer.
+ * <p/>
+ * Each slot in the ring buffer has a sequence number which tells producers and consumers whether the slot
+ * is free or holds an element, so offering and polling only requires a compare and set of the producer or consumer
+ * position, and does not allocate any objects, nor does it take any locks. Only threads which has to wait because
+ * the queue is full or empty are parked using a lock, and producers and consumers only signal each other
+ * when there are such waiting threads.
+ * <p/>
+ * The capacity is rounded up to the next power of two, and is at least two, as a slot which holds an element
+ * must be told apart from a slot which is free for the next round of the ring buffer.
+ * <p/>
+ * Removing an element which is not at the head of the queue (such as using {@link #remove(Object)}) marks its
+ * slot as removed, which is then skipped by the consumers. The slot is still counted by {@link #size()}
+ * until a consumer has skipped it.
+ *
+ * @param <E> the element type
+ */
+public class RingBufferBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    private static final Object REMOVED = new Object();
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<Object> buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerPosition = new AtomicLong();
+    private final AtomicLong consumerPosition = new AtomicLong();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private volatile int waitingConsumers;
+    private volatile int waitingProducers;
+
+    /**
+     * Creates a new queue.
+     *
+     * @param capacity the capacity which is rounded up to the next power of two (and at least two)
+     */
+    public RingBufferBlockingQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive, was: " + capacity);
+        }
+        if (capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must not be larger than " + (1 << 30) + ", was: " + capacity);
+        }
+        int size = 2;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.buffer = new AtomicReferenceArray<Object>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Gets the capacity of this queue (the given capacity rounded up to the next power of two)
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (enqueue(e)) {
+            signalNotEmpty();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        if (enqueue(e)) {
+            signalNotEmpty();
+            return;
+        }
+        lock.lockInterruptibly();
+        try {
+            waitingProducers++;
+            try {
+                while (!enqueue(e)) {
+                    notFull.await();
+                }
+            } finally {
+                waitingProducers--;
+            }
+        } finally {
+            lock.unlock();
+        }
+        signalNotEmpty();
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        if (enqueue(e)) {
+            signalNotEmpty();
+            return true;
+        }
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            waitingProducers++;
+            try {
+                while (!enqueue(e)) {
+                    if (nanos <= 0) {
+                        return false;
+                    }
+                    nanos = notFull.awaitNanos(nanos);
+                }
+            } finally {
+                waitingProducers--;
+            }
+        } finally {
+            lock.unlock();
+        }
+        signalNotEmpty();
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        E e = dequeue();
+        if (e != null) {
+            signalNotFull();
+        }
+        return e;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        E e = dequeue();
+        if (e == null) {
+            lock.lockInterruptibly();
+            try {
+                waitingConsumers++;
+                try {
+                    while ((e = dequeue()) == null) {
+                        notEmpty.await();
+                    }
+                } finally {
+                    waitingConsumers--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        signalNotFull();
+        return e;
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E e = dequeue();
+        if (e == null) {
+            long nanos = unit.toNanos(timeout);
+            lock.lockInterruptibly();
+            try {
+                waitingConsumers++;
+                try {
+                    while ((e = dequeue()) == null) {
+                        if (nanos <= 0) {
+                            return null;
+                        }
+                        nanos = notEmpty.awaitNanos(nanos);
+                    }
+                } finally {
+                    waitingConsumers--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        signalNotFull();
+        return e;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null) {
+            throw new NullPointerException();
+        }
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        int n = 0;
+        E e;
+        while (n < maxElements && (e = dequeue()) != null) {
+            c.add(e);
+            n++;
+        }
+        if (n > 0) {
+            // only signal once for all the drained elements
+            signalNotFull();
+        }
+        return n;
+    }
+
+    @Override
+    public E peek() {
+        long consumer = consumerPosition.get();
+        long producer = producerPosition.get();
+        for (long position = consumer; position < producer; position++) {
+            Object e = buffer.get((int) position & mask);
+            if (e != null && e != REMOVED) {
+                return cast(e);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        while (true) {
+            long consumer = consumerPosition.get();
+            long producer = producerPosition.get();
+            if (consumer == consumerPosition.get()) {
+                long size = producer - consumer;
+                return (int) Math.max(0, Math.min(size, capacity));
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        long consumer = consumerPosition.get();
+        long producer = producerPosition.get();
+        for (long position = consumer; position < producer; position++) {
+            int index = (int) position & mask;
+            Object e = buffer.get(index);
+            if (e != null && e != REMOVED && o.equals(e) && buffer.compareAndSet(index, e, REMOVED)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null) {
+            return false;
+        }
+        long consumer = consumerPosition.get();
+        long producer = producerPosition.get();
+        for (long position = consumer; position < producer; position++) {
+            Object e = buffer.get((int) position & mask);
+            if (e != null && e != REMOVED && o.equals(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        boolean cleared = false;
+        while (dequeue() != null) {
+            cleared = true;
+        }
+        if (cleared) {
+            signalNotFull();
+        }
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the elements in the queue.
+     * Removing elements using the iterator removes them from the queue.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        final List<E> snapshot = new ArrayList<E>();
+        long consumer = consumerPosition.get();
+        long producer = producerPosition.get();
+        for (long position = consumer; position < producer; position++) {
+            Object e = buffer.get((int) position & mask);
+            if (e != null && e != REMOVED) {
+                snapshot.add(RingBufferBlockingQueue.<E>cast(e));
+            }
+        }
+        return new Iterator<E>() {
+            private int index;
+            private E last;
+
+            @Override
+            public boolean hasNext() {
+                return index < snapshot.size();
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                last = snapshot.get(index++);
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                RingBufferBlockingQueue.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "RingBufferBlockingQueue[capacity=" + capacity + ", size=" + size() + "]";
+    }
+
+    private boolean enqueue(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        long position = producerPosition.get();
+        while (true) {
+            int index = (int) position & mask;
+            long sequence = sequences.get(index);
+            long diff = sequence - position;
+            if (diff == 0) {
+                // the slot is free so try to claim it
+                if (producerPosition.compareAndSet(position, position + 1)) {
+                    buffer.set(index, e);
+                    // publish the element to the consumers
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = producerPosition.get();
+            } else if (diff < 0) {
+                // the slot has not been consumed yet so the queue is full
+                return false;
+            } else {
+                // another producer claimed the slot
+                position = producerPosition.get();
+            }
+        }
+    }
+
+    private E dequeue() {
+        long position = consumerPosition.get();
+        while (true) {
+            int index = (int) position & mask;
+            long sequence = sequences.get(index);
+            long diff = sequence - (position + 1);
+            if (diff == 0) {
+                // the slot holds an element so try to claim it
+                if (consumerPosition.compareAndSet(position, position + 1)) {
+                    Object e = buffer.getAndSet(index, null);
+                    // free the slot for the producers
+                    sequences.set(index, position + capacity);
+                    if (e != REMOVED) {
+                        return cast(e);
+                    }
+                }
+                position = consumerPosition.get();
+            } else if (diff < 0) {
+                // the slot has not been published yet so the queue is empty
+                return null;
+            } else {
+                // another consumer claimed the slot
+                position = consumerPosition.get();
+            }
+        }
+    }
+
+    private void signalNotEmpty() {
+        if (waitingConsumers > 0) {
+            lock.lock();
+            try {
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void signalNotFull() {
+        if (waitingProducers > 0) {
+            lock.lock();
+            try {
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E cast(Object e) {
+        return (E) e;
+    }
+}
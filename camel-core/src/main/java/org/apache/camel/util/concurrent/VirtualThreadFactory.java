@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Thread factory which creates virtual threads supporting a naming pattern.
+ * <p/>
+ * Virtual threads are only available on newer JVMs, and are therefore looked up using reflection.
+ * Use {@link #isSupported()} to check whether this factory can be used on the running JVM.
+ */
+public final class VirtualThreadFactory implements ThreadFactory {
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadFactory.class);
+    private static final ThreadFactory VIRTUAL_FACTORY = createVirtualFactory();
+
+    private final String pattern;
+    private final String name;
+
+    public VirtualThreadFactory(String pattern, String name) {
+        if (VIRTUAL_FACTORY == null) {
+            throw new UnsupportedOperationException("Virtual threads are not supported on this JVM");
+        }
+        this.pattern = pattern;
+        this.name = name;
+    }
+
+    /**
+     * Whether the running JVM supports virtual threads.
+     */
+    public static boolean isSupported() {
+        return VIRTUAL_FACTORY != null;
+    }
+
+    public Thread newThread(Runnable runnable) {
+        // virtual threads are always daemon threads
+        Thread answer = VIRTUAL_FACTORY.newThread(runnable);
+        if (name != null) {
+            answer.setName(ThreadHelper.resolveThreadName(pattern, name));
+        }
+
+        LOG.trace("Created virtual thread[{}] -> {}", answer.getName(), answer);
+        return answer;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String toString() {
+        return "VirtualThreadFactory[" + name + "]";
+    }
+
+    private static ThreadFactory createVirtualFactory() {
+        try {
+            // Thread.ofVirtual().factory()
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (Throwable e) {
+            LOG.debug("Virtual threads are not supported on this JVM due: {}", e.getMessage());
+            return null;
+        }
+    }
+}
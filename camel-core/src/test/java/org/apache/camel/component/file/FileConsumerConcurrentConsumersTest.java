@@ -0,0 +1,163 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.file;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.FailedToCreateRouteException;
+import org.apache.camel.Processor;
+import org.apache.camel.ShutdownRunningTask;
+import org.apache.camel.builder.NotifyBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+/**
+ * Unit test for consuming files with concurrent consumers
+ */
+public class FileConsumerConcurrentConsumersTest extends ContextTestSupport {
+
+    private final Set<String> threads = new CopyOnWriteArraySet<String>();
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory("target/concurrent");
+        super.setUp();
+    }
+
+    public void testConcurrentConsumers() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            template.sendBodyAndHeader("file://target/concurrent", "Hello " + i, Exchange.FILE_NAME, "hello" + i + ".txt");
+        }
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(50);
+        mock.expectsNoDuplicates(body());
+        mock.message(0).exchangeProperty(Exchange.BATCH_INDEX).isNotNull();
+        NotifyBuilder notify = new NotifyBuilder(context).whenDone(50).create();
+
+        context.startRoute("foo");
+
+        assertMockEndpointsSatisfied();
+        assertTrue("Should use concurrent consumers, was: " + threads, threads.size() > 1);
+
+        // the files should be moved when done
+        assertTrue(notify.matchesMockWaitTime());
+        for (int i = 0; i < 50; i++) {
+            assertFileExists("target/concurrent/.camel/hello" + i + ".txt");
+        }
+    }
+
+    public void testConcurrentConsumersIdempotent() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            template.sendBodyAndHeader("file://target/concurrent", "Hello " + i, Exchange.FILE_NAME, "hello" + i + ".txt");
+        }
+
+        MockEndpoint mock = getMockEndpoint("mock:idempotent");
+        mock.expectedMessageCount(20);
+        mock.expectsNoDuplicates(body());
+
+        context.startRoute("idempotent");
+
+        assertMockEndpointsSatisfied();
+
+        // the files should not be consumed again
+        mock.reset();
+        mock.expectedMessageCount(0);
+        mock.setAssertPeriod(500);
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testConcurrentConsumersDoneFile() throws Exception {
+        template.sendBodyAndHeader("file://target/concurrent", "Hello World", Exchange.FILE_NAME, "hello.txt");
+        template.sendBodyAndHeader("file://target/concurrent", "Bye World", Exchange.FILE_NAME, "bye.txt");
+        template.sendBodyAndHeader("file://target/concurrent", "", Exchange.FILE_NAME, "hello.done");
+
+        MockEndpoint mock = getMockEndpoint("mock:done");
+        mock.expectedBodiesReceived("Hello World");
+        mock.setAssertPeriod(500);
+
+        context.startRoute("done");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testConcurrentConsumersCompleteAllTasksOnShutdown() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            template.sendBodyAndHeader("file://target/concurrent", "Hello " + i, Exchange.FILE_NAME, "hello" + i + ".txt");
+        }
+
+        MockEndpoint mock = getMockEndpoint("mock:complete");
+        mock.expectedMinimumMessageCount(1);
+
+        context.startRoute("complete");
+
+        assertMockEndpointsSatisfied();
+
+        // the queued files should be completed when shutting down
+        context.stop();
+
+        assertEquals(20, mock.getReceivedCounter());
+    }
+
+    public void testConcurrentConsumersCannotSort() throws Exception {
+        try {
+            context.addRoutes(new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("file://target/concurrent?concurrentConsumers=2&sortBy=file:name").to("mock:sorted");
+                }
+            });
+            fail("Should have thrown exception");
+        } catch (FailedToCreateRouteException e) {
+            IllegalArgumentException iae = assertIsInstanceOf(IllegalArgumentException.class, e.getCause());
+            assertEquals("You cannot set concurrentConsumers > 1 and sorter, sortBy or shuffle options", iae.getMessage());
+        }
+    }
+
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            public void configure() throws Exception {
+                from("file://target/concurrent?concurrentConsumers=5&workQueueSize=5&readLock=fileLock&initialDelay=0&delay=10")
+                    .routeId("foo").noAutoStartup()
+                    .process(new Processor() {
+                        public void process(Exchange exchange) throws Exception {
+                            threads.add(Thread.currentThread().getName());
+                            Thread.sleep(20);
+                        }
+                    })
+                    .convertBodyTo(String.class).to("mock:result");
+
+                from("file://target/concurrent?concurrentConsumers=3&noop=true&readLock=changed&readLockCheckInterval=50&initialDelay=0&delay=10")
+                    .routeId("idempotent").noAutoStartup()
+                    .convertBodyTo(String.class).to("mock:idempotent");
+
+                from("file://target/concurrent?concurrentConsumers=2&workQueueSize=20&initialDelay=0&delay=10")
+                    .routeId("complete").noAutoStartup().shutdownRunningTask(ShutdownRunningTask.CompleteAllTasks)
+                    .delay(100)
+                    .convertBodyTo(String.class).to("mock:complete");
+
+                from("file://target/concurrent?concurrentConsumers=2&doneFileName=${file:name.noext}.done&initialDelay=0&delay=10")
+                    .routeId("done").noAutoStartup()
+                    .convertBodyTo(String.class).to("mock:done");
+            }
+        };
+    }
+
+}
@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.SimpleRegistry;
+
+/**
+ * @version 
+ */
+public class SedaMaxMessagesPerPollTest extends ContextTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        SimpleRegistry registry = new SimpleRegistry();
+        registry.put("ringBufferQueueFactory", new RingBufferBlockingQueueFactory<Exchange>());
+        return new DefaultCamelContext(registry);
+    }
+
+    public void testMaxMessagesPerPoll() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(100);
+
+        for (int i = 0; i < 100; i++) {
+            template.sendBody("seda:foo", "Message " + i);
+        }
+
+        context.startRoute("foo");
+
+        assertMockEndpointsSatisfied();
+
+        // the order is kept when draining the queue
+        for (int i = 0; i < 100; i++) {
+            assertEquals("Message " + i, mock.getReceivedExchanges().get(i).getIn().getBody());
+        }
+    }
+
+    public void testMaxMessagesPerPollInOut() throws Exception {
+        context.startRoute("foo");
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Bye " + i, template.requestBody("seda:bar", "" + i));
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("seda:foo?queueFactory=#ringBufferQueueFactory&maxMessagesPerPoll=10").routeId("foo").noAutoStartup()
+                    .to("mock:result");
+
+                from("seda:bar?queueFactory=#ringBufferQueueFactory&maxMessagesPerPoll=10")
+                    .transform(body().prepend("Bye "));
+            }
+        };
+    }
+}
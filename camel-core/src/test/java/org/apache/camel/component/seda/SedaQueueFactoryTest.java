@@ -25,17 +25,20 @@ import org.apache.camel.ContextTestSupport;
 import org.apache.camel.Exchange;
 import org.apache.camel.impl.DefaultCamelContext;
 import org.apache.camel.impl.SimpleRegistry;
+import org.apache.camel.util.concurrent.RingBufferBlockingQueue;
 
 /**
  *
  */
 public class SedaQueueFactoryTest extends ContextTestSupport {
     private final ArrayBlockingQueueFactory<Exchange> arrayQueueFactory = new ArrayBlockingQueueFactory<Exchange>();
+    private final RingBufferBlockingQueueFactory<Exchange> ringBufferQueueFactory = new RingBufferBlockingQueueFactory<Exchange>();
 
     @Override
     protected CamelContext createCamelContext() throws Exception {
         SimpleRegistry simpleRegistry = new SimpleRegistry();
         simpleRegistry.put("arrayQueueFactory", arrayQueueFactory);
+        simpleRegistry.put("ringBufferQueueFactory", ringBufferQueueFactory);
         return new DefaultCamelContext(simpleRegistry);
     }
 
@@ -56,7 +59,33 @@ public class SedaQueueFactoryTest extends ContextTestSupport {
         assertEquals("remainingCapacity", 50, blockingQueue.remainingCapacity());
     }
 
-    
+    public void testRingBufferBlockingQueueFactory() throws Exception {
+        SedaEndpoint endpoint = resolveMandatoryEndpoint("seda:ringBufferQueue?queueFactory=#ringBufferQueueFactory", SedaEndpoint.class);
+
+        BlockingQueue<Exchange> queue = endpoint.getQueue();
+        RingBufferBlockingQueue<Exchange> ringBuffer = assertIsInstanceOf(RingBufferBlockingQueue.class, queue);
+        assertEquals("capacity", 1024, ringBuffer.getCapacity());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testRingBufferBlockingQueueFactoryAndSize() throws Exception {
+        SedaEndpoint endpoint = resolveMandatoryEndpoint("seda:ringBufferQueue50?queueFactory=#ringBufferQueueFactory&size=50", SedaEndpoint.class);
+
+        BlockingQueue<Exchange> queue = endpoint.getQueue();
+        RingBufferBlockingQueue<Exchange> ringBuffer = assertIsInstanceOf(RingBufferBlockingQueue.class, queue);
+        // the capacity is rounded up to the next power of two
+        assertEquals("remainingCapacity", 64, ringBuffer.remainingCapacity());
+    }
+
+    public void testRingBufferBlockingQueueFactorySizeAboveMaxCapacity() throws Exception {
+        try {
+            ringBufferQueueFactory.create(ringBufferQueueFactory.getMaxCapacity() + 1);
+            fail("Should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Capacity 65537 is larger than the max capacity 65536"));
+        }
+    }
+
     public void testDefaultBlockingQueueFactory() throws Exception {
         SedaEndpoint endpoint = resolveMandatoryEndpoint("seda:linkedQueue", SedaEndpoint.class);
         BlockingQueue<Exchange> queue = endpoint.getQueue();
@@ -0,0 +1,209 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.StreamCache;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.impl.DefaultUnitOfWork;
+import org.apache.camel.spi.StreamCachingStrategy;
+import org.apache.camel.util.IOHelper;
+
+/**
+ * @version 
+ */
+public class CachedOutputStreamBufferPoolTest extends ContextTestSupport {
+    private static final String TEST_STRING = "This is a test string which uses more than two buffers";
+
+    private Exchange exchange;
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.setStreamCaching(true);
+        context.getStreamCachingStrategy().setSpoolDirectory("target/cachedir");
+        context.getStreamCachingStrategy().setSpoolThreshold(100);
+        context.getStreamCachingStrategy().setBufferSize(16);
+        context.getStreamCachingStrategy().setBufferPoolEnabled(true);
+        context.getStreamCachingStrategy().setBufferPoolSize(2);
+        return context;
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        deleteDirectory("target/cachedir");
+        createDirectory("target/cachedir");
+
+        exchange = createExchange();
+    }
+
+    @Override
+    public boolean isUseRouteBuilder() {
+        return false;
+    }
+
+    private Exchange createExchange() {
+        Exchange answer = new DefaultExchange(context);
+        answer.setUnitOfWork(new DefaultUnitOfWork(answer));
+        return answer;
+    }
+
+    private static String toString(InputStream input) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        IOHelper.copy(input, bos);
+        return bos.toString("UTF-8");
+    }
+
+    public void testCacheInPooledBuffers() throws Exception {
+        context.start();
+        StreamCachingStrategy.Statistics statistics = context.getStreamCachingStrategy().getStatistics();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(TEST_STRING.getBytes("UTF-8"));
+
+        StreamCache cache = cos.newStreamCache();
+        assertTrue("Should get the ByteBufferInputStreamCache", cache instanceof ByteBufferInputStreamCache);
+        assertTrue(cache.inMemory());
+        assertEquals(TEST_STRING.length(), cache.length());
+        assertEquals(TEST_STRING, toString((InputStream) cache));
+        cache.reset();
+        assertEquals(TEST_STRING, toString((InputStream) cache));
+
+        // the pool only has two direct buffers so the others are heap buffers
+        assertEquals(2, statistics.getBufferPoolAllocatedCounter());
+        assertEquals(2, statistics.getBufferPoolOverflowCounter());
+        assertEquals(2, statistics.getBufferPoolInUse());
+        assertEquals(0, statistics.getBufferPoolIdle());
+
+        exchange.getUnitOfWork().done(exchange);
+        assertEquals(0, statistics.getBufferPoolInUse());
+        assertEquals(2, statistics.getBufferPoolIdle());
+
+        // the next stream cache should reuse the buffers
+        String other = TEST_STRING.toUpperCase();
+        Exchange next = createExchange();
+        cos = new CachedOutputStream(next);
+        cos.write(other.getBytes("UTF-8"));
+        assertEquals(other, toString(cos.getInputStream()));
+        assertEquals(2, statistics.getBufferPoolAllocatedCounter());
+        assertEquals(2, statistics.getBufferPoolReusedCounter());
+
+        next.getUnitOfWork().done(next);
+        assertEquals(2, statistics.getBufferPoolIdle());
+    }
+
+    public void testReadWhenReleased() throws Exception {
+        context.start();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(TEST_STRING.getBytes("UTF-8"));
+
+        InputStream cache = (InputStream) cos.newStreamCache();
+        byte[] data = new byte[20];
+        assertEquals(20, cache.read(data));
+
+        // release the buffers while the cache is being read
+        exchange.getUnitOfWork().done(exchange);
+
+        // overwrite the released buffers
+        CachedOutputStream next = new CachedOutputStream(createExchange());
+        next.write(TEST_STRING.toUpperCase().getBytes("UTF-8"));
+
+        // the cache must not read the content of the other stream cache
+        try {
+            cache.read(data);
+            fail("Should have thrown exception");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Cannot use stream cache as its pooled buffers has been released"));
+        }
+
+        ((StreamCache) cache).reset();
+        try {
+            cache.read();
+            fail("Should have thrown exception");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Cannot use stream cache as its pooled buffers has been released"));
+        }
+
+        try {
+            ((StreamCache) cache).copy(createExchange());
+            fail("Should have thrown exception");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Cannot use stream cache as its pooled buffers has been released"));
+        }
+    }
+
+    public void testCopyReleasedWhenAllExchangesDone() throws Exception {
+        context.start();
+        StreamCachingStrategy.Statistics statistics = context.getStreamCachingStrategy().getStatistics();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write("Hello World".getBytes("UTF-8"));
+
+        StreamCache cache = cos.newStreamCache();
+        Exchange other = createExchange();
+        StreamCache copy = cache.copy(other);
+        assertEquals(1, statistics.getBufferPoolInUse());
+
+        exchange.getUnitOfWork().done(exchange);
+        assertEquals(1, statistics.getBufferPoolInUse());
+        assertEquals("Hello World", toString((InputStream) copy));
+
+        other.getUnitOfWork().done(other);
+        assertEquals(0, statistics.getBufferPoolInUse());
+    }
+
+    public void testSpoolPooledBuffersToFile() throws Exception {
+        context.start();
+        StreamCachingStrategy.Statistics statistics = context.getStreamCachingStrategy().getStatistics();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(TEST_STRING.getBytes("UTF-8"));
+        assertEquals(2, statistics.getBufferPoolInUse());
+
+        // exceed the spool threshold
+        cos.write(TEST_STRING.getBytes("UTF-8"));
+        cos.write(TEST_STRING.getBytes("UTF-8"));
+
+        File file = new File("target/cachedir");
+        String[] files = file.list();
+        assertEquals("we should have a temp file", 1, files.length);
+        // the buffers are released when spooling
+        assertEquals(0, statistics.getBufferPoolInUse());
+
+        StreamCache cache = cos.newStreamCache();
+        assertTrue("Should get the FileInputStreamCache", cache instanceof FileInputStreamCache);
+        assertEquals(TEST_STRING + TEST_STRING + TEST_STRING, toString((InputStream) cache));
+        cache.reset();
+        assertEquals(TEST_STRING + TEST_STRING + TEST_STRING, toString((InputStream) cache));
+        ((InputStream) cache).close();
+
+        exchange.getUnitOfWork().done(exchange);
+        files = file.list();
+        assertEquals("we should have no temp file", 0, files.length);
+        IOHelper.close(cos);
+    }
+
+}
@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+
+import org.apache.camel.BytesSource;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.converter.stream.InputStreamCache;
+
+/**
+ * @version 
+ */
+public class BinaryExchangeCodecTest extends ContextTestSupport {
+
+    public void testEncodeDecode() throws Exception {
+        Date now = new Date();
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("string", "Camel");
+        exchange.getIn().setHeader("int", 123);
+        exchange.getIn().setHeader("long", 456L);
+        exchange.getIn().setHeader("double", 1.5d);
+        exchange.getIn().setHeader("float", 2.5f);
+        exchange.getIn().setHeader("short", (short) 7);
+        exchange.getIn().setHeader("byte", (byte) 8);
+        exchange.getIn().setHeader("boolean", Boolean.TRUE);
+        exchange.getIn().setHeader("char", 'c');
+        exchange.getIn().setHeader("date", now);
+        exchange.getIn().setHeader("bigInteger", new BigInteger("123456789012345678901234567890"));
+        exchange.getIn().setHeader("bigDecimal", new BigDecimal("-12345.6789"));
+        exchange.getOut().setBody(new byte[]{1, 2, 3});
+        exchange.getOut().setHeader("foo", "bar");
+        exchange.getOut().setFault(true);
+        exchange.setProperty("prop", 444);
+        exchange.setException(new IllegalArgumentException("Forced"));
+
+        byte[] data = BinaryExchangeCodec.encode(DefaultExchangeHolder.marshal(exchange));
+        assertTrue(BinaryExchangeCodec.isBinaryEncoded(data));
+
+        Exchange answer = new DefaultExchange(context);
+        DefaultExchangeHolder.unmarshal(answer, BinaryExchangeCodec.decode(context, data));
+
+        assertEquals(exchange.getExchangeId(), answer.getExchangeId());
+        assertEquals("Hello World", answer.getIn().getBody());
+        assertEquals("Camel", answer.getIn().getHeader("string"));
+        assertEquals(123, answer.getIn().getHeader("int"));
+        assertEquals(456L, answer.getIn().getHeader("long"));
+        assertEquals(1.5d, answer.getIn().getHeader("double"));
+        assertEquals(2.5f, answer.getIn().getHeader("float"));
+        assertEquals((short) 7, answer.getIn().getHeader("short"));
+        assertEquals((byte) 8, answer.getIn().getHeader("byte"));
+        assertEquals(Boolean.TRUE, answer.getIn().getHeader("boolean"));
+        assertEquals('c', answer.getIn().getHeader("char"));
+        assertEquals(now, answer.getIn().getHeader("date"));
+        assertEquals(new BigInteger("123456789012345678901234567890"), answer.getIn().getHeader("bigInteger"));
+        assertEquals(new BigDecimal("-12345.6789"), answer.getIn().getHeader("bigDecimal"));
+        assertEquals(12, answer.getIn().getHeaders().size());
+
+        byte[] out = assertIsInstanceOf(byte[].class, answer.getOut().getBody());
+        assertEquals(3, out.length);
+        assertEquals(3, out[2]);
+        assertEquals("bar", answer.getOut().getHeader("foo"));
+        assertTrue(answer.getOut().isFault());
+
+        assertEquals(444, answer.getProperty("prop"));
+        assertIsInstanceOf(IllegalArgumentException.class, answer.getException());
+        assertEquals("Forced", answer.getException().getMessage());
+    }
+
+    public void testStreamCacheBody() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody(new InputStreamCache("Hello World".getBytes()));
+
+        byte[] data = BinaryExchangeCodec.encode(DefaultExchangeHolder.marshal(exchange));
+
+        Exchange answer = new DefaultExchange(context);
+        DefaultExchangeHolder.unmarshal(answer, BinaryExchangeCodec.decode(context, data));
+
+        assertIsInstanceOf(BytesSource.class, answer.getIn().getBody());
+        assertEquals("Hello World", answer.getIn().getBody(String.class));
+    }
+
+    public void testSmallerThanSerialization() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("foo", 123);
+        exchange.getIn().setHeader("bar", "Camel");
+
+        DefaultExchangeHolder holder = DefaultExchangeHolder.marshal(exchange);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bos);
+        oos.writeObject(holder);
+        oos.close();
+
+        byte[] data = BinaryExchangeCodec.encode(holder);
+        assertTrue("Should be smaller than serialization", data.length < bos.size());
+        assertFalse("Serialized data is not binary encoded", BinaryExchangeCodec.isBinaryEncoded(bos.toByteArray()));
+    }
+
+    public void testNotBinaryEncoded() throws Exception {
+        try {
+            BinaryExchangeCodec.decode(context, new byte[]{1, 2, 3});
+            fail("Should have thrown exception");
+        } catch (StreamCorruptedException e) {
+            // expected
+        }
+    }
+}
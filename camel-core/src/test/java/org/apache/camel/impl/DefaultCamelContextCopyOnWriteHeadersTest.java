@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.MessageHistory;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.model.ToDefinition;
+import org.apache.camel.util.CopyOnWriteCaseInsensitiveMap;
+
+public class DefaultCamelContextCopyOnWriteHeadersTest extends ContextTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.setCopyOnWriteHeaders(true);
+        return context;
+    }
+
+    public void testCopyOnWriteHeaders() throws Exception {
+        MockEndpoint a = getMockEndpoint("mock:a");
+        a.expectedBodiesReceived("Hello World");
+        a.expectedHeaderReceived("foo", "A");
+        a.message(0).header("bar").isNull();
+
+        MockEndpoint b = getMockEndpoint("mock:b");
+        b.expectedBodiesReceived("Bye World");
+        b.expectedHeaderReceived("foo", "B");
+        b.expectedHeaderReceived("bar", "123");
+
+        // the multicast uses the latest reply
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedBodiesReceived("Bye World");
+        result.expectedHeaderReceived("foo", "B");
+        result.expectedHeaderReceived("bar", "123");
+
+        template.sendBodyAndHeader("direct:start", "Hello World", "foo", "123");
+
+        assertMockEndpointsSatisfied();
+
+        assertTrue(a.getReceivedExchanges().get(0).getIn().getHeaders() instanceof CopyOnWriteCaseInsensitiveMap);
+    }
+
+    public void testCopyOnWriteProperties() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.setProperty("foo", "123");
+        exchange.getIn().setHeader("bar", "456");
+
+        Exchange copy = exchange.copy(true);
+        assertEquals("123", copy.getProperty("foo"));
+        assertEquals("456", copy.getIn().getHeader("bar"));
+
+        copy.setProperty("foo", "abc");
+        copy.getIn().setHeader("bar", "def");
+        exchange.removeProperty("foo");
+
+        assertNull(exchange.getProperty("foo"));
+        assertEquals("456", exchange.getIn().getHeader("bar"));
+        assertEquals("abc", copy.getProperty("foo"));
+        assertEquals("def", copy.getIn().getHeader("bar"));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testCopyOnWriteMessageHistory() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        List<MessageHistory> history = new ArrayList<MessageHistory>();
+        exchange.setProperty(Exchange.MESSAGE_HISTORY, history);
+
+        Exchange copy = exchange.copy(true);
+
+        List<MessageHistory> copyHistory = copy.getProperty(Exchange.MESSAGE_HISTORY, List.class);
+        assertNotSame(history, copyHistory);
+        copyHistory.add(new DefaultMessageHistory("route1", new ToDefinition("mock:a"), new Date()));
+        assertEquals(1, copyHistory.size());
+
+        List<MessageHistory> originalHistory = exchange.getProperty(Exchange.MESSAGE_HISTORY, List.class);
+        assertNotSame(copyHistory, originalHistory);
+        assertEquals(0, originalHistory.size());
+        assertEquals(0, history.size());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .multicast().to("direct:a", "direct:b").end()
+                    .to("mock:result");
+
+                from("direct:a")
+                    .setHeader("foo", constant("A"))
+                    .to("mock:a");
+
+                from("direct:b")
+                    .transform(constant("Bye World"))
+                    .setHeader("bar", header("foo"))
+                    .setHeader("foo", constant("B"))
+                    .to("mock:b");
+            }
+        };
+    }
+}
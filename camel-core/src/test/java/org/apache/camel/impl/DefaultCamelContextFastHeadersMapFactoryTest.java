@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.util.CopyOnWriteCaseInsensitiveMap;
+import org.apache.camel.util.FastCaseInsensitiveMap;
+
+public class DefaultCamelContextFastHeadersMapFactoryTest extends ContextTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.setHeadersMapFactory(new FastHeadersMapFactory());
+        return context;
+    }
+
+    public void testFastHeaders() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("Hello World");
+        mock.expectedHeaderReceived("foo", "123");
+        mock.expectedHeaderReceived("bar", "456");
+        mock.message(0).header("beer").isNull();
+
+        template.sendBodyAndHeader("direct:start", "Hello World", "FOO", "123");
+
+        assertMockEndpointsSatisfied();
+
+        Exchange exchange = mock.getReceivedExchanges().get(0);
+        assertTrue(exchange.getIn().getHeaders().getClass().getName(), exchange.getIn().getHeaders() instanceof FastCaseInsensitiveMap);
+        assertEquals("123", exchange.getIn().getHeader("Foo"));
+    }
+
+    public void testFastHeadersCopy() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setHeader("foo", "123");
+
+        Exchange copy = exchange.copy(true);
+        assertTrue(copy.getIn().getHeaders() instanceof FastCaseInsensitiveMap);
+        copy.getIn().setHeader("FOO", "456");
+
+        assertEquals("123", exchange.getIn().getHeader("foo"));
+        assertEquals("456", copy.getIn().getHeader("foo"));
+    }
+
+    public void testFastHeadersCopyOnWrite() throws Exception {
+        context.setCopyOnWriteHeaders(true);
+
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setHeader("foo", "123");
+        assertTrue(exchange.getIn().getHeaders() instanceof CopyOnWriteCaseInsensitiveMap);
+
+        Exchange copy = exchange.copy(true);
+        copy.getIn().setHeader("FOO", "456");
+
+        assertEquals("123", exchange.getIn().getHeader("foo"));
+        assertEquals("456", copy.getIn().getHeader("foo"));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .setHeader("bar", constant("456"))
+                    .setHeader("beer", constant("yes"))
+                    .removeHeader("BEER")
+                    .to("mock:result");
+            }
+        };
+    }
+}
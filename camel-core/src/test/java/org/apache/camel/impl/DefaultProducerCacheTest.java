@@ -16,6 +16,8 @@
  */
 package org.apache.camel.impl;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -161,6 +163,68 @@ public class DefaultProducerCacheTest extends ContextTestSupport {
         cache.stop();
     }
 
+    public void testResolveEndpointCache() throws Exception {
+        ProducerCache cache = new ProducerCache(this, context, 5);
+        cache.start();
+
+        Exchange exchange = new DefaultExchange(context);
+        Endpoint e = cache.resolveEndpoint(exchange, "mock:foo?retainFirst=1");
+        assertSame(e, cache.resolveEndpoint(exchange, "mock:foo?retainFirst=1"));
+        assertSame(e, cache.resolveEndpoint(exchange, "mock:foo?retainFirst=1"));
+        // an endpoint instance is returned as-is
+        assertSame(e, cache.resolveEndpoint(exchange, e));
+
+        assertEquals(1, cache.getEndpointCacheSize());
+        assertEquals(1, cache.getEndpointCacheMisses());
+        assertEquals(2, cache.getEndpointCacheHits());
+
+        // a stopped endpoint should be resolved again
+        context.removeEndpoint(e);
+        Endpoint e2 = cache.resolveEndpoint(exchange, "mock:foo?retainFirst=1");
+        assertNotSame(e, e2);
+        assertSame(e2, context.hasEndpoint("mock:foo?retainFirst=1"));
+
+        cache.resetCacheStatistics();
+        assertEquals(0, cache.getEndpointCacheHits());
+        assertEquals(0, cache.getEndpointCacheMisses());
+
+        cache.purge();
+        assertEquals(0, cache.getEndpointCacheSize());
+
+        cache.stop();
+    }
+
+    public void testSendBatch() throws Exception {
+        ProducerCache cache = new ProducerCache(this, context, 5);
+        cache.start();
+
+        getMockEndpoint("mock:batch").expectedBodiesReceived("A", "B", "C");
+
+        List<Exchange> exchanges = new ArrayList<Exchange>();
+        for (String body : new String[]{"A", "B", "C"}) {
+            Exchange exchange = new DefaultExchange(context);
+            exchange.getIn().setBody(body);
+            exchanges.add(exchange);
+        }
+        cache.sendBatch(context.getEndpoint("mock:batch"), exchanges);
+
+        assertMockEndpointsSatisfied();
+        for (Exchange exchange : exchanges) {
+            assertEquals("mock://batch", exchange.getProperty(Exchange.TO_ENDPOINT));
+        }
+
+        // the producer should only be acquired once for the entire batch
+        assertEquals(1, cache.getAcquireCounter());
+        assertTrue(cache.getMaxAcquireTime() > 0);
+        assertTrue(cache.getMeanAcquireTime() <= cache.getMaxAcquireTime());
+
+        cache.resetCacheStatistics();
+        assertEquals(0, cache.getAcquireCounter());
+        assertEquals(0, cache.getMaxAcquireTime());
+
+        cache.stop();
+    }
+
     private final class MyEndpoint extends DefaultEndpoint {
 
         private final boolean isSingleton;
@@ -16,7 +16,9 @@
  */
 package org.apache.camel.impl;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.camel.ContextTestSupport;
@@ -114,6 +116,47 @@ public class DefaultProducerTemplateTest extends ContextTestSupport {
         assertMockEndpointsSatisfied();
     }
 
+    public void testSendBatch() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("Bye World", "Bye World");
+
+        List<Exchange> exchanges = new ArrayList<Exchange>();
+        for (int i = 0; i < 2; i++) {
+            Exchange exchange = context.getEndpoint("direct:in").createExchange();
+            exchange.getIn().setBody("Hello World");
+            exchanges.add(exchange);
+        }
+
+        template.sendBatch("direct:in", exchanges);
+
+        assertMockEndpointsSatisfied();
+        for (Exchange exchange : exchanges) {
+            assertFalse(exchange.isFailed());
+            assertEquals("Bye World", exchange.getIn().getBody());
+        }
+    }
+
+    public void testSendBatchException() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(0);
+
+        List<Exchange> exchanges = new ArrayList<Exchange>();
+        for (int i = 0; i < 2; i++) {
+            Exchange exchange = context.getEndpoint("direct:exception").createExchange();
+            exchange.getIn().setBody("Hello World");
+            exchanges.add(exchange);
+        }
+
+        template.sendBatch("direct:exception", exchanges);
+
+        assertMockEndpointsSatisfied();
+        // each exchange failed on its own
+        for (Exchange exchange : exchanges) {
+            assertTrue(exchange.isFailed());
+            assertEquals("Forced exception by unit test", exchange.getException().getMessage());
+        }
+    }
+
     public void testRequestExceptionUsingBody() throws Exception {
         MockEndpoint mock = getMockEndpoint("mock:result");
         mock.expectedMessageCount(0);
@@ -0,0 +1,77 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.TypeConverterExists;
+import org.apache.camel.spi.TypeConverterRegistry;
+import org.apache.camel.support.TypeConverterSupport;
+
+/**
+ * @version 
+ */
+public class TypeConverterRegistryCacheTest extends ContextTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.setTypeConverterStatisticsEnabled(true);
+        return context;
+    }
+
+    public void testCacheHitRatio() throws Exception {
+        TypeConverterRegistry reg = context.getTypeConverterRegistry();
+        reg.getStatistics().reset();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i), context.getTypeConverter().convertTo(Integer.class, "" + i));
+        }
+
+        // the first conversion is a miss and the others should be found in the cache
+        assertEquals(9, reg.getStatistics().getCacheHitCounter());
+        assertEquals(1, reg.getStatistics().getCacheMissCounter());
+        assertEquals(0.9d, reg.getStatistics().getCacheHitRatio(), 0.001d);
+
+        reg.getStatistics().reset();
+        assertEquals(0, reg.getStatistics().getCacheHitCounter());
+        assertEquals(0, reg.getStatistics().getCacheMissCounter());
+        assertEquals(0d, reg.getStatistics().getCacheHitRatio(), 0.001d);
+    }
+
+    public void testCacheUpdatedWhenTypeConverterAdded() throws Exception {
+        TypeConverterRegistry reg = context.getTypeConverterRegistry();
+        assertEquals(Integer.valueOf(123), context.getTypeConverter().convertTo(Integer.class, "123"));
+        assertEquals(Integer.valueOf(123), context.getTypeConverter().convertTo(Integer.class, "123"));
+
+        // override the type converter which should be used instead of the cached type converter
+        reg.setTypeConverterExists(TypeConverterExists.Override);
+        reg.addTypeConverter(Integer.class, String.class, new TypeConverterSupport() {
+            @Override
+            public <T> T convertTo(Class<T> type, Exchange exchange, Object value) {
+                return type.cast(Integer.valueOf(42));
+            }
+        });
+        assertEquals(Integer.valueOf(42), context.getTypeConverter().convertTo(Integer.class, "123"));
+
+        // and removing it should not use the cached type converter
+        reg.removeTypeConverter(Integer.class, String.class);
+        assertEquals(Integer.valueOf(123), context.getTypeConverter().convertTo(Integer.class, "123"));
+    }
+
+}
@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.builder.ThreadPoolProfileBuilder;
+import org.apache.camel.spi.ThreadPoolProfile;
+import org.apache.camel.util.concurrent.VirtualThreadFactory;
+
+/**
+ * @version 
+ */
+public class VirtualThreadPoolFactoryTest extends ContextTestSupport {
+
+    public void testDefaultThreadPoolFactory() throws Exception {
+        assertIsInstanceOf(VirtualThreadPoolFactory.class, context.getExecutorServiceManager().getThreadPoolFactory());
+    }
+
+    public void testPlatformThreadsByDefault() throws Exception {
+        ThreadPoolProfile profile = new ThreadPoolProfileBuilder("foo").poolSize(2).maxPoolSize(4).build();
+        ExecutorService pool = context.getExecutorServiceManager().newThreadPool(this, "foo", profile);
+
+        ThreadPoolExecutor tp = assertIsInstanceOf(ThreadPoolExecutor.class, pool);
+        assertEquals(2, tp.getCorePoolSize());
+        assertEquals(4, tp.getMaximumPoolSize());
+        assertFalse(tp.getThreadFactory() instanceof VirtualThreadFactory);
+    }
+
+    public void testVirtualThreads() throws Exception {
+        ThreadPoolProfile profile = new ThreadPoolProfileBuilder("bar").poolSize(2).maxPoolSize(4).maxQueueSize(0).virtualThreads(true).build();
+        ExecutorService pool = context.getExecutorServiceManager().newThreadPool(this, "bar", profile);
+
+        ThreadPoolExecutor tp = assertIsInstanceOf(ThreadPoolExecutor.class, pool);
+        if (VirtualThreadFactory.isSupported()) {
+            // not bounded by the pool sizes
+            assertEquals(0, tp.getCorePoolSize());
+            assertEquals(Integer.MAX_VALUE, tp.getMaximumPoolSize());
+            assertIsInstanceOf(VirtualThreadFactory.class, tp.getThreadFactory());
+        } else {
+            // fallback to platform threads
+            assertEquals(2, tp.getCorePoolSize());
+            assertEquals(4, tp.getMaximumPoolSize());
+            assertFalse(tp.getThreadFactory() instanceof VirtualThreadFactory);
+        }
+
+        // more blocking tasks than the max pool size should be able to run
+        final CountDownLatch started = new CountDownLatch(4);
+        final CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 4; i++) {
+            pool.submit(new Runnable() {
+                public void run() {
+                    started.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        // ignore
+                    }
+                }
+            });
+        }
+        assertTrue("Tasks should have started", started.await(10, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    public void testVirtualThreadsRoute() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceived("Hello World");
+
+        template.sendBody("direct:start", "Hello World");
+
+        assertMockEndpointsSatisfied();
+
+        String name = getMockEndpoint("mock:result").getReceivedExchanges().get(0).getIn().getHeader("threadName", String.class);
+        assertTrue("Should use the Camel thread name: " + name, name.contains("Threads"));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .threads().virtualThreads(true)
+                    .setHeader("threadName", simple("${threadName}"))
+                    .to("mock:result");
+            }
+        };
+    }
+}
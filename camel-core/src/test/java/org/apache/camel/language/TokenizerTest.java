@@ -348,4 +348,41 @@ public class TokenizerTest extends ExchangeTestSupport {
         assertEquals("<person id=\"4\" xmlns=\"http:acme.com/persons\">Hadrian</person>", names.get(3));
     }
 
+    public void testTokenizeXMLPairWithNestedSameName() throws Exception {
+        Expression exp = TokenizeLanguage.tokenizeXML("<person>", null);
+
+        exchange.getIn().setBody("<persons><person>James<person>Junior</person></person><person>Claus</person></persons>");
+
+        List<?> names = exp.evaluate(exchange, List.class);
+        assertEquals(2, names.size());
+
+        assertEquals("<person>James<person>Junior</person></person>", names.get(0));
+        assertEquals("<person>Claus</person>", names.get(1));
+    }
+
+    public void testTokenizeXMLPairWithCommentsAndCData() throws Exception {
+        Expression exp = TokenizeLanguage.tokenizeXML("<person>", null);
+
+        exchange.getIn().setBody("<!DOCTYPE persons [<!ELEMENT persons ANY>]><persons><!-- <person>Ignored</person> -->"
+                + "<person><![CDATA[<person>James</person>]]></person><?pi <person>?><person>Claus</person></persons>");
+
+        List<?> names = exp.evaluate(exchange, List.class);
+        assertEquals(2, names.size());
+
+        assertEquals("<person><![CDATA[<person>James</person>]]></person>", names.get(0));
+        assertEquals("<person>Claus</person>", names.get(1));
+    }
+
+    public void testTokenizeXMLPairWithGreaterThanInAttribute() throws Exception {
+        Expression exp = TokenizeLanguage.tokenizeXML("<person>", null);
+
+        exchange.getIn().setBody("<persons><person expr=\"a > b\">James</person><person expr='c/>'/></persons>");
+
+        List<?> names = exp.evaluate(exchange, List.class);
+        assertEquals(2, names.size());
+
+        assertEquals("<person expr=\"a > b\">James</person>", names.get(0));
+        assertEquals("<person expr='c/>'/>", names.get(1));
+    }
+
 }
\ No newline at end of file
@@ -16,8 +16,12 @@
  */
 package org.apache.camel.language.simple;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.camel.Exchange;
 import org.apache.camel.LanguageTestSupport;
+import org.apache.camel.Predicate;
 import org.apache.camel.impl.JndiRegistry;
 import org.apache.camel.language.simple.types.SimpleIllegalSyntaxException;
 
@@ -339,6 +343,38 @@ public class SimpleOperatorTest extends LanguageTestSupport {
         assertPredicate("${in.header.bar} regex '^\\d{2}'", false);
     }
 
+    public void testRegexDynamicPattern() throws Exception {
+        Predicate predicate = context.resolveLanguage("simple").createPredicate("${in.header.foo} regex ${in.header.pattern}");
+
+        exchange.getIn().setHeader("pattern", "^a..$");
+        assertTrue(predicate.matches(exchange));
+
+        // the predicate is reused so it must pick up the changed pattern
+        exchange.getIn().setHeader("pattern", "^d.*$");
+        assertFalse(predicate.matches(exchange));
+
+        exchange.getIn().setHeader("pattern", "^ab.$");
+        assertTrue(predicate.matches(exchange));
+    }
+
+    public void testInDynamicValues() throws Exception {
+        Predicate predicate = context.resolveLanguage("simple").createPredicate("${in.header.foo} in ${in.header.values}");
+
+        List<String> values = new ArrayList<String>();
+        values.add("xyz");
+        exchange.getIn().setHeader("values", values);
+        assertFalse(predicate.matches(exchange));
+
+        // the values are mutable so the predicate must not be cached
+        values.add("abc");
+        assertTrue(predicate.matches(exchange));
+
+        exchange.getIn().setHeader("values", "foo,abc");
+        assertTrue(predicate.matches(exchange));
+        exchange.getIn().setHeader("values", "foo,bar");
+        assertFalse(predicate.matches(exchange));
+    }
+
     public void testNotRegex() throws Exception {
         assertPredicate("${in.header.foo} not regex '^a..$'", false);
         assertPredicate("${in.header.foo} not regex '^ab.$'", false);
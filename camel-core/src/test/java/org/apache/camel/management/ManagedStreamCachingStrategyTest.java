@@ -82,6 +82,15 @@ public class ManagedStreamCachingStrategyTest extends ManagementTestSupport {
 
         Boolean remove = (Boolean) mbeanServer.getAttribute(name, "RemoveSpoolDirectoryWhenStopping");
         assertEquals(Boolean.TRUE, remove);
+
+        Boolean bufferPool = (Boolean) mbeanServer.getAttribute(name, "BufferPoolEnabled");
+        assertEquals(Boolean.FALSE, bufferPool);
+
+        Integer poolSize = (Integer) mbeanServer.getAttribute(name, "BufferPoolSize");
+        assertEquals(256, poolSize.intValue());
+
+        counter = (Long) mbeanServer.getAttribute(name, "BufferPoolInUse");
+        assertEquals(0, counter.longValue());
     }
 
     @Override
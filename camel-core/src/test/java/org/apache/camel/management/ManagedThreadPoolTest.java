@@ -70,6 +70,12 @@ public class ManagedThreadPoolTest extends ManagementTestSupport {
         Long completed = (Long) mbeanServer.getAttribute(on, "CompletedTaskCount");
         assertEquals(1, completed.intValue());
 
+        Long inflight = (Long) mbeanServer.getAttribute(on, "InflightTaskCount");
+        assertEquals(0, inflight.intValue());
+
+        Boolean virtual = (Boolean) mbeanServer.getAttribute(on, "VirtualThreads");
+        assertEquals(false, virtual.booleanValue());
+
         Long size = (Long) mbeanServer.getAttribute(on, "TaskQueueSize");
         assertEquals(0, size.intValue());
 
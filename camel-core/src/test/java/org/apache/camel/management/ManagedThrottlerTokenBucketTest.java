@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.processor.ThrottlerRejectedExecutionException;
+
+/**
+ * @version
+ */
+public class ManagedThrottlerTokenBucketTest extends ManagementTestSupport {
+
+    public void testManageThrottlerTokenBucket() throws Exception {
+        // JMX tests dont work well on AIX CI servers (hangs them)
+        if (isPlatform("aix")) {
+            return;
+        }
+
+        getMockEndpoint("mock:result").expectedMessageCount(3);
+        getMockEndpoint("mock:error").expectedMessageCount(2);
+
+        for (int i = 0; i < 5; i++) {
+            template.sendBody("direct:start", "Message " + i);
+        }
+
+        assertMockEndpointsSatisfied();
+
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName throttlerName = ObjectName.getInstance("org.apache.camel:context=camel-1,type=processors,name=\"mythrottler\"");
+
+        assertEquals(Boolean.TRUE, mbeanServer.getAttribute(throttlerName, "TokenBucket"));
+        assertEquals(3L, mbeanServer.getAttribute(throttlerName, "AcquiredCount"));
+        assertEquals(2L, mbeanServer.getAttribute(throttlerName, "RejectedCount"));
+        assertEquals(0L, mbeanServer.getAttribute(throttlerName, "WaitingCount"));
+
+        mbeanServer.invoke(throttlerName, "reset", null, null);
+
+        assertEquals(0L, mbeanServer.getAttribute(throttlerName, "AcquiredCount"));
+        assertEquals(0L, mbeanServer.getAttribute(throttlerName, "RejectedCount"));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                onException(ThrottlerRejectedExecutionException.class)
+                    .handled(true)
+                    .to("mock:error");
+
+                from("direct:start")
+                    .throttle(3).timePeriodMillis(10000).tokenBucket(true).rejectExecution(true).id("mythrottler")
+                    .to("mock:result");
+            }
+        };
+    }
+}
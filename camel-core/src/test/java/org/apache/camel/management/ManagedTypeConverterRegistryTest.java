@@ -82,6 +82,12 @@ public class ManagedTypeConverterRegistryTest extends ManagementTestSupport {
         miss = (Long) mbeanServer.getAttribute(name, "MissCounter");
         assertEquals(0, miss.intValue());
 
+        // the type converter should be found in the cache
+        Long cacheHit = (Long) mbeanServer.getAttribute(name, "CacheHitCounter");
+        assertTrue("Should have cache hits, was: " + cacheHit, cacheHit > 0);
+        Double ratio = (Double) mbeanServer.getAttribute(name, "CacheHitRatio");
+        assertTrue("Should have cache hit ratio, was: " + ratio, ratio > 0);
+
         // reset
         mbeanServer.invoke(name, "resetTypeConversionCounters", null, null);
 
@@ -89,6 +95,8 @@ public class ManagedTypeConverterRegistryTest extends ManagementTestSupport {
         assertEquals(0, failed.intValue());
         miss = (Long) mbeanServer.getAttribute(name, "MissCounter");
         assertEquals(0, miss.intValue());
+        cacheHit = (Long) mbeanServer.getAttribute(name, "CacheHitCounter");
+        assertEquals(0, cacheHit.intValue());
 
         // we have more than 150 converters out of the box
         Integer converters = (Integer) mbeanServer.getAttribute(name, "NumberOfTypeConverters");
@@ -0,0 +1,167 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import junit.framework.TestCase;
+import org.apache.camel.processor.idempotent.MemoryMappedIdempotentRepository;
+
+/**
+ * @version 
+ */
+public class MemoryMappedIdempotentRepositoryTest extends TestCase {
+
+    private File store = new File("target/idempotentmappedrepo.dat");
+    private MemoryMappedIdempotentRepository repo;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        if (store.exists()) {
+            store.delete();
+        }
+        repo = new MemoryMappedIdempotentRepository(store);
+        repo.setInitialFileSize(1024);
+        repo.setInitialIndexCapacity(16);
+        repo.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        repo.stop();
+        super.tearDown();
+    }
+
+    public void testManyKeys() throws Exception {
+        for (int i = 0; i < 100000; i++) {
+            assertTrue(repo.add("key-" + i));
+        }
+        for (int i = 0; i < 100000; i++) {
+            assertFalse(repo.add("key-" + i));
+            assertTrue(repo.contains("key-" + i));
+        }
+        assertFalse(repo.contains("key-100000"));
+        assertEquals(100000, repo.getSize());
+
+        // and the keys should be loaded again
+        restart();
+        assertEquals(100000, repo.getSize());
+        for (int i = 0; i < 100000; i++) {
+            assertTrue(repo.contains("key-" + i));
+        }
+    }
+
+    public void testRemoveAndCompact() throws Exception {
+        for (int i = 0; i < 20000; i++) {
+            repo.add("key-" + i);
+        }
+        long size = repo.getLogSize();
+        for (int i = 0; i < 20000; i++) {
+            if (i % 10 != 0) {
+                assertTrue(repo.remove("key-" + i));
+            }
+        }
+        assertFalse(repo.remove("key-1"));
+        assertEquals(2000, repo.getSize());
+
+        // the log should have been compacted as most keys are removed
+        assertTrue("Should have compacted", repo.getCompactions() > 0);
+        assertTrue("Log should be smaller after compaction", repo.getLogSize() < size);
+
+        restart();
+        assertEquals(2000, repo.getSize());
+        for (int i = 0; i < 20000; i++) {
+            assertEquals(i % 10 == 0, repo.contains("key-" + i));
+        }
+        assertFalse(new File(store.getPath() + ".compact").exists());
+    }
+
+    public void testClear() throws Exception {
+        repo.add("A");
+        repo.add("B");
+        repo.clear();
+        assertFalse(repo.contains("A"));
+        assertEquals(0, repo.getSize());
+        repo.add("C");
+
+        restart();
+        assertFalse(repo.contains("A"));
+        assertFalse(repo.contains("B"));
+        assertTrue(repo.contains("C"));
+    }
+
+    public void testDiscardPartiallyWrittenRecord() throws Exception {
+        repo.add("A");
+        repo.add("B");
+        long size = repo.getLogSize();
+        repo.stop();
+
+        // simulate a crash while writing a record by writing a record with an invalid checksum
+        RandomAccessFile file = new RandomAccessFile(store, "rw");
+        try {
+            file.seek(size);
+            file.writeByte(1);
+            file.writeInt(1);
+            file.writeByte('C');
+            file.writeInt(123);
+        } finally {
+            file.close();
+        }
+
+        repo.start();
+        assertEquals(2, repo.getSize());
+        assertTrue(repo.contains("A"));
+        assertTrue(repo.contains("B"));
+        assertFalse(repo.contains("C"));
+        assertEquals(size, repo.getLogSize());
+
+        // and new keys are appended after the valid records
+        assertTrue(repo.add("D"));
+        restart();
+        assertEquals(3, repo.getSize());
+        assertTrue(repo.contains("D"));
+        assertFalse(repo.contains("C"));
+    }
+
+    public void testInvalidFileStore() throws Exception {
+        repo.stop();
+
+        RandomAccessFile file = new RandomAccessFile(store, "rw");
+        try {
+            file.seek(0);
+            file.writeInt(123);
+        } finally {
+            file.close();
+        }
+
+        try {
+            repo.start();
+            fail("Should have thrown exception");
+        } catch (Exception e) {
+            assertTrue(e.getMessage().startsWith("Filestore is not a memory mapped idempotent repository"));
+        }
+    }
+
+    private void restart() throws Exception {
+        repo.stop();
+        repo = new MemoryMappedIdempotentRepository(store);
+        repo.start();
+    }
+
+}
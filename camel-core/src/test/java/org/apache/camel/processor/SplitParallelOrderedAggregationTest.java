@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.aggregate.AggregationStrategy;
+
+/**
+ * @version 
+ */
+public class SplitParallelOrderedAggregationTest extends ContextTestSupport {
+
+    private volatile String aggregateThreadName;
+
+    public void testSplitParallelAggregateInOrder() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("0123456789");
+
+        template.sendBody("direct:start", "0,1,2,3,4,5,6,7,8,9");
+
+        assertMockEndpointsSatisfied();
+
+        // the completing tasks aggregate so there should be no aggregator thread
+        assertNotNull(aggregateThreadName);
+        assertFalse("Should not aggregate using a separate thread", aggregateThreadName.contains("AggregateTask"));
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            assertFalse("Should not create aggregate thread: " + thread.getName(), thread.getName().contains("Splitter-AggregateTask"));
+        }
+    }
+
+    public void testSplitParallelStreamingAggregateAll() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:streaming");
+        mock.expectedMessageCount(1);
+
+        template.sendBody("direct:streaming", "0,1,2,3,4,5,6,7,8,9");
+
+        assertMockEndpointsSatisfied();
+
+        String body = mock.getReceivedExchanges().get(0).getIn().getBody(String.class);
+        assertEquals(10, body.length());
+        for (int i = 0; i < 10; i++) {
+            assertTrue("Should contain " + i, body.contains("" + i));
+        }
+    }
+
+    public void testSplitParallelTimeoutSharesTimeoutThread() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:timeout");
+        mock.expectedMessageCount(5);
+        mock.allMessages().body().isEqualTo("0123456789");
+
+        List<Future<Object>> futures = new ArrayList<Future<Object>>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(template.asyncSendBody("direct:timeout", "0,1,2,3,4,5,6,7,8,9"));
+        }
+        for (Future<Object> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+
+        assertMockEndpointsSatisfied();
+
+        // the timeout is scheduled so the exchanges do not each have a thread waiting for the timeout
+        int timeoutThreads = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().contains("Splitter-AggregateTask")) {
+                timeoutThreads++;
+            }
+        }
+        assertTrue("Should share the timeout thread, was: " + timeoutThreads, timeoutThreads <= 1);
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                Processor delay = new Processor() {
+                    public void process(Exchange exchange) throws Exception {
+                        // the first tasks completes last
+                        int number = exchange.getIn().getBody(Integer.class);
+                        Thread.sleep((10 - number) * 20);
+                    }
+                };
+
+                from("direct:start")
+                    .split(body().tokenize(","), new MyAggregationStrategy()).parallelProcessing()
+                        .process(delay)
+                    .end()
+                    .to("mock:result");
+
+                from("direct:streaming")
+                    .split(body().tokenize(","), new MyAggregationStrategy()).parallelProcessing().streaming()
+                        .process(delay)
+                    .end()
+                    .to("mock:streaming");
+
+                from("direct:timeout")
+                    .split(body().tokenize(","), new MyAggregationStrategy()).parallelProcessing().timeout(10000)
+                        .process(delay)
+                    .end()
+                    .to("mock:timeout");
+            }
+        };
+    }
+
+    private class MyAggregationStrategy implements AggregationStrategy {
+
+        public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+            aggregateThreadName = Thread.currentThread().getName();
+            if (oldExchange == null) {
+                return newExchange;
+            }
+
+            String body = oldExchange.getIn().getBody(String.class);
+            oldExchange.getIn().setBody(body + newExchange.getIn().getBody(String.class));
+            return oldExchange;
+        }
+    }
+
+}
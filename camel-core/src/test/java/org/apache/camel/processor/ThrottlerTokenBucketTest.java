@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+/**
+ * @version 
+ */
+public class ThrottlerTokenBucketTest extends ContextTestSupport {
+    private static final int INTERVAL = 500;
+    private static final int MESSAGE_COUNT = 5;
+
+    public void testTokenBucket() throws Exception {
+        assertThrottled("direct:a");
+
+        Throttler throttler = (Throttler) context.getProcessor("throttlerA");
+        assertEquals(MESSAGE_COUNT, throttler.getAcquiredCount());
+        assertEquals(0, throttler.getRejectedCount());
+        assertEquals(0, throttler.getWaitingCount());
+    }
+
+    public void testTokenBucketAsyncDelayed() throws Exception {
+        assertThrottled("direct:b");
+
+        Throttler throttler = (Throttler) context.getProcessor("throttlerB");
+        assertEquals(MESSAGE_COUNT, throttler.getAcquiredCount());
+        assertEquals(0, throttler.getWaitingCount());
+    }
+
+    public void testTokenBucketRejectExecution() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(2);
+        getMockEndpoint("mock:error").expectedMessageCount(4);
+
+        for (int i = 0; i < 6; i++) {
+            template.sendBody("direct:c", "<message>" + i + "</message>");
+        }
+
+        assertMockEndpointsSatisfied();
+
+        Throttler throttler = (Throttler) context.getProcessor("throttlerC");
+        assertEquals(2, throttler.getAcquiredCount());
+        assertEquals(4, throttler.getRejectedCount());
+    }
+
+    public void testTokenBucketHighThrottleRate() throws Exception {
+        int messageCount = 20000;
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedMessageCount(messageCount);
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        long start = System.currentTimeMillis();
+        try {
+            for (int i = 0; i < messageCount; i++) {
+                executor.execute(new Runnable() {
+                    public void run() {
+                        template.sendBody("direct:d", "<message>payload</message>");
+                    }
+                });
+            }
+            assertMockEndpointsSatisfied();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 1000 per 500 millis, where the first 1000 messages are let through at once
+        long elapsed = System.currentTimeMillis() - start;
+        assertTrue("Should take at least 9000ms, was: " + elapsed, elapsed >= 9000);
+    }
+
+    private void assertThrottled(final String uri) throws Exception {
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedMessageCount(MESSAGE_COUNT);
+
+        ExecutorService executor = Executors.newFixedThreadPool(MESSAGE_COUNT);
+        long start = System.currentTimeMillis();
+        try {
+            for (int i = 0; i < MESSAGE_COUNT; i++) {
+                executor.execute(new Runnable() {
+                    public void run() {
+                        template.sendBody(uri, "<message>payload</message>");
+                    }
+                });
+            }
+            assertMockEndpointsSatisfied();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // the first message is let through at once, and then one per interval (add a little slack)
+        long elapsed = System.currentTimeMillis() - start + 50;
+        long minimum = (MESSAGE_COUNT - 1) * INTERVAL;
+        assertTrue("Should take at least " + minimum + "ms, was: " + elapsed, elapsed >= minimum);
+    }
+
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            public void configure() {
+                onException(ThrottlerRejectedExecutionException.class)
+                    .handled(true)
+                    .to("mock:error");
+
+                from("direct:a").throttle(1).timePeriodMillis(INTERVAL).tokenBucket(true).id("throttlerA")
+                    .to("log:result", "mock:result");
+
+                from("direct:b").throttle(1).timePeriodMillis(INTERVAL).tokenBucket(true).asyncDelayed().id("throttlerB")
+                    .to("log:result", "mock:result");
+
+                from("direct:c").throttle(2).timePeriodMillis(10000).tokenBucket(true).rejectExecution(true).id("throttlerC")
+                    .to("log:result", "mock:result");
+
+                from("direct:d").throttle(1000).timePeriodMillis(INTERVAL).tokenBucket(true)
+                    .to("mock:result");
+            }
+        };
+    }
+}
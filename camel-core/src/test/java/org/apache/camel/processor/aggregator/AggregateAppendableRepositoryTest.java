@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.processor.BodyInAggregatingStrategy;
+import org.apache.camel.processor.aggregate.MemoryAggregationRepository;
+import org.apache.camel.spi.AppendableAggregationRepository;
+
+/**
+ * @version
+ */
+public class AggregateAppendableRepositoryTest extends ContextTestSupport {
+
+    private MyAppendableRepository repo = new MyAppendableRepository();
+
+    public void testAppend() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceived("A+B+C");
+
+        template.sendBodyAndHeader("direct:start", "A", "id", 123);
+        template.sendBodyAndHeader("direct:start", "B", "id", 123);
+        template.sendBodyAndHeader("direct:start", "C", "id", 123);
+
+        assertMockEndpointsSatisfied();
+
+        // the last exchange completes the group and is therefore not appended
+        assertEquals(2, repo.deltas.size());
+        assertEquals("A", repo.deltas.get(0));
+        assertEquals("B", repo.deltas.get(1));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .aggregate(header("id"), new BodyInAggregatingStrategy()).aggregationRepository(repo).completionSize(3)
+                        .to("mock:result");
+            }
+        };
+    }
+
+    private static final class MyAppendableRepository extends MemoryAggregationRepository implements AppendableAggregationRepository {
+
+        private final List<String> deltas = new ArrayList<String>();
+
+        @Override
+        public boolean isDeltaAppend() {
+            return true;
+        }
+
+        @Override
+        public Exchange append(CamelContext camelContext, String key, Exchange aggregated, Exchange newExchange) {
+            deltas.add(newExchange.getIn().getBody(String.class));
+            return add(camelContext, key, aggregated);
+        }
+    }
+}
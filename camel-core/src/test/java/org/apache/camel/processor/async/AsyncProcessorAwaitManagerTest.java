@@ -46,6 +46,15 @@ public class AsyncProcessorAwaitManagerTest extends ContextTestSupport {
         assertEquals(0, context.getAsyncProcessorAwaitManager().size());
         assertEquals(1, context.getAsyncProcessorAwaitManager().getStatistics().getThreadsBlocked());
         assertEquals(0, context.getAsyncProcessorAwaitManager().getStatistics().getThreadsInterrupted());
+
+        Collection<AsyncProcessorAwaitManager.RouteStatistics> routes = context.getAsyncProcessorAwaitManager().getStatistics().getRouteStatistics();
+        assertEquals(1, routes.size());
+        AsyncProcessorAwaitManager.RouteStatistics route = routes.iterator().next();
+        assertEquals("myRoute", route.getRouteId());
+        assertEquals(1, route.getThreadsBlocked());
+
+        context.getAsyncProcessorAwaitManager().getStatistics().reset();
+        assertEquals(0, context.getAsyncProcessorAwaitManager().getStatistics().getRouteStatistics().size());
     }
 
     @Override
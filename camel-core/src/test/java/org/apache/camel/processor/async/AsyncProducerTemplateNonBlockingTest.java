@@ -0,0 +1,175 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.support.CompletableFutureSynchronization;
+import org.apache.camel.support.SynchronizationAdapter;
+
+/**
+ * @version 
+ */
+public class AsyncProducerTemplateNonBlockingTest extends ContextTestSupport {
+
+    private String beforeThreadName;
+    private String afterThreadName;
+    private volatile String onCompletionThreadName;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        context.getAsyncProcessorAwaitManager().getStatistics().setStatisticsEnabled(true);
+        template.setAsyncNonBlocking(true);
+    }
+
+    public void testCompletableRequestBody() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceived("Bye Camel");
+
+        CompletableFuture<String> future = template.completableRequestBody("direct:start", "Hello Camel", String.class);
+        assertEquals("Bye Camel", future.get(10, TimeUnit.SECONDS));
+
+        assertMockEndpointsSatisfied();
+
+        // the routing was continued asynchronously without blocking any thread
+        assertFalse("Should use different threads", beforeThreadName.equalsIgnoreCase(afterThreadName));
+        assertEquals(0, context.getAsyncProcessorAwaitManager().getStatistics().getThreadsBlocked());
+        assertEquals(0, context.getAsyncProcessorAwaitManager().getStatistics().getRouteStatistics().size());
+    }
+
+    public void testCompletableSendContinuation() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceived("Bye Camel");
+
+        CompletableFuture<String> future = template.completableSend("direct:start", new Processor() {
+            public void process(Exchange exchange) throws Exception {
+                exchange.getIn().setBody("Hello Camel");
+            }
+        }).thenApply(new Function<Exchange, String>() {
+            public String apply(Exchange exchange) {
+                return exchange.getIn().getBody(String.class) + "!";
+            }
+        });
+        assertEquals("Bye Camel!", future.get(10, TimeUnit.SECONDS));
+
+        assertMockEndpointsSatisfied();
+        assertEquals(0, context.getAsyncProcessorAwaitManager().getStatistics().getThreadsBlocked());
+    }
+
+    public void testCompletableRequestBodyFailed() throws Exception {
+        CompletableFuture<Object> future = template.completableRequestBody("direct:fail", "Hello Camel");
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            fail("Should have thrown exception");
+        } catch (ExecutionException e) {
+            CamelExecutionException cause = assertIsInstanceOf(CamelExecutionException.class, e.getCause());
+            assertTrue(cause.getCause().getMessage().startsWith("Simulated error at attempt 1"));
+        }
+        assertEquals(0, context.getAsyncProcessorAwaitManager().getStatistics().getThreadsBlocked());
+    }
+
+    public void testAsyncCallbackOnCompletionThread() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceived("Bye Camel");
+
+        Future<Object> future = template.asyncCallbackRequestBody("direct:start", "Hello Camel", new SynchronizationAdapter() {
+            @Override
+            public void onDone(Exchange exchange) {
+                onCompletionThreadName = Thread.currentThread().getName();
+            }
+        });
+        assertEquals("Bye Camel", future.get(10, TimeUnit.SECONDS));
+
+        assertMockEndpointsSatisfied();
+
+        // the callback is invoked by the thread which completed the exchange
+        assertEquals(afterThreadName, onCompletionThreadName);
+        assertEquals(0, context.getAsyncProcessorAwaitManager().getStatistics().getThreadsBlocked());
+    }
+
+    public void testCompletableFutureSynchronization() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceived("Bye Camel");
+
+        // the default completable methods of ProducerTemplate complete the future from the async callback methods
+        CompletableFutureSynchronization<String> sync = CompletableFutureSynchronization.forBody(ExchangePattern.InOut, String.class);
+        template.asyncCallbackRequestBody("direct:start", "Hello Camel", sync);
+        assertEquals("Bye Camel", sync.getFuture().get(10, TimeUnit.SECONDS));
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testCompletableFutureSynchronizationFailed() throws Exception {
+        CompletableFutureSynchronization<Object> sync = CompletableFutureSynchronization.forBody(ExchangePattern.InOut, Object.class);
+        template.asyncCallbackRequestBody("direct:fail", "Hello Camel", sync);
+        try {
+            sync.getFuture().get(10, TimeUnit.SECONDS);
+            fail("Should have thrown exception");
+        } catch (ExecutionException e) {
+            CamelExecutionException cause = assertIsInstanceOf(CamelExecutionException.class, e.getCause());
+            assertTrue(cause.getCause().getMessage().startsWith("Simulated error at attempt 1"));
+        }
+    }
+
+    public void testCompletableFutureSynchronizationExchangeFailed() throws Exception {
+        // the exchange is the result when sending an exchange, with the exception stored on the exchange
+        CompletableFutureSynchronization<Exchange> exchangeSync = CompletableFutureSynchronization.forExchange();
+        template.asyncCallback("direct:fail", new Processor() {
+            public void process(Exchange exchange) throws Exception {
+                exchange.getIn().setBody("Hello Camel");
+            }
+        }, exchangeSync);
+        Exchange answer = exchangeSync.getFuture().get(10, TimeUnit.SECONDS);
+        assertTrue(answer.isFailed());
+        assertTrue(answer.getException().getMessage().startsWith("Simulated error at attempt 1"));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                context.addComponent("async", new MyAsyncComponent());
+
+                from("direct:start")
+                        .process(new Processor() {
+                            public void process(Exchange exchange) throws Exception {
+                                beforeThreadName = Thread.currentThread().getName();
+                            }
+                        })
+                        .to("async:bye:camel")
+                        .process(new Processor() {
+                            public void process(Exchange exchange) throws Exception {
+                                afterThreadName = Thread.currentThread().getName();
+                            }
+                        })
+                        .to("mock:result");
+
+                from("direct:fail")
+                        .to("async:bye:camel?failFirstAttempts=1");
+            }
+        };
+    }
+
+}
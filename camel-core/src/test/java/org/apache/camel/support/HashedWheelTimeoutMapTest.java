@@ -0,0 +1,266 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import junit.framework.TestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @version 
+ */
+public class HashedWheelTimeoutMapTest extends TestCase {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HashedWheelTimeoutMapTest.class);
+    private ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(1);
+
+    @Override
+    protected void tearDown() throws Exception {
+        executor.shutdownNow();
+        super.tearDown();
+    }
+
+    public void testWheelSize() throws Exception {
+        assertEquals(512, new HashedWheelTimeoutMap<String, Integer>(executor).getWheelSize());
+        assertEquals(8, new HashedWheelTimeoutMap<String, Integer>(executor, 100, true, 5).getWheelSize());
+        assertEquals(8, new HashedWheelTimeoutMap<String, Integer>(executor, 100, true, 8).getWheelSize());
+    }
+
+    public void testPurge() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 100);
+        map.start();
+        assertEquals(0, map.size());
+
+        map.put("A", 123, 50);
+        assertEquals(1, map.size());
+
+        Thread.sleep(250);
+        if (map.size() > 0) {
+            LOG.warn("Waiting extra due slow CI box");
+            Thread.sleep(1000);
+        }
+
+        assertEquals(0, map.size());
+
+        map.stop();
+    }
+
+    public void testGetRemove() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 100);
+        map.start();
+
+        map.put("A", 123, 50);
+        assertEquals(1, map.size());
+        assertEquals(123, (int) map.get("A"));
+
+        assertEquals(123, (int) map.put("A", 456, 50));
+        assertEquals(456, (int) map.putIfAbsent("A", 789, 50));
+        assertEquals(1, map.size());
+
+        Object old = map.remove("A");
+        assertEquals(456, old);
+        assertEquals(null, map.get("A"));
+        assertEquals(0, map.size());
+        assertEquals(0, map.getKeys().length);
+
+        map.stop();
+    }
+
+    public void testExpiredInCorrectOrder() throws Exception {
+        final List<String> keys = new ArrayList<String>();
+        final List<Integer> values = new ArrayList<Integer>();
+
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 100) {
+            @Override
+            public boolean onEviction(String key, Integer value) {
+                keys.add(key);
+                values.add(value);
+                return true;
+            }
+        };
+        // do not start so we control the purging
+        map.put("A", 1, 50);
+        map.put("B", 2, 30);
+        map.put("C", 3, 40);
+        map.put("D", 4, 20);
+        map.put("E", 5, 40);
+        // is not expired
+        map.put("F", 6, 800);
+
+        Thread.sleep(250);
+
+        // force purge
+        map.purge();
+
+        assertEquals(5, keys.size());
+        assertEquals("D", keys.get(0));
+        assertEquals(4, values.get(0).intValue());
+        assertEquals("B", keys.get(1));
+        assertEquals(2, values.get(1).intValue());
+        assertEquals("C", keys.get(2));
+        assertEquals(3, values.get(2).intValue());
+        assertEquals("E", keys.get(3));
+        assertEquals(5, values.get(3).intValue());
+        assertEquals("A", keys.get(4));
+        assertEquals(1, values.get(4).intValue());
+
+        assertEquals(1, map.size());
+    }
+
+    public void testExpiredNotEvicted() throws Exception {
+        final List<String> keys = new ArrayList<String>();
+
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 100) {
+            @Override
+            public boolean onEviction(String key, Integer value) {
+                // do not evict special key
+                if ("gold".equals(key)) {
+                    return false;
+                }
+                keys.add(key);
+                return true;
+            }
+        };
+        map.put("A", 1, 90);
+        map.put("gold", 9, 110);
+        map.put("C", 3, 120);
+
+        Thread.sleep(250);
+        map.purge();
+
+        assertEquals(2, keys.size());
+        assertEquals("A", keys.get(0));
+        assertEquals("C", keys.get(1));
+
+        // and keep the gold in the map, which is tried again
+        assertEquals(1, map.size());
+        Thread.sleep(250);
+        map.purge();
+        assertEquals(Integer.valueOf(9), map.get("gold"));
+    }
+
+    public void testRemovedNotEvicted() throws Exception {
+        final List<String> keys = new ArrayList<String>();
+
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 50) {
+            @Override
+            public boolean onEviction(String key, Integer value) {
+                keys.add(key);
+                return true;
+            }
+        };
+        for (int i = 0; i < 1000; i++) {
+            map.put("" + i, i, 50 + i % 100);
+        }
+        // add them to the wheel
+        map.purge();
+        for (int i = 0; i < 1000; i += 2) {
+            map.remove("" + i);
+        }
+        assertEquals(500, map.size());
+
+        Thread.sleep(300);
+        map.purge();
+
+        assertEquals(0, map.size());
+        assertEquals(500, keys.size());
+        for (String key : keys) {
+            assertTrue("Should only evict odd keys", Integer.parseInt(key) % 2 == 1);
+        }
+    }
+
+    public void testExpireBeyondWheelSpan() throws Exception {
+        final List<String> keys = new ArrayList<String>();
+
+        // a wheel spanning 4 x 20 millis
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 20, true, 4) {
+            @Override
+            public boolean onEviction(String key, Integer value) {
+                keys.add(key);
+                return true;
+            }
+        };
+        map.start();
+
+        map.put("A", 1, 300);
+        Thread.sleep(150);
+        assertEquals(1, map.size());
+        assertEquals(0, keys.size());
+
+        Thread.sleep(400);
+        if (map.size() > 0) {
+            LOG.warn("Waiting extra due slow CI box");
+            Thread.sleep(1000);
+        }
+        assertEquals(0, map.size());
+        assertEquals(1, keys.size());
+
+        map.stop();
+    }
+
+    public void testGetUpdatesExpireTime() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 50);
+        map.put("A", 1, 200);
+        map.purge();
+
+        // keep the entry alive by accessing it
+        for (int i = 0; i < 5; i++) {
+            Thread.sleep(100);
+            assertEquals(Integer.valueOf(1), map.get("A"));
+            map.purge();
+        }
+        assertEquals(1, map.size());
+
+        Thread.sleep(300);
+        map.purge();
+        assertEquals(0, map.size());
+    }
+
+    public void testStopStart() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 100);
+        map.start();
+        map.put("A", 1, 500);
+
+        assertEquals(1, map.size());
+        map.stop();
+
+        assertEquals(0, map.size());
+        map.put("A", 1, 50);
+
+        // should not timeout as the scheduler doesn't run
+        Thread.sleep(250);
+        assertEquals(1, map.size());
+
+        map.start();
+
+        Thread.sleep(250);
+        if (map.size() > 0) {
+            LOG.warn("Waiting extra due slow CI box");
+            Thread.sleep(1000);
+        }
+        // now it should be gone
+        assertEquals(0, map.size());
+
+        map.stop();
+    }
+
+}
@@ -0,0 +1,150 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+/**
+ * @version 
+ */
+public class CopyOnWriteCaseInsensitiveMapTest extends TestCase {
+
+    public void testLookupCaseAgnostic() {
+        Map<String, Object> map = new CopyOnWriteCaseInsensitiveMap();
+        map.put("foo", "cheese");
+
+        assertEquals("cheese", map.get("foo"));
+        assertEquals("cheese", map.get("Foo"));
+        assertEquals("cheese", map.get("FOO"));
+    }
+
+    public void testCopySharesUntilModified() {
+        CopyOnWriteCaseInsensitiveMap map = new CopyOnWriteCaseInsensitiveMap();
+        map.put("foo", "cheese");
+        assertFalse(map.isShared());
+
+        CopyOnWriteMap<String, Object> copy = map.copy();
+        assertTrue(map.isShared());
+        assertTrue(copy.isShared());
+        assertEquals("cheese", copy.get("FOO"));
+        assertEquals(map, copy);
+
+        copy.put("bar", "beer");
+        assertFalse(copy.isShared());
+        assertEquals(2, copy.size());
+        assertEquals(1, map.size());
+        assertNull(map.get("bar"));
+
+        map.put("foo", "wine");
+        assertFalse(map.isShared());
+        assertEquals("wine", map.get("foo"));
+        assertEquals("cheese", copy.get("foo"));
+    }
+
+    public void testRemoveAndClearDoNotAffectCopy() {
+        CopyOnWriteCaseInsensitiveMap map = new CopyOnWriteCaseInsensitiveMap();
+        map.put("foo", "cheese");
+        map.put("bar", "beer");
+
+        CopyOnWriteMap<String, Object> copy = map.copy();
+
+        // removing an unknown key should not copy the storage
+        assertNull(copy.remove("baz"));
+        assertTrue(copy.isShared());
+
+        assertEquals("beer", copy.remove("BAR"));
+        assertEquals(1, copy.size());
+        assertEquals(2, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(1, copy.size());
+        assertEquals("cheese", copy.get("foo"));
+    }
+
+    public void testModifyViaEntrySetDoesNotAffectCopy() {
+        CopyOnWriteCaseInsensitiveMap map = new CopyOnWriteCaseInsensitiveMap();
+        map.put("foo", "cheese");
+        map.put("bar", "beer");
+
+        CopyOnWriteMap<String, Object> copy = map.copy();
+
+        Iterator<Map.Entry<String, Object>> it = copy.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Object> entry = it.next();
+            if ("foo".equals(entry.getKey())) {
+                it.remove();
+            } else {
+                entry.setValue("wine");
+            }
+        }
+
+        assertEquals(1, copy.size());
+        assertEquals("wine", copy.get("bar"));
+        assertEquals(2, map.size());
+        assertEquals("cheese", map.get("foo"));
+        assertEquals("beer", map.get("bar"));
+    }
+
+    public void testIterateDoesNotCopy() {
+        CopyOnWriteCaseInsensitiveMap map = new CopyOnWriteCaseInsensitiveMap();
+        map.put("foo", "cheese");
+        map.put("bar", "beer");
+
+        CopyOnWriteMap<String, Object> copy = map.copy();
+
+        int count = 0;
+        for (Map.Entry<String, Object> entry : copy.entrySet()) {
+            assertNotNull(entry.getValue());
+            count++;
+        }
+        for (String key : copy.keySet()) {
+            assertNotNull(copy.get(key));
+        }
+        assertEquals(2, count);
+        assertEquals(2, copy.values().size());
+        assertTrue(copy.keySet().contains("FOO"));
+        assertTrue(copy.isShared());
+
+        assertTrue(copy.keySet().remove("foo"));
+        assertFalse(copy.isShared());
+        assertEquals(1, copy.size());
+        assertEquals(2, map.size());
+    }
+
+    public void testShareFrom() {
+        CopyOnWriteCaseInsensitiveMap map = new CopyOnWriteCaseInsensitiveMap();
+        map.put("foo", "cheese");
+
+        CopyOnWriteCaseInsensitiveMap other = new CopyOnWriteCaseInsensitiveMap();
+        other.put("bar", "beer");
+        other.shareFrom(map);
+
+        assertTrue(map.isShared());
+        assertTrue(other.isShared());
+        assertEquals(1, other.size());
+        assertEquals("cheese", other.get("FOO"));
+
+        other.put("bar", "beer");
+        assertEquals(2, other.size());
+        assertEquals(1, map.size());
+    }
+
+}
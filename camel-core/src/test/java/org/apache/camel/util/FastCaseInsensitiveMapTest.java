@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+/**
+ * @version 
+ */
+public class FastCaseInsensitiveMapTest extends TestCase {
+
+    public void testLookupCaseAgnostic() {
+        Map<String, Object> map = new FastCaseInsensitiveMap();
+        assertNull(map.get("foo"));
+
+        map.put("foo", "cheese");
+
+        assertEquals("cheese", map.get("foo"));
+        assertEquals("cheese", map.get("Foo"));
+        assertEquals("cheese", map.get("FOO"));
+        assertTrue(map.containsKey("fOO"));
+        assertNull(map.get("unknown"));
+        assertNull(map.get(null));
+        assertNull(map.get(123));
+    }
+
+    public void testPutReplacesAndKeepsFirstKey() {
+        Map<String, Object> map = new FastCaseInsensitiveMap();
+        assertNull(map.put("Foo", "cheese"));
+        assertEquals("cheese", map.put("FOO", "beer"));
+
+        assertEquals(1, map.size());
+        assertEquals("beer", map.get("foo"));
+        assertEquals("Foo", map.keySet().iterator().next());
+    }
+
+    public void testRemove() {
+        Map<String, Object> map = new FastCaseInsensitiveMap();
+        map.put("foo", "cheese");
+        map.put("bar", "beer");
+
+        assertEquals("cheese", map.remove("FOO"));
+        assertNull(map.remove("foo"));
+        assertEquals(1, map.size());
+        assertNull(map.get("foo"));
+        assertEquals("beer", map.get("BAR"));
+
+        map.put("Foo", "wine");
+        assertEquals(2, map.size());
+        assertEquals("wine", map.get("foo"));
+    }
+
+    public void testManyPutsAndRemoves() {
+        Map<String, Object> map = new FastCaseInsensitiveMap();
+        for (int i = 0; i < 1000; i++) {
+            map.put("key" + i, i);
+            if (i % 3 == 0) {
+                map.remove("KEY" + i);
+            }
+        }
+        assertEquals(666, map.size());
+        for (int i = 0; i < 1000; i++) {
+            if (i % 3 == 0) {
+                assertNull(map.get("Key" + i));
+            } else {
+                assertEquals(i, map.get("Key" + i));
+            }
+        }
+
+        // repeatedly add and remove to fill up the table with removed slots
+        for (int i = 0; i < 10000; i++) {
+            map.put("temp", i);
+            map.remove("TEMP");
+        }
+        assertEquals(666, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get("key1"));
+    }
+
+    public void testIteratorRemove() {
+        Map<String, Object> map = new FastCaseInsensitiveMap();
+        map.put("foo", "cheese");
+        map.put("bar", "beer");
+        map.put("baz", "wine");
+
+        Iterator<Map.Entry<String, Object>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Object> entry = it.next();
+            if ("bar".equals(entry.getKey())) {
+                it.remove();
+            } else {
+                entry.setValue(entry.getValue() + "!");
+            }
+        }
+
+        assertEquals(2, map.size());
+        assertNull(map.get("bar"));
+        assertEquals("cheese!", map.get("FOO"));
+        assertEquals("wine!", map.get("BAZ"));
+    }
+
+    public void testCopyAndEquals() {
+        Map<String, Object> source = new HashMap<String, Object>();
+        source.put("foo", "cheese");
+        source.put("bar", 123);
+
+        Map<String, Object> map = new FastCaseInsensitiveMap(source);
+        assertEquals(source, map);
+        assertEquals(new CaseInsensitiveMap(source), map);
+        assertEquals(source.hashCode(), map.hashCode());
+    }
+
+    public void testSerialization() throws Exception {
+        Map<String, Object> map = new FastCaseInsensitiveMap();
+        map.put("foo", "cheese");
+        map.put("bar", 123);
+        map.put("temp", "x");
+        map.remove("temp");
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bos);
+        out.writeObject(map);
+        out.close();
+
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> copy = (Map<String, Object>) in.readObject();
+        in.close();
+
+        assertEquals(2, copy.size());
+        assertEquals("cheese", copy.get("FOO"));
+        assertEquals(123, copy.get("Bar"));
+        assertNull(copy.get("temp"));
+    }
+
+}
@@ -0,0 +1,187 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+
+/**
+ * @version 
+ */
+public class RingBufferBlockingQueueTest extends TestCase {
+
+    public void testOfferAndPoll() throws Exception {
+        RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<String>(3);
+        assertEquals(4, queue.getCapacity());
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+
+        assertTrue(queue.offer("A"));
+        assertTrue(queue.offer("B"));
+        assertTrue(queue.offer("C"));
+        assertTrue(queue.offer("D"));
+        assertFalse(queue.offer("E"));
+        assertFalse(queue.offer("E", 10, TimeUnit.MILLISECONDS));
+        assertEquals(4, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+
+        assertEquals("A", queue.peek());
+        assertEquals("A", queue.poll());
+        assertEquals("B", queue.poll(10, TimeUnit.MILLISECONDS));
+        assertTrue(queue.offer("E"));
+        assertEquals("C", queue.take());
+        assertEquals("D", queue.poll());
+        assertEquals("E", queue.poll());
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        assertTrue(queue.isEmpty());
+    }
+
+    public void testDrainTo() throws Exception {
+        RingBufferBlockingQueue<Integer> queue = new RingBufferBlockingQueue<Integer>(16);
+        for (int i = 0; i < 10; i++) {
+            queue.put(i);
+        }
+
+        List<Integer> list = new ArrayList<Integer>();
+        assertEquals(4, queue.drainTo(list, 4));
+        assertEquals(6, queue.size());
+        assertEquals(6, queue.drainTo(list));
+        assertEquals(0, queue.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i), list.get(i));
+        }
+    }
+
+    public void testRemoveAndIterator() throws Exception {
+        RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<String>(8);
+        queue.offer("A");
+        queue.offer("B");
+        queue.offer("C");
+
+        assertTrue(queue.contains("B"));
+        assertTrue(queue.remove("B"));
+        assertFalse(queue.remove("B"));
+        assertFalse(queue.contains("B"));
+
+        Iterator<String> it = queue.iterator();
+        assertEquals("A", it.next());
+        it.remove();
+        assertEquals("C", it.next());
+        assertFalse(it.hasNext());
+
+        // the removed elements are skipped
+        assertEquals("C", queue.peek());
+        assertEquals("C", queue.poll());
+        assertNull(queue.poll());
+
+        queue.offer("D");
+        queue.clear();
+        assertTrue(queue.isEmpty());
+    }
+
+    public void testBlockingPutAndTake() throws Exception {
+        final RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<String>(1);
+        assertEquals(2, queue.getCapacity());
+        queue.put("A");
+        queue.put("Z");
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        Thread producer = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    // blocks until the consumer has taken A
+                    queue.put("B");
+                    latch.countDown();
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+            }
+        });
+        producer.start();
+
+        assertFalse(latch.await(100, TimeUnit.MILLISECONDS));
+        assertEquals("A", queue.take());
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals("Z", queue.take());
+        assertEquals("B", queue.take());
+        producer.join();
+    }
+
+    public void testConcurrentProducersAndConsumers() throws Exception {
+        final RingBufferBlockingQueue<Long> queue = new RingBufferBlockingQueue<Long>(64);
+        final int producers = 4;
+        final int consumers = 4;
+        final int messages = 20000;
+        final AtomicLong sum = new AtomicLong();
+        final CountDownLatch done = new CountDownLatch(producers * messages);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+        for (int i = 0; i < consumers; i++) {
+            executor.submit(new Runnable() {
+                public void run() {
+                    List<Long> batch = new ArrayList<Long>();
+                    try {
+                        while (true) {
+                            Long value = queue.poll(100, TimeUnit.MILLISECONDS);
+                            if (value != null) {
+                                batch.add(value);
+                                queue.drainTo(batch, 8);
+                                for (Long v : batch) {
+                                    sum.addAndGet(v);
+                                    done.countDown();
+                                }
+                                batch.clear();
+                            } else if (Thread.currentThread().isInterrupted()) {
+                                return;
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        // ignore
+                    }
+                }
+            });
+        }
+        for (int i = 0; i < producers; i++) {
+            executor.submit(new Runnable() {
+                public void run() {
+                    try {
+                        for (long j = 1; j <= messages; j++) {
+                            queue.put(j);
+                        }
+                    } catch (InterruptedException e) {
+                        // ignore
+                    }
+                }
+            });
+        }
+
+        assertTrue("Should consume all messages", done.await(30, TimeUnit.SECONDS));
+        executor.shutdownNow();
+        assertEquals(producers * ((long) messages * (messages + 1) / 2), sum.get());
+        assertTrue(queue.isEmpty());
+    }
+
+}
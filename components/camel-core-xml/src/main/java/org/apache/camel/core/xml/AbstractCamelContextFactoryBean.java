@@ -81,6 +81,7 @@ import org.apache.camel.spi.EventFactory;
 import org.apache.camel.spi.EventNotifier;
 import org.apache.camel.spi.ExecutorServiceManager;
 import org.apache.camel.spi.FactoryFinderResolver;
+import org.apache.camel.spi.HeadersMapFactory;
 import org.apache.camel.spi.InflightRepository;
 import org.apache.camel.spi.InterceptStrategy;
 import org.apache.camel.spi.LifecycleStrategy;
@@ -538,6 +539,18 @@ public abstract class AbstractCamelContextFactoryBean<T extends ModelCamelContex
         if (spoolChiper != null) {
             getContext().getStreamCachingStrategy().setSpoolChiper(spoolChiper);
         }
+        Integer bufferSize = CamelContextHelper.parseInteger(getContext(), streamCaching.getBufferSize());
+        if (bufferSize != null) {
+            getContext().getStreamCachingStrategy().setBufferSize(bufferSize);
+        }
+        Boolean bufferPoolEnabled = CamelContextHelper.parseBoolean(getContext(), streamCaching.getBufferPoolEnabled());
+        if (bufferPoolEnabled != null) {
+            getContext().getStreamCachingStrategy().setBufferPoolEnabled(bufferPoolEnabled);
+        }
+        Integer bufferPoolSize = CamelContextHelper.parseInteger(getContext(), streamCaching.getBufferPoolSize());
+        if (bufferPoolSize != null) {
+            getContext().getStreamCachingStrategy().setBufferPoolSize(bufferPoolSize);
+        }
         Boolean remove = CamelContextHelper.parseBoolean(getContext(), streamCaching.getRemoveSpoolDirectoryWhenStopping());
         if (remove != null) {
             getContext().getStreamCachingStrategy().setRemoveSpoolDirectoryWhenStopping(remove);
@@ -884,6 +897,7 @@ public abstract class AbstractCamelContextFactoryBean<T extends ModelCamelContex
         answer.setKeepAliveTime(CamelContextHelper.parseLong(context, definition.getKeepAliveTime()));
         answer.setMaxQueueSize(CamelContextHelper.parseInteger(context, definition.getMaxQueueSize()));
         answer.setAllowCoreThreadTimeOut(CamelContextHelper.parseBoolean(context, definition.getAllowCoreThreadTimeOut()));
+        answer.setVirtualThreads(CamelContextHelper.parseBoolean(context, definition.getVirtualThreads()));
         answer.setRejectedPolicy(definition.getRejectedPolicy());
         answer.setTimeUnit(definition.getTimeUnit());
         return answer;
@@ -1042,6 +1056,11 @@ public abstract class AbstractCamelContextFactoryBean<T extends ModelCamelContex
             LOG.info("Using custom UuidGenerator: {}", uuidGenerator);
             getContext().setUuidGenerator(uuidGenerator);
         }
+        HeadersMapFactory headersMapFactory = getBeanForType(HeadersMapFactory.class);
+        if (headersMapFactory != null) {
+            LOG.info("Using custom HeadersMapFactory: {}", headersMapFactory);
+            getContext().setHeadersMapFactory(headersMapFactory);
+        }
         NodeIdFactory nodeIdFactory = getBeanForType(NodeIdFactory.class);
         if (nodeIdFactory != null) {
             LOG.info("Using custom NodeIdFactory: {}", nodeIdFactory);
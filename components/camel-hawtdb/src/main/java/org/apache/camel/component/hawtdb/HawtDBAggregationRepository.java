@@ -59,6 +59,7 @@ public class HawtDBAggregationRepository extends ServiceSupport implements Recov
     private String deadLetterUri;
     
     private boolean allowSerializedHeaders;
+    private boolean useBinaryCodec;
 
     /**
      * Creates an aggregation repository
@@ -124,7 +125,7 @@ public class HawtDBAggregationRepository extends ServiceSupport implements Recov
             // in some cases.  But since we can't.. we are going to force
             // early marshaling.
             final Buffer keyBuffer = codec.marshallKey(key);
-            final Buffer exchangeBuffer = codec.marshallExchange(camelContext, exchange, allowSerializedHeaders);
+            final Buffer exchangeBuffer = codec.marshallExchange(camelContext, exchange, allowSerializedHeaders, useBinaryCodec);
             Buffer rc = hawtDBFile.execute(new Work<Buffer>() {
                 public Buffer execute(Transaction tx) {
                     SortedIndex<Buffer, Buffer> index = hawtDBFile.getRepositoryIndex(tx, repositoryName, true);
@@ -189,7 +190,7 @@ public class HawtDBAggregationRepository extends ServiceSupport implements Recov
         try {
             final Buffer keyBuffer = codec.marshallKey(key);
             final Buffer confirmKeyBuffer = codec.marshallKey(exchange.getExchangeId());
-            final Buffer exchangeBuffer = codec.marshallExchange(camelContext, exchange, allowSerializedHeaders);
+            final Buffer exchangeBuffer = codec.marshallExchange(camelContext, exchange, allowSerializedHeaders, useBinaryCodec);
             hawtDBFile.execute(new Work<Buffer>() {
                 public Buffer execute(Transaction tx) {
                     SortedIndex<Buffer, Buffer> index = hawtDBFile.getRepositoryIndex(tx, repositoryName, true);
@@ -484,6 +485,18 @@ public class HawtDBAggregationRepository extends ServiceSupport implements Recov
         this.allowSerializedHeaders = allowSerializedHeaders;
     }
 
+    public boolean isUseBinaryCodec() {
+        return useBinaryCodec;
+    }
+
+    /**
+     * Whether to store the exchanges using the compact {@link org.apache.camel.impl.BinaryExchangeCodec}
+     * instead of Java serialization. Exchanges stored in either format can always be read back.
+     */
+    public void setUseBinaryCodec(boolean useBinaryCodec) {
+        this.useBinaryCodec = useBinaryCodec;
+    }
+
     @Override
     protected void doStart() throws Exception {
         // either we have a HawtDB configured or we use a provided fileName
@@ -21,6 +21,7 @@ import java.io.IOException;
 import org.apache.camel.CamelContext;
 import org.apache.camel.Endpoint;
 import org.apache.camel.Exchange;
+import org.apache.camel.impl.BinaryExchangeCodec;
 import org.apache.camel.impl.DefaultExchange;
 import org.apache.camel.impl.DefaultExchangeHolder;
 import org.fusesource.hawtbuf.Buffer;
@@ -51,7 +52,10 @@ public final class HawtDBCamelCodec {
     }
 
     public Buffer marshallExchange(CamelContext camelContext, Exchange exchange, boolean allowSerializedHeaders) throws IOException {
-        DataByteArrayOutputStream baos = new DataByteArrayOutputStream();
+        return marshallExchange(camelContext, exchange, allowSerializedHeaders, false);
+    }
+
+    public Buffer marshallExchange(CamelContext camelContext, Exchange exchange, boolean allowSerializedHeaders, boolean useBinaryCodec) throws IOException {
         // use DefaultExchangeHolder to marshal to a serialized object
         DefaultExchangeHolder pe = DefaultExchangeHolder.marshal(exchange, false, allowSerializedHeaders);
         // add the aggregated size and timeout property as the only properties we want to retain
@@ -67,13 +71,27 @@ public final class HawtDBCamelCodec {
         if (exchange.getFromEndpoint() != null) {
             DefaultExchangeHolder.addProperty(pe, "CamelAggregatedFromEndpoint", exchange.getFromEndpoint().getEndpointUri());
         }
+        if (useBinaryCodec) {
+            // the binary format is told apart from the serialized format by its first byte
+            return new Buffer(BinaryExchangeCodec.encode(pe));
+        }
+        DataByteArrayOutputStream baos = new DataByteArrayOutputStream();
         exchangeCodec.encode(pe, baos);
         return baos.toBuffer();
     }
 
     public Exchange unmarshallExchange(CamelContext camelContext, Buffer buffer) throws IOException {
-        DataByteArrayInputStream bais = new DataByteArrayInputStream(buffer);
-        DefaultExchangeHolder pe = exchangeCodec.decode(bais);
+        DefaultExchangeHolder pe;
+        if (BinaryExchangeCodec.isBinaryEncoded(buffer.data, buffer.offset, buffer.length)) {
+            try {
+                pe = BinaryExchangeCodec.decode(camelContext, buffer.data, buffer.offset, buffer.length);
+            } catch (ClassNotFoundException e) {
+                throw new IOException(e);
+            }
+        } else {
+            DataByteArrayInputStream bais = new DataByteArrayInputStream(buffer);
+            pe = exchangeCodec.decode(bais);
+        }
         Exchange answer = new DefaultExchange(camelContext);
         DefaultExchangeHolder.unmarshal(answer, pe);
         // restore the from endpoint
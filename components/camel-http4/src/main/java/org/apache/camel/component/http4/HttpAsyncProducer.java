@@ -0,0 +1,334 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.http4;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.AsyncProcessor;
+import org.apache.camel.CamelExchangeException;
+import org.apache.camel.Exchange;
+import org.apache.camel.util.AsyncProcessorHelper;
+import org.apache.camel.util.IOHelper;
+import org.apache.camel.util.jsse.SSLContextParameters;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.ssl.SSLContexts;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A non-blocking {@link HttpProducer} which executes the requests using a {@link CloseableHttpAsyncClient}
+ * and continues routing the exchange when the response has been received, so no Camel thread is
+ * held while the request is in flight.
+ * <p/>
+ * The response is streamed into a {@link org.apache.camel.StreamCache} as it arrives. If the endpoint
+ * has <tt>maxConcurrentRequests</tt> configured then requests exceeding the limit are queued (without blocking
+ * the caller) and executed as soon as an in flight request completes. At most <tt>maxPendingRequests</tt>
+ * requests are queued, and any further requests fail with a {@link RejectedExecutionException}, as do the requests
+ * still queued when the producer is stopped.
+ * <p/>
+ * The response callbacks are invoked by the I/O dispatcher threads of the client, which must not be blocked,
+ * and therefore the exchange continues routing using a worker pool.
+ * <p/>
+ * This producer requires the <tt>org.apache.httpcomponents:httpasyncclient</tt> dependency, which is
+ * an optional dependency of this component.
+ */
+public class HttpAsyncProducer extends HttpProducer implements AsyncProcessor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HttpAsyncProducer.class);
+    private final BlockingQueue<PendingRequest> pending;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int maxConcurrentRequests;
+    private final int maxPendingRequests;
+    private CloseableHttpAsyncClient httpAsyncClient;
+    private boolean closeHttpAsyncClient;
+    private ExecutorService workerPool;
+    private boolean shutdownWorkerPool;
+
+    public HttpAsyncProducer(HttpEndpoint endpoint) {
+        super(endpoint);
+        this.maxConcurrentRequests = endpoint.getMaxConcurrentRequests();
+        this.maxPendingRequests = endpoint.getMaxPendingRequests();
+        this.pending = new LinkedBlockingQueue<PendingRequest>(maxPendingRequests > 0 ? maxPendingRequests : Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        AsyncProcessorHelper.process(this, exchange);
+    }
+
+    public boolean process(final Exchange exchange, final AsyncCallback callback) {
+        final HttpRequestBase httpRequest;
+        try {
+            httpRequest = createRequest(exchange);
+        } catch (Throwable e) {
+            exchange.setException(e);
+            callback.done(true);
+            return true;
+        }
+
+        if (maxConcurrentRequests <= 0) {
+            executeRequest(exchange, httpRequest, callback);
+            return false;
+        }
+
+        // queue the request and execute it when there is room for it
+        if (!pending.offer(new PendingRequest(exchange, httpRequest, callback))) {
+            exchange.setException(new RejectedExecutionException("Cannot execute http request as the maximum of "
+                    + maxPendingRequests + " pending requests has been reached"));
+            callback.done(true);
+            return true;
+        }
+        executePending();
+        return false;
+    }
+
+    /**
+     * Gets the number of requests currently in flight.
+     */
+    public int getInFlightRequests() {
+        return inFlight.get();
+    }
+
+    /**
+     * Gets the number of requests waiting for a free slot as <tt>maxConcurrentRequests</tt> has been reached.
+     */
+    public int getPendingRequests() {
+        return pending.size();
+    }
+
+    public CloseableHttpAsyncClient getHttpAsyncClient() {
+        return httpAsyncClient;
+    }
+
+    /**
+     * To use a custom non-blocking client instead of creating a client with its own connection pool.
+     */
+    public void setHttpAsyncClient(CloseableHttpAsyncClient httpAsyncClient) {
+        this.httpAsyncClient = httpAsyncClient;
+    }
+
+    public ExecutorService getWorkerPool() {
+        return workerPool;
+    }
+
+    /**
+     * To use a custom worker pool for continue routing the exchange when the response has been received.
+     */
+    public void setWorkerPool(ExecutorService workerPool) {
+        this.workerPool = workerPool;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        if (httpAsyncClient == null) {
+            httpAsyncClient = createHttpAsyncClient();
+            // we created the client so we should also close it
+            closeHttpAsyncClient = true;
+        }
+        if (!httpAsyncClient.isRunning()) {
+            httpAsyncClient.start();
+        }
+        if (workerPool == null) {
+            workerPool = getEndpoint().getCamelContext().getExecutorServiceManager().newDefaultThreadPool(this, "HttpAsyncProducer[" + getEndpoint().getEndpointUri() + "]");
+            // we create a thread pool so we should also shut it down
+            shutdownWorkerPool = true;
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        // fail the requests which has not been executed, as the callers are waiting for them to be done
+        PendingRequest request;
+        while ((request = pending.poll()) != null) {
+            LOG.debug("Rejecting pending http request as the producer is stopping: {}", request.exchange);
+            request.exchange.setException(new RejectedExecutionException("Cannot execute http request as the producer is stopping"));
+            request.callback.done(false);
+        }
+        if (closeHttpAsyncClient && httpAsyncClient != null) {
+            IOHelper.close(httpAsyncClient);
+            httpAsyncClient = null;
+            closeHttpAsyncClient = false;
+        }
+        if (shutdownWorkerPool && workerPool != null) {
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdown(workerPool);
+            workerPool = null;
+            shutdownWorkerPool = false;
+        }
+        super.doStop();
+    }
+
+    /**
+     * Factory method to create a new {@link CloseableHttpAsyncClient} instance with its own connection pool.
+     * <p/>
+     * Notice the {@link HttpClientConfigurer} is not applied as it configures a blocking
+     * {@link org.apache.http.impl.client.HttpClientBuilder}, so use a custom client if the client needs
+     * further configuration such as authentication.
+     */
+    protected CloseableHttpAsyncClient createHttpAsyncClient() throws GeneralSecurityException, IOException {
+        HttpEndpoint endpoint = getEndpoint();
+        HttpAsyncClientBuilder builder = HttpAsyncClientBuilder.create();
+
+        if (endpoint.isBridgeEndpoint()) {
+            // need to use noop cookiestore as we do not want to keep cookies in memory
+            builder.setDefaultCookieStore(new NoopCookieStore());
+        } else {
+            builder.setDefaultCookieStore(endpoint.getCookieStore());
+        }
+        if (endpoint.getNonBlockingMaxTotalConnections() > 0) {
+            builder.setMaxConnTotal(endpoint.getNonBlockingMaxTotalConnections());
+        }
+        if (endpoint.getNonBlockingConnectionsPerRoute() > 0) {
+            builder.setMaxConnPerRoute(endpoint.getNonBlockingConnectionsPerRoute());
+        }
+        if (endpoint.getNonBlockingIoThreadCount() > 0) {
+            builder.setDefaultIOReactorConfig(IOReactorConfig.custom().setIoThreadCount(endpoint.getNonBlockingIoThreadCount()).build());
+        }
+
+        HttpComponent component = endpoint.getComponent();
+        if (component != null) {
+            SSLContextParameters sslContextParameters = component.getSslContextParameters();
+            builder.setSSLContext(sslContextParameters != null ? sslContextParameters.createSSLContext() : SSLContexts.createDefault());
+            if (component.getX509HostnameVerifier() != null) {
+                builder.setSSLHostnameVerifier(component.getX509HostnameVerifier());
+            }
+        }
+
+        if (!endpoint.isUseSystemProperties()) {
+            // configure http proxy from camelContext
+            HttpHost proxy = endpoint.createCamelContextProxy();
+            if (proxy != null) {
+                builder.setProxy(proxy);
+            }
+        } else {
+            builder.useSystemProperties();
+        }
+
+        if (endpoint.isAuthenticationPreemptive()) {
+            // setup the PreemptiveAuthInterceptor here
+            builder.addInterceptorFirst(new PreemptiveAuthInterceptor());
+        }
+
+        LOG.debug("Setup the HttpAsyncClientBuilder {}", builder);
+        return builder.build();
+    }
+
+    private void executePending() {
+        while (!pending.isEmpty()) {
+            int current = inFlight.get();
+            if (current >= maxConcurrentRequests) {
+                // a completing request will execute the pending requests
+                return;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                PendingRequest request = pending.poll();
+                if (request != null) {
+                    executeRequest(request.exchange, request.httpRequest, request.callback);
+                } else {
+                    // another thread took the request so give back the slot
+                    inFlight.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void executeRequest(final Exchange exchange, final HttpRequestBase httpRequest, final AsyncCallback callback) {
+        if (maxConcurrentRequests <= 0) {
+            inFlight.incrementAndGet();
+        }
+        try {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Executing http {} method: {}", httpRequest.getMethod(), httpRequest.getURI().toString());
+            }
+            httpAsyncClient.execute(HttpAsyncMethods.create(httpRequest), new StreamCachingAsyncResponseConsumer(exchange),
+                createLocalContext(), new FutureCallback<HttpResponse>() {
+                    public void completed(HttpResponse httpResponse) {
+                        try {
+                            handleResponse(exchange, httpRequest, httpResponse);
+                        } catch (Throwable e) {
+                            exchange.setException(e);
+                        } finally {
+                            requestDone(callback);
+                        }
+                    }
+
+                    public void failed(Exception e) {
+                        exchange.setException(e);
+                        requestDone(callback);
+                    }
+
+                    public void cancelled() {
+                        exchange.setException(new CamelExchangeException("Http request cancelled", exchange));
+                        requestDone(callback);
+                    }
+                });
+        } catch (Throwable e) {
+            exchange.setException(e);
+            requestDone(callback);
+        }
+    }
+
+    private void requestDone(final AsyncCallback callback) {
+        // free the slot before continuing routing so a pending request can be executed
+        inFlight.decrementAndGet();
+        if (maxConcurrentRequests > 0) {
+            executePending();
+        }
+        // do not continue routing on the I/O dispatcher thread of the client
+        try {
+            workerPool.submit(new Runnable() {
+                public void run() {
+                    callback.done(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the worker pool is shutting down so continue routing from this thread
+            callback.done(false);
+        }
+    }
+
+    /**
+     * A request waiting for a free slot as <tt>maxConcurrentRequests</tt> has been reached.
+     */
+    private static final class PendingRequest {
+
+        private final Exchange exchange;
+        private final HttpRequestBase httpRequest;
+        private final AsyncCallback callback;
+
+        private PendingRequest(Exchange exchange, HttpRequestBase httpRequest, AsyncCallback callback) {
+            this.exchange = exchange;
+            this.httpRequest = httpRequest;
+            this.callback = callback;
+        }
+    }
+
+}
@@ -71,6 +71,18 @@ public class HttpEndpoint extends HttpCommonEndpoint {
     private boolean authenticationPreemptive;
     @UriParam(label = "producer", defaultValue = "true")
     private boolean clearExpiredCookies = true;
+    @UriParam(label = "producer")
+    private boolean nonBlocking;
+    @UriParam(label = "producer", defaultValue = "200")
+    private int nonBlockingMaxTotalConnections = 200;
+    @UriParam(label = "producer", defaultValue = "20")
+    private int nonBlockingConnectionsPerRoute = 20;
+    @UriParam(label = "producer,advanced")
+    private int nonBlockingIoThreadCount;
+    @UriParam(label = "producer")
+    private int maxConcurrentRequests;
+    @UriParam(label = "producer", defaultValue = "1000")
+    private int maxPendingRequests = 1000;
 
     public HttpEndpoint() {
     }
@@ -97,6 +109,9 @@ public class HttpEndpoint extends HttpCommonEndpoint {
     }
 
     public Producer createProducer() throws Exception {
+        if (isNonBlocking()) {
+            return new HttpAsyncProducer(this);
+        }
         return new HttpProducer(this);
     }
 
@@ -144,16 +159,8 @@ public class HttpEndpoint extends HttpCommonEndpoint {
 
         if (!useSystemProperties) {
             // configure http proxy from camelContext
-            if (ObjectHelper.isNotEmpty(getCamelContext().getProperty("http.proxyHost")) && ObjectHelper.isNotEmpty(getCamelContext().getProperty("http.proxyPort"))) {
-                String host = getCamelContext().getProperty("http.proxyHost");
-                int port = Integer.parseInt(getCamelContext().getProperty("http.proxyPort"));
-                String scheme = getCamelContext().getProperty("http.proxyScheme");
-                // fallback and use either http or https depending on secure
-                if (scheme == null) {
-                    scheme = HttpHelper.isSecureConnection(getEndpointUri()) ? "https" : "http";
-                }
-                LOG.debug("CamelContext properties http.proxyHost, http.proxyPort, and http.proxyScheme detected. Using http proxy host: {} port: {} scheme: {}", new Object[]{host, port, scheme});
-                HttpHost proxy = new HttpHost(host, port, scheme);
+            HttpHost proxy = createCamelContextProxy();
+            if (proxy != null) {
                 clientBuilder.setProxy(proxy);
             }
         } else {
@@ -179,6 +186,25 @@ public class HttpEndpoint extends HttpCommonEndpoint {
         return clientBuilder.build();
     }
 
+    /**
+     * Creates the http proxy to use if configured using the <tt>http.proxyHost</tt> and <tt>http.proxyPort</tt>
+     * properties on the {@link org.apache.camel.CamelContext}, or <tt>null</tt> if no proxy is configured.
+     */
+    protected HttpHost createCamelContextProxy() {
+        if (ObjectHelper.isNotEmpty(getCamelContext().getProperty("http.proxyHost")) && ObjectHelper.isNotEmpty(getCamelContext().getProperty("http.proxyPort"))) {
+            String host = getCamelContext().getProperty("http.proxyHost");
+            int port = Integer.parseInt(getCamelContext().getProperty("http.proxyPort"));
+            String scheme = getCamelContext().getProperty("http.proxyScheme");
+            // fallback and use either http or https depending on secure
+            if (scheme == null) {
+                scheme = HttpHelper.isSecureConnection(getEndpointUri()) ? "https" : "http";
+            }
+            LOG.debug("CamelContext properties http.proxyHost, http.proxyPort, and http.proxyScheme detected. Using http proxy host: {} port: {} scheme: {}", new Object[]{host, port, scheme});
+            return new HttpHost(host, port, scheme);
+        }
+        return null;
+    }
+
     @Override
     public HttpComponent getComponent() {
         return (HttpComponent) super.getComponent();
@@ -306,4 +332,74 @@ public class HttpEndpoint extends HttpCommonEndpoint {
     public void setUseSystemProperties(boolean useSystemProperties) {
         this.useSystemProperties = useSystemProperties;
     }
+
+    public boolean isNonBlocking() {
+        return nonBlocking;
+    }
+
+    /**
+     * Whether the producer should use a non-blocking HTTP client, which allows many requests to be in flight
+     * without holding a Camel thread for each of them. The response is cached as a stream cache as it arrives.
+     */
+    public void setNonBlocking(boolean nonBlocking) {
+        this.nonBlocking = nonBlocking;
+    }
+
+    public int getNonBlockingMaxTotalConnections() {
+        return nonBlockingMaxTotalConnections;
+    }
+
+    /**
+     * The maximum number of connections of the non-blocking client.
+     */
+    public void setNonBlockingMaxTotalConnections(int nonBlockingMaxTotalConnections) {
+        this.nonBlockingMaxTotalConnections = nonBlockingMaxTotalConnections;
+    }
+
+    public int getNonBlockingConnectionsPerRoute() {
+        return nonBlockingConnectionsPerRoute;
+    }
+
+    /**
+     * The maximum number of connections per route of the non-blocking client.
+     */
+    public void setNonBlockingConnectionsPerRoute(int nonBlockingConnectionsPerRoute) {
+        this.nonBlockingConnectionsPerRoute = nonBlockingConnectionsPerRoute;
+    }
+
+    public int getNonBlockingIoThreadCount() {
+        return nonBlockingIoThreadCount;
+    }
+
+    /**
+     * The number of I/O dispatcher threads of the non-blocking client. By default the number of available processors is used.
+     */
+    public void setNonBlockingIoThreadCount(int nonBlockingIoThreadCount) {
+        this.nonBlockingIoThreadCount = nonBlockingIoThreadCount;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    /**
+     * The maximum number of requests a non-blocking producer has in flight at the same time.
+     * Requests exceeding the limit are queued without blocking the caller and executed when a request completes.
+     * By default there is no limit.
+     */
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    public int getMaxPendingRequests() {
+        return maxPendingRequests;
+    }
+
+    /**
+     * The maximum number of requests a non-blocking producer queues when <tt>maxConcurrentRequests</tt> has been reached.
+     * Requests exceeding this limit fail with a {@link java.util.concurrent.RejectedExecutionException}.
+     */
+    public void setMaxPendingRequests(int maxPendingRequests) {
+        this.maxPendingRequests = maxPendingRequests;
+    }
 }
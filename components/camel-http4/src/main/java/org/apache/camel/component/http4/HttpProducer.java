@@ -35,6 +35,7 @@ import java.util.Map;
 import org.apache.camel.CamelExchangeException;
 import org.apache.camel.Exchange;
 import org.apache.camel.Message;
+import org.apache.camel.StreamCache;
 import org.apache.camel.component.file.GenericFile;
 import org.apache.camel.component.http4.helper.HttpMethodHelper;
 import org.apache.camel.converter.stream.CachedOutputStream;
@@ -90,7 +91,29 @@ public class HttpProducer extends DefaultProducer {
     }
 
     public void process(Exchange exchange) throws Exception {
+        HttpRequestBase httpRequest = createRequest(exchange);
 
+        // lets store the result in the output message.
+        HttpResponse httpResponse = null;
+        try {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Executing http {} method: {}", httpRequest.getMethod(), httpRequest.getURI().toString());
+            }
+            httpResponse = executeMethod(httpRequest);
+            handleResponse(exchange, httpRequest, httpResponse);
+        } finally {
+            releaseResponse(exchange, httpResponse);
+        }
+    }
+
+    /**
+     * Creates the request to send for the given exchange, with the message headers propagated as HTTP headers.
+     *
+     * @param exchange the exchange
+     * @return the request to execute
+     * @throws Exception is thrown if error creating the request
+     */
+    protected HttpRequestBase createRequest(Exchange exchange) throws Exception {
         if (getEndpoint().isClearExpiredCookies() && !getEndpoint().isBridgeEndpoint()) {
             // create the cookies before the invocation
             getEndpoint().getCookieStore().clearExpired(new Date());
@@ -164,50 +187,62 @@ public class HttpProducer extends DefaultProducer {
             }
         }
 
-        // lets store the result in the output message.
-        HttpResponse httpResponse = null;
-        try {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("Executing http {} method: {}", httpRequest.getMethod(), httpRequest.getURI().toString());
-            }
-            httpResponse = executeMethod(httpRequest);
-            int responseCode = httpResponse.getStatusLine().getStatusCode();
-            LOG.debug("Http responseCode: {}", responseCode);
+        return httpRequest;
+    }
 
-            if (!throwException) {
-                // if we do not use failed exception then populate response for all response codes
+    /**
+     * Handles the response from the remote server, by either populating the response on the exchange,
+     * or throwing a {@link HttpOperationFailedException} if the response code was not a success.
+     *
+     * @param exchange the exchange
+     * @param httpRequest the executed request
+     * @param httpResponse the response
+     * @throws Exception is thrown if the operation failed
+     */
+    protected void handleResponse(Exchange exchange, HttpRequestBase httpRequest, HttpResponse httpResponse) throws Exception {
+        Message in = exchange.getIn();
+        HeaderFilterStrategy strategy = getEndpoint().getHeaderFilterStrategy();
+
+        int responseCode = httpResponse.getStatusLine().getStatusCode();
+        LOG.debug("Http responseCode: {}", responseCode);
+
+        if (!throwException) {
+            // if we do not use failed exception then populate response for all response codes
+            populateResponse(exchange, httpRequest, httpResponse, in, strategy, responseCode);
+        } else {
+            boolean ok = HttpHelper.isStatusCodeOk(responseCode, getEndpoint().getOkStatusCodeRange());
+            if (ok) {
+                // only populate response for OK response
                 populateResponse(exchange, httpRequest, httpResponse, in, strategy, responseCode);
             } else {
-                boolean ok = HttpHelper.isStatusCodeOk(responseCode, getEndpoint().getOkStatusCodeRange());
-                if (ok) {
-                    // only populate response for OK response
-                    populateResponse(exchange, httpRequest, httpResponse, in, strategy, responseCode);
-                } else {
-                    // operation failed so populate exception to throw
-                    throw populateHttpOperationFailedException(exchange, httpRequest, httpResponse, responseCode);
-                }
+                // operation failed so populate exception to throw
+                throw populateHttpOperationFailedException(exchange, httpRequest, httpResponse, responseCode);
             }
-        } finally {
-            final HttpResponse response = httpResponse;
-            if (httpResponse != null && getEndpoint().isDisableStreamCache()) {
-                // close the stream at the end of the exchange to ensure it gets eventually closed later
-                exchange.addOnCompletion(new SynchronizationAdapter() {
-                    @Override
-                    public void onDone(Exchange exchange) {
-                        try {
-                            EntityUtils.consume(response.getEntity());
-                        } catch (Throwable e) {
-                            // ignore
-                        }
+        }
+    }
+
+    /**
+     * Releases the response stream, either now or when the exchange is done if the stream cache is disabled.
+     */
+    protected void releaseResponse(Exchange exchange, final HttpResponse httpResponse) {
+        if (httpResponse != null && getEndpoint().isDisableStreamCache()) {
+            // close the stream at the end of the exchange to ensure it gets eventually closed later
+            exchange.addOnCompletion(new SynchronizationAdapter() {
+                @Override
+                public void onDone(Exchange exchange) {
+                    try {
+                        EntityUtils.consume(httpResponse.getEntity());
+                    } catch (Throwable e) {
+                        // ignore
                     }
-                });
-            } else if (httpResponse != null) {
-                // close the stream now
-                try {
-                    EntityUtils.consume(response.getEntity());
-                } catch (Throwable e) {
-                    // ignore
                 }
+            });
+        } else if (httpResponse != null) {
+            // close the stream now
+            try {
+                EntityUtils.consume(httpResponse.getEntity());
+            } catch (Throwable e) {
+                // ignore
             }
         }
     }
@@ -290,6 +325,13 @@ public class HttpProducer extends DefaultProducer {
      * @throws IOException can be thrown
      */
     protected HttpResponse executeMethod(HttpUriRequest httpRequest) throws IOException {
+        return httpClient.execute(httpRequest, createLocalContext());
+    }
+
+    /**
+     * Creates the {@link HttpContext} to use when executing a single request.
+     */
+    protected HttpContext createLocalContext() {
         HttpContext localContext = new BasicHttpContext();
         if (getEndpoint().isAuthenticationPreemptive()) {
             BasicScheme basicAuth = new BasicScheme();
@@ -298,7 +340,7 @@ public class HttpProducer extends DefaultProducer {
         if (httpContext != null) {
             localContext = new BasicHttpContext(httpContext);
         }
-        return httpClient.execute(httpRequest, localContext);
+        return localContext;
     }
 
     /**
@@ -373,6 +415,11 @@ public class HttpProducer extends DefaultProducer {
     }
 
     private static InputStream doExtractResponseBodyAsStream(InputStream is, Exchange exchange) throws IOException {
+        if (is instanceof StreamCache) {
+            // the response has already been cached (eg by the non-blocking client) so no need to copy it once more
+            return is;
+        }
+
         // As httpclient is using a AutoCloseInputStream, it will be closed when the connection is closed
         // we need to cache the stream for it.
         CachedOutputStream cos = null;
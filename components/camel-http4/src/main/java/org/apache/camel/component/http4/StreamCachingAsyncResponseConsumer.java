@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.http4;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.StreamCache;
+import org.apache.camel.converter.stream.CachedOutputStream;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpException;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * A {@link org.apache.http.nio.protocol.HttpAsyncResponseConsumer} which streams the response content
+ * into a {@link CachedOutputStream} as it arrives, so large responses are spooled to disk according
+ * to the {@link org.apache.camel.spi.StreamCachingStrategy} instead of being buffered in memory.
+ * <p/>
+ * The entity of the resulting response provides the cached content as a {@link StreamCache}.
+ */
+public class StreamCachingAsyncResponseConsumer extends AbstractAsyncResponseConsumer<HttpResponse> {
+
+    private final Exchange exchange;
+    private final ByteBuffer buffer;
+    private HttpResponse response;
+    private CachedOutputStream cos;
+
+    public StreamCachingAsyncResponseConsumer(Exchange exchange) {
+        this.exchange = exchange;
+        this.buffer = ByteBuffer.allocate(exchange.getContext().getStreamCachingStrategy().getBufferSize());
+    }
+
+    @Override
+    protected void onResponseReceived(HttpResponse response) throws HttpException, IOException {
+        this.response = response;
+    }
+
+    @Override
+    protected void onEntityEnclosed(HttpEntity entity, ContentType contentType) throws IOException {
+        // the cache is cleaned up when the exchange is done
+        cos = new CachedOutputStream(exchange);
+    }
+
+    @Override
+    protected void onContentReceived(ContentDecoder decoder, IOControl ioctrl) throws IOException {
+        int read;
+        while ((read = decoder.read(buffer)) > 0) {
+            cos.write(buffer.array(), 0, read);
+            buffer.clear();
+        }
+    }
+
+    @Override
+    protected HttpResponse buildResult(HttpContext context) throws Exception {
+        if (cos != null) {
+            HttpEntity original = response.getEntity();
+            StreamCacheEntity entity = new StreamCacheEntity(cos.newStreamCache());
+            if (original != null) {
+                entity.setContentType(original.getContentType());
+                entity.setContentEncoding(original.getContentEncoding());
+            }
+            response.setEntity(entity);
+        }
+        return response;
+    }
+
+    @Override
+    protected void releaseResources() {
+        response = null;
+        cos = null;
+    }
+
+    /**
+     * A repeatable entity on top of a {@link StreamCache}.
+     */
+    private static final class StreamCacheEntity extends AbstractHttpEntity {
+
+        private final StreamCache cache;
+
+        StreamCacheEntity(StreamCache cache) {
+            this.cache = cache;
+        }
+
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        public long getContentLength() {
+            return cache.length();
+        }
+
+        public InputStream getContent() throws IOException {
+            // the entity is repeatable so each call must provide the content from the start
+            cache.reset();
+            return (InputStream) cache;
+        }
+
+        public void writeTo(OutputStream outstream) throws IOException {
+            cache.writeTo(outstream);
+        }
+
+        public boolean isStreaming() {
+            // the content is already cached so there is nothing to consume from the connection
+            return false;
+        }
+    }
+}
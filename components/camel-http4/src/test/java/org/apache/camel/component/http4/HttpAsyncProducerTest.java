@@ -0,0 +1,217 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.http4;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.StreamCache;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.http.common.HttpOperationFailedException;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.bootstrap.HttpServer;
+import org.apache.http.impl.bootstrap.ServerBootstrap;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @version
+ */
+public class HttpAsyncProducerTest extends BaseHttpTest {
+
+    private static final int REQUESTS = 10;
+
+    private final CountDownLatch allArrived = new CountDownLatch(REQUESTS);
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+
+    private HttpServer localServer;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        localServer = ServerBootstrap.bootstrap().
+                setHttpProcessor(getBasicHttpProcessor()).
+                setConnectionReuseStrategy(getConnectionReuseStrategy()).
+                setResponseFactory(getHttpResponseFactory()).
+                setExpectationVerifier(getHttpExpectationVerifier()).
+                setSslContext(getSSLContext()).
+                registerHandler("/all", new HttpRequestHandler() {
+                    public void handle(HttpRequest request, HttpResponse response, HttpContext context) throws HttpException, IOException {
+                        // only respond when all the requests are in flight at the same time
+                        allArrived.countDown();
+                        try {
+                            allArrived.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            // ignore
+                        }
+                        response.setStatusCode(HttpStatus.SC_OK);
+                        response.setEntity(new StringEntity(getExpectedContent()));
+                    }
+                }).
+                registerHandler("/slow", new HttpRequestHandler() {
+                    public void handle(HttpRequest request, HttpResponse response, HttpContext context) throws HttpException, IOException {
+                        int current = active.incrementAndGet();
+                        int max = maxActive.get();
+                        while (current > max && !maxActive.compareAndSet(max, current)) {
+                            max = maxActive.get();
+                        }
+                        try {
+                            Thread.sleep(200);
+                        } catch (InterruptedException e) {
+                            // ignore
+                        } finally {
+                            active.decrementAndGet();
+                        }
+                        response.setStatusCode(HttpStatus.SC_OK);
+                        response.setEntity(new StringEntity(getExpectedContent()));
+                    }
+                }).create();
+        localServer.start();
+
+        super.setUp();
+    }
+
+    @After
+    @Override
+    public void tearDown() throws Exception {
+        super.tearDown();
+
+        if (localServer != null) {
+            localServer.stop();
+        }
+    }
+
+    @Test
+    public void testManyRequestsInFlightOnSingleThread() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(REQUESTS);
+        mock.expectedHeaderReceived(Exchange.HTTP_RESPONSE_CODE, HttpStatus.SC_OK);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            template.sendBody("seda:all", null);
+        }
+
+        assertMockEndpointsSatisfied();
+
+        for (Exchange exchange : mock.getReceivedExchanges()) {
+            assertTrue("Response should be stream cached", exchange.getIn().getBody() instanceof StreamCache);
+            assertBody(exchange.getIn().getBody(String.class));
+        }
+    }
+
+    @Test
+    public void testMaxConcurrentRequests() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(6);
+
+        for (int i = 0; i < 6; i++) {
+            template.sendBody("seda:slow", null);
+        }
+
+        assertMockEndpointsSatisfied();
+
+        assertTrue("Should not exceed 2 concurrent requests, was " + maxActive.get(), maxActive.get() <= 2);
+    }
+
+    @Test
+    public void testMaxPendingRequests() throws Exception {
+        List<Future<Exchange>> futures = new ArrayList<Future<Exchange>>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(template.asyncSend("direct:pending", new Processor() {
+                public void process(Exchange exchange) throws Exception {
+                    // empty request
+                }
+            }));
+        }
+
+        int rejected = 0;
+        for (Future<Exchange> future : futures) {
+            Exchange exchange = future.get(10, TimeUnit.SECONDS);
+            if (exchange.getException() != null) {
+                assertIsInstanceOf(RejectedExecutionException.class, exchange.getException());
+                rejected++;
+            }
+        }
+        // one request is in flight and one is queued, so the others are rejected
+        assertTrue("Should reject the requests exceeding the pending limit, was " + rejected, rejected >= 1 && rejected <= 2);
+    }
+
+    @Test
+    public void testFailedResponse() throws Exception {
+        Exchange exchange = template.request("direct:missing", null);
+
+        HttpOperationFailedException cause = assertIsInstanceOf(HttpOperationFailedException.class, exchange.getException());
+        assertTrue(cause.getStatusCode() >= 400);
+    }
+
+    @Test
+    public void testContinueRoutingOnWorkerPool() throws Exception {
+        Exchange exchange = template.request("direct:thread", null);
+
+        String threadName = exchange.getIn().getHeader("threadName", String.class);
+        assertTrue("Should continue routing on the worker pool, was " + threadName, threadName.contains("HttpAsyncProducer"));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        final String url = "http4://" + localServer.getInetAddress().getHostName() + ":" + localServer.getLocalPort();
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                // a single consumer thread which would only allow one request at a time with a blocking client
+                from("seda:all")
+                    .to(url + "/all?nonBlocking=true")
+                    .to("mock:result");
+
+                from("seda:slow?concurrentConsumers=5")
+                    .to(url + "/slow?nonBlocking=true&maxConcurrentRequests=2")
+                    .to("mock:result");
+
+                from("direct:pending")
+                    .to(url + "/slow?nonBlocking=true&maxConcurrentRequests=1&maxPendingRequests=1");
+
+                from("direct:missing")
+                    .to(url + "/missing?nonBlocking=true");
+
+                from("direct:thread")
+                    .to(url + "/slow?nonBlocking=true")
+                    .process(new Processor() {
+                        public void process(Exchange exchange) throws Exception {
+                            exchange.getIn().setHeader("threadName", Thread.currentThread().getName());
+                        }
+                    });
+            }
+        };
+    }
+}
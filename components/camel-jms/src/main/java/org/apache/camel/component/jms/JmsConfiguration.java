@@ -381,6 +381,18 @@ public class JmsConfiguration implements Cloneable {
                     + " Note: If using temporary queues then CACHE_NONE is not allowed,"
                     + " and you must use a higher value such as CACHE_CONSUMER or CACHE_SESSION.")
     private String replyToCacheLevelName;
+    @UriParam(defaultValue = "1", label = "producer,advanced",
+            description = "Number of shards to split the correlation map of the pending request/reply exchanges into,"
+                    + " by the hash of the correlation id. Using more shards reduces the contention on the reply manager"
+                    + " when doing request/reply over JMS with many concurrent requests.")
+    private int replyToCorrelationShards = 1;
+    @UriParam(label = "producer,advanced",
+            description = "Sets the minimum interval in millis between rebuilding the dynamic JMS message selector,"
+                    + " when using a shared reply queue without replyToDestinationSelectorName."
+                    + " By default the message selector is rebuilt whenever the pending correlation ids has changed."
+                    + " Setting an interval batches the changes, which helps when many requests are pending,"
+                    + " at the expense of the reply messages being picked up later.")
+    private long replyToSelectorRefreshInterval;
     @UriParam(defaultValue = "true", label = "producer,advanced",
             description = "Whether to allow sending messages with no body. If this option is false and the message body is null, then an JMSException is thrown.")
     private boolean allowNullBody = true;
@@ -1887,6 +1899,34 @@ public class JmsConfiguration implements Cloneable {
         return replyToCacheLevelName;
     }
 
+    public int getReplyToCorrelationShards() {
+        return replyToCorrelationShards;
+    }
+
+    /**
+     * Number of shards to split the correlation map of the pending request/reply exchanges into,
+     * by the hash of the correlation id. Using more shards reduces the contention on the reply manager
+     * when doing request/reply over JMS with many concurrent requests.
+     */
+    public void setReplyToCorrelationShards(int replyToCorrelationShards) {
+        this.replyToCorrelationShards = replyToCorrelationShards;
+    }
+
+    public long getReplyToSelectorRefreshInterval() {
+        return replyToSelectorRefreshInterval;
+    }
+
+    /**
+     * Sets the minimum interval in millis between rebuilding the dynamic JMS message selector,
+     * when using a shared reply queue without replyToDestinationSelectorName.
+     * By default the message selector is rebuilt whenever the pending correlation ids has changed.
+     * Setting an interval batches the changes, which helps when many requests are pending,
+     * at the expense of the reply messages being picked up later.
+     */
+    public void setReplyToSelectorRefreshInterval(long replyToSelectorRefreshInterval) {
+        this.replyToSelectorRefreshInterval = replyToSelectorRefreshInterval;
+    }
+
     public boolean isAllowNullBody() {
         return allowNullBody;
     }
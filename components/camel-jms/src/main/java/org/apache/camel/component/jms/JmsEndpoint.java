@@ -526,6 +526,16 @@ public class JmsEndpoint extends DefaultEndpoint implements AsyncEndpoint, Heade
         return getConfiguration().getReplyToCacheLevelName();
     }
 
+    @ManagedAttribute
+    public int getReplyToCorrelationShards() {
+        return getConfiguration().getReplyToCorrelationShards();
+    }
+
+    @ManagedAttribute
+    public long getReplyToSelectorRefreshInterval() {
+        return getConfiguration().getReplyToSelectorRefreshInterval();
+    }
+
     @ManagedAttribute
     public String getClientId() {
         return getConfiguration().getClientId();
@@ -18,16 +18,19 @@ package org.apache.camel.component.jms.reply;
 
 import java.util.concurrent.ScheduledExecutorService;
 
-import org.apache.camel.support.DefaultTimeoutMap;
+import org.apache.camel.support.HashedWheelTimeoutMap;
 
 /**
  * A {@link org.apache.camel.TimeoutMap} which is used to track reply messages which
  * has been timed out, and thus should trigger the waiting {@link org.apache.camel.Exchange} to
  * timeout as well.
+ * <p/>
+ * Uses a {@link HashedWheelTimeoutMap} so tracking a large number of pending replies does not
+ * require scanning all of them on every timeout check.
  *
  * @version 
  */
-public class CorrelationTimeoutMap extends DefaultTimeoutMap<String, ReplyHandler> {
+public class CorrelationTimeoutMap extends HashedWheelTimeoutMap<String, ReplyHandler> {
 
     private CorrelationListener listener;
 
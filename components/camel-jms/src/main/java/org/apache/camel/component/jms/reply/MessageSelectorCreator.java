@@ -24,6 +24,10 @@ import org.slf4j.LoggerFactory;
 /**
  * A creator which can build the JMS message selector query string to use
  * with a shared reply-to queue, so we can select the correct messages we expect as replies.
+ * <p/>
+ * By default the selector is rebuilt whenever the correlation ids has changed. A refresh interval can be
+ * configured to batch the changes, so the selector is at most rebuilt once per interval when many
+ * requests are pending.
  */
 public class MessageSelectorCreator implements CorrelationListener {
     protected static final Logger LOG = LoggerFactory.getLogger(MessageSelectorCreator.class);
@@ -31,6 +35,8 @@ public class MessageSelectorCreator implements CorrelationListener {
     protected final ConcurrentSkipListSet<String> correlationIds;
     protected volatile boolean dirty = true;
     protected StringBuilder expression;
+    protected long refreshInterval;
+    protected long lastRefresh;
 
     public MessageSelectorCreator(CorrelationTimeoutMap timeoutMap) {
         this.timeoutMap = timeoutMap;
@@ -46,6 +52,15 @@ public class MessageSelectorCreator implements CorrelationListener {
             return expression.toString();
         }
 
+        long now = 0;
+        if (refreshInterval > 0) {
+            now = System.currentTimeMillis();
+            if (expression != null && now - lastRefresh < refreshInterval) {
+                // batch the changes until the refresh interval has passed
+                return expression.toString();
+            }
+        }
+
         expression = new StringBuilder("JMSCorrelationID='");
 
         if (correlationIds.size() == 0) {
@@ -67,9 +82,22 @@ public class MessageSelectorCreator implements CorrelationListener {
         String answer = expression.toString();
 
         dirty = false;
+        lastRefresh = now;
         return answer;
     }
 
+    public long getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    /**
+     * Sets the minimum interval in millis between rebuilding the message selector.
+     * Is default 0, which rebuilds the selector whenever the correlation ids has changed.
+     */
+    public void setRefreshInterval(long refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
     public void onPut(String key) {
         dirty = true;
         correlationIds.add(key);
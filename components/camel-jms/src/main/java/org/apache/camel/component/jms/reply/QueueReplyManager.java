@@ -135,6 +135,7 @@ public class QueueReplyManager extends ReplyManagerSupport {
             } else {
                 // use a dynamic message selector which will select the message we want to receive as reply
                 dynamicMessageSelector = new MessageSelectorCreator(correlation);
+                dynamicMessageSelector.setRefreshInterval(endpoint.getReplyToSelectorRefreshInterval());
                 answer = new SharedQueueMessageListenerContainer(endpoint, dynamicMessageSelector);
                 // must use cache level session for dynamic message selector,
                 // as otherwise the dynamic message selector will not be updated on-the-fly
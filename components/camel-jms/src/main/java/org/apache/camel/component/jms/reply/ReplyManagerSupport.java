@@ -197,6 +197,15 @@ public abstract class ReplyManagerSupport extends ServiceSupport implements Repl
 
     protected abstract void handleReplyMessage(String correlationID, Message message, Session session);
 
+    protected CorrelationTimeoutMap createCorrelationTimeoutMap() {
+        int shards = endpoint.getReplyToCorrelationShards();
+        if (shards > 1) {
+            log.debug("Using {} shards for the correlation map on endpoint: {}", shards, endpoint);
+            return new ShardedCorrelationTimeoutMap(executorService, endpoint.getRequestTimeoutCheckerInterval(), shards);
+        }
+        return new CorrelationTimeoutMap(executorService, endpoint.getRequestTimeoutCheckerInterval());
+    }
+
     protected abstract AbstractMessageListenerContainer createListenerContainer() throws Exception;
 
     /**
@@ -250,7 +259,7 @@ public abstract class ReplyManagerSupport extends ServiceSupport implements Repl
         // timeout map to use for purging messages which have timed out, while waiting for an expected reply
         // when doing request/reply over JMS
         log.trace("Using timeout checker interval with {} millis", endpoint.getRequestTimeoutCheckerInterval());
-        correlation = new CorrelationTimeoutMap(executorService, endpoint.getRequestTimeoutCheckerInterval());
+        correlation = createCorrelationTimeoutMap();
         ServiceHelper.startService(correlation);
 
         // create JMS listener and start it
@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.jms.reply;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.apache.camel.util.ServiceHelper;
+
+/**
+ * A {@link CorrelationTimeoutMap} which splits the correlation ids over a number of shards,
+ * selected by the hash of the correlation id, to reduce contention when many requests are pending.
+ * <p/>
+ * Each shard is a {@link CorrelationTimeoutMap} on its own, which purges its timed out entries using
+ * the given {@link ScheduledExecutorService}.
+ *
+ * @version 
+ */
+public class ShardedCorrelationTimeoutMap extends CorrelationTimeoutMap {
+
+    private final CorrelationTimeoutMap[] shards;
+
+    public ShardedCorrelationTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis, int shards) {
+        super(executor, requestMapPollTimeMillis);
+        if (shards <= 0) {
+            throw new IllegalArgumentException("Shards must be positive, was " + shards);
+        }
+        this.shards = new CorrelationTimeoutMap[shards];
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new CorrelationTimeoutMap(executor, requestMapPollTimeMillis);
+        }
+    }
+
+    @Override
+    public void setListener(CorrelationListener listener) {
+        for (CorrelationTimeoutMap shard : shards) {
+            shard.setListener(listener);
+        }
+    }
+
+    @Override
+    public ReplyHandler get(String key) {
+        return shard(key).get(key);
+    }
+
+    @Override
+    public ReplyHandler put(String key, ReplyHandler value, long timeoutMillis) {
+        return shard(key).put(key, value, timeoutMillis);
+    }
+
+    @Override
+    public ReplyHandler putIfAbsent(String key, ReplyHandler value, long timeoutMillis) {
+        return shard(key).putIfAbsent(key, value, timeoutMillis);
+    }
+
+    @Override
+    public ReplyHandler remove(String key) {
+        return shard(key).remove(key);
+    }
+
+    @Override
+    public Object[] getKeys() {
+        Object[][] keys = new Object[shards.length][];
+        int size = 0;
+        for (int i = 0; i < shards.length; i++) {
+            keys[i] = shards[i].getKeys();
+            size += keys[i].length;
+        }
+        Object[] answer = new Object[size];
+        int pos = 0;
+        for (Object[] shardKeys : keys) {
+            System.arraycopy(shardKeys, 0, answer, pos, shardKeys.length);
+            pos += shardKeys.length;
+        }
+        return answer;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (CorrelationTimeoutMap shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void purge() {
+        for (CorrelationTimeoutMap shard : shards) {
+            shard.purge();
+        }
+    }
+
+    public int getShards() {
+        return shards.length;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        // the shards keeps the entries and purges them, so there is no need to start our own purge task
+        ServiceHelper.startServices((Object[]) shards);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        ServiceHelper.stopServices((Object[]) shards);
+    }
+
+    private CorrelationTimeoutMap shard(String key) {
+        // spread the bits of the hash code as correlation ids often only differ in their last characters
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return shards[(hash & Integer.MAX_VALUE) % shards.length];
+    }
+
+}
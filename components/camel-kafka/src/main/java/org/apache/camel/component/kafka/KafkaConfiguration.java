@@ -17,6 +17,7 @@
 package org.apache.camel.component.kafka;
 
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.camel.spi.Metadata;
 import org.apache.camel.spi.UriParam;
@@ -91,6 +92,12 @@ public class KafkaConfiguration {
     private Integer fetchWaitMaxMs = 500;
     @UriParam(label = "consumer")
     private boolean seekToBeginning;
+    @UriParam(label = "consumer")
+    private boolean parallelPartitionProcessing;
+    @UriParam(label = "consumer", defaultValue = "1000")
+    private int partitionLaneCapacity = 1000;
+    @UriParam(label = "consumer", defaultValue = "5000")
+    private long pollTimeoutMs = 5000;
 
     //Consumer configuration properties
     @UriParam(label = "consumer")
@@ -121,6 +128,14 @@ public class KafkaConfiguration {
     //retries
     @UriParam(label = "producer", defaultValue = "0")
     private Integer retries = 0;
+    @UriParam(label = "producer")
+    private boolean iterableAsRecords;
+    @UriParam(label = "producer")
+    private ExecutorService workerPool;
+    @UriParam(label = "producer", defaultValue = "10")
+    private int workerPoolCoreSize = 10;
+    @UriParam(label = "producer", defaultValue = "20")
+    private int workerPoolMaxSize = 20;
     // SSL
     // ssl.key.password
     @UriParam(label = "producer")
@@ -1158,5 +1173,92 @@ public class KafkaConfiguration {
         this.seekToBeginning = seekToBeginning;
     }
 
+    public boolean isParallelPartitionProcessing() {
+        return parallelPartitionProcessing;
+    }
+
+    /**
+     * If the option is true, then the records of each partition are dispatched to their own ordered work lane,
+     * and the lanes of the partitions are processed concurrently using a thread pool of consumerStreams threads.
+     * The order of the records is kept within each partition. The offsets of the processed records are committed
+     * asynchronously for every batchSize records or autoCommitIntervalMs, and Kafka auto commit is disabled.
+     */
+    public void setParallelPartitionProcessing(boolean parallelPartitionProcessing) {
+        this.parallelPartitionProcessing = parallelPartitionProcessing;
+    }
+
+    public int getPartitionLaneCapacity() {
+        return partitionLaneCapacity;
+    }
+
+    /**
+     * The maximum number of records which can be waiting in the work lane of a partition when using parallelPartitionProcessing.
+     * When a lane is full then the partition is paused, and resumed when the lane has been drained to half its capacity.
+     */
+    public void setPartitionLaneCapacity(int partitionLaneCapacity) {
+        this.partitionLaneCapacity = partitionLaneCapacity;
+    }
+
+    public long getPollTimeoutMs() {
+        return pollTimeoutMs;
+    }
+
+    /**
+     * The timeout used when polling the KafkaConsumer when using parallelPartitionProcessing,
+     * which is how often offsets are committed when no records are received. While partitions are paused
+     * a poll timeout of at most 100 millis is used, so they are resumed soon after they have caught up.
+     */
+    public void setPollTimeoutMs(long pollTimeoutMs) {
+        this.pollTimeoutMs = pollTimeoutMs;
+    }
+
+    public boolean isIterableAsRecords() {
+        return iterableAsRecords;
+    }
+
+    /**
+     * Whether a message body which is an Iterable or Iterator is sent as a record per element, instead of a single record
+     * with the body as value. This allows the KafkaProducer to batch the records together, where the exchange is done
+     * when all the records has been acknowledged.
+     */
+    public void setIterableAsRecords(boolean iterableAsRecords) {
+        this.iterableAsRecords = iterableAsRecords;
+    }
+
+    public ExecutorService getWorkerPool() {
+        return workerPool;
+    }
+
+    /**
+     * To use a custom worker pool for continue routing the exchange after the kafka server has acknowledged
+     * the records sent by the KafkaProducer, instead of using the network thread of the KafkaProducer.
+     */
+    public void setWorkerPool(ExecutorService workerPool) {
+        this.workerPool = workerPool;
+    }
+
+    public int getWorkerPoolCoreSize() {
+        return workerPoolCoreSize;
+    }
+
+    /**
+     * Number of core threads for the worker pool for continue routing the exchange after the kafka server
+     * has acknowledged the records sent by the KafkaProducer.
+     */
+    public void setWorkerPoolCoreSize(int workerPoolCoreSize) {
+        this.workerPoolCoreSize = workerPoolCoreSize;
+    }
+
+    public int getWorkerPoolMaxSize() {
+        return workerPoolMaxSize;
+    }
+
+    /**
+     * Maximum number of threads for the worker pool for continue routing the exchange after the kafka server
+     * has acknowledged the records sent by the KafkaProducer.
+     */
+    public void setWorkerPoolMaxSize(int workerPoolMaxSize) {
+        this.workerPoolMaxSize = workerPoolMaxSize;
+    }
 
 }
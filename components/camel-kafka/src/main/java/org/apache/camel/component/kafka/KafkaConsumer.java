@@ -17,15 +17,26 @@
 package org.apache.camel.component.kafka;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
 import org.apache.camel.impl.DefaultConsumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.errors.InterruptException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,8 +44,11 @@ import org.slf4j.LoggerFactory;
 public class KafkaConsumer extends DefaultConsumer {
 
     private static final Logger LOG = LoggerFactory.getLogger(KafkaConsumer.class);
+    // the poll timeout while partitions are paused, so they are resumed soon after their lanes have caught up
+    private static final long PAUSED_POLL_TIMEOUT_MS = 100;
 
     protected ExecutorService executor;
+    protected ExecutorService laneExecutor;
     private final KafkaEndpoint endpoint;
     private final Processor processor;
 
@@ -55,6 +69,10 @@ public class KafkaConsumer extends DefaultConsumer {
         Properties props = endpoint.getConfiguration().createConsumerProperties();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, endpoint.getBrokers());
         props.put(ConsumerConfig.GROUP_ID_CONFIG, endpoint.getGroupId());
+        if (endpoint.getConfiguration().isParallelPartitionProcessing()) {
+            // the offsets are committed when the records has been processed by the partition lanes
+            props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        }
         return props;
     }
 
@@ -63,8 +81,16 @@ public class KafkaConsumer extends DefaultConsumer {
         super.doStart();
         LOG.info("Starting Kafka consumer");
         executor = endpoint.createExecutor();
+        boolean parallel = endpoint.getConfiguration().isParallelPartitionProcessing();
+        if (parallel) {
+            laneExecutor = endpoint.createPartitionLaneExecutor();
+        }
         for (int i = 0; i < endpoint.getConsumersCount(); i++) {
-            executor.submit(new KafkaFetchRecords(endpoint.getTopic(), i + "", getProps()));
+            if (parallel) {
+                executor.submit(new KafkaPartitionLanesFetchRecords(endpoint.getTopic(), i + "", getProps()));
+            } else {
+                executor.submit(new KafkaFetchRecords(endpoint.getTopic(), i + "", getProps()));
+            }
         }
     }
 
@@ -81,6 +107,27 @@ public class KafkaConsumer extends DefaultConsumer {
             }
         }
         executor = null;
+
+        if (laneExecutor != null) {
+            if (getEndpoint() != null && getEndpoint().getCamelContext() != null) {
+                getEndpoint().getCamelContext().getExecutorServiceManager().shutdownNow(laneExecutor);
+            } else {
+                laneExecutor.shutdownNow();
+            }
+        }
+        laneExecutor = null;
+    }
+
+    private void processRecord(ConsumerRecord<Object, Object> record) {
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("partition = {}, offset = {}, key = {}, value = {}", new Object[]{record.partition(), record.offset(), record.key(), record.value()});
+        }
+        Exchange exchange = endpoint.createKafkaExchange(record);
+        try {
+            processor.process(exchange);
+        } catch (Exception e) {
+            getExceptionHandler().handleException("Error during processing", exchange, e);
+        }
     }
 
     class KafkaFetchRecords implements Runnable {
@@ -151,5 +198,317 @@ public class KafkaConsumer extends DefaultConsumer {
 
     }
 
-}
+    /**
+     * Polls the records and dispatches them to the ordered work lane of their partition, where the lanes are
+     * processed concurrently by the lane executor.
+     * <p/>
+     * Only this thread uses the Kafka consumer (which is not thread safe), so the lanes only publish the offset
+     * of the records they have processed, which this thread commits asynchronously. When a lane is full its
+     * partition is paused, so a slow partition does not stall the other partitions. While partitions are paused
+     * a short poll timeout is used, so they are resumed soon after their lanes have caught up.
+     */
+    class KafkaPartitionLanesFetchRecords implements Runnable, ConsumerRebalanceListener, OffsetCommitCallback {
 
+        private final org.apache.kafka.clients.consumer.KafkaConsumer consumer;
+        private final String topicName;
+        private final String threadId;
+        private final Map<TopicPartition, PartitionLane> lanes = new HashMap<TopicPartition, PartitionLane>();
+        // the lanes of the revoked partitions, which are reused if the partitions are assigned again
+        private final Map<TopicPartition, PartitionLane> revokedLanes = new HashMap<TopicPartition, PartitionLane>();
+        private final int capacity;
+        private final int batchSize;
+        private final long commitIntervalMs;
+        private long lastCommitTime;
+        private int pausedCount;
+
+        KafkaPartitionLanesFetchRecords(String topicName, String id, Properties kafkaProps) {
+            this.topicName = topicName;
+            this.threadId = topicName + "-" + "Thread " + id;
+            this.consumer = new org.apache.kafka.clients.consumer.KafkaConsumer(kafkaProps);
+            this.capacity = Math.max(1, endpoint.getConfiguration().getPartitionLaneCapacity());
+            this.batchSize = Math.max(1, endpoint.getBatchSize());
+            Integer interval = endpoint.getConfiguration().getAutoCommitIntervalMs();
+            this.commitIntervalMs = interval != null ? interval : 5000;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void run() {
+            try {
+                LOG.debug("Subscribing {} to topic {}", threadId, topicName);
+                consumer.subscribe(Arrays.asList(topicName.split(",")), this);
+
+                if (endpoint.isSeekToBeginning()) {
+                    LOG.debug("{} is seeking to the beginning on topic {}", threadId, topicName);
+                    // This poll to ensures we have an assigned partition otherwise seek won't work
+                    consumer.poll(100);
+                    consumer.seekToBeginning();
+                }
+                lastCommitTime = System.currentTimeMillis();
+                while (isRunAllowed() && !isSuspendingOrSuspended()) {
+                    long pollTimeout = endpoint.getConfiguration().getPollTimeoutMs();
+                    if (pausedCount > 0) {
+                        pollTimeout = Math.min(pollTimeout, PAUSED_POLL_TIMEOUT_MS);
+                    }
+                    ConsumerRecords<Object, Object> records = consumer.poll(pollTimeout);
+                    dispatch(records);
+                    pauseOrResume();
+                    commitProcessed(false);
+                }
+                LOG.debug("Committing processed offsets of {}", threadId);
+                commitProcessed(true);
+                LOG.debug("Unsubscribing {} from topic {}", threadId, topicName);
+                consumer.unsubscribe();
+            } catch (InterruptException e) {
+                getExceptionHandler().handleException("Interrupted while consuming " + threadId + " from kafka topic", e);
+                consumer.unsubscribe();
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                getExceptionHandler().handleException("Error consuming " + threadId + " from kafka topic", e);
+            } finally {
+                for (PartitionLane lane : lanes.values()) {
+                    lane.revoke();
+                }
+                lanes.clear();
+                revokedLanes.clear();
+                LOG.debug("Closing {} ", threadId);
+                consumer.close();
+            }
+        }
+
+        private void dispatch(ConsumerRecords<Object, Object> records) {
+            PartitionLane lane = null;
+            for (ConsumerRecord<Object, Object> record : records) {
+                if (lane == null || lane.partition.partition() != record.partition() || !lane.partition.topic().equals(record.topic())) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    lane = lanes.get(partition);
+                    if (lane == null) {
+                        lane = revokedLanes.remove(partition);
+                        if (lane != null) {
+                            // reuse the lane of the partition, so a record it may still be processing from before
+                            // the partition was revoked is done before the lane processes the new records
+                            lane.reassign();
+                        } else {
+                            lane = new PartitionLane(partition, batchSize);
+                        }
+                        lanes.put(partition, lane);
+                    }
+                }
+                lane.add(record);
+            }
+        }
+
+        private void pauseOrResume() {
+            for (PartitionLane lane : lanes.values()) {
+                int size = lane.size();
+                if (!lane.paused && size >= capacity) {
+                    LOG.debug("Pausing partition {} as its lane has {} records waiting", lane.partition, size);
+                    consumer.pause(lane.partition);
+                    lane.paused = true;
+                    pausedCount++;
+                } else if (lane.paused && size <= capacity / 2) {
+                    LOG.debug("Resuming partition {} as its lane has {} records waiting", lane.partition, size);
+                    consumer.resume(lane.partition);
+                    lane.paused = false;
+                    pausedCount--;
+                }
+            }
+        }
+
+        private void commitProcessed(boolean sync) {
+            Map<TopicPartition, OffsetAndMetadata> offsets = null;
+            long pending = 0;
+            for (PartitionLane lane : lanes.values()) {
+                long processed = lane.processedOffset;
+                if (processed > lane.committedOffset) {
+                    if (offsets == null) {
+                        offsets = new HashMap<TopicPartition, OffsetAndMetadata>();
+                    }
+                    offsets.put(lane.partition, new OffsetAndMetadata(processed));
+                    pending += processed - Math.max(lane.committedOffset, lane.firstOffset);
+                }
+            }
+            if (offsets == null) {
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            if (sync) {
+                consumer.commitSync(offsets);
+                markCommitted(offsets);
+            } else if (pending >= batchSize || now - lastCommitTime >= commitIntervalMs) {
+                LOG.trace("Committing offsets {} asynchronously", offsets);
+                consumer.commitAsync(offsets, this);
+                // mark as committed now to not commit the same offsets again, which is reverted if the commit fails
+                markCommitted(offsets);
+                lastCommitTime = now;
+            }
+        }
+
+        private void markCommitted(Map<TopicPartition, OffsetAndMetadata> offsets) {
+            for (Map.Entry<TopicPartition, OffsetAndMetadata> entry : offsets.entrySet()) {
+                PartitionLane lane = lanes.get(entry.getKey());
+                if (lane != null) {
+                    lane.committedOffset = entry.getValue().offset();
+                }
+            }
+        }
+
+        @Override
+        public void onComplete(Map<TopicPartition, OffsetAndMetadata> offsets, Exception exception) {
+            // invoked by the consumer from this thread during poll
+            if (exception != null) {
+                LOG.warn("Error committing offsets " + offsets + " for " + threadId + ". The offsets will be committed again.", exception);
+                for (TopicPartition partition : offsets.keySet()) {
+                    PartitionLane lane = lanes.get(partition);
+                    if (lane != null) {
+                        lane.committedOffset = -1;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+            // stop the lanes of the revoked partitions and commit what they have processed so far without waiting
+            // for a record in progress, as that would hold up the rebalance, the records not yet processed
+            // (including the one in progress) will be consumed again by the new owner of the partition. The lanes
+            // are kept so they are reused if the partitions are assigned to this consumer again.
+            Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<TopicPartition, OffsetAndMetadata>();
+            for (TopicPartition partition : partitions) {
+                PartitionLane lane = lanes.remove(partition);
+                if (lane != null) {
+                    lane.revoke();
+                    revokedLanes.put(partition, lane);
+                    if (lane.paused) {
+                        pausedCount--;
+                    }
+                    long processed = lane.processedOffset;
+                    if (processed > lane.committedOffset) {
+                        offsets.put(partition, new OffsetAndMetadata(processed));
+                    }
+                }
+            }
+            if (!offsets.isEmpty()) {
+                LOG.debug("Committing offsets {} of revoked partitions", offsets);
+                consumer.commitSync(offsets);
+            }
+        }
+
+        @Override
+        public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+            // the lanes are created when records are received for the partitions
+        }
+    }
+
+    /**
+     * The ordered work lane of a partition, which processes its records one by one in the order they are added.
+     */
+    final class PartitionLane implements Runnable {
+
+        private final TopicPartition partition;
+        private final int maxRecordsPerRun;
+        private final Queue<ConsumerRecord<Object, Object>> records = new ConcurrentLinkedQueue<ConsumerRecord<Object, Object>>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean revoked;
+        // incremented when the partition is assigned again, so a record still being processed from before
+        // is not counted as processed for the new assignment
+        private int generation;
+        // the offset of the next record to process, which is the offset to commit
+        private volatile long processedOffset = -1;
+        // only accessed by the fetch records thread
+        private long firstOffset = -1;
+        private long committedOffset = -1;
+        private boolean paused;
+
+        PartitionLane(TopicPartition partition, int maxRecordsPerRun) {
+            this.partition = partition;
+            this.maxRecordsPerRun = maxRecordsPerRun;
+        }
+
+        int size() {
+            return size.get();
+        }
+
+        void add(ConsumerRecord<Object, Object> record) {
+            if (firstOffset < 0) {
+                firstOffset = record.offset();
+            }
+            records.add(record);
+            size.incrementAndGet();
+            schedule();
+        }
+
+        void revoke() {
+            revoked = true;
+            records.clear();
+            size.set(0);
+        }
+
+        /**
+         * Reuses the revoked lane when its partition is assigned again
+         */
+        void reassign() {
+            synchronized (this) {
+                generation++;
+                processedOffset = -1;
+                size.set(0);
+            }
+            firstOffset = -1;
+            committedOffset = -1;
+            paused = false;
+            revoked = false;
+        }
+
+        private void schedule() {
+            ExecutorService lanes = laneExecutor;
+            if (!revoked && lanes != null && scheduled.compareAndSet(false, true)) {
+                try {
+                    lanes.execute(this);
+                } catch (RuntimeException e) {
+                    scheduled.set(false);
+                    throw e;
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                // process a limited number of records per run to be fair to the other lanes
+                int count = 0;
+                while (count++ < maxRecordsPerRun && !revoked && isRunAllowed()) {
+                    // take the generation before the record so a record from before a reassignment is never counted
+                    int current;
+                    synchronized (this) {
+                        current = generation;
+                    }
+                    ConsumerRecord<Object, Object> record = records.poll();
+                    if (record == null) {
+                        break;
+                    }
+                    processRecord(record);
+                    synchronized (this) {
+                        // ignore the record if the partition was revoked and assigned again while processing it
+                        if (current == generation) {
+                            processedOffset = record.offset() + 1;
+                            size.decrementAndGet();
+                        }
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+                if (!records.isEmpty() && isRunAllowed()) {
+                    schedule();
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "PartitionLane[" + partition + "]";
+        }
+    }
+
+}
@@ -89,6 +89,16 @@ public class KafkaEndpoint extends DefaultEndpoint implements MultipleConsumersS
         return getCamelContext().getExecutorServiceManager().newFixedThreadPool(this, "KafkaTopic[" + configuration.getTopic() + "]", configuration.getConsumerStreams());
     }
 
+    public ExecutorService createPartitionLaneExecutor() {
+        return getCamelContext().getExecutorServiceManager().newFixedThreadPool(this, "KafkaPartitionLane[" + configuration.getTopic() + "]", configuration.getConsumerStreams());
+    }
+
+    public ExecutorService createProducerExecutor() {
+        int core = configuration.getWorkerPoolCoreSize();
+        int max = configuration.getWorkerPoolMaxSize();
+        return getCamelContext().getExecutorServiceManager().newThreadPool(this, "KafkaProducer[" + configuration.getTopic() + "]", core, max);
+    }
+
     public Exchange createKafkaExchange(ConsumerRecord record) {
         Exchange exchange = super.createExchange();
 
@@ -647,6 +657,62 @@ public class KafkaEndpoint extends DefaultEndpoint implements MultipleConsumersS
         configuration.setSeekToBeginning(seekToBeginning);
     }
 
+    public boolean isParallelPartitionProcessing() {
+        return configuration.isParallelPartitionProcessing();
+    }
+
+    public void setParallelPartitionProcessing(boolean parallelPartitionProcessing) {
+        configuration.setParallelPartitionProcessing(parallelPartitionProcessing);
+    }
+
+    public int getPartitionLaneCapacity() {
+        return configuration.getPartitionLaneCapacity();
+    }
+
+    public void setPartitionLaneCapacity(int partitionLaneCapacity) {
+        configuration.setPartitionLaneCapacity(partitionLaneCapacity);
+    }
+
+    public long getPollTimeoutMs() {
+        return configuration.getPollTimeoutMs();
+    }
+
+    public void setPollTimeoutMs(long pollTimeoutMs) {
+        configuration.setPollTimeoutMs(pollTimeoutMs);
+    }
+
+    public boolean isIterableAsRecords() {
+        return configuration.isIterableAsRecords();
+    }
+
+    public void setIterableAsRecords(boolean iterableAsRecords) {
+        configuration.setIterableAsRecords(iterableAsRecords);
+    }
+
+    public ExecutorService getWorkerPool() {
+        return configuration.getWorkerPool();
+    }
+
+    public void setWorkerPool(ExecutorService workerPool) {
+        configuration.setWorkerPool(workerPool);
+    }
+
+    public int getWorkerPoolCoreSize() {
+        return configuration.getWorkerPoolCoreSize();
+    }
+
+    public void setWorkerPoolCoreSize(int workerPoolCoreSize) {
+        configuration.setWorkerPoolCoreSize(workerPoolCoreSize);
+    }
+
+    public int getWorkerPoolMaxSize() {
+        return configuration.getWorkerPoolMaxSize();
+    }
+
+    public void setWorkerPoolMaxSize(int workerPoolMaxSize) {
+        configuration.setWorkerPoolMaxSize(workerPoolMaxSize);
+    }
+
     public boolean isBridgeEndpoint() {
         return bridgeEndpoint;
     }
@@ -16,19 +16,29 @@
  */
 package org.apache.camel.component.kafka;
 
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
-import org.apache.camel.CamelException;
+import org.apache.camel.AsyncCallback;
 import org.apache.camel.CamelExchangeException;
 import org.apache.camel.Exchange;
-import org.apache.camel.impl.DefaultProducer;
+import org.apache.camel.impl.DefaultAsyncProducer;
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
 
-public class KafkaProducer extends DefaultProducer {
+public class KafkaProducer extends DefaultAsyncProducer {
 
     private org.apache.kafka.clients.producer.KafkaProducer kafkaProducer;
     private final KafkaEndpoint endpoint;
+    private ExecutorService workerPool;
+    private boolean shutdownWorkerPool;
 
     public KafkaProducer(KafkaEndpoint endpoint) {
         super(endpoint);
@@ -54,11 +64,27 @@ public class KafkaProducer extends DefaultProducer {
         this.kafkaProducer = kafkaProducer;
     }
 
+    public ExecutorService getWorkerPool() {
+        return workerPool;
+    }
+
+    /**
+     * To use a custom worker pool for continue routing the exchange after the records has been acknowledged.
+     */
+    public void setWorkerPool(ExecutorService workerPool) {
+        this.workerPool = workerPool;
+    }
+
     @Override
     protected void doStop() throws Exception {
         if (kafkaProducer != null) {
             kafkaProducer.close();
         }
+
+        if (shutdownWorkerPool && workerPool != null) {
+            endpoint.getCamelContext().getExecutorServiceManager().shutdown(workerPool);
+            workerPool = null;
+        }
     }
 
     @Override
@@ -67,17 +93,29 @@ public class KafkaProducer extends DefaultProducer {
         if (kafkaProducer == null) {
             kafkaProducer = new org.apache.kafka.clients.producer.KafkaProducer(props);
         }
+
+        // the worker pool continues routing the exchanges once kafka has acknowledged the records
+        if (workerPool == null) {
+            workerPool = endpoint.getConfiguration().getWorkerPool();
+        }
+        if (workerPool == null) {
+            workerPool = endpoint.createProducerExecutor();
+            // we create a thread pool so we should also shut it down
+            shutdownWorkerPool = true;
+        }
     }
 
     @Override
     @SuppressWarnings("unchecked")
-    public void process(Exchange exchange) throws CamelException {
+    public boolean process(Exchange exchange, AsyncCallback callback) {
         String topic = endpoint.getTopic();
         if (!endpoint.isBridgeEndpoint()) {
             topic = exchange.getIn().getHeader(KafkaConstants.TOPIC, topic, String.class);
         }
         if (topic == null) {
-            throw new CamelExchangeException("No topic key set", exchange);
+            exchange.setException(new CamelExchangeException("No topic key set", exchange));
+            callback.done(true);
+            return true;
         }
         Object partitionKey = exchange.getIn().getHeader(KafkaConstants.PARTITION_KEY);
         boolean hasPartitionKey = partitionKey != null;
@@ -85,20 +123,115 @@ public class KafkaProducer extends DefaultProducer {
         Object messageKey = exchange.getIn().getHeader(KafkaConstants.KEY);
         boolean hasMessageKey = messageKey != null;
 
-        Object msg = exchange.getIn().getBody();
+        if (!hasMessageKey) {
+            log.warn("No message key or partition key set");
+        }
 
-        ProducerRecord record;
-        if (hasPartitionKey && hasMessageKey) {
-            record = new ProducerRecord(topic, new Integer(partitionKey.toString()), messageKey, msg);
-        } else if (hasMessageKey) {
-            record = new ProducerRecord(topic, messageKey, msg);
+        // a list or iterable body can be sent as a record per element, which allows the kafka producer
+        // to batch the records together instead of routing an exchange per record
+        Object body = exchange.getIn().getBody();
+        Iterator<Object> values;
+        if (endpoint.getConfiguration().isIterableAsRecords() && body instanceof Iterable) {
+            values = ((Iterable<Object>) body).iterator();
+        } else if (endpoint.getConfiguration().isIterableAsRecords() && body instanceof Iterator) {
+            values = (Iterator<Object>) body;
         } else {
-            log.warn("No message key or partition key set");
-            record = new ProducerRecord(topic, msg);
+            values = Collections.singletonList(body).iterator();
+        }
+
+        // the exchange is done when all the records has been acknowledged, where the pending counter
+        // starts with one which is released when all the records has been sent
+        KafkaProducerCallback producerCallback = new KafkaProducerCallback(exchange, callback, workerPool);
+        try {
+            while (values.hasNext()) {
+                Object msg = values.next();
+                ProducerRecord record;
+                if (hasPartitionKey && hasMessageKey) {
+                    record = new ProducerRecord(topic, new Integer(partitionKey.toString()), messageKey, msg);
+                } else if (hasMessageKey) {
+                    record = new ProducerRecord(topic, messageKey, msg);
+                } else {
+                    record = new ProducerRecord(topic, msg);
+                }
+                producerCallback.increment();
+                try {
+                    kafkaProducer.send(record, producerCallback);
+                } catch (RuntimeException e) {
+                    // the record was not sent so its callback will not be invoked
+                    producerCallback.onCompletion(null, e);
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            producerCallback.failed(e);
+        }
+        return producerCallback.allSent();
+    }
+
+    /**
+     * Callback which completes the exchange when all its records has been acknowledged by Kafka.
+     * <p/>
+     * Kafka invokes the callback from the network thread of the KafkaProducer, which must not be blocked,
+     * and therefore the exchange continues routing using the worker pool.
+     */
+    private static final class KafkaProducerCallback implements Callback {
+
+        private final Exchange exchange;
+        private final AsyncCallback callback;
+        private final ExecutorService workerPool;
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+
+        private KafkaProducerCallback(Exchange exchange, AsyncCallback callback, ExecutorService workerPool) {
+            this.exchange = exchange;
+            this.callback = callback;
+            this.workerPool = workerPool;
+        }
+
+        void increment() {
+            pending.incrementAndGet();
         }
 
-        // TODO: add support for async callback in the send
-        kafkaProducer.send(record);
+        void failed(Exception e) {
+            failure.compareAndSet(null, e);
+        }
+
+        boolean allSent() {
+            if (pending.decrementAndGet() == 0) {
+                // all the records was acknowledged while sending so we are done synchronously
+                done(true);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void onCompletion(RecordMetadata metadata, Exception exception) {
+            if (exception != null) {
+                failed(exception);
+            }
+            if (pending.decrementAndGet() == 0) {
+                try {
+                    workerPool.submit(new Runnable() {
+                        @Override
+                        public void run() {
+                            done(false);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // the worker pool is shutting down so continue routing from this thread
+                    done(false);
+                }
+            }
+        }
+
+        private void done(boolean doneSync) {
+            Exception e = failure.get();
+            if (e != null) {
+                exchange.setException(e);
+            }
+            callback.done(doneSync);
+        }
     }
 
 }
@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kafka;
+
+import java.util.Properties;
+
+import org.apache.camel.Endpoint;
+import org.apache.camel.EndpointInject;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KafkaConsumerParallelPartitionsTest extends BaseEmbeddedKafkaTest {
+
+    public static final String TOPIC = "parallel";
+
+    @EndpointInject(uri = "kafka:localhost:{{karfkaPort}}?topic=" + TOPIC
+            + "&groupId=group1"
+            + "&autoOffsetReset=earliest"
+            + "&parallelPartitionProcessing=true"
+            + "&partitionLaneCapacity=2"
+            + "&pollTimeoutMs=100"
+            + "&batchSize=3"
+            + "&autoCommitIntervalMs=100"
+            + "&consumerStreams=4"
+    )
+    private Endpoint from;
+
+    @EndpointInject(uri = "mock:result")
+    private MockEndpoint to;
+
+    private org.apache.kafka.clients.producer.KafkaProducer<String, String> producer;
+
+    @Before
+    public void before() {
+        Properties props = new Properties();
+
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:" + getKarfkaPort());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, KafkaConstants.KAFKA_DEFAULT_SERIALIZER);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, KafkaConstants.KAFKA_DEFAULT_SERIALIZER);
+        props.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, KafkaConstants.KAFKA_DEFAULT_PARTITIONER);
+        props.put(ProducerConfig.ACKS_CONFIG, "1");
+
+        producer = new org.apache.kafka.clients.producer.KafkaProducer<String, String>(props);
+    }
+
+    @After
+    public void after() {
+        if (producer != null) {
+            producer.close();
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from(from).routeId("foo").delay(10).to(to);
+            }
+        };
+    }
+
+    @Test
+    public void kafkaMessagesAreConsumedInOrderPerPartition() throws Exception {
+        // the records of the same key are in the same partition so they are processed in order
+        // even though the lane is full and the partition is paused and resumed
+        to.expectedBodiesReceived("m1", "m2", "m3", "m4", "m5", "m6", "m7", "m8", "m9", "m10");
+        for (int k = 1; k <= 10; k++) {
+            String msg = "m" + k;
+            ProducerRecord<String, String> data = new ProducerRecord<String, String>(TOPIC, "1", msg);
+            producer.send(data);
+        }
+        to.assertIsSatisfied();
+
+        to.reset();
+        to.expectedBodiesReceived("m11", "m12");
+
+        // the processed offsets has been committed so only the new messages are consumed after restarting
+        context.stopRoute("foo");
+        context.startRoute("foo");
+
+        for (int k = 11; k <= 12; k++) {
+            String msg = "m" + k;
+            ProducerRecord<String, String> data = new ProducerRecord<String, String>(TOPIC, "1", msg);
+            producer.send(data);
+        }
+
+        to.assertIsSatisfied();
+    }
+}
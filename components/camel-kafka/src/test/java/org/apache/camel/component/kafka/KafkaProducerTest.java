@@ -16,20 +16,30 @@
  */
 package org.apache.camel.component.kafka;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.apache.camel.AsyncCallback;
 import org.apache.camel.CamelException;
 import org.apache.camel.Exchange;
 import org.apache.camel.Message;
 import org.apache.camel.impl.DefaultMessage;
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class KafkaProducerTest {
 
@@ -37,6 +47,7 @@ public class KafkaProducerTest {
     private KafkaEndpoint endpoint;
 
     private Exchange exchange = Mockito.mock(Exchange.class);
+    private AsyncCallback callback = Mockito.mock(AsyncCallback.class);
     private Message in = new DefaultMessage();
 
     @SuppressWarnings({"unchecked"})
@@ -61,8 +72,8 @@ public class KafkaProducerTest {
         Mockito.when(exchange.getIn()).thenReturn(in);
         in.setHeader(KafkaConstants.PARTITION_KEY, "4");
 
-        producer.process(exchange);
-        Mockito.verify(producer.getKafkaProducer()).send(Matchers.any(ProducerRecord.class));
+        producer.process(exchange, callback);
+        Mockito.verify(producer.getKafkaProducer()).send(Matchers.any(ProducerRecord.class), Matchers.any(Callback.class));
     }
 
     @Test
@@ -71,7 +82,7 @@ public class KafkaProducerTest {
         Mockito.when(exchange.getIn()).thenReturn(in);
         in.setHeader(KafkaConstants.TOPIC, "anotherTopic");
 
-        producer.process(exchange);
+        producer.process(exchange, callback);
 
         verifySendMessage("anotherTopic");
     }
@@ -84,24 +95,103 @@ public class KafkaProducerTest {
         in.setHeader(KafkaConstants.TOPIC, "anotherTopic");
         in.setHeader(KafkaConstants.KEY, "someKey");
 
-        producer.process(exchange);
+        producer.process(exchange, callback);
 
         verifySendMessage("4", "anotherTopic", "someKey");
     }
 
-    @Test(expected = CamelException.class)
+    @Test
     public void processRequiresTopicInEndpointOrInHeader() throws Exception {
         endpoint.setTopic(null);
         Mockito.when(exchange.getIn()).thenReturn(in);
         in.setHeader(KafkaConstants.PARTITION_KEY, "4");
-        producer.process(exchange);
+        assertTrue(producer.process(exchange, callback));
+
+        Mockito.verify(exchange).setException(Matchers.isA(CamelException.class));
+        Mockito.verify(callback).done(true);
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void processSendsRecordPerElementOfListBody() throws Exception {
+        endpoint.setTopic("someTopic");
+        endpoint.setIterableAsRecords(true);
+        Mockito.when(exchange.getIn()).thenReturn(in);
+        in.setBody(Arrays.asList("a", "b", "c"));
+
+        assertFalse(producer.process(exchange, callback));
+
+        ArgumentCaptor<ProducerRecord> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        Mockito.verify(producer.getKafkaProducer(), Mockito.times(3)).send(captor.capture(), Matchers.any(Callback.class));
+        assertEquals("a", captor.getAllValues().get(0).value());
+        assertEquals("b", captor.getAllValues().get(1).value());
+        assertEquals("c", captor.getAllValues().get(2).value());
+        // not done until kafka has acknowledged the records
+        Mockito.verify(callback, Mockito.never()).done(Matchers.anyBoolean());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void processIsDoneWhenAllRecordsAreAcknowledged() throws Exception {
+        endpoint.setTopic("someTopic");
+        endpoint.setIterableAsRecords(true);
+        Mockito.when(exchange.getIn()).thenReturn(in);
+        in.setBody(Arrays.asList("a", "b"));
+        Mockito.when(producer.getKafkaProducer().send(Matchers.any(ProducerRecord.class), Matchers.any(Callback.class))).thenAnswer(new Answer<Object>() {
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                // acknowledge the record right away
+                ((Callback) invocation.getArguments()[1]).onCompletion(null, null);
+                return null;
+            }
+        });
+
+        assertTrue(producer.process(exchange, callback));
+
+        Mockito.verify(callback).done(true);
+        Mockito.verify(exchange, Mockito.never()).setException(Matchers.any(Throwable.class));
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void processSendsListBodyAsSingleRecordByDefault() throws Exception {
+        endpoint.setTopic("someTopic");
+        Mockito.when(exchange.getIn()).thenReturn(in);
+        List<String> body = Arrays.asList("a", "b", "c");
+        in.setBody(body);
+
+        producer.process(exchange, callback);
+
+        ArgumentCaptor<ProducerRecord> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        Mockito.verify(producer.getKafkaProducer()).send(captor.capture(), Matchers.any(Callback.class));
+        assertEquals(body, captor.getValue().value());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void processContinuesRoutingOnWorkerPool() throws Exception {
+        endpoint.setTopic("someTopic");
+        Mockito.when(exchange.getIn()).thenReturn(in);
+        ExecutorService workerPool = Executors.newSingleThreadExecutor();
+        producer.setWorkerPool(workerPool);
+        try {
+            assertFalse(producer.process(exchange, callback));
+
+            // kafka acknowledges the record from its network thread
+            ArgumentCaptor<Callback> captor = ArgumentCaptor.forClass(Callback.class);
+            Mockito.verify(producer.getKafkaProducer()).send(Matchers.any(ProducerRecord.class), captor.capture());
+            captor.getValue().onCompletion(null, null);
+
+            Mockito.verify(callback, Mockito.timeout(5000)).done(false);
+        } finally {
+            workerPool.shutdownNow();
+        }
     }
 
     @Test
     public void processDoesNotRequirePartitionHeader() throws Exception {
         endpoint.setTopic("sometopic");
         Mockito.when(exchange.getIn()).thenReturn(in);
-        producer.process(exchange);
+        producer.process(exchange, callback);
     }
 
     @Test
@@ -110,7 +200,7 @@ public class KafkaProducerTest {
         Mockito.when(exchange.getIn()).thenReturn(in);
         in.setHeader(KafkaConstants.PARTITION_KEY, "4");
         in.setHeader(KafkaConstants.KEY, "someKey");
-        producer.process(exchange);
+        producer.process(exchange, callback);
         verifySendMessage("4", "someTopic", "someKey");
     }
 
@@ -120,7 +210,7 @@ public class KafkaProducerTest {
         Mockito.when(exchange.getIn()).thenReturn(in);
         in.setHeader(KafkaConstants.KEY, "someKey");
 
-        producer.process(exchange);
+        producer.process(exchange, callback);
 
         verifySendMessage("someTopic", "someKey");
     }
@@ -133,7 +223,7 @@ public class KafkaProducerTest {
         in.setHeader(KafkaConstants.TOPIC, "anotherTopic");
         in.setHeader(KafkaConstants.KEY, "someKey");
         in.setHeader(KafkaConstants.PARTITION_KEY, "4");
-        producer.process(exchange);
+        producer.process(exchange, callback);
 
         verifySendMessage("4", "someTopic", "someKey");
     }
@@ -143,7 +233,7 @@ public class KafkaProducerTest {
         endpoint.setTopic("someTopic");
         Mockito.when(exchange.getIn()).thenReturn(in);
 
-        producer.process(exchange);
+        producer.process(exchange, callback);
 
         verifySendMessage("someTopic");
     }
@@ -151,7 +241,7 @@ public class KafkaProducerTest {
     @SuppressWarnings({"unchecked", "rawtypes"})
     protected void verifySendMessage(String partitionKey, String topic, String messageKey) {
         ArgumentCaptor<ProducerRecord> captor = ArgumentCaptor.forClass(ProducerRecord.class);
-        Mockito.verify(producer.getKafkaProducer()).send(captor.capture());
+        Mockito.verify(producer.getKafkaProducer()).send(captor.capture(), Matchers.any(Callback.class));
         assertEquals(new Integer(partitionKey), captor.getValue().partition());
         assertEquals(messageKey, captor.getValue().key());
         assertEquals(topic, captor.getValue().topic());
@@ -160,7 +250,7 @@ public class KafkaProducerTest {
     @SuppressWarnings({"unchecked", "rawtypes"})
     protected void verifySendMessage(String topic, String messageKey) {
         ArgumentCaptor<ProducerRecord> captor = ArgumentCaptor.forClass(ProducerRecord.class);
-        Mockito.verify(producer.getKafkaProducer()).send(captor.capture());
+        Mockito.verify(producer.getKafkaProducer()).send(captor.capture(), Matchers.any(Callback.class));
         assertEquals(messageKey, captor.getValue().key());
         assertEquals(topic, captor.getValue().topic());
     }
@@ -168,7 +258,7 @@ public class KafkaProducerTest {
     @SuppressWarnings({"unchecked", "rawtypes"})
     protected void verifySendMessage(String topic) {
         ArgumentCaptor<ProducerRecord> captor = ArgumentCaptor.forClass(ProducerRecord.class);
-        Mockito.verify(producer.getKafkaProducer()).send(captor.capture());
+        Mockito.verify(producer.getKafkaProducer()).send(captor.capture(), Matchers.any(Callback.class));
         assertEquals(topic, captor.getValue().topic());
     }
 
@@ -20,14 +20,19 @@ import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
+import org.apache.camel.processor.aggregate.AggregationStrategy;
+import org.apache.camel.spi.AppendableAggregationRepository;
 import org.apache.camel.spi.RecoverableAggregationRepository;
 import org.apache.camel.support.ServiceSupport;
+import org.apache.camel.util.ExchangeHelper;
 import org.apache.camel.util.IOHelper;
+import org.apache.camel.util.LRUCache;
 import org.apache.camel.util.ObjectHelper;
 import org.apache.camel.util.ServiceHelper;
 import org.fusesource.hawtbuf.Buffer;
@@ -40,8 +45,12 @@ import static org.fusesource.leveldbjni.JniDBFactory.asString;
 
 /**
  * An instance of {@link org.apache.camel.spi.AggregationRepository} which is backed by a {@link LevelDBFile}.
+ * <p/>
+ * When {@link #setDeltaAppend(boolean) deltaAppend} is enabled only the incoming exchanges are appended
+ * as sequence numbered delta records, and the aggregated exchange is reconstituted from the deltas
+ * using the configured {@link AggregationStrategy} when a group is read which is not in the cache of recently used groups.
  */
-public class LevelDBAggregationRepository extends ServiceSupport implements RecoverableAggregationRepository {
+public class LevelDBAggregationRepository extends ServiceSupport implements RecoverableAggregationRepository, AppendableAggregationRepository {
 
     private static final Logger LOG = LoggerFactory.getLogger(LevelDBAggregationRepository.class);
     private LevelDBFile levelDBFile;
@@ -55,6 +64,12 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
     private int maximumRedeliveries;
     private String deadLetterUri;
     private boolean allowSerializedHeaders;
+    private boolean useBinaryCodec;
+    private boolean deltaAppend;
+    private int compactionThreshold = 1000;
+    private AggregationStrategy aggregationStrategy;
+    private int cacheSize = 100;
+    private Map<String, DeltaGroup> groups;
 
     /**
      * Creates an aggregation repository
@@ -103,7 +118,7 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
         LOG.debug("Adding key [{}] -> {}", key, exchange);
         try {
             byte[] lDbKey = keyBuilder(repositoryName, key);
-            final Buffer exchangeBuffer = codec.marshallExchange(camelContext, exchange, allowSerializedHeaders);
+            final Buffer exchangeBuffer = codec.marshallExchange(camelContext, exchange, allowSerializedHeaders, useBinaryCodec);
 
             byte[] rc = null;
             if (isReturnOldExchange()) {
@@ -129,9 +144,63 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
         return null;
     }
 
+    public Exchange append(final CamelContext camelContext, final String key, final Exchange aggregated, final Exchange newExchange) {
+        if (!deltaAppend) {
+            return add(camelContext, key, aggregated);
+        }
+
+        LOG.debug("Appending key [{}] -> {}", key, newExchange);
+        try {
+            DeltaGroup group = groups.get(key);
+            if (group == null) {
+                // not cached so find out from the stored records whether the group is in progress
+                group = loadGroup(key);
+            }
+            Exchange previous = null;
+            if (isReturnOldExchange() && group != null) {
+                previous = group.exchange != null ? copyExchange(group.exchange) : get(camelContext, key);
+            }
+
+            if (group == null || group.deltas >= compactionThreshold) {
+                // start the group, or compact it, by storing the aggregated exchange as a whole and dropping the deltas
+                final Buffer exchangeBuffer = codec.marshallExchange(camelContext, aggregated, allowSerializedHeaders, useBinaryCodec);
+                WriteBatch batch = levelDBFile.getDb().createWriteBatch();
+                try {
+                    batch.put(keyBuilder(repositoryName, key), exchangeBuffer.toByteArray());
+                    int deleted = deleteDeltas(batch, key);
+                    levelDBFile.getDb().write(batch, levelDBFile.getWriteOptions());
+                    LOG.trace("Added key index {} and removed {} deltas", key, deleted);
+                } finally {
+                    batch.close();
+                }
+                group = new DeltaGroup();
+            } else {
+                final Buffer exchangeBuffer = codec.marshallExchange(camelContext, newExchange, allowSerializedHeaders, useBinaryCodec);
+                group.deltas++;
+                levelDBFile.getDb().put(deltaKeyBuilder(key, group.deltas), exchangeBuffer.toByteArray(), levelDBFile.getWriteOptions());
+                LOG.trace("Added delta {} for key index {}", group.deltas, key);
+            }
+            group.exchange = aggregated;
+            groups.put(key, group);
+
+            // only return old exchange if enabled
+            return previous;
+        } catch (IOException e) {
+            throw new RuntimeException("Error appending to repository " + repositoryName + " with key " + key, e);
+        }
+    }
+
     public Exchange get(final CamelContext camelContext, final String key) {
         Exchange answer = null;
 
+        if (deltaAppend) {
+            DeltaGroup group = groups.get(key);
+            if (group != null && group.exchange != null) {
+                LOG.debug("Getting key  [{}] -> {}", key, group.exchange);
+                return copyExchange(group.exchange);
+            }
+        }
+
         try {
             byte[] lDbKey = keyBuilder(repositoryName, key);
             LOG.trace("Getting key index {}", key);
@@ -139,6 +208,9 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
 
             if (rc != null) {
                 answer = codec.unmarshallExchange(camelContext, new Buffer(rc));
+                if (deltaAppend) {
+                    answer = copyExchange(reconstitute(camelContext, key, answer));
+                }
             }
         } catch (IOException e) {
             throw new RuntimeException("Error getting key " + key + " from repository " + repositoryName, e);
@@ -154,7 +226,7 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
         try {
             byte[] lDbKey = keyBuilder(repositoryName, key);
             final String exchangeId = exchange.getExchangeId();
-            final Buffer exchangeBuffer = codec.marshallExchange(camelContext, exchange, allowSerializedHeaders);
+            final Buffer exchangeBuffer = codec.marshallExchange(camelContext, exchange, allowSerializedHeaders, useBinaryCodec);
 
             // remove the exchange
             byte[] rc = levelDBFile.getDb().get(lDbKey);
@@ -164,6 +236,10 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
                 try {
                     batch.delete(lDbKey);
                     LOG.trace("Removed key index {} -> {}", key, new Buffer(rc));
+                    if (deltaAppend) {
+                        int deleted = deleteDeltas(batch, key);
+                        LOG.trace("Removed {} deltas for key index {}", deleted, key);
+                    }
 
                     // add exchange to confirmed index
                     byte[] confirmedLDBKey = keyBuilder(getRepositoryNameCompleted(), exchangeId);
@@ -178,6 +254,10 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
 
         } catch (IOException e) {
             throw new RuntimeException("Error removing key " + key + " from repository " + repositoryName, e);
+        } finally {
+            if (deltaAppend) {
+                groups.remove(key);
+            }
         }
     }
 
@@ -289,6 +369,104 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
         return answer;
     }
 
+    /**
+     * Reconstitutes the aggregated exchange by aggregating the stored deltas onto the given exchange,
+     * and caches the result so the deltas are only read again if the group is evicted from the cache.
+     */
+    private Exchange reconstitute(final CamelContext camelContext, final String key, final Exchange exchange) throws IOException {
+        Exchange answer = exchange;
+        int size = exchange.getProperty(Exchange.AGGREGATED_SIZE, 1, Integer.class);
+
+        DeltaGroup group = new DeltaGroup();
+        DBIterator it = levelDBFile.getDb().iterator();
+        try {
+            String prefix = getRepositoryNameDelta() + '\0' + key + '\0';
+            for (it.seek(keyBuilder(getRepositoryNameDelta(), key + '\0')); it.hasNext(); it.next()) {
+                Map.Entry<byte[], byte[]> entry = it.peekNext();
+                if (!asString(entry.getKey()).startsWith(prefix)) {
+                    break;
+                }
+                Exchange delta = codec.unmarshallExchange(camelContext, new Buffer(entry.getValue()));
+                ExchangeHelper.prepareAggregation(answer, delta);
+                answer = aggregationStrategy.aggregate(answer, delta);
+                group.deltas++;
+            }
+        } finally {
+            // Make sure you close the iterator to avoid resource leaks.
+            IOHelper.close(it);
+        }
+
+        if (group.deltas > 0) {
+            answer.setProperty(Exchange.AGGREGATED_SIZE, size + group.deltas);
+            LOG.debug("Reconstituted key [{}] from {} deltas", key, group.deltas);
+        }
+        group.exchange = answer;
+        groups.put(key, group);
+        return answer;
+    }
+
+    /**
+     * Loads the state of a group in progress which is not cached, without reconstituting its exchange.
+     *
+     * @return the group, or <tt>null</tt> if no group is stored for the key
+     */
+    private DeltaGroup loadGroup(final String key) {
+        if (levelDBFile.getDb().get(keyBuilder(repositoryName, key)) == null) {
+            return null;
+        }
+
+        DeltaGroup group = new DeltaGroup();
+        DBIterator it = levelDBFile.getDb().iterator();
+        try {
+            String prefix = getRepositoryNameDelta() + '\0' + key + '\0';
+            for (it.seek(keyBuilder(getRepositoryNameDelta(), key + '\0')); it.hasNext(); it.next()) {
+                if (!asString(it.peekNext().getKey()).startsWith(prefix)) {
+                    break;
+                }
+                group.deltas++;
+            }
+        } finally {
+            // Make sure you close the iterator to avoid resource leaks.
+            IOHelper.close(it);
+        }
+        return group;
+    }
+
+    private static Exchange copyExchange(Exchange exchange) {
+        // the cached exchange must not be changed by the aggregator, so hand out copies like when unmarshalling
+        return ExchangeHelper.createCopy(exchange, true);
+    }
+
+    /**
+     * Deletes the deltas stored for the given key as part of the batch
+     *
+     * @return the number of deleted deltas
+     */
+    private int deleteDeltas(final WriteBatch batch, final String key) {
+        DBIterator it = levelDBFile.getDb().iterator();
+        int count = 0;
+        try {
+            String prefix = getRepositoryNameDelta() + '\0' + key + '\0';
+            for (it.seek(keyBuilder(getRepositoryNameDelta(), key + '\0')); it.hasNext(); it.next()) {
+                byte[] lDbKey = it.peekNext().getKey();
+                if (!asString(lDbKey).startsWith(prefix)) {
+                    break;
+                }
+                batch.delete(lDbKey);
+                count++;
+            }
+        } finally {
+            // Make sure you close the iterator to avoid resource leaks.
+            IOHelper.close(it);
+        }
+        return count;
+    }
+
+    private byte[] deltaKeyBuilder(String key, int sequence) {
+        // zero pad the sequence number so the deltas are iterated in the order they were appended
+        return keyBuilder(getRepositoryNameDelta(), key + '\0' + String.format("%010d", sequence));
+    }
+
     private int size(final String repositoryName) {
         DBIterator it = levelDBFile.getDb().iterator();
 
@@ -326,6 +504,10 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
         return repositoryName + "-completed";
     }
 
+    private String getRepositoryNameDelta() {
+        return repositoryName + "-delta";
+    }
+
     public void setRepositoryName(String repositoryName) {
         this.repositoryName = repositoryName;
     }
@@ -398,6 +580,71 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
         this.allowSerializedHeaders = allowSerializedHeaders;
     }
 
+    public boolean isUseBinaryCodec() {
+        return useBinaryCodec;
+    }
+
+    /**
+     * Whether to store the exchanges using the compact {@link org.apache.camel.impl.BinaryExchangeCodec}
+     * instead of Java serialization. Exchanges stored in either format can always be read back.
+     */
+    public void setUseBinaryCodec(boolean useBinaryCodec) {
+        this.useBinaryCodec = useBinaryCodec;
+    }
+
+    @Override
+    public boolean isDeltaAppend() {
+        return deltaAppend;
+    }
+
+    /**
+     * Whether to only append the incoming exchanges as delta records, instead of rewriting the full
+     * aggregated exchange on every add. This makes the bytes written linear in the size of the group.
+     * <p/>
+     * The aggregated exchanges of the most recently used groups are cached in memory (see {@link #setCacheSize(int)}),
+     * and other groups are reconstituted from the deltas using the
+     * {@link #setAggregationStrategy(AggregationStrategy) aggregationStrategy} when read,
+     * so the strategy must be the same as used by the aggregator and not depend on any other state.
+     */
+    public void setDeltaAppend(boolean deltaAppend) {
+        this.deltaAppend = deltaAppend;
+    }
+
+    public int getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Number of deltas after which a group is compacted, by storing the aggregated exchange as a whole
+     * and removing its deltas. Is default 1000.
+     */
+    public void setCompactionThreshold(int compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Maximum number of aggregated exchanges of the groups in progress to keep in memory when using delta append.
+     * Groups which are not cached are reconstituted from the stored deltas when read. Is default 100.
+     */
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public AggregationStrategy getAggregationStrategy() {
+        return aggregationStrategy;
+    }
+
+    /**
+     * The strategy used to reconstitute the aggregated exchange from the deltas when using delta append.
+     */
+    public void setAggregationStrategy(AggregationStrategy aggregationStrategy) {
+        this.aggregationStrategy = aggregationStrategy;
+    }
+
     @Override
     protected void doStart() throws Exception {
         // either we have a LevelDB configured or we use a provided fileName
@@ -409,6 +656,16 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
 
         ObjectHelper.notNull(levelDBFile, "Either set a persistentFileName or a levelDBFile");
         ObjectHelper.notNull(repositoryName, "repositoryName");
+        if (deltaAppend) {
+            ObjectHelper.notNull(aggregationStrategy, "aggregationStrategy", this);
+            if (compactionThreshold <= 0) {
+                throw new IllegalArgumentException("CompactionThreshold must be positive, was: " + compactionThreshold);
+            }
+            if (cacheSize <= 0) {
+                throw new IllegalArgumentException("CacheSize must be positive, was: " + cacheSize);
+            }
+            groups = new LRUCache<String, DeltaGroup>(cacheSize);
+        }
 
         ServiceHelper.startService(levelDBFile);
 
@@ -430,9 +687,17 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
 
     @Override
     protected void doStop() throws Exception {
+        if (groups != null) {
+            groups.clear();
+        }
         ServiceHelper.stopService(levelDBFile);
     }
 
+    private static final class DeltaGroup {
+        private Exchange exchange;
+        private int deltas;
+    }
+
     public static byte[] keyBuilder(String repo, String key) {
         try {
             return (repo + '\0' + key).getBytes("UTF-8");
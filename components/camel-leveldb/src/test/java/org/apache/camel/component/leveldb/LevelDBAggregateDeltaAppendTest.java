@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.leveldb;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.Test;
+
+public class LevelDBAggregateDeltaAppendTest extends LevelDBAggregateTest {
+
+    private LevelDBAggregationRepository repo;
+
+    @Test
+    public void testReconstituteAfterRestart() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:aggregated");
+        mock.expectedBodiesReceived("ABCDE");
+
+        template.sendBodyAndHeader("direct:start", "A", "id", 123);
+        template.sendBodyAndHeader("direct:start", "B", "id", 123);
+        template.sendBodyAndHeader("direct:start", "C", "id", 123);
+
+        // restart the repository so the aggregated exchange must be reconstituted from the stored deltas
+        repo.stop();
+        repo.start();
+
+        Exchange exchange = repo.get(context, "123");
+        assertEquals("ABC", exchange.getIn().getBody(String.class));
+        assertEquals(3, exchange.getProperty(Exchange.AGGREGATED_SIZE, Integer.class).intValue());
+        // the cached exchange must not be handed out
+        assertNotSame(exchange, repo.get(context, "123"));
+        assertEquals("ABC", repo.get(context, "123").getIn().getBody(String.class));
+
+        template.sendBodyAndHeader("direct:start", "D", "id", 123);
+        template.sendBodyAndHeader("direct:start", "E", "id", 123);
+
+        assertMockEndpointsSatisfied(30, TimeUnit.SECONDS);
+
+        assertNull(repo.get(context, "123"));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                MyAggregationStrategy strategy = new MyAggregationStrategy();
+
+                repo = new LevelDBAggregationRepository("repo1", "target/data/leveldb.dat");
+                repo.setDeltaAppend(true);
+                repo.setAggregationStrategy(strategy);
+                // compact often to test that as well
+                repo.setCompactionThreshold(2);
+
+                from("direct:start")
+                    .aggregate(header("id"), strategy)
+                        .completionSize(5).aggregationRepository(repo)
+                        .to("mock:aggregated");
+            }
+        };
+    }
+
+}
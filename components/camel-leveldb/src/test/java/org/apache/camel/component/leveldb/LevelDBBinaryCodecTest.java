@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.leveldb;
+
+import java.io.File;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.Test;
+
+public class LevelDBBinaryCodecTest extends CamelTestSupport {
+
+    private LevelDBFile levelDBFile;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        deleteDirectory("target/data");
+        File file = new File("target/data/leveldb.dat");
+        levelDBFile = new LevelDBFile();
+        levelDBFile.setFile(file);
+        levelDBFile.start();
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        levelDBFile.stop();
+        super.tearDown();
+    }
+
+    @Test
+    public void testBinaryCodec() {
+        LevelDBAggregationRepository repo = new LevelDBAggregationRepository();
+        repo.setLevelDBFile(levelDBFile);
+        repo.setRepositoryName("repo1");
+        repo.setUseBinaryCodec(true);
+
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("name", "Claus");
+        exchange.getIn().setHeader("number", 123);
+        exchange.getIn().setHeader("bytes", new byte[]{1, 2, 3});
+
+        repo.add(context, "foo", exchange);
+
+        Exchange actual = repo.get(context, "foo");
+        assertEquals("Hello World", actual.getIn().getBody());
+        assertEquals("Claus", actual.getIn().getHeader("name"));
+        assertEquals(123, actual.getIn().getHeader("number"));
+        assertEquals(3, actual.getIn().getHeader("bytes", byte[].class).length);
+        assertSame(context, actual.getContext());
+    }
+
+    @Test
+    public void testReadBothFormats() {
+        LevelDBAggregationRepository repo = new LevelDBAggregationRepository();
+        repo.setLevelDBFile(levelDBFile);
+        repo.setRepositoryName("repo1");
+
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Hello World");
+        repo.add(context, "foo", exchange);
+
+        // switch format, the previously stored exchange must still be readable
+        repo.setUseBinaryCodec(true);
+        exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Bye World");
+        repo.add(context, "bar", exchange);
+
+        assertEquals("Hello World", repo.get(context, "foo").getIn().getBody());
+        assertEquals("Bye World", repo.get(context, "bar").getIn().getBody());
+    }
+
+}
@@ -16,9 +16,11 @@
  */
 package org.apache.camel.component.sql;
 
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLDataException;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.List;
 import java.util.Map;
 import javax.sql.DataSource;
@@ -48,6 +50,12 @@ public abstract class DefaultSqlEndpoint extends DefaultPollingEndpoint {
     private boolean transacted;
     @UriParam(label = "producer", description = "Enables or disables batch mode")
     private boolean batch;
+    @UriParam(label = "producer", description = "If set greater than zero, then the producer coalesces the exchanges it receives into a single JDBC batch,"
+            + " which is executed when this number of exchanges have been collected, or when microBatchTimeout has elapsed since the first exchange of the batch.")
+    private int microBatchSize;
+    @UriParam(label = "producer", defaultValue = "100",
+            description = "The maximum time in millis an exchange waits for more exchanges to join its batch when microBatchSize is enabled.")
+    private long microBatchTimeout = 100;
     @UriParam(label = "consumer", description = "Sets the maximum number of messages to poll")
     private int maxMessagesPerPoll;
     @UriParam(label = "consumer,advanced",
@@ -92,7 +100,8 @@ public abstract class DefaultSqlEndpoint extends DefaultPollingEndpoint {
             + "b) If the query has more than one column, then it will return a Map of that result."
             + "c) If the outputClass is set, then it will convert the query result into an Java bean object by calling all the setters that match the column names."
             + "It will assume your class has a default constructor to create instance with."
-            + "d) If the query resulted in more than one rows, it throws an non-unique result exception.")
+            + "d) If the query resulted in more than one rows, it throws an non-unique result exception."
+            + " StreamList streams the result of the query using an Iterator. This can be used with the Splitter EIP in streaming mode to process the ResultSet in streaming fashion.")
     private SqlOutputType outputType = SqlOutputType.SelectList;
     @UriParam(description = "Specify the full package and class name to use as conversion when outputType=SelectOne.")
     private String outputClass;
@@ -159,6 +168,30 @@ public abstract class DefaultSqlEndpoint extends DefaultPollingEndpoint {
         this.batch = batch;
     }
 
+    public int getMicroBatchSize() {
+        return microBatchSize;
+    }
+
+    /**
+     * If set greater than zero, then the producer coalesces the exchanges it receives into a single JDBC batch,
+     * which is executed when this number of exchanges have been collected, or when microBatchTimeout has elapsed
+     * since the first exchange of the batch.
+     */
+    public void setMicroBatchSize(int microBatchSize) {
+        this.microBatchSize = microBatchSize;
+    }
+
+    public long getMicroBatchTimeout() {
+        return microBatchTimeout;
+    }
+
+    /**
+     * The maximum time in millis an exchange waits for more exchanges to join its batch when microBatchSize is enabled.
+     */
+    public void setMicroBatchTimeout(long microBatchTimeout) {
+        this.microBatchTimeout = microBatchTimeout;
+    }
+
     public int getMaxMessagesPerPoll() {
         return maxMessagesPerPoll;
     }
@@ -274,6 +307,8 @@ public abstract class DefaultSqlEndpoint extends DefaultPollingEndpoint {
      * c) If the outputClass is set, then it will convert the query result into an Java bean object by calling all the setters that match the column names. 
      * It will assume your class has a default constructor to create instance with.
      * d) If the query resulted in more than one rows, it throws an non-unique result exception.
+     * <p/>
+     * StreamList streams the result of the query using an Iterator. This can be used with the Splitter EIP in streaming mode to process the ResultSet in streaming fashion.
      */
     public void setOutputType(SqlOutputType outputType) {
         this.outputType = outputType;
@@ -460,6 +495,18 @@ public abstract class DefaultSqlEndpoint extends DefaultPollingEndpoint {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    public ResultSetIterator queryForStreamList(Connection connection, Statement statement, ResultSet rs) throws SQLException {
+        if (outputClass == null) {
+            RowMapper rowMapper = new ColumnMapRowMapper();
+            return new ResultSetIterator(connection, statement, rs, rowMapper);
+        } else {
+            Class<?> outputClzz = getCamelContext().getClassResolver().resolveClass(outputClass);
+            RowMapper rowMapper = new BeanPropertyRowMapper(outputClzz);
+            return new ResultSetIterator(connection, statement, rs, rowMapper);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public Object queryForObject(ResultSet rs) throws SQLException {
         Object result = null;
@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.sql;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.camel.RuntimeCamelException;
+import org.springframework.jdbc.core.RowMapper;
+
+import static org.springframework.jdbc.support.JdbcUtils.closeConnection;
+import static org.springframework.jdbc.support.JdbcUtils.closeResultSet;
+import static org.springframework.jdbc.support.JdbcUtils.closeStatement;
+
+/**
+ * An {@link Iterator} which lazily maps the rows of a {@link ResultSet} using a {@link RowMapper}.
+ * <p/>
+ * The rows are fetched from the database as the iterator is traversed, so the result set is never fully
+ * loaded into memory. The result set, statement and connection are closed when the last row has been read,
+ * or when {@link #close()} is invoked.
+ */
+public class ResultSetIterator implements Iterator<Object>, Closeable {
+
+    private final Connection connection;
+    private final Statement statement;
+    private final ResultSet resultSet;
+    private final RowMapper<?> rowMapper;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private int rowNum;
+
+    public ResultSetIterator(Connection connection, Statement statement, ResultSet resultSet, RowMapper<?> rowMapper) throws SQLException {
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.rowMapper = rowMapper;
+
+        loadNext();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !closed.get();
+    }
+
+    @Override
+    public Object next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        try {
+            Object row = rowMapper.mapRow(resultSet, rowNum++);
+            loadNext();
+            return row;
+        } catch (SQLException e) {
+            close();
+            throw new RuntimeCamelException("Cannot process result", e);
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Cannot remove from a database result");
+    }
+
+    /**
+     * Gets the number of rows read so far.
+     */
+    public int getRowCount() {
+        return rowNum;
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Closes the result set, statement and connection. Invoking this method more than once has no effect.
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            closeResultSet(resultSet);
+            closeStatement(statement);
+            closeConnection(connection);
+        }
+    }
+
+    private void loadNext() throws SQLException {
+        boolean hasNext = resultSet.next();
+        if (!hasNext) {
+            close();
+        }
+    }
+}
@@ -62,6 +62,15 @@ public class SqlEndpoint extends DefaultSqlEndpoint {
 
     public Producer createProducer() throws Exception {
         SqlPrepareStatementStrategy prepareStrategy = getPrepareStatementStrategy() != null ? getPrepareStatementStrategy() : new DefaultSqlPrepareStatementStrategy(getSeparator());
+        if (getMicroBatchSize() > 0) {
+            if (isBatch() || isUseMessageBodyForSql()) {
+                throw new IllegalArgumentException("The microBatchSize option cannot be combined with the batch or useMessageBodyForSql options");
+            }
+            SqlMicroBatchProducer answer = new SqlMicroBatchProducer(this, query, getJdbcTemplate(), prepareStrategy,
+                    isAlwaysPopulateStatement(), getMicroBatchSize(), getMicroBatchTimeout());
+            answer.setParametersCount(getParametersCount());
+            return answer;
+        }
         SqlProducer result = new SqlProducer(this, query, getJdbcTemplate(), prepareStrategy, isBatch(),
                 isAlwaysPopulateStatement(), isUseMessageBodyForSql());
         result.setParametersCount(getParametersCount());
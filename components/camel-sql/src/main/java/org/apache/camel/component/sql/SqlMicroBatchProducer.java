@@ -0,0 +1,300 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.sql;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.Exchange;
+import org.apache.camel.ThreadPoolRejectedPolicy;
+import org.apache.camel.builder.ThreadPoolProfileBuilder;
+import org.apache.camel.impl.DefaultAsyncProducer;
+import org.apache.camel.spi.ExecutorServiceManager;
+import org.apache.camel.spi.ThreadPoolProfile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+
+/**
+ * A producer which coalesces the exchanges it receives into a single JDBC batch.
+ * <p/>
+ * The batch is executed when <tt>microBatchSize</tt> exchanges have been collected, or when
+ * <tt>microBatchTimeout</tt> has elapsed since the first exchange of the batch was received.
+ * The exchanges are continued asynchronously when the batch has been executed, each with the
+ * {@link SqlConstants#SQL_UPDATE_COUNT} header holding its own update count. If the batch fails
+ * then all the exchanges of the batch fail with the caused exception.
+ * <p/>
+ * The exchanges of an executed batch are continued on a thread pool, so a slow route does not delay
+ * the other exchanges of the batch. Transacted exchanges are not coalesced, but executed on their own
+ * by the calling thread, so they run within their transaction.
+ */
+public class SqlMicroBatchProducer extends DefaultAsyncProducer {
+    private final String query;
+    private String resolvedQuery;
+    private final JdbcTemplate jdbcTemplate;
+    private final SqlPrepareStatementStrategy sqlPrepareStatementStrategy;
+    private final boolean alwaysPopulateStatement;
+    private final int batchSize;
+    private final long batchTimeout;
+    private final Object lock = new Object();
+    private int parametersCount;
+    private ScheduledExecutorService timeoutExecutor;
+    private ExecutorService completionExecutor;
+    private Batch current;
+
+    public SqlMicroBatchProducer(SqlEndpoint endpoint, String query, JdbcTemplate jdbcTemplate, SqlPrepareStatementStrategy sqlPrepareStatementStrategy,
+                                 boolean alwaysPopulateStatement, int batchSize, long batchTimeout) {
+        super(endpoint);
+        this.query = query;
+        this.jdbcTemplate = jdbcTemplate;
+        this.sqlPrepareStatementStrategy = sqlPrepareStatementStrategy;
+        this.alwaysPopulateStatement = alwaysPopulateStatement;
+        this.batchSize = batchSize;
+        this.batchTimeout = batchTimeout;
+    }
+
+    @Override
+    public SqlEndpoint getEndpoint() {
+        return (SqlEndpoint) super.getEndpoint();
+    }
+
+    public boolean process(Exchange exchange, AsyncCallback callback) {
+        final String sql;
+        final String preparedQuery;
+        try {
+            String queryHeader = exchange.getIn().getHeader(SqlConstants.SQL_QUERY, String.class);
+            sql = queryHeader != null ? queryHeader : resolvedQuery;
+            preparedQuery = sqlPrepareStatementStrategy.prepareQuery(sql, getEndpoint().isAllowNamedParameters(), exchange);
+        } catch (Throwable e) {
+            exchange.setException(e);
+            callback.done(true);
+            return true;
+        }
+
+        if (exchange.isTransacted()) {
+            // the transaction is bound to the calling thread so execute the exchange on its own and synchronously
+            Batch single = new Batch(sql, preparedQuery);
+            single.add(exchange, callback);
+            executeBatch(single);
+            callback.done(true);
+            return true;
+        }
+
+        Batch previous = null;
+        Batch completed = null;
+        synchronized (lock) {
+            if (current != null && !current.preparedQuery.equals(preparedQuery)) {
+                // a different statement cannot join the batch so execute the batch so far
+                previous = takeCurrent();
+            }
+            if (current == null) {
+                current = new Batch(sql, preparedQuery);
+                if (batchTimeout > 0) {
+                    current.timeoutTask = timeoutExecutor.schedule(new BatchTimeoutTask(current), batchTimeout, TimeUnit.MILLISECONDS);
+                }
+            }
+            current.add(exchange, callback);
+            if (current.size() >= batchSize || batchTimeout <= 0) {
+                completed = takeCurrent();
+            }
+        }
+
+        if (previous != null) {
+            executeBatch(previous);
+            completeBatch(previous);
+        }
+        if (completed != null) {
+            executeBatch(completed);
+            completeBatch(completed);
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of exchanges waiting in the current batch.
+     */
+    public int getPendingExchanges() {
+        synchronized (lock) {
+            return current != null ? current.size() : 0;
+        }
+    }
+
+    public void setParametersCount(int parametersCount) {
+        this.parametersCount = parametersCount;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+
+        String placeholder = getEndpoint().isUsePlaceholder() ? getEndpoint().getPlaceholder() : null;
+        resolvedQuery = SqlHelper.resolveQuery(getEndpoint().getCamelContext(), query, placeholder);
+
+        ExecutorServiceManager manager = getEndpoint().getCamelContext().getExecutorServiceManager();
+        if (timeoutExecutor == null) {
+            timeoutExecutor = manager.newSingleThreadScheduledExecutor(this, "SqlMicroBatchTimeout");
+        }
+        if (completionExecutor == null) {
+            // abort instead of caller runs, so we can continue the exchange ourselves if the pool is shutdown
+            ThreadPoolProfile profile = new ThreadPoolProfileBuilder("SqlMicroBatchCompletion", manager.getDefaultThreadPoolProfile())
+                    .rejectedPolicy(ThreadPoolRejectedPolicy.Abort).build();
+            completionExecutor = manager.newThreadPool(this, "SqlMicroBatchCompletion", profile);
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        // execute any pending batch so no exchange is left behind
+        Batch remaining;
+        synchronized (lock) {
+            remaining = takeCurrent();
+        }
+        if (remaining != null) {
+            executeBatch(remaining);
+            completeBatch(remaining);
+        }
+
+        if (timeoutExecutor != null) {
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdown(timeoutExecutor);
+            timeoutExecutor = null;
+        }
+        if (completionExecutor != null) {
+            // let the exchanges already handed over continue
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdownGraceful(completionExecutor);
+            completionExecutor = null;
+        }
+        super.doStop();
+    }
+
+    /**
+     * Takes the current batch, must be invoked while holding the lock.
+     */
+    private Batch takeCurrent() {
+        Batch answer = current;
+        current = null;
+        if (answer != null && answer.timeoutTask != null) {
+            answer.timeoutTask.cancel(false);
+        }
+        return answer;
+    }
+
+    private void executeBatch(final Batch batch) {
+        log.trace("Executing batch of {} exchanges: {}", batch.size(), batch.preparedQuery);
+        try {
+            jdbcTemplate.execute(batch.preparedQuery, new PreparedStatementCallback<Object>() {
+                public Object doInPreparedStatement(PreparedStatement ps) throws SQLException {
+                    int expected = parametersCount > 0 ? parametersCount : ps.getParameterMetaData().getParameterCount();
+
+                    for (Exchange exchange : batch.exchanges) {
+                        // only populate if really needed
+                        if (alwaysPopulateStatement || expected > 0) {
+                            Object value = exchange.getIn().getBody();
+                            Iterator<?> i = sqlPrepareStatementStrategy.createPopulateIterator(batch.sql, batch.preparedQuery, expected, exchange, value);
+                            sqlPrepareStatementStrategy.populateStatement(ps, i, expected);
+                        }
+                        ps.addBatch();
+                    }
+
+                    int[] updateCounts = ps.executeBatch();
+                    for (int i = 0; i < batch.exchanges.size() && i < updateCounts.length; i++) {
+                        batch.exchanges.get(i).getIn().setHeader(SqlConstants.SQL_UPDATE_COUNT, updateCounts[i]);
+                    }
+                    return null;
+                }
+            });
+        } catch (Throwable e) {
+            for (Exchange exchange : batch.exchanges) {
+                exchange.setException(e);
+            }
+        }
+    }
+
+    /**
+     * Continues routing the exchanges of the executed batch, each as its own task on the completion thread pool.
+     */
+    private void completeBatch(final Batch batch) {
+        for (final AsyncCallback callback : batch.callbacks) {
+            ExecutorService executor = completionExecutor;
+            if (executor != null && !executor.isShutdown()) {
+                try {
+                    executor.execute(new Runnable() {
+                        public void run() {
+                            callback.done(false);
+                        }
+                    });
+                    continue;
+                } catch (RejectedExecutionException e) {
+                    log.debug("Completion thread pool rejected the task, continuing the exchange on the current thread");
+                }
+            }
+            callback.done(false);
+        }
+    }
+
+    private final class BatchTimeoutTask implements Runnable {
+        private final Batch batch;
+
+        private BatchTimeoutTask(Batch batch) {
+            this.batch = batch;
+        }
+
+        public void run() {
+            boolean timedOut = false;
+            synchronized (lock) {
+                // the batch may have been completed by size in the meantime
+                if (current == batch) {
+                    current = null;
+                    timedOut = true;
+                }
+            }
+            if (timedOut) {
+                executeBatch(batch);
+                completeBatch(batch);
+            }
+        }
+    }
+
+    private static final class Batch {
+        private final String sql;
+        private final String preparedQuery;
+        private final List<Exchange> exchanges = new ArrayList<Exchange>();
+        private final List<AsyncCallback> callbacks = new ArrayList<AsyncCallback>();
+        private ScheduledFuture<?> timeoutTask;
+
+        private Batch(String sql, String preparedQuery) {
+            this.sql = sql;
+            this.preparedQuery = preparedQuery;
+        }
+
+        private void add(Exchange exchange, AsyncCallback callback) {
+            exchanges.add(exchange);
+            callbacks.add(callback);
+        }
+
+        private int size() {
+            return exchanges.size();
+        }
+    }
+}
@@ -28,11 +28,14 @@ import java.util.Map;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.impl.DefaultProducer;
+import org.apache.camel.support.SynchronizationAdapter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementCallback;
 import org.springframework.jdbc.core.PreparedStatementCreator;
 
+import static org.springframework.jdbc.support.JdbcUtils.closeConnection;
 import static org.springframework.jdbc.support.JdbcUtils.closeResultSet;
+import static org.springframework.jdbc.support.JdbcUtils.closeStatement;
 
 public class SqlProducer extends DefaultProducer {
     private final String query;
@@ -104,6 +107,12 @@ public class SqlProducer extends DefaultProducer {
             }
         };
 
+        // special for processing stream list (batch not supported)
+        if (getEndpoint().getOutputType() == SqlOutputType.StreamList && !batch) {
+            processStreamList(exchange, statementCreator, sql, preparedQuery);
+            return;
+        }
+
         jdbcTemplate.execute(statementCreator, new PreparedStatementCallback<Map<?, ?>>() {
             public Map<?, ?> doInPreparedStatement(PreparedStatement ps) throws SQLException {
                 ResultSet rs = null;
@@ -217,7 +226,84 @@ public class SqlProducer extends DefaultProducer {
         });
     }
 
+    protected void processStreamList(Exchange exchange, PreparedStatementCreator statementCreator, String sql, String preparedQuery) throws Exception {
+        log.trace("processStreamList: {}", preparedQuery);
+
+        // do not use the jdbcTemplate as it will auto-close connection/ps/rs when exiting the execute method
+        // and we need to keep the connection alive while routing and close it when the Exchange is done being routed
+        Connection con = jdbcTemplate.getDataSource().getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = statementCreator.createPreparedStatement(con);
+            // let the driver fetch the rows in chunks as the iterator is traversed
+            if (jdbcTemplate.getFetchSize() > 0) {
+                ps.setFetchSize(jdbcTemplate.getFetchSize());
+            }
+            if (jdbcTemplate.getQueryTimeout() > 0) {
+                ps.setQueryTimeout(jdbcTemplate.getQueryTimeout());
+            }
+
+            int expected = parametersCount > 0 ? parametersCount : ps.getParameterMetaData().getParameterCount();
+
+            // only populate if really needed
+            if (alwaysPopulateStatement || expected > 0) {
+                Object value;
+                if (useMessageBodyForSql) {
+                    value = exchange.getIn().getHeader(SqlConstants.SQL_PARAMETERS);
+                } else {
+                    value = exchange.getIn().getBody();
+                }
+                Iterator<?> i = sqlPrepareStatementStrategy.createPopulateIterator(sql, preparedQuery, expected, exchange, value);
+                sqlPrepareStatementStrategy.populateStatement(ps, i, expected);
+            }
+
+            boolean isResultSet = ps.execute();
+            if (isResultSet) {
+                rs = ps.getResultSet();
+                ResultSetIterator iterator = getEndpoint().queryForStreamList(con, ps, rs);
+
+                // preserve headers
+                exchange.getOut().getHeaders().putAll(exchange.getIn().getHeaders());
+                if (getEndpoint().isNoop()) {
+                    exchange.getOut().setBody(exchange.getIn().getBody());
+                } else if (getEndpoint().getOutputHeader() != null) {
+                    exchange.getOut().setBody(exchange.getIn().getBody());
+                    exchange.getOut().setHeader(getEndpoint().getOutputHeader(), iterator);
+                } else {
+                    exchange.getOut().setBody(iterator);
+                }
+                // we do not know the row count so we cannot set a ROW_COUNT header
+                // defer closing the iterator when the exchange is complete
+                exchange.addOnCompletion(new ResultSetIteratorCompletion(iterator));
+            } else {
+                exchange.getIn().setHeader(SqlConstants.SQL_UPDATE_COUNT, ps.getUpdateCount());
+                closeStatement(ps);
+                closeConnection(con);
+            }
+        } catch (Exception e) {
+            // in case of exception then close all this before rethrow
+            closeResultSet(rs);
+            closeStatement(ps);
+            closeConnection(con);
+            throw e;
+        }
+    }
+
     public void setParametersCount(int parametersCount) {
         this.parametersCount = parametersCount;
     }
+
+    private static final class ResultSetIteratorCompletion extends SynchronizationAdapter {
+        private final ResultSetIterator iterator;
+
+        private ResultSetIteratorCompletion(ResultSetIterator iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public void onDone(Exchange exchange) {
+            iterator.close();
+        }
+    }
 }
@@ -74,6 +74,7 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
     private List<String> headersToStoreAsText;
     private boolean storeBodyAsText;
     private boolean allowSerializedHeaders;
+    private boolean useBinaryCodec;
 
     /**
      * Creates an aggregation repository
@@ -236,7 +237,7 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
     }
 
     protected void insertAndUpdateHelper(final CamelContext camelContext, final String key, final Exchange exchange, String sql, final boolean idComesFirst) throws Exception {
-        final byte[] data = codec.marshallExchange(camelContext, exchange, allowSerializedHeaders);
+        final byte[] data = codec.marshallExchange(camelContext, exchange, allowSerializedHeaders, useBinaryCodec);
         jdbcTemplate.execute(sql,
                 new AbstractLobCreatingPreparedStatementCallback(getLobHandler()) {
                     @Override
@@ -437,6 +438,18 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
         this.allowSerializedHeaders = allowSerializedHeaders;
     }
 
+    public boolean isUseBinaryCodec() {
+        return useBinaryCodec;
+    }
+
+    /**
+     * Whether to store the exchanges using the compact {@link org.apache.camel.impl.BinaryExchangeCodec}
+     * instead of Java serialization. Exchanges stored in either format can always be read back.
+     */
+    public void setUseBinaryCodec(boolean useBinaryCodec) {
+        this.useBinaryCodec = useBinaryCodec;
+    }
+
    /**
      * @return the lobHandler
      */
@@ -25,6 +25,7 @@ import java.io.ObjectOutputStream;
 import org.apache.camel.CamelContext;
 import org.apache.camel.Endpoint;
 import org.apache.camel.Exchange;
+import org.apache.camel.impl.BinaryExchangeCodec;
 import org.apache.camel.impl.DefaultExchange;
 import org.apache.camel.impl.DefaultExchangeHolder;
 import org.apache.camel.util.IOHelper;
@@ -35,6 +36,10 @@ import org.apache.camel.util.IOHelper;
 public class JdbcCamelCodec {
 
     public byte[] marshallExchange(CamelContext camelContext, Exchange exchange, boolean allowSerializedHeaders) throws IOException {
+        return marshallExchange(camelContext, exchange, allowSerializedHeaders, false);
+    }
+
+    public byte[] marshallExchange(CamelContext camelContext, Exchange exchange, boolean allowSerializedHeaders, boolean useBinaryCodec) throws IOException {
         // use DefaultExchangeHolder to marshal to a serialized object
         DefaultExchangeHolder pe = DefaultExchangeHolder.marshal(exchange, false, allowSerializedHeaders);
         // add the aggregated size and timeout property as the only properties we want to retain
@@ -51,11 +56,20 @@ public class JdbcCamelCodec {
         if (exchange.getFromEndpoint() != null) {
             DefaultExchangeHolder.addProperty(pe, "CamelAggregatedFromEndpoint", exchange.getFromEndpoint().getEndpointUri());
         }
+        if (useBinaryCodec) {
+            // the binary format is told apart from the serialized format by its first byte
+            return BinaryExchangeCodec.encode(pe);
+        }
         return encode(pe);
     }
 
     public Exchange unmarshallExchange(CamelContext camelContext, byte[] buffer) throws IOException, ClassNotFoundException {
-        DefaultExchangeHolder pe = decode(camelContext, buffer);
+        DefaultExchangeHolder pe;
+        if (BinaryExchangeCodec.isBinaryEncoded(buffer)) {
+            pe = BinaryExchangeCodec.decode(camelContext, buffer);
+        } else {
+            pe = decode(camelContext, buffer);
+        }
         Exchange answer = new DefaultExchange(camelContext);
         DefaultExchangeHolder.unmarshal(answer, pe);
         // restore the from endpoint
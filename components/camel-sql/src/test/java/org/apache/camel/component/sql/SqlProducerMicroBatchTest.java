@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.sql;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * @version
+ */
+public class SqlProducerMicroBatchTest extends CamelTestSupport {
+
+    private EmbeddedDatabase db;
+
+    @Before
+    public void setUp() throws Exception {
+        db = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.DERBY).addScript("sql/createAndPopulateDatabase.sql").build();
+
+        super.setUp();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        super.tearDown();
+
+        db.shutdown();
+    }
+
+    @Test
+    public void testMicroBatchBySize() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(10);
+        mock.allMessages().header(SqlConstants.SQL_UPDATE_COUNT).isEqualTo(1);
+
+        for (int i = 0; i < 10; i++) {
+            template.sendBody("seda:insert", createProject(10 + i, "Project" + i));
+        }
+
+        assertMockEndpointsSatisfied();
+
+        assertEquals(13, new JdbcTemplate(db).queryForObject("select count(*) from projects", Integer.class).intValue());
+    }
+
+    @Test
+    public void testMicroBatchByTimeout() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(2);
+        mock.allMessages().header(SqlConstants.SQL_UPDATE_COUNT).isEqualTo(1);
+
+        // the batch is never full so it is executed when the timeout elapsed
+        template.sendBody("seda:insertSlow", createProject(20, "Hawtio"));
+        template.sendBody("seda:insertSlow", createProject(21, "Karaf"));
+
+        assertMockEndpointsSatisfied();
+
+        assertEquals(5, new JdbcTemplate(db).queryForObject("select count(*) from projects", Integer.class).intValue());
+    }
+
+    @Test
+    public void testMicroBatchFailure() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:error");
+        mock.expectedMessageCount(1);
+
+        // duplicate primary key
+        template.sendBody("seda:insertSlow", createProject(1, "Camel"));
+
+        assertMockEndpointsSatisfied();
+        assertNotNull(mock.getReceivedExchanges().get(0).getProperty("CamelExceptionCaught"));
+    }
+
+    @Test
+    public void testTransactedNotCoalesced() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(1);
+        mock.allMessages().header(SqlConstants.SQL_UPDATE_COUNT).isEqualTo(1);
+
+        // the batch would only be executed after a minute if the exchange joined it
+        template.sendBody("direct:transacted", createProject(30, "Hawtio"));
+
+        assertMockEndpointsSatisfied();
+
+        // and the exchange must continue on the thread which the transaction is bound to
+        Exchange exchange = mock.getReceivedExchanges().get(0);
+        assertEquals(exchange.getProperty("beforeThread"), exchange.getProperty("afterThread"));
+    }
+
+    private static Map<String, Object> createProject(int id, String project) {
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("id", id);
+        map.put("project", project);
+        map.put("license", "ASF");
+        return map;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            public void configure() {
+                getContext().getComponent("sql", SqlComponent.class).setDataSource(db);
+
+                onException(Exception.class).handled(true).to("mock:error");
+
+                from("seda:insert?concurrentConsumers=10")
+                        .to("sql:insert into projects values (:#id, :#project, :#license)?microBatchSize=5&microBatchTimeout=1000")
+                        .to("mock:result");
+
+                from("seda:insertSlow?concurrentConsumers=10")
+                        .to("sql:insert into projects values (:#id, :#project, :#license)?microBatchSize=100&microBatchTimeout=200")
+                        .to("mock:result");
+
+                from("direct:transacted")
+                        .process(new Processor() {
+                            public void process(Exchange exchange) throws Exception {
+                                exchange.getUnitOfWork().beginTransactedBy("tx");
+                                exchange.setProperty("beforeThread", Thread.currentThread().getName());
+                            }
+                        })
+                        .to("sql:insert into projects values (:#id, :#project, :#license)?microBatchSize=100&microBatchTimeout=60000")
+                        .process(new Processor() {
+                            public void process(Exchange exchange) throws Exception {
+                                exchange.setProperty("afterThread", Thread.currentThread().getName());
+                            }
+                        })
+                        .to("mock:result");
+            }
+        };
+    }
+}
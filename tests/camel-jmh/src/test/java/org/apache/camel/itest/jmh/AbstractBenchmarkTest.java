@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Base class for JMH benchmarks which are launched from JUnit.
+ * <p/>
+ * All the benchmark methods in the concrete class are run measuring throughput and sampled latency
+ * (which reports the latency percentiles), together with the GC profiler to report the allocation rate.
+ * The results are written in JSON format to <tt>target/jmh-result-SimpleClassName.json</tt> so they can be compared across builds.
+ * <p/>
+ * The number of iterations, forks and threads can be tuned using the system properties
+ * <tt>jmh.warmupIterations</tt>, <tt>jmh.measurementIterations</tt>, <tt>jmh.forks</tt> and <tt>jmh.threads</tt>.
+ */
+public abstract class AbstractBenchmarkTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        Options opt = new OptionsBuilder()
+                // run all benchmark methods in the concrete class
+                .include(getClass().getName() + ".*")
+                .mode(Mode.Throughput)
+                .mode(Mode.SampleTime)
+                .timeUnit(TimeUnit.MICROSECONDS)
+                .warmupIterations(Integer.getInteger("jmh.warmupIterations", 5))
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(Integer.getInteger("jmh.measurementIterations", 5))
+                .measurementTime(TimeValue.seconds(1))
+                .threads(Integer.getInteger("jmh.threads", 1))
+                .forks(Integer.getInteger("jmh.forks", 1))
+                .addProfiler(GCProfiler.class)
+                .shouldFailOnError(true)
+                .shouldDoGC(true)
+                .result("target/jmh-result-" + getClass().getSimpleName() + ".json")
+                .resultFormat(ResultFormatType.JSON)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
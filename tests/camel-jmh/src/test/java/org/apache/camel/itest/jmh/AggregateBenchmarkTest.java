@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.processor.aggregate.UseLatestAggregationStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the {@link org.apache.camel.processor.aggregate.AggregateProcessor} using the
+ * in memory aggregation repository with a low and high number of correlation keys.
+ */
+public class AggregateBenchmarkTest extends AbstractBenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState extends CamelContextState {
+
+        @Param({"1", "1000"})
+        int keys;
+
+        @Override
+        protected RouteBuilder createRouteBuilder() throws Exception {
+            return new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("direct:start")
+                        .aggregate(header("id"), new UseLatestAggregationStrategy()).completionSize(10)
+                            .transform(simple("${body}"))
+                        .end();
+                }
+            };
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Counter {
+        int counter;
+    }
+
+    @Benchmark
+    public void aggregate(BenchmarkState state, Counter counter) {
+        int id = counter.counter++ % state.keys;
+        state.getTemplate().sendBodyAndHeader("direct:start", "Hello World", "id", id);
+    }
+
+}
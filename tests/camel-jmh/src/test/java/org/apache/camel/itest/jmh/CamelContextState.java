@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Base JMH state which starts a {@link CamelContext} with the routes from {@link #createRouteBuilder()}
+ * and provides a {@link ProducerTemplate} to send messages into the routes.
+ */
+public abstract class CamelContextState {
+
+    protected CamelContext context;
+    protected ProducerTemplate template;
+
+    @Setup(Level.Trial)
+    public void startCamel() throws Exception {
+        context = new DefaultCamelContext();
+        // keep the management and tracing overhead out of the measurements
+        context.disableJMX();
+        context.setMessageHistory(false);
+        context.addRoutes(createRouteBuilder());
+        context.start();
+        template = context.createProducerTemplate();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopCamel() throws Exception {
+        template.stop();
+        context.stop();
+    }
+
+    public CamelContext getContext() {
+        return context;
+    }
+
+    public ProducerTemplate getTemplate() {
+        return template;
+    }
+
+    protected abstract RouteBuilder createRouteBuilder() throws Exception;
+
+}
@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the {@link org.apache.camel.processor.ChoiceProcessor} matching the first, last and otherwise branch.
+ */
+public class ChoiceBenchmarkTest extends AbstractBenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState extends CamelContextState {
+
+        @Override
+        protected RouteBuilder createRouteBuilder() throws Exception {
+            return new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("direct:start")
+                        .choice()
+                            .when(header("type").isEqualTo("gold")).transform(constant("gold"))
+                            .when(header("type").isEqualTo("silver")).transform(constant("silver"))
+                            .when(header("type").isEqualTo("bronze")).transform(constant("bronze"))
+                            .when(header("type").isEqualTo("copper")).transform(constant("copper"))
+                            .otherwise().transform(constant("other"))
+                        .end();
+                }
+            };
+        }
+    }
+
+    @Benchmark
+    public void firstBranch(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.getTemplate().requestBodyAndHeader("direct:start", "Hello World", "type", "gold"));
+    }
+
+    @Benchmark
+    public void lastBranch(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.getTemplate().requestBodyAndHeader("direct:start", "Hello World", "type", "copper"));
+    }
+
+    @Benchmark
+    public void otherwise(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.getTemplate().requestBodyAndHeader("direct:start", "Hello World", "type", "platinum"));
+    }
+
+}
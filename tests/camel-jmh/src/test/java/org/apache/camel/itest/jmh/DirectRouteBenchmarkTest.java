@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks a trivial direct route to measure the overhead (and allocation rate reported by the GC profiler)
+ * of the {@link org.apache.camel.processor.CamelInternalProcessor} advices executed per exchange,
+ * with and without message history enabled on the route.
+ */
+public class DirectRouteBenchmarkTest extends AbstractBenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState extends CamelContextState {
+
+        @Override
+        protected RouteBuilder createRouteBuilder() throws Exception {
+            return new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("direct:start")
+                        .transform(constant("Bye World"));
+
+                    from("direct:history").messageHistory()
+                        .transform(constant("Bye World"));
+                }
+            };
+        }
+    }
+
+    @Benchmark
+    public void direct(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.getTemplate().requestBody("direct:start", "Hello World"));
+    }
+
+    @Benchmark
+    public void directWithMessageHistory(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.getTemplate().requestBody("direct:history", "Hello World"));
+    }
+
+}
@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.BinaryExchangeCodec;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.impl.DefaultExchangeHolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks marshalling an exchange for a persistent aggregation repository using Java serialization
+ * of the {@link DefaultExchangeHolder} compared to the {@link BinaryExchangeCodec}.
+ */
+public class ExchangeCodecBenchmarkTest extends AbstractBenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        CamelContext context;
+        DefaultExchangeHolder holder;
+        byte[] serialized;
+        byte[] binary;
+
+        @Setup(Level.Trial)
+        public void startCamel() throws Exception {
+            context = new DefaultCamelContext();
+            context.disableJMX();
+            context.start();
+
+            Exchange exchange = new DefaultExchange(context);
+            exchange.getIn().setBody("Hello World");
+            for (int i = 0; i < 10; i++) {
+                exchange.getIn().setHeader("header" + i, i);
+            }
+            exchange.getIn().setHeader("name", "Camel");
+            holder = DefaultExchangeHolder.marshal(exchange, false);
+
+            serialized = serialize(holder);
+            binary = BinaryExchangeCodec.encode(holder);
+        }
+
+        @TearDown(Level.Trial)
+        public void stopCamel() throws Exception {
+            context.stop();
+        }
+    }
+
+    @Benchmark
+    public void serializationEncode(BenchmarkState state, Blackhole bh) throws IOException {
+        bh.consume(serialize(state.holder));
+    }
+
+    @Benchmark
+    public void serializationDecode(BenchmarkState state, Blackhole bh) throws Exception {
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(state.serialized));
+        bh.consume(ois.readObject());
+    }
+
+    @Benchmark
+    public void binaryEncode(BenchmarkState state, Blackhole bh) throws IOException {
+        bh.consume(BinaryExchangeCodec.encode(state.holder));
+    }
+
+    @Benchmark
+    public void binaryDecode(BenchmarkState state, Blackhole bh) throws Exception {
+        bh.consume(BinaryExchangeCodec.decode(state.context, state.binary));
+    }
+
+    private static byte[] serialize(DefaultExchangeHolder holder) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bos);
+        oos.writeObject(holder);
+        oos.close();
+        return bos.toByteArray();
+    }
+
+}
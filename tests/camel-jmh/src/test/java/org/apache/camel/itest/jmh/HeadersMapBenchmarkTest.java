@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.impl.DefaultHeadersMapFactory;
+import org.apache.camel.impl.FastHeadersMapFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks setting, getting and copying message headers using the different
+ * {@link org.apache.camel.spi.HeadersMapFactory} implementations.
+ */
+public class HeadersMapBenchmarkTest extends AbstractBenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({"default", "fast"})
+        String factory;
+
+        CamelContext context;
+        Exchange exchange;
+
+        @Setup(Level.Trial)
+        public void startCamel() throws Exception {
+            context = new DefaultCamelContext();
+            context.disableJMX();
+            context.setHeadersMapFactory("fast".equals(factory) ? new FastHeadersMapFactory() : new DefaultHeadersMapFactory());
+            context.start();
+
+            exchange = new DefaultExchange(context);
+            for (int i = 0; i < 10; i++) {
+                exchange.getIn().setHeader("header" + i, i);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void stopCamel() throws Exception {
+            context.stop();
+        }
+    }
+
+    @Benchmark
+    public void getHeader(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.exchange.getIn().getHeader("header5"));
+        bh.consume(state.exchange.getIn().getHeader("HEADER5"));
+    }
+
+    @Benchmark
+    public void setAndRemoveHeader(BenchmarkState state, Blackhole bh) {
+        state.exchange.getIn().setHeader("foo", "bar");
+        bh.consume(state.exchange.getIn().removeHeader("foo"));
+    }
+
+    @Benchmark
+    public void copyExchange(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.exchange.copy(true));
+    }
+
+}
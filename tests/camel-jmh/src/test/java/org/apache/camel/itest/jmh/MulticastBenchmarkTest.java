@@ -0,0 +1,69 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.processor.aggregate.UseLatestAggregationStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the {@link org.apache.camel.processor.MulticastProcessor} sending to a number of recipients
+ * in sequential and parallel mode.
+ */
+public class MulticastBenchmarkTest extends AbstractBenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState extends CamelContextState {
+
+        @Override
+        protected RouteBuilder createRouteBuilder() throws Exception {
+            return new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("direct:sequential")
+                        .multicast(new UseLatestAggregationStrategy())
+                            .to("direct:a", "direct:b", "direct:c", "direct:d")
+                        .end();
+
+                    from("direct:parallel")
+                        .multicast(new UseLatestAggregationStrategy()).parallelProcessing()
+                            .to("direct:a", "direct:b", "direct:c", "direct:d")
+                        .end();
+
+                    from("direct:a").setHeader("a", constant("A"));
+                    from("direct:b").setHeader("b", constant("B"));
+                    from("direct:c").setHeader("c", constant("C"));
+                    from("direct:d").setHeader("d", constant("D"));
+                }
+            };
+        }
+    }
+
+    @Benchmark
+    public void multicastSequential(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.getTemplate().requestBody("direct:sequential", "Hello World"));
+    }
+
+    @Benchmark
+    public void multicastParallel(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.getTemplate().requestBody("direct:parallel", "Hello World"));
+    }
+
+}
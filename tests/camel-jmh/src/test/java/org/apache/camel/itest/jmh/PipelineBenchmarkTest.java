@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.model.RouteDefinition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the {@link org.apache.camel.processor.Pipeline} with a short and a long route
+ * where every step mutates the message so a new exchange is created per step.
+ */
+public class PipelineBenchmarkTest extends AbstractBenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState extends CamelContextState {
+
+        @Override
+        protected RouteBuilder createRouteBuilder() throws Exception {
+            return new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    pipeline("direct:short", 3);
+                    pipeline("direct:long", 15);
+                }
+
+                private void pipeline(String uri, int steps) {
+                    RouteDefinition route = from(uri);
+                    for (int i = 0; i < steps; i++) {
+                        route.setHeader("step" + i, constant(i));
+                    }
+                    route.transform(simple("${body}"));
+                }
+            };
+        }
+    }
+
+    @Benchmark
+    public void shortPipeline(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.getTemplate().requestBodyAndHeader("direct:short", "Hello World", "foo", "bar"));
+    }
+
+    @Benchmark
+    public void longPipeline(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.getTemplate().requestBodyAndHeader("direct:long", "Hello World", "foo", "bar"));
+    }
+
+}
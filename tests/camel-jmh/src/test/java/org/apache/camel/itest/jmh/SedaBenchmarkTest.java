@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.seda.RingBufferBlockingQueueFactory;
+import org.apache.camel.component.seda.SedaComponent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the {@link org.apache.camel.component.seda.SedaProducer} and {@link org.apache.camel.component.seda.SedaConsumer}
+ * sending one way messages and doing request/reply over the queue, using the default linked queue or the ring buffer queue,
+ * and with or without taking more messages at once from the queue.
+ */
+public class SedaBenchmarkTest extends AbstractBenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState extends CamelContextState {
+
+        @Param({"linked", "ringBuffer"})
+        String queue;
+
+        @Param({"1", "100"})
+        int maxMessagesPerPoll;
+
+        @Override
+        protected RouteBuilder createRouteBuilder() throws Exception {
+            if ("ringBuffer".equals(queue)) {
+                context.getComponent("seda", SedaComponent.class).setDefaultQueueFactory(new RingBufferBlockingQueueFactory<Exchange>());
+            }
+
+            return new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("seda:inOnly?size=10000&blockWhenFull=true&concurrentConsumers=2&maxMessagesPerPoll=" + maxMessagesPerPoll)
+                        .setHeader("foo", constant("bar"));
+
+                    from("seda:inOut?concurrentConsumers=2&maxMessagesPerPoll=" + maxMessagesPerPoll)
+                        .transform(simple("${body}"));
+                }
+            };
+        }
+    }
+
+    @Benchmark
+    public void inOnly(BenchmarkState state) {
+        state.getTemplate().sendBody("seda:inOnly?size=10000&blockWhenFull=true", "Hello World");
+    }
+
+    @Benchmark
+    public void inOut(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.getTemplate().requestBody("seda:inOut", "Hello World"));
+    }
+
+}
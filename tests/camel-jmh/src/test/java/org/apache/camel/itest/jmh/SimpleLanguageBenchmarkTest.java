@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.spi.Language;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks evaluating pre-parsed expressions and predicates of the {@link org.apache.camel.language.simple.SimpleLanguage},
+ * as well as parsing an expression on every evaluation.
+ */
+public class SimpleLanguageBenchmarkTest extends AbstractBenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        CamelContext context;
+        Language simple;
+        Exchange exchange;
+        Expression header;
+        Expression template;
+        Predicate equals;
+        Predicate compound;
+
+        @Setup(Level.Trial)
+        public void startCamel() throws Exception {
+            context = new DefaultCamelContext();
+            context.disableJMX();
+            context.start();
+
+            simple = context.resolveLanguage("simple");
+            header = simple.createExpression("${header.foo}");
+            template = simple.createExpression("Hello ${body} from ${header.foo}");
+            equals = simple.createPredicate("${header.foo} == 'bar'");
+            compound = simple.createPredicate("${header.num} > 100 && ${body} contains 'Camel'");
+
+            exchange = new DefaultExchange(context);
+            exchange.getIn().setBody("Hello Camel");
+            exchange.getIn().setHeader("foo", "bar");
+            exchange.getIn().setHeader("num", 123);
+        }
+
+        @TearDown(Level.Trial)
+        public void stopCamel() throws Exception {
+            context.stop();
+        }
+    }
+
+    @Benchmark
+    public void headerExpression(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.header.evaluate(state.exchange, Object.class));
+    }
+
+    @Benchmark
+    public void templateExpression(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.template.evaluate(state.exchange, String.class));
+    }
+
+    @Benchmark
+    public void equalsPredicate(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.equals.matches(state.exchange));
+    }
+
+    @Benchmark
+    public void compoundPredicate(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.compound.matches(state.exchange));
+    }
+
+    @Benchmark
+    public void parseAndEvaluate(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.simple.createPredicate("${header.foo} == 'bar'").matches(state.exchange));
+    }
+
+}
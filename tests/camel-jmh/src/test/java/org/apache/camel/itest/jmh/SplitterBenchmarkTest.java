@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.processor.aggregate.UseLatestAggregationStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the {@link org.apache.camel.processor.Splitter} splitting a list and tokenizing a text body,
+ * in sequential and parallel mode.
+ */
+public class SplitterBenchmarkTest extends AbstractBenchmarkTest {
+
+    private static final int SIZE = 100;
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState extends CamelContextState {
+
+        List<String> list;
+        String text;
+
+        @Setup
+        public void createPayload() {
+            list = new ArrayList<String>(SIZE);
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < SIZE; i++) {
+                list.add("Line " + i);
+                sb.append("Line ").append(i).append("\n");
+            }
+            text = sb.toString();
+        }
+
+        @Override
+        protected RouteBuilder createRouteBuilder() throws Exception {
+            return new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("direct:list")
+                        .split(body())
+                            .transform(simple("${body}"))
+                        .end();
+
+                    from("direct:tokenize")
+                        .split(body().tokenize("\n"), new UseLatestAggregationStrategy()).streaming()
+                            .transform(simple("${body}"))
+                        .end();
+
+                    from("direct:parallel")
+                        .split(body()).parallelProcessing()
+                            .transform(simple("${body}"))
+                        .end();
+                }
+            };
+        }
+    }
+
+    @Benchmark
+    public void splitList(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.getTemplate().requestBody("direct:list", state.list));
+    }
+
+    @Benchmark
+    public void splitTokenize(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.getTemplate().requestBody("direct:tokenize", state.text));
+    }
+
+    @Benchmark
+    public void splitParallel(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.getTemplate().requestBody("direct:parallel", state.list));
+    }
+
+}
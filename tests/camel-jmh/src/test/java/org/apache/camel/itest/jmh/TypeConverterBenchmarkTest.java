@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.io.InputStream;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.TypeConverter;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the common conversions done by the {@link org.apache.camel.impl.converter.BaseTypeConverterRegistry}.
+ */
+public class TypeConverterBenchmarkTest extends AbstractBenchmarkTest {
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        CamelContext context;
+        TypeConverter converter;
+        byte[] bytes = "Hello World".getBytes();
+
+        @Setup(Level.Trial)
+        public void startCamel() throws Exception {
+            context = new DefaultCamelContext();
+            context.disableJMX();
+            context.start();
+            converter = context.getTypeConverter();
+        }
+
+        @TearDown(Level.Trial)
+        public void stopCamel() throws Exception {
+            context.stop();
+        }
+    }
+
+    @Benchmark
+    public void stringToInteger(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.converter.convertTo(Integer.class, "12345"));
+    }
+
+    @Benchmark
+    public void integerToString(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.converter.convertTo(String.class, 12345));
+    }
+
+    @Benchmark
+    public void stringToBytes(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.converter.convertTo(byte[].class, "Hello World"));
+    }
+
+    @Benchmark
+    public void bytesToString(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.converter.convertTo(String.class, state.bytes));
+    }
+
+    @Benchmark
+    public void stringToInputStream(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.converter.convertTo(InputStream.class, "Hello World"));
+    }
+
+    @Benchmark
+    public void sameType(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.converter.convertTo(String.class, "Hello World"));
+    }
+
+    @Benchmark
+    public void noConverter(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.converter.tryConvertTo(CamelContext.class, "Hello World"));
+    }
+
+}